@@ -19,10 +19,65 @@ repositories {
     }
 }
 
+// JMH benchmarks for the pure-Java hot paths — run offline, no server needed
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+// Headless patrol simulation — stand-in world, no server needed
+val sim: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+val jmhVersion = "1.37"
+
 dependencies {
     compileOnly("com.hypixel.hytale:Server:2026.02.06-aa1b071c2")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
 }
 
 tasks.jar {
     archiveBaseName.set("Hylypto")
 }
+
+val jmhResults = layout.buildDirectory.file("reports/jmh/results.json")
+
+// ./gradlew jmh                         — all benchmarks, GC allocation profile, JSON results
+// ./gradlew jmh -PjmhInclude=EventBus   — only benchmarks matching the regex
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks with -prof gc and writes build/reports/jmh/results.json"
+    dependsOn(jmh.classesTaskName)
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    javaLauncher.set(javaToolchains.launcherFor(java.toolchain))
+
+    val include = providers.gradleProperty("jmhInclude").orElse(".*")
+    val resultsFile = jmhResults.get().asFile
+    doFirst { resultsFile.parentFile.mkdirs() }
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(include.get(), "-prof", "gc", "-rf", "json", "-rff", resultsFile.absolutePath)
+    })
+}
+
+// Copies the last run to src/jmh/baseline/results.json, the baseline to commit
+tasks.register<Copy>("jmhBaseline") {
+    group = "benchmark"
+    description = "Promotes the last JMH results to src/jmh/baseline/results.json"
+    from(jmhResults)
+    into(layout.projectDirectory.dir("src/jmh/baseline"))
+}
+
+// ./gradlew runSim --args="--groups=2000 --players=100 --seconds=120"
+tasks.register<JavaExec>("runSim") {
+    group = "benchmark"
+    description = "Runs the headless patrol stress scenario and prints tick time and allocation per simulated second"
+    dependsOn(sim.classesTaskName)
+    classpath = sim.runtimeClasspath
+    mainClass.set("com.hylypto.sim.PatrolStressScenario")
+    javaLauncher.set(javaToolchains.launcherFor(java.toolchain))
+}
@@ -0,0 +1,53 @@
+package com.hylypto.api.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    @Param({"0", "1", "8", "64"})
+    public int subscribers;
+
+    private HylyptoEventBus bus;
+    private Blackhole blackhole;
+
+    static final class SampleEvent extends HylyptoEvent {
+        final int payload;
+
+        SampleEvent(int payload) {
+            this.payload = payload;
+        }
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        bus = new HylyptoEventBus();
+        for (int i = 0; i < subscribers; i++) {
+            bus.subscribe(SampleEvent.class, event -> this.blackhole.consume(event.payload));
+        }
+    }
+
+    @Benchmark
+    public void publish() {
+        bus.publish(new SampleEvent(1));
+    }
+}
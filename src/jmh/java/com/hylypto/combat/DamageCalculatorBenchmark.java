@@ -0,0 +1,59 @@
+package com.hylypto.combat;
+
+import com.hylypto.combat.model.ArmorStats;
+import com.hylypto.combat.model.DamageType;
+import com.hylypto.combat.model.WeaponStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DamageCalculatorBenchmark {
+
+    private WeaponStats rifle;
+    private ArmorStats plate;
+    private ArmorStats hashMapArmor;
+
+    @Setup
+    public void setup() {
+        rifle = new WeaponStats("rifle", DamageType.BALLISTIC, 24f, 8f, 30, 120f);
+
+        Map<DamageType, Float> enumResistances = new EnumMap<>(DamageType.class);
+        enumResistances.put(DamageType.BALLISTIC, 0.35f);
+        enumResistances.put(DamageType.MELEE, 0.2f);
+        plate = new ArmorStats("plate", 3, enumResistances);
+
+        hashMapArmor = new ArmorStats("vest", 2, Map.of(DamageType.BALLISTIC, 0.25f));
+    }
+
+    @Benchmark
+    public float unarmored() {
+        return DamageCalculator.calculate(rifle, null);
+    }
+
+    @Benchmark
+    public float armoredEnumMap() {
+        return DamageCalculator.calculate(rifle, plate);
+    }
+
+    @Benchmark
+    public float armoredImmutableMap() {
+        return DamageCalculator.calculate(rifle, hashMapArmor);
+    }
+}
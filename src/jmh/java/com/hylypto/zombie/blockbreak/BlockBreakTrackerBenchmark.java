@@ -0,0 +1,70 @@
+package com.hylypto.zombie.blockbreak;
+
+import com.hylypto.zombie.PatrolConfig;
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.noise.NoiseConfig;
+import com.hylypto.zombie.noise.NoiseGrid;
+import com.hylypto.zombie.terrain.TerrainConfig;
+import com.hylypto.zombie.terrain.TerrainSnapshots;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hit registration against a spread of distinct blocks. The break threshold is
+ * set out of reach so the world-thread destroy path is never taken.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockBreakTrackerBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int distinctBlocks;
+
+    private BlockBreakTracker tracker;
+    private PatrolSettings settings;
+    private int[] xs;
+    private int[] ys;
+    private int[] zs;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        PatrolConfig config = new PatrolConfig();
+        config.hitsToBreakDoor = Integer.MAX_VALUE;
+        settings = PatrolSettings.compile(config);
+        tracker = new BlockBreakTracker(() -> null, new NoiseGrid(new NoiseConfig()),
+                new TerrainSnapshots(new TerrainConfig()));
+
+        xs = new int[distinctBlocks];
+        ys = new int[distinctBlocks];
+        zs = new int[distinctBlocks];
+        int side = (int) Math.ceil(Math.cbrt(distinctBlocks));
+        for (int i = 0; i < distinctBlocks; i++) {
+            xs[i] = i % side;
+            ys[i] = 60 + (i / side) % side;
+            zs[i] = i / (side * side);
+        }
+    }
+
+    @Benchmark
+    public boolean hitBlock() {
+        int i = cursor;
+        cursor = (i + 1 == distinctBlocks) ? 0 : i + 1;
+        return tracker.hitBlock(xs[i], ys[i], zs[i], settings);
+    }
+}
@@ -0,0 +1,103 @@
+package com.hylypto.zombie.detection;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One patrol detection pass: every group member checked against every player,
+ * as PatrollingStateHandler does per tick. {@code canDetectSqGroup} is the precompiled
+ * form the handler uses; {@code canDetectGroup} is the degree/trig form for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerDetectorBenchmark {
+
+    @Param({"5", "20", "100"})
+    public int groupSize;
+
+    @Param({"1", "10", "50"})
+    public int playerCount;
+
+    private Vector3d[] zombies;
+    private double[] yaws;
+    private double[] facingX;
+    private double[] facingZ;
+    private Vector3d[] players;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rng = new SplittableRandom(42);
+        zombies = new Vector3d[groupSize];
+        yaws = new double[groupSize];
+        facingX = new double[groupSize];
+        facingZ = new double[groupSize];
+        for (int i = 0; i < groupSize; i++) {
+            zombies[i] = new Vector3d(rng.nextDouble(-8, 8), 64, rng.nextDouble(-8, 8));
+            yaws[i] = rng.nextDouble(-180, 180);
+            facingX[i] = Math.cos(Math.toRadians(yaws[i]));
+            facingZ[i] = Math.sin(Math.toRadians(yaws[i]));
+        }
+        players = new Vector3d[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            players[i] = new Vector3d(rng.nextDouble(-40, 40), 64, rng.nextDouble(-40, 40));
+        }
+    }
+
+    @Benchmark
+    public int canDetectGroup() {
+        int detections = 0;
+        for (Vector3d player : players) {
+            for (int i = 0; i < zombies.length; i++) {
+                if (PlayerDetector.canDetect(zombies[i], yaws[i], player, 25.0, 120.0, 5.0)) {
+                    detections++;
+                }
+            }
+        }
+        return detections;
+    }
+
+    @Benchmark
+    public int canDetectSqGroup() {
+        double fovHalfCos = Math.cos(Math.toRadians(60.0));
+        int detections = 0;
+        for (Vector3d player : players) {
+            for (int i = 0; i < zombies.length; i++) {
+                if (PlayerDetector.canDetectSq(zombies[i], facingX[i], facingZ[i], player,
+                        25.0 * 25.0, fovHalfCos, 5.0 * 5.0)) {
+                    detections++;
+                }
+            }
+        }
+        return detections;
+    }
+
+    @Benchmark
+    public int isWithinRangeGroup() {
+        int inRange = 0;
+        for (Vector3d player : players) {
+            for (Vector3d zombie : zombies) {
+                if (PlayerDetector.isWithinRange(zombie, player, 30.0)) {
+                    inRange++;
+                }
+            }
+        }
+        return inRange;
+    }
+}
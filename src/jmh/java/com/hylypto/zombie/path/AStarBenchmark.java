@@ -0,0 +1,81 @@
+package com.hylypto.zombie.path;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.zombie.world.BlockAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One patrol leg over flat ground with scattered two-high walls: the world-thread capture
+ * of the corridor, and the worker-side search over the captured snapshot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AStarBenchmark {
+
+    private static final int GROUND_Y = 64;
+
+    @Param({"32", "96", "160"})
+    public int legLength;
+
+    private final PathConfig config = new PathConfig();
+    private BlockAccess blocks;
+    private Vector3d start;
+    private Vector3d goal;
+    private ColumnSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rng = new SplittableRandom(42);
+        boolean[] walls = new boolean[512 * 512];
+        for (int i = 0; i < walls.length; i++) {
+            walls[i] = rng.nextInt(100) < 15;
+        }
+        blocks = new BlockAccess() {
+            @Override
+            public boolean isEmpty(int x, int y, int z) {
+                if (y < GROUND_Y) return false;
+                if (y > GROUND_Y + 1) return true;
+                return !walls[(x & 511) * 512 + (z & 511)];
+            }
+
+            @Override
+            public void breakBlock(int x, int y, int z) {}
+        };
+        start = new Vector3d(0.5, GROUND_Y, 0.5);
+        goal = new Vector3d(legLength * 0.8 + 0.5, GROUND_Y, legLength * 0.6 + 0.5);
+        snapshot = capture();
+    }
+
+    private ColumnSnapshot capture() {
+        ColumnSnapshot.Builder builder = new ColumnSnapshot.Builder(start, goal, config);
+        builder.capture(blocks, Integer.MAX_VALUE);
+        return builder.build();
+    }
+
+    @Benchmark
+    public ColumnSnapshot captureCorridor() {
+        return capture();
+    }
+
+    @Benchmark
+    public AStar.Result search() {
+        return AStar.search(snapshot, start, goal, config);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hylypto.zombie.spatial;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Which groups are near X" over group centroids spread across a 4096-block square.
+ * {@code scanWithin} is the flat pass over every group the index replaces; {@code move}
+ * is the per-tick incremental update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialGridBenchmark {
+
+    private static final double WORLD = 4096.0;
+    private static final double RADIUS = 64.0;
+
+    @Param({"100", "2000", "20000"})
+    public int groups;
+
+    private SpatialGrid<Integer> grid;
+    private double[] xs;
+    private double[] zs;
+    private double[] queryX;
+    private double[] queryZ;
+    private final List<Integer> out = new ArrayList<>();
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rng = new SplittableRandom(42);
+        grid = new SpatialGrid<>(SpatialGrid.CHUNK_SIZE);
+        xs = new double[groups];
+        zs = new double[groups];
+        for (int i = 0; i < groups; i++) {
+            xs[i] = rng.nextDouble(WORLD);
+            zs[i] = rng.nextDouble(WORLD);
+            grid.place(i, xs[i], 64, zs[i]);
+        }
+        queryX = new double[1024];
+        queryZ = new double[1024];
+        for (int i = 0; i < queryX.length; i++) {
+            queryX[i] = rng.nextDouble(WORLD);
+            queryZ[i] = rng.nextDouble(WORLD);
+        }
+    }
+
+    private int nextQuery() {
+        int i = cursor;
+        cursor = (i + 1) & (queryX.length - 1);
+        return i;
+    }
+
+    @Benchmark
+    public int within() {
+        int q = nextQuery();
+        out.clear();
+        return grid.within(queryX[q], queryZ[q], RADIUS, out);
+    }
+
+    @Benchmark
+    public int nearest8() {
+        int q = nextQuery();
+        out.clear();
+        return grid.nearest(queryX[q], queryZ[q], 8, Double.MAX_VALUE, out);
+    }
+
+    @Benchmark
+    public int scanWithin() {
+        int q = nextQuery();
+        out.clear();
+        double radiusSq = RADIUS * RADIUS;
+        for (int i = 0; i < groups; i++) {
+            double dx = xs[i] - queryX[q];
+            double dz = zs[i] - queryZ[q];
+            if (dx * dx + dz * dz <= radiusSq) out.add(i);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public void move() {
+        int i = nextQuery() % groups;
+        xs[i] = (xs[i] + 3.0) % WORLD;
+        grid.place(i, xs[i], 64, zs[i]);
+    }
+}
@@ -0,0 +1,63 @@
+package com.hylypto.zombie.system;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One ZombieAggroSystem check cycle: record a position and run the stuck test
+ * for every tracked horde zombie.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionHistoryBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int zombies;
+
+    private ZombieAggroSystem.PositionHistory[] histories;
+    private Vector3d[] positions;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rng = new SplittableRandom(7);
+        histories = new ZombieAggroSystem.PositionHistory[zombies];
+        positions = new Vector3d[zombies];
+        for (int i = 0; i < zombies; i++) {
+            histories[i] = new ZombieAggroSystem.PositionHistory();
+            positions[i] = new Vector3d(rng.nextDouble(-50, 50), 64, rng.nextDouble(-50, 50));
+            // Pre-fill so isStuck() walks a full window
+            for (int h = 0; h < 10; h++) {
+                histories[i].addPosition(positions[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public int trackAndCheck() {
+        int stuck = 0;
+        for (int i = 0; i < histories.length; i++) {
+            histories[i].addPosition(positions[i]);
+            if (histories[i].isStuck()) {
+                stuck++;
+            }
+        }
+        return stuck;
+    }
+}
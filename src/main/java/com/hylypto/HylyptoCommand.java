@@ -6,32 +6,43 @@ import com.hypixel.hytale.server.core.command.system.CommandContext;
 import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
 import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
 import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
-import com.hylypto.zombie.HordeManager;
-import com.hylypto.zombie.PatrolManager;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hylypto.api.diagnostics.TickWatchdog;
+import com.hylypto.api.log.FlightBuffer;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+import com.hylypto.zombie.debug.DebugOverlay;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * /hylypto command — main entry point for the mod.
+ * Spawning and debug drawing act on the sender's world (the default world from the console).
  * Subcommands:
  *   spawn [count]   — spawns a zombie horde at player position (default 10)
  *   horde [count]   — alias for spawn
  *   patrol [count]  — spawns a patrol group (default 5, screamer if count > 3)
- *   kill / killall  — kills all mod-spawned zombies (horde + patrol)
- *   status          — shows alive zombie + patrol count
+ *   kill / killall  — kills all mod-spawned zombies (horde + patrol) in every world
+ *   status          — shows alive zombie + patrol count per world
+ *   debug [radius]  — toggles a live patrol path overlay around the sender (radius from debug-config.json
+ *                     by default); from the console, draws every group once
+ *   watchdog        — dumps recent slow world task reports
+ *   trace [count]   — dumps the most recent flight buffer records (default 50)
  */
 public class HylyptoCommand extends AbstractCommand {
 
-    private final HordeManager hordeManager;
-    private final PatrolManager patrolManager;
+    private final ZombieShards shards;
     private final RequiredArg<String> action;
     private final OptionalArg<Integer> countArg;
 
-    public HylyptoCommand(HordeManager hordeManager, PatrolManager patrolManager) {
+    public HylyptoCommand(ZombieShards shards) {
         super("hylypto", "Hylypto mod commands");
-        this.hordeManager = hordeManager;
-        this.patrolManager = patrolManager;
+        this.shards = shards;
         this.action = withRequiredArg("action", "spawn, patrol, despawn, or status", ArgTypes.STRING);
         this.countArg = withOptionalArg("count", "number of zombies (default varies)", ArgTypes.INTEGER);
     }
@@ -45,31 +56,87 @@ public class HylyptoCommand extends AbstractCommand {
         String response = switch (subcommand.toLowerCase()) {
             case "spawn", "horde" -> {
                 int n = (count != null && count > 0) ? count : 10;
-                yield hordeManager.spawnHorde(n);
+                ZombieShard shard = senderShard(context);
+                yield shard != null ? shard.getHordeManager().spawnHorde(n) : "No world available.";
             }
             case "patrol" -> {
                 int n = (count != null && count > 0) ? count : 5;
                 boolean screamer = (count != null && count > 3);
-                yield patrolManager.spawnPatrol(n, screamer);
+                ZombieShard shard = senderShard(context);
+                yield shard != null ? shard.getPatrolManager().spawnPatrol(n, screamer) : "No world available.";
             }
             case "kill", "killall", "despawn" -> {
-                int hordeCount = hordeManager.getAliveZombieCount();
-                int patrolCount = patrolManager.getTotalPatrolZombies();
-                patrolManager.despawnAll();
-                hordeManager.despawnAll();
+                int hordeCount = shards.getAliveHordeZombies();
+                int patrolCount = shards.getTotalPatrolZombies();
+                shards.despawnAll();
                 yield "Killed " + (hordeCount + patrolCount) + " zombies ("
                     + hordeCount + " horde, " + patrolCount + " patrol).";
             }
             case "status" -> {
-                yield "Horde zombies: " + hordeManager.getAliveZombieCount()
-                    + " | Patrol groups: " + patrolManager.getActiveGroupCount()
-                    + " (" + patrolManager.getTotalPatrolZombies() + " zombies)";
+                StringBuilder sb = new StringBuilder()
+                    .append("Horde zombies: ").append(shards.getAliveHordeZombies())
+                    .append(" | Patrol groups: ").append(shards.getActivePatrolGroups())
+                    .append(" (").append(shards.getTotalPatrolZombies()).append(" zombies)");
+                for (ZombieShard shard : shards.all()) {
+                    sb.append("\n  ").append(shard.getWorldName())
+                        .append(": horde=").append(shard.getHordeManager().getAliveZombieCount())
+                        .append(" patrolGroups=").append(shard.getPatrolManager().getActiveGroupCount())
+                        .append(" patrolZombies=").append(shard.getPatrolManager().getTotalPatrolZombies())
+                        .append(String.format(" spawnScale=%.2f tickEwma=%.1fms",
+                                shard.getGovernor().scale(), shard.getGovernor().getEwmaNanos() / 1e6))
+                        .append(" noiseSources=").append(shard.getNoise().getActiveSourceCount())
+                        .append(" terrainSections=").append(shard.getTerrain().getCachedCount())
+                        .append(" navNodes=").append(shard.getNav().getGraph().nodeCount());
+                }
+                yield sb.toString();
             }
-            case "debug" -> patrolManager.debugDrawPaths();
-            default -> "Unknown action: " + subcommand + ". Use: spawn/horde, patrol, kill, status, or debug";
+            case "debug" -> {
+                ZombieShard shard = senderShard(context);
+                if (shard == null) yield "No world available.";
+                Player player = context.isPlayer() ? context.senderAs(Player.class) : null;
+                DebugOverlay overlay = shard.getDebug();
+                if (player == null || !overlay.isEnabled()) yield shard.getPatrolManager().debugDrawPaths();
+                UUID playerId = player.getUuid();
+                // A radius always turns it on; without one the command toggles
+                if (count == null && overlay.isWatching(playerId)) {
+                    overlay.unwatch(playerId);
+                    yield "Patrol overlay off.";
+                }
+                int radius = (count != null && count > 0) ? count : 0;
+                overlay.watch(playerId, radius);
+                yield "Patrol overlay on" + (radius > 0 ? " within " + radius + " blocks" : "")
+                        + " — run debug again to turn it off.";
+            }
+            case "watchdog" -> {
+                TickWatchdog watchdog = TickWatchdog.get();
+                yield watchdog != null ? watchdog.dumpReports() : "Watchdog is disabled.";
+            }
+            case "trace" -> {
+                FlightBuffer buffer = HylyptoLog.getFlightBuffer();
+                if (buffer == null) {
+                    yield "Flight buffer is disabled.";
+                }
+                int n = (count != null && count > 0) ? count : 50;
+                List<String> records = buffer.dump(n);
+                yield "Flight buffer: " + records.size() + " of " + buffer.getRecordCount() + " records\n"
+                    + String.join("\n", records);
+            }
+            default -> "Unknown action: " + subcommand + ". Use: spawn/horde, patrol, kill, status, debug, watchdog, or trace";
         };
 
         context.sendMessage(Message.raw(response));
         return CompletableFuture.completedFuture(null);
     }
+
+    /** Shard for the world the sending player is in; the default world for the console. */
+    private ZombieShard senderShard(CommandContext context) {
+        if (context.isPlayer()) {
+            Player player = context.senderAs(Player.class);
+            World world = player != null ? player.getWorld() : null;
+            if (world != null) {
+                return shards.forWorld(world);
+            }
+        }
+        return shards.forDefaultWorld();
+    }
 }
@@ -1,23 +1,59 @@
 package com.hylypto;
 
+import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.events.RemoveWorldEvent;
 import com.hylypto.api.config.ConfigLoader;
+import com.hylypto.api.diagnostics.TickWatchdog;
+import com.hylypto.api.diagnostics.WatchdogConfig;
 import com.hylypto.api.event.HylyptoEventBus;
+import com.hylypto.api.event.NoiseEvent;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogConfig;
+import com.hylypto.api.metrics.MetricsConfig;
+import com.hylypto.api.metrics.PrometheusExporter;
 import com.hylypto.combat.CombatManager;
 import com.hylypto.rts.RtsManager;
 import com.hylypto.survival.SurvivalManager;
 import com.hylypto.zombie.PatrolConfig;
-import com.hylypto.zombie.PatrolManager;
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+import com.hylypto.zombie.despawn.DespawnConfig;
+import com.hylypto.zombie.debug.DebugConfig;
+import com.hylypto.zombie.motion.MotionConfig;
+import com.hylypto.zombie.nav.NavConfig;
+import com.hylypto.zombie.noise.NoiseConfig;
+import com.hylypto.zombie.path.PathConfig;
+import com.hylypto.zombie.pool.PoolConfig;
+import com.hylypto.zombie.snapshot.SnapshotConfig;
+import com.hylypto.zombie.snapshot.ZombieSnapshots;
+import com.hylypto.zombie.spawn.SpawnConfig;
+import com.hylypto.zombie.terrain.TerrainConfig;
+import com.hylypto.zombie.governor.GovernorConfig;
+import com.hylypto.zombie.governor.SpawnGovernor;
+import com.hylypto.zombie.population.PlayerPresence;
+import com.hylypto.zombie.population.PopulationConfig;
 import com.hylypto.zombie.system.PatrolTickSystem;
+import com.hylypto.zombie.system.BlockEditSystems;
+import com.hylypto.zombie.system.DespawnSystem;
 import com.hylypto.zombie.system.PatrolDeathSystem;
-import com.hylypto.zombie.HordeManager;
+import com.hylypto.zombie.system.SnapshotReconcileSystem;
+import com.hylypto.zombie.system.WorldTickSampler;
+import com.hylypto.zombie.replay.DecisionLog;
+import com.hylypto.zombie.replay.ReplayConfig;
+import com.hylypto.zombie.world.HytaleZombieWorld;
 import com.hylypto.HylyptoCommand;
 import com.hylypto.zombie.system.ZombieAggroSystem;
 import com.hylypto.zombie.system.ZombieDeathSystem;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Main entry point for the Hylypto mod framework.
@@ -31,7 +67,7 @@ public class HylyptoPlugin extends JavaPlugin {
     private ConfigLoader configLoader;
 
     // Pillar managers
-    private HordeManager hordeManager;
+    private ZombieShards zombieShards;
     private RtsManager rtsManager;
     private SurvivalManager survivalManager;
     private CombatManager combatManager;
@@ -39,6 +75,11 @@ public class HylyptoPlugin extends JavaPlugin {
     // ECS systems (kept for shutdown cleanup)
     private ZombieAggroSystem aggroSystem;
 
+    // Optional diagnostics
+    private PrometheusExporter metricsExporter;
+    private TickWatchdog watchdog;
+    private DecisionLog decisionLog;
+
     public HylyptoPlugin(@Nonnull JavaPluginInit init) {
         super(init);
         instance = this;
@@ -52,37 +93,124 @@ public class HylyptoPlugin extends JavaPlugin {
         this.eventBus = new HylyptoEventBus();
         this.configLoader = new ConfigLoader(getDataDirectory());
 
+        // Logging — category levels + flight buffer, applied before managers start logging
+        HylyptoLog.configure(configLoader.loadOrDefault(
+                "logging-config.json", LogConfig.class, new LogConfig()));
+
+        // Watchdog — installed before any world task is submitted
+        WatchdogConfig watchdogConfig = configLoader.loadOrDefault(
+                "watchdog-config.json", WatchdogConfig.class, new WatchdogConfig());
+        if (watchdogConfig.enabled) {
+            this.watchdog = new TickWatchdog(watchdogConfig);
+            TickWatchdog.install(watchdog);
+        }
+
+        // Seeded world RNG + decision recording/replay — before anything can spawn
+        ReplayConfig replayConfig = configLoader.loadOrDefault(
+                "replay-config.json", ReplayConfig.class, new ReplayConfig());
+        this.decisionLog = DecisionLog.open(replayConfig, getDataDirectory());
+        HytaleZombieWorld.setSeed(decisionLog.getSeed());
+
         // Pillar managers
-        this.hordeManager = new HordeManager();
         this.rtsManager = new RtsManager();
         this.combatManager = new CombatManager();
 
-        // Survival — patrol system
+        // Zombies — horde + patrol state sharded per world, created on first spawn into a world
+        // (patrol-config.json is hot-reloaded once started)
         PatrolConfig patrolConfig = configLoader.loadOrDefault(
                 "patrol-config.json", PatrolConfig.class, new PatrolConfig());
-        PatrolManager patrolManager = new PatrolManager(patrolConfig);
-        this.survivalManager = new SurvivalManager(patrolManager);
+        List<String> patrolErrors = PatrolSettings.validate(patrolConfig);
+        if (!patrolErrors.isEmpty()) {
+            getLogger().atSevere().log("Invalid patrol-config.json, using defaults: " + String.join("; ", patrolErrors));
+            patrolConfig = new PatrolConfig();
+        }
+        PopulationConfig populationConfig = configLoader.loadOrDefault(
+                "population-config.json", PopulationConfig.class, new PopulationConfig());
+        GovernorConfig governorConfig = configLoader.loadOrDefault(
+                "governor-config.json", GovernorConfig.class, new GovernorConfig());
+        List<String> governorErrors = SpawnGovernor.validate(governorConfig);
+        if (!governorErrors.isEmpty()) {
+            getLogger().atSevere().log("Invalid governor-config.json, using defaults: " + String.join("; ", governorErrors));
+            governorConfig = new GovernorConfig();
+        }
+        DespawnConfig despawnConfig = configLoader.loadOrDefault(
+                "despawn-config.json", DespawnConfig.class, new DespawnConfig());
+        NoiseConfig noiseConfig = configLoader.loadOrDefault(
+                "noise-config.json", NoiseConfig.class, new NoiseConfig());
+        TerrainConfig terrainConfig = configLoader.loadOrDefault(
+                "terrain-config.json", TerrainConfig.class, new TerrainConfig());
+        NavConfig navConfig = configLoader.loadOrDefault(
+                "nav-config.json", NavConfig.class, new NavConfig());
+        DebugConfig debugConfig = configLoader.loadOrDefault(
+                "debug-config.json", DebugConfig.class, new DebugConfig());
+        PathConfig pathConfig = configLoader.loadOrDefault(
+                "path-config.json", PathConfig.class, new PathConfig());
+        PoolConfig poolConfig = configLoader.loadOrDefault(
+                "pool-config.json", PoolConfig.class, new PoolConfig());
+        SpawnConfig spawnConfig = configLoader.loadOrDefault(
+                "spawn-config.json", SpawnConfig.class, new SpawnConfig());
+        MotionConfig motionConfig = configLoader.loadOrDefault(
+                "motion-config.json", MotionConfig.class, new MotionConfig());
+        // Snapshots left by the last run are read now, and restored as each world's shard is created
+        SnapshotConfig snapshotConfig = configLoader.loadOrDefault(
+                "snapshot-config.json", SnapshotConfig.class, new SnapshotConfig());
+        ZombieSnapshots snapshots = new ZombieSnapshots(snapshotConfig, getDataDirectory());
+        snapshots.loadAll();
+        this.zombieShards = new ZombieShards(patrolConfig, populationConfig, new PlayerPresence(),
+                governorConfig, despawnConfig, noiseConfig, terrainConfig, navConfig, pathConfig,
+                debugConfig, poolConfig, spawnConfig, motionConfig, snapshots, decisionLog);
+        configLoader.watch("patrol-config.json", PatrolConfig.class, zombieShards::applyPatrolConfig);
+        getEventRegistry().registerGlobal(RemoveWorldEvent.class, event -> zombieShards.remove(event.getWorld()));
+        this.survivalManager = new SurvivalManager(zombieShards);
+
+        // Noise from other pillars (gunfire, explosions) — only worlds with zombies have anyone to hear it
+        eventBus.subscribe(NoiseEvent.class, event -> {
+            ZombieShard shard = zombieShards.find(event.getWorldName());
+            if (shard != null) {
+                shard.emitNoise(event.getX(), event.getY(), event.getZ(),
+                        event.getLoudness(), event.getDecayPerSecond());
+            }
+        });
 
         // Commands
-        getCommandRegistry().registerCommand(new HylyptoCommand(hordeManager, patrolManager));
+        getCommandRegistry().registerCommand(new HylyptoCommand(zombieShards));
 
         // ECS systems — horde aggro + death tracking
-        this.aggroSystem = new ZombieAggroSystem(hordeManager);
-        ZombieDeathSystem deathSystem = new ZombieDeathSystem(hordeManager);
+        this.aggroSystem = new ZombieAggroSystem(zombieShards);
+        ZombieDeathSystem deathSystem = new ZombieDeathSystem(zombieShards);
         deathSystem.setAggroSystem(aggroSystem);
         getEntityStoreRegistry().registerSystem(deathSystem);
         getEntityStoreRegistry().registerSystem(aggroSystem);
 
         // ECS systems — patrol tick + death tracking
-        getEntityStoreRegistry().registerSystem(new PatrolTickSystem(patrolManager, patrolConfig));
-        getEntityStoreRegistry().registerSystem(new PatrolDeathSystem(patrolManager));
+        getEntityStoreRegistry().registerSystem(new PatrolTickSystem(zombieShards));
+        getEntityStoreRegistry().registerSystem(new PatrolDeathSystem(zombieShards));
+
+        // ECS systems — tick sampling for the spawn governor, budgeted despawn through the command buffer
+        getEntityStoreRegistry().registerSystem(new WorldTickSampler(zombieShards));
+        getEntityStoreRegistry().registerSystem(new DespawnSystem(zombieShards));
+
+        // ECS systems — player block edits drop the copied terrain and cached paths around them
+        getEntityStoreRegistry().registerSystem(new BlockEditSystems.Break(zombieShards));
+        getEntityStoreRegistry().registerSystem(new BlockEditSystems.Place(zombieShards));
+
+        // ECS systems — surviving zombies adopted back into their restored groups after a restart
+        getEntityStoreRegistry().registerSystem(new SnapshotReconcileSystem(zombieShards));
+
+        // Metrics — optional loopback Prometheus endpoint, started in start()
+        MetricsConfig metricsConfig = configLoader.loadOrDefault(
+                "metrics-config.json", MetricsConfig.class, new MetricsConfig());
+        if (metricsConfig.enabled) {
+            this.metricsExporter = new PrometheusExporter(metricsConfig, zombieShards, eventBus);
+        }
 
-        // Player disconnect — despawn all zombies when a player leaves
+        // Player presence — tracked incrementally; a leaving player takes only their own zombies
+        getEventRegistry().register(PlayerConnectEvent.class, event ->
+                zombieShards.getPresence().join(event.getPlayerRef().getUuid()));
         getEventRegistry().register(PlayerDisconnectEvent.class, event -> {
-            getLogger().atInfo().log("Player disconnected — despawning all zombies");
-            aggroSystem.clearAll();
-            hordeManager.despawnAll();
-            patrolManager.despawnAll();
+            UUID playerId = event.getPlayerRef().getUuid();
+            zombieShards.getPresence().leave(playerId);
+            zombieShards.onPlayerLeft(playerId);
         });
 
         getLogger().atInfo().log("Hylypto setup complete.");
@@ -90,6 +218,18 @@ public class HylyptoPlugin extends JavaPlugin {
 
     @Override
     protected void start() {
+        if (metricsExporter != null) {
+            metricsExporter.start();
+        }
+        if (watchdog != null) {
+            watchdog.start();
+        }
+        configLoader.startWatching();
+        zombieShards.start();
+        // Players already online (plugin reload) never fire a connect event
+        for (PlayerRef player : Universe.get().getPlayers()) {
+            zombieShards.getPresence().join(player.getUuid());
+        }
         getLogger().atInfo().log("Hylypto started.");
     }
 
@@ -97,9 +237,16 @@ public class HylyptoPlugin extends JavaPlugin {
     protected void shutdown() {
         getLogger().atInfo().log("Shutting down Hylypto...");
 
+        if (metricsExporter != null) {
+            metricsExporter.stop();
+        }
+        if (watchdog != null) {
+            watchdog.stop();
+        }
+        configLoader.stopWatching();
         aggroSystem.clearAll();
-        hordeManager.shutdown();
         survivalManager.shutdown();
+        decisionLog.close();
 
         getLogger().atInfo().log("Hylypto shutdown complete.");
     }
@@ -118,8 +265,8 @@ public class HylyptoPlugin extends JavaPlugin {
         return configLoader;
     }
 
-    public HordeManager getHordeManager() {
-        return hordeManager;
+    public ZombieShards getZombieShards() {
+        return zombieShards;
     }
 
     public RtsManager getRtsManager() {
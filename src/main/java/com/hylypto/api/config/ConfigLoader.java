@@ -6,13 +6,30 @@ import com.google.gson.GsonBuilder;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class ConfigLoader {
 
+    private static final System.Logger LOG = System.getLogger(ConfigLoader.class.getName());
+    private static final long DEBOUNCE_MILLIS = 250;
+
     private final Gson gson;
     private final Path configDir;
+    private final Map<String, Runnable> reloaders = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread watcher;
 
     public ConfigLoader(Path dataDirectory) {
         this.gson = new GsonBuilder().setPrettyPrinting().create();
@@ -52,6 +69,93 @@ public class ConfigLoader {
         }
     }
 
+    // --- Hot reload ---
+
+    /**
+     * Reloads {@code filename} whenever it changes on disk and hands the parsed value to
+     * {@code onChange} on the watcher thread. The consumer validates and publishes; throwing
+     * {@link IllegalArgumentException} (or failing to parse) rejects the change and keeps
+     * whatever was live. Takes effect once {@link #startWatching()} has been called.
+     */
+    public <T> void watch(String filename, Class<T> type, Consumer<T> onChange) {
+        reloaders.put(filename, () -> {
+            T value = load(filename, type);
+            if (value != null) {
+                onChange.accept(value);
+            }
+        });
+    }
+
+    public synchronized void startWatching() {
+        if (watcher != null || reloaders.isEmpty()) return;
+        try {
+            Files.createDirectories(configDir);
+            watchService = configDir.getFileSystem().newWatchService();
+            configDir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.ERROR, "Config hot reload disabled — cannot watch " + configDir, e);
+            return;
+        }
+        watcher = new Thread(this::watchLoop, "Hylypto-ConfigWatch");
+        watcher.setDaemon(true);
+        watcher.start();
+        LOG.log(System.Logger.Level.INFO, "Watching " + reloaders.size() + " config file(s) in " + configDir);
+    }
+
+    public synchronized void stopWatching() {
+        if (watcher == null) return;
+        watcher.interrupt();
+        watcher = null;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Closing only releases the OS handle
+        }
+    }
+
+    private void watchLoop() {
+        Set<String> pending = new LinkedHashSet<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                // Editors save in several writes — keep collecting until the directory goes quiet
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            pending.addAll(reloaders.keySet());
+                        } else if (event.context() instanceof Path changed) {
+                            String name = changed.getFileName().toString();
+                            if (reloaders.containsKey(name)) pending.add(name);
+                        }
+                    }
+                    if (!key.reset()) {
+                        LOG.log(System.Logger.Level.WARNING, "Config directory is no longer watchable — hot reload stopped");
+                        return;
+                    }
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+
+                for (String name : pending) {
+                    reload(name);
+                }
+                pending.clear();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopWatching()
+        }
+    }
+
+    private void reload(String filename) {
+        try {
+            reloaders.get(filename).run();
+            LOG.log(System.Logger.Level.INFO, "Reloaded " + filename);
+        } catch (RuntimeException e) {
+            LOG.log(System.Logger.Level.WARNING, "Rejected change to " + filename + " — keeping previous values: "
+                    + e.getMessage());
+        }
+    }
+
     public Path getConfigDir() {
         return configDir;
     }
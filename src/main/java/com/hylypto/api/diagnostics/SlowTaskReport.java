@@ -0,0 +1,59 @@
+package com.hylypto.api.diagnostics;
+
+import java.util.List;
+
+/**
+ * Compact record of a world task or system tick that overran the watchdog deadline.
+ * Each frame string carries how many of the samples it appeared in.
+ */
+public final class SlowTaskReport {
+
+    private final long timestampMillis;
+    private final String label;
+    private final String threadName;
+    private final long detectedAfterNanos;
+    private final List<String> frames;
+    private volatile long totalNanos = -1;
+
+    SlowTaskReport(long timestampMillis, String label, String threadName,
+                   long detectedAfterNanos, List<String> frames) {
+        this.timestampMillis = timestampMillis;
+        this.label = label;
+        this.threadName = threadName;
+        this.detectedAfterNanos = detectedAfterNanos;
+        this.frames = frames;
+    }
+
+    void complete(long totalNanos) {
+        this.totalNanos = totalNanos;
+    }
+
+    public long getTimestampMillis() { return timestampMillis; }
+    public String getLabel() { return label; }
+    public String getThreadName() { return threadName; }
+    public List<String> getFrames() { return frames; }
+
+    /**
+     * Full task duration, or the time at detection if the task was still running
+     * when the report was last read.
+     */
+    public long getDurationMillis() {
+        long total = totalNanos;
+        return (total >= 0 ? total : detectedAfterNanos) / 1_000_000L;
+    }
+
+    public boolean isCompleted() {
+        return totalNanos >= 0;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        sb.append(label).append(" on ").append(threadName).append(" — ")
+                .append(getDurationMillis()).append("ms").append(isCompleted() ? "" : "+");
+        for (String frame : frames) {
+            sb.append("\n    at ").append(frame);
+        }
+        return sb.toString();
+    }
+}
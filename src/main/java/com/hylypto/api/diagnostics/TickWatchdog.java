@@ -0,0 +1,231 @@
+package com.hylypto.api.diagnostics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Deadline watchdog for Hylypto work on world threads.
+ * World tasks and system ticks mark themselves with {@link #enter(String)} / {@link #exit()};
+ * a daemon thread polls the marked threads and, when one overruns the deadline,
+ * samples its stack a few times and stores a {@link SlowTaskReport} in a ring buffer.
+ *
+ * Entering and exiting only write a few fields of a per-thread slot, so the cost on
+ * the world thread is the same whether or not anything is slow.
+ *
+ * A report is handed to the watched thread through its slot, tagged with the section it
+ * was taken for. Whichever side takes it out of the slot — {@link #exit()} or the monitor,
+ * once it sees the section has ended — completes it, so each report gets exactly one
+ * total, and never another section's.
+ */
+public final class TickWatchdog {
+
+    private static final System.Logger LOG = System.getLogger(TickWatchdog.class.getName());
+
+    private static volatile TickWatchdog instance;
+
+    private final WatchdogConfig config;
+    private final long deadlineNanos;
+    private final List<Slot> slots = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Slot> localSlot = ThreadLocal.withInitial(this::register);
+    private final SlowTaskReport[] reports;
+    private int nextReport = 0;
+    private Thread monitor;
+
+    public TickWatchdog(WatchdogConfig config) {
+        this.config = config;
+        this.deadlineNanos = config.deadlineMillis * 1_000_000L;
+        this.reports = new SlowTaskReport[Math.max(1, config.reportCapacity)];
+    }
+
+    // --- Static entry points used by managers and systems ---
+
+    public static void install(TickWatchdog watchdog) {
+        instance = watchdog;
+    }
+
+    public static TickWatchdog get() {
+        return instance;
+    }
+
+    /**
+     * Marks the start of a watched section on the current thread.
+     * Nested sections are folded into the outermost one.
+     */
+    public static void enter(String label) {
+        TickWatchdog watchdog = instance;
+        if (watchdog == null) return;
+        Slot slot = watchdog.localSlot.get();
+        if (slot.depth++ == 0) {
+            slot.label = label;
+            slot.startNanos = System.nanoTime();
+            slot.sequence++;
+        }
+    }
+
+    public static void exit() {
+        TickWatchdog watchdog = instance;
+        if (watchdog == null) return;
+        Slot slot = watchdog.localSlot.get();
+        if (slot.depth == 0 || --slot.depth > 0) return;
+
+        Pending pending = slot.report.getAndSet(null);
+        if (pending != null) {
+            // A report left over from an earlier section keeps the time the monitor measured
+            pending.report.complete(pending.sequence == slot.sequence
+                    ? System.nanoTime() - slot.startNanos : pending.elapsedNanos);
+        }
+        slot.sequence++;
+    }
+
+    // --- Lifecycle ---
+
+    public void start() {
+        monitor = new Thread(this::monitorLoop, "Hylypto-Watchdog");
+        monitor.setDaemon(true);
+        monitor.start();
+        LOG.log(System.Logger.Level.INFO, "Tick watchdog started — deadline " + config.deadlineMillis + "ms");
+    }
+
+    public void stop() {
+        if (monitor != null) {
+            monitor.interrupt();
+            monitor = null;
+        }
+        if (instance == this) {
+            instance = null;
+        }
+    }
+
+    // --- Reports ---
+
+    public synchronized List<SlowTaskReport> getReports() {
+        List<SlowTaskReport> result = new ArrayList<>(reports.length);
+        for (int i = 0; i < reports.length; i++) {
+            SlowTaskReport report = reports[(nextReport + i) % reports.length];
+            if (report != null) {
+                result.add(report);
+            }
+        }
+        return result;
+    }
+
+    public String dumpReports() {
+        List<SlowTaskReport> recent = getReports();
+        if (recent.isEmpty()) {
+            return "Watchdog: no slow tasks over " + config.deadlineMillis + "ms recorded.";
+        }
+        var sb = new StringBuilder();
+        sb.append("Watchdog: ").append(recent.size()).append(" slow task(s) over ")
+                .append(config.deadlineMillis).append("ms (oldest first)");
+        for (SlowTaskReport report : recent) {
+            sb.append('\n').append(report);
+        }
+        return sb.toString();
+    }
+
+    private synchronized void store(SlowTaskReport report) {
+        reports[nextReport] = report;
+        nextReport = (nextReport + 1) % reports.length;
+    }
+
+    // --- Monitor thread ---
+
+    private Slot register() {
+        Slot slot = new Slot(Thread.currentThread());
+        slots.add(slot);
+        return slot;
+    }
+
+    private void monitorLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(config.pollIntervalMillis);
+                long now = System.nanoTime();
+                for (Slot slot : slots) {
+                    if (!slot.thread.isAlive()) {
+                        slots.remove(slot);
+                        continue;
+                    }
+                    checkSlot(slot, now);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOG.log(System.Logger.Level.ERROR, "Watchdog monitor failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void checkSlot(Slot slot, long now) throws InterruptedException {
+        long sequence = slot.sequence;
+        // Odd sequence = a watched section is running
+        if ((sequence & 1) == 0 || sequence == slot.reportedSequence) return;
+
+        long elapsed = now - slot.startNanos;
+        if (elapsed < deadlineNanos) return;
+
+        String label = slot.label;
+        slot.reportedSequence = sequence;
+
+        // Count how often each frame shows up across samples, keeping first-seen order
+        Map<String, Integer> frameHits = new LinkedHashMap<>();
+        int samples = 0;
+        for (int i = 0; i < config.sampleCount; i++) {
+            if (i > 0) {
+                Thread.sleep(config.sampleIntervalMillis);
+            }
+            if (slot.sequence != sequence) break;
+            StackTraceElement[] stack = slot.thread.getStackTrace();
+            int limit = Math.min(stack.length, config.maxFramesPerReport);
+            for (int f = 0; f < limit; f++) {
+                frameHits.merge(stack[f].toString(), 1, Integer::sum);
+            }
+            samples++;
+        }
+        if (samples == 0) return;
+
+        List<String> frames = new ArrayList<>(frameHits.size());
+        for (Map.Entry<String, Integer> entry : frameHits.entrySet()) {
+            frames.add(entry.getKey() + " (" + entry.getValue() + "/" + samples + ")");
+            if (frames.size() >= config.maxFramesPerReport) break;
+        }
+
+        SlowTaskReport report = new SlowTaskReport(System.currentTimeMillis(), label,
+                slot.thread.getName(), elapsed, List.copyOf(frames));
+        Pending pending = new Pending(report, sequence, elapsed);
+        slot.report.set(pending);
+        // The section may have finished while we were sampling — exit() then saw no report
+        if (slot.sequence != sequence && slot.report.compareAndSet(pending, null)) {
+            report.complete(elapsed);
+        }
+        store(report);
+
+        LOG.log(System.Logger.Level.WARNING, "Slow world task: " + label + " on " + slot.thread.getName()
+                + " exceeded " + config.deadlineMillis + "ms");
+    }
+
+    /** A report waiting for its section to end, and the section it belongs to. */
+    private record Pending(SlowTaskReport report, long sequence, long elapsedNanos) {}
+
+    /**
+     * Per-thread watch state. Written only by the owning thread and read by the
+     * monitor thread, except {@code report}, which both sides swap atomically.
+     */
+    private static final class Slot {
+        final Thread thread;
+        int depth;
+        volatile String label;
+        volatile long startNanos;
+        volatile long sequence;
+        final AtomicReference<Pending> report = new AtomicReference<>();
+        long reportedSequence = -1;
+
+        Slot(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.hylypto.api.diagnostics;
+
+public class WatchdogConfig {
+    public boolean enabled = true;
+
+    // A world task or system tick running longer than this is sampled
+    public long deadlineMillis = 50;
+    public long pollIntervalMillis = 10;
+
+    // Stack sampling of the stalled world thread
+    public int sampleCount = 3;
+    public long sampleIntervalMillis = 5;
+    public int maxFramesPerReport = 8;
+
+    // Ring buffer of recent slow-task reports, dumped by /hylypto watchdog
+    public int reportCapacity = 32;
+}
@@ -0,0 +1,23 @@
+package com.hylypto.api.diagnostics;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+/**
+ * Submits Hylypto work to a world thread under a watchdog label,
+ * so a stalled task shows up by name in {@code /hylypto watchdog}.
+ */
+public final class WorldTasks {
+
+    private WorldTasks() {}
+
+    public static void execute(World world, String label, Runnable task) {
+        world.execute(() -> {
+            TickWatchdog.enter(label);
+            try {
+                task.run();
+            } finally {
+                TickWatchdog.exit();
+            }
+        });
+    }
+}
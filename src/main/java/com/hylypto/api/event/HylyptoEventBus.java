@@ -4,11 +4,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 public class HylyptoEventBus {
 
     private final Map<Class<?>, List<Consumer<?>>> listeners = new ConcurrentHashMap<>();
+    private final LongAdder publishedCount = new LongAdder();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
 
     public <T extends HylyptoEvent> void subscribe(Class<T> eventType, Consumer<T> handler) {
         listeners.computeIfAbsent(eventType, k -> new ArrayList<>()).add(handler);
@@ -16,16 +20,34 @@ public class HylyptoEventBus {
 
     @SuppressWarnings("unchecked")
     public <T extends HylyptoEvent> void publish(T event) {
+        publishedCount.increment();
         List<Consumer<?>> handlers = listeners.get(event.getClass());
         if (handlers == null) {
             return;
         }
-        for (Consumer<?> handler : handlers) {
-            ((Consumer<T>) handler).accept(event);
+        inFlightCount.incrementAndGet();
+        try {
+            for (Consumer<?> handler : handlers) {
+                ((Consumer<T>) handler).accept(event);
+            }
+        } finally {
+            inFlightCount.decrementAndGet();
         }
     }
 
     public <T extends HylyptoEvent> void unsubscribeAll(Class<T> eventType) {
         listeners.remove(eventType);
     }
+
+    /**
+     * Dispatch is synchronous, so this is the number of publish calls still
+     * running their handlers (including nested publishes) rather than a queue.
+     */
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
 }
@@ -0,0 +1,49 @@
+package com.hylypto.api.event;
+
+/**
+ * A loud sound in a world — gunfire, explosions, alarms. Published by any pillar from any
+ * thread; zombies within earshot go to investigate. {@code decayPerSecond} is how fast the
+ * sound fades, in the same loudness units.
+ */
+public class NoiseEvent extends HylyptoEvent {
+
+    private final String worldName;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final double loudness;
+    private final double decayPerSecond;
+
+    public NoiseEvent(String worldName, double x, double y, double z, double loudness, double decayPerSecond) {
+        this.worldName = worldName;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.loudness = loudness;
+        this.decayPerSecond = decayPerSecond;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public double getLoudness() {
+        return loudness;
+    }
+
+    public double getDecayPerSecond() {
+        return decayPerSecond;
+    }
+}
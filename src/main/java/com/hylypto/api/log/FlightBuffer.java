@@ -0,0 +1,58 @@
+package com.hylypto.api.log;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size ring of recent trace records stored as raw longs — no strings or objects
+ * are created on the recording path. Each record is five longs:
+ * wall-clock millis, code id, and three arguments.
+ *
+ * Writers claim slots with a single atomic increment. A dump that races a writer can
+ * see a half-written record; that is accepted for a diagnostics buffer.
+ */
+public final class FlightBuffer {
+
+    private static final int RECORD_LONGS = 5;
+
+    private final long[] data;
+    private final int capacity;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public FlightBuffer(int capacity) {
+        this.capacity = Math.max(16, capacity);
+        this.data = new long[this.capacity * RECORD_LONGS];
+    }
+
+    public void record(TraceCode code, long a, long b, long c) {
+        int slot = (int) (cursor.getAndIncrement() % capacity) * RECORD_LONGS;
+        data[slot] = System.currentTimeMillis();
+        data[slot + 1] = code.id();
+        data[slot + 2] = a;
+        data[slot + 3] = b;
+        data[slot + 4] = c;
+    }
+
+    /**
+     * Formats the most recent records, oldest first.
+     */
+    public List<String> dump(int maxRecords) {
+        long end = cursor.get();
+        long start = Math.max(0, end - Math.min(capacity, maxRecords));
+        List<String> lines = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            int slot = (int) (i % capacity) * RECORD_LONGS;
+            TraceCode code = TraceCode.byId((int) data[slot + 1]);
+            if (code == null) continue;
+            lines.add(Instant.ofEpochMilli(data[slot]) + " "
+                    + code.format(data[slot + 2], data[slot + 3], data[slot + 4]));
+        }
+        return lines;
+    }
+
+    public long getRecordCount() {
+        return cursor.get();
+    }
+}
@@ -0,0 +1,181 @@
+package com.hylypto.api.log;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Logging facade for Hylypto hot paths. Wraps {@link System.Logger} with
+ * per-category levels, supplier-based messages that are only built when the level
+ * is enabled, per-call-site rate limiting via {@link LogSite}, and a binary
+ * {@link FlightBuffer} for numeric trace records that stay on without string cost.
+ *
+ * Usage: {@code private static final HylyptoLog LOG = HylyptoLog.get(PatrolManager.class, "patrol");}
+ */
+public final class HylyptoLog {
+
+    private static final List<HylyptoLog> LOGGERS = new CopyOnWriteArrayList<>();
+    private static volatile LogConfig config = new LogConfig();
+    private static volatile FlightBuffer flightBuffer = new FlightBuffer(config.flightBufferRecords);
+
+    private final System.Logger delegate;
+    private final String category;
+    private volatile int minSeverity;
+
+    private HylyptoLog(System.Logger delegate, String category) {
+        this.delegate = delegate;
+        this.category = category;
+        this.minSeverity = resolveSeverity(category, config);
+    }
+
+    public static HylyptoLog get(Class<?> owner, String category) {
+        HylyptoLog log = new HylyptoLog(System.getLogger(owner.getName()), category);
+        LOGGERS.add(log);
+        return log;
+    }
+
+    /**
+     * Applies category levels to every logger and resizes the flight buffer.
+     */
+    public static void configure(LogConfig newConfig) {
+        config = newConfig;
+        flightBuffer = newConfig.flightBufferEnabled ? new FlightBuffer(newConfig.flightBufferRecords) : null;
+        for (HylyptoLog log : LOGGERS) {
+            log.minSeverity = resolveSeverity(log.category, newConfig);
+        }
+    }
+
+    public static FlightBuffer getFlightBuffer() {
+        return flightBuffer;
+    }
+
+    // --- Level checks ---
+
+    public boolean isEnabled(System.Logger.Level level) {
+        return level.getSeverity() >= minSeverity;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(System.Logger.Level.DEBUG);
+    }
+
+    // --- Messages ---
+
+    public void debug(Supplier<String> message) {
+        log(System.Logger.Level.DEBUG, message);
+    }
+
+    public void debug(LogSite site, Supplier<String> message) {
+        log(System.Logger.Level.DEBUG, site, message);
+    }
+
+    public void info(String message) {
+        if (isEnabled(System.Logger.Level.INFO)) {
+            delegate.log(System.Logger.Level.INFO, message);
+        }
+    }
+
+    public void info(Supplier<String> message) {
+        log(System.Logger.Level.INFO, message);
+    }
+
+    public void info(LogSite site, Supplier<String> message) {
+        log(System.Logger.Level.INFO, site, message);
+    }
+
+    public void warn(String message) {
+        if (isEnabled(System.Logger.Level.WARNING)) {
+            delegate.log(System.Logger.Level.WARNING, message);
+        }
+    }
+
+    public void warn(Supplier<String> message) {
+        log(System.Logger.Level.WARNING, message);
+    }
+
+    public void warn(LogSite site, Supplier<String> message) {
+        log(System.Logger.Level.WARNING, site, message);
+    }
+
+    public void error(String message) {
+        if (isEnabled(System.Logger.Level.ERROR)) {
+            delegate.log(System.Logger.Level.ERROR, message);
+        }
+    }
+
+    public void error(Supplier<String> message) {
+        log(System.Logger.Level.ERROR, message);
+    }
+
+    public void error(String message, Throwable thrown) {
+        if (isEnabled(System.Logger.Level.ERROR)) {
+            delegate.log(System.Logger.Level.ERROR, message, thrown);
+        }
+    }
+
+    public void error(Supplier<String> message, Throwable thrown) {
+        if (isEnabled(System.Logger.Level.ERROR)) {
+            delegate.log(System.Logger.Level.ERROR, message, thrown);
+        }
+    }
+
+    public void error(LogSite site, Supplier<String> message, Throwable thrown) {
+        if (!isEnabled(System.Logger.Level.ERROR)) return;
+        long suppressed = site.tryAcquire();
+        if (suppressed < 0) return;
+        delegate.log(System.Logger.Level.ERROR, withSuppressed(message.get(), suppressed), thrown);
+    }
+
+    /**
+     * Appends a numeric record to the flight buffer. Allocation-free; independent
+     * of the category level so it can stay on in production.
+     */
+    public void trace(TraceCode code, long a, long b, long c) {
+        FlightBuffer buffer = flightBuffer;
+        if (buffer != null) {
+            buffer.record(code, a, b, c);
+        }
+    }
+
+    private void log(System.Logger.Level level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            delegate.log(level, message);
+        }
+    }
+
+    private void log(System.Logger.Level level, LogSite site, Supplier<String> message) {
+        if (!isEnabled(level)) return;
+        long suppressed = site.tryAcquire();
+        if (suppressed < 0) return;
+        delegate.log(level, withSuppressed(message.get(), suppressed));
+    }
+
+    private static String withSuppressed(String message, long suppressed) {
+        return suppressed > 0 ? message + " [" + suppressed + " similar suppressed]" : message;
+    }
+
+    // --- Level resolution ---
+
+    private static int resolveSeverity(String category, LogConfig config) {
+        String level = null;
+        Map<String, String> categories = config.categories;
+        if (categories != null) {
+            // Longest matching prefix wins: "patrol.tick" before "patrol"
+            String key = category;
+            while (level == null && key != null) {
+                level = categories.get(key);
+                int dot = key.lastIndexOf('.');
+                key = dot > 0 ? key.substring(0, dot) : null;
+            }
+        }
+        if (level == null) {
+            level = config.defaultLevel;
+        }
+        try {
+            return System.Logger.Level.valueOf(level.toUpperCase()).getSeverity();
+        } catch (RuntimeException e) {
+            return System.Logger.Level.INFO.getSeverity();
+        }
+    }
+}
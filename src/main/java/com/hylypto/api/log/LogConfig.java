@@ -0,0 +1,19 @@
+package com.hylypto.api.log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LogConfig {
+    // System.Logger level names: TRACE, DEBUG, INFO, WARNING, ERROR, OFF
+    public String defaultLevel = "INFO";
+
+    // Per-category overrides — "patrol" also covers "patrol.tick", "patrol.spawn", ...
+    public Map<String, String> categories = new LinkedHashMap<>(Map.of(
+            "patrol.tick", "WARNING",
+            "patrol.path", "WARNING",
+            "patrol.spawn", "WARNING"));
+
+    // Binary ring buffer of recent trace records, dumped by /hylypto trace
+    public boolean flightBufferEnabled = true;
+    public int flightBufferRecords = 8192;
+}
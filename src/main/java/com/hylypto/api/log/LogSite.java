@@ -0,0 +1,43 @@
+package com.hylypto.api.log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limit for a single logging call site. Declare as a static final next to
+ * the call and pass it to {@link HylyptoLog}; messages inside the window are
+ * dropped and counted, and the next emitted message reports how many were skipped.
+ */
+public final class LogSite {
+
+    private final long intervalNanos;
+    private final AtomicLong nextAllowedNanos = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder suppressed = new LongAdder();
+
+    private LogSite(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    public static LogSite every(long interval, TimeUnit unit) {
+        return new LogSite(unit.toNanos(interval));
+    }
+
+    /**
+     * Returns -1 if the call is rate limited, otherwise the number of calls
+     * suppressed since the last emitted message.
+     */
+    long tryAcquire() {
+        long now = System.nanoTime();
+        long next = nextAllowedNanos.get();
+        if (next != Long.MIN_VALUE && now - next < 0) {
+            suppressed.increment();
+            return -1;
+        }
+        if (!nextAllowedNanos.compareAndSet(next, now + intervalNanos)) {
+            suppressed.increment();
+            return -1;
+        }
+        return suppressed.sumThenReset();
+    }
+}
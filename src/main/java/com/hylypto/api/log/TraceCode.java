@@ -0,0 +1,56 @@
+package com.hylypto.api.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Identifies a kind of flight buffer record. Records only store the code id and
+ * three numeric arguments; the format string is applied when the buffer is dumped.
+ */
+public final class TraceCode {
+
+    private static final List<TraceCode> REGISTRY = new ArrayList<>();
+
+    private final int id;
+    private final String name;
+    private final String format;
+
+    private TraceCode(int id, String name, String format) {
+        this.id = id;
+        this.name = name;
+        this.format = format;
+    }
+
+    /**
+     * Registers a trace code. The format receives the three record arguments as longs,
+     * e.g. {@code "group=%08x members=%d"}.
+     */
+    public static synchronized TraceCode register(String name, String format) {
+        TraceCode code = new TraceCode(REGISTRY.size(), name, format);
+        REGISTRY.add(code);
+        return code;
+    }
+
+    /**
+     * Top 32 bits of a UUID — printed with {@code %08x} this matches the first
+     * block of {@link UUID#toString()}, so records line up with text logs.
+     */
+    public static long shortId(UUID id) {
+        return id.getMostSignificantBits() >>> 32;
+    }
+
+    static synchronized TraceCode byId(int id) {
+        return id >= 0 && id < REGISTRY.size() ? REGISTRY.get(id) : null;
+    }
+
+    int id() { return id; }
+
+    String format(long a, long b, long c) {
+        try {
+            return name + " " + String.format(format, a, b, c);
+        } catch (RuntimeException e) {
+            return name + " " + a + " " + b + " " + c;
+        }
+    }
+}
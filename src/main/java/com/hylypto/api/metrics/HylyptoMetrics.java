@@ -0,0 +1,74 @@
+package com.hylypto.api.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and histograms updated from the world threads.
+ * Writers only touch LongAdders, so recording never contends with a scrape.
+ */
+public final class HylyptoMetrics {
+
+    private HylyptoMetrics() {}
+
+    // Spawn / despawn counters — Prometheus derives rates from these
+    public static final LongAdder PATROL_ZOMBIES_SPAWNED = new LongAdder();
+    public static final LongAdder PATROL_ZOMBIES_DESPAWNED = new LongAdder();
+    public static final LongAdder HORDE_ZOMBIES_SPAWNED = new LongAdder();
+    public static final LongAdder HORDE_ZOMBIES_DESPAWNED = new LongAdder();
+    public static final LongAdder ZOMBIES_KILLED = new LongAdder();
+    public static final LongAdder PATROL_STATE_TRANSITIONS = new LongAdder();
+    public static final LongAdder PATROL_LEADER_FAILOVERS = new LongAdder();
+
+    // Chasing
+    public static final LongAdder CHASE_REPATHS = new LongAdder();
+    public static final LongAdder CHASE_INTERCEPTS = new LongAdder();
+
+    // Block breaking
+    public static final LongAdder BLOCK_HITS = new LongAdder();
+    public static final LongAdder BLOCKS_BROKEN = new LongAdder();
+
+    // Noise
+    public static final LongAdder NOISE_SOURCES_EMITTED = new LongAdder();
+    public static final LongAdder NOISE_REACTIONS = new LongAdder();
+
+    // Path service
+    public static final LongAdder PATH_REQUESTS = new LongAdder();
+    public static final LongAdder PATH_CACHE_HITS = new LongAdder();
+    public static final LongAdder PATHS_FOUND = new LongAdder();
+    public static final LongAdder PATHS_FAILED = new LongAdder();
+
+    // Terrain snapshots
+    public static final LongAdder TERRAIN_SECTIONS_CAPTURED = new LongAdder();
+    public static final LongAdder TERRAIN_INVALIDATIONS = new LongAdder();
+
+    // Navigation graph
+    public static final LongAdder NAV_TILES_BUILT = new LongAdder();
+    public static final LongAdder NAV_ROUTES_FROM_GRAPH = new LongAdder();
+    public static final LongAdder NAV_ROUTES_FALLBACK = new LongAdder();
+
+    // Entity pool
+    public static final LongAdder POOL_HITS = new LongAdder();
+    public static final LongAdder POOL_MISSES = new LongAdder();
+    public static final LongAdder POOL_PARKED = new LongAdder();
+    public static final LongAdder POOL_EVICTED = new LongAdder();
+
+    // Spawn point reservoir
+    public static final LongAdder SPAWN_POINTS_CHECKED = new LongAdder();
+    public static final LongAdder SPAWN_POINTS_TAKEN = new LongAdder();
+    public static final LongAdder SPAWN_POINTS_STALE = new LongAdder();
+    public static final LongAdder SPAWN_POINTS_MISSED = new LongAdder();
+
+    // Snapshots
+    public static final LongAdder SNAPSHOTS_WRITTEN = new LongAdder();
+    public static final LongAdder SNAPSHOT_FAILURES = new LongAdder();
+    public static final LongAdder SNAPSHOT_ZOMBIES_ADOPTED = new LongAdder();
+    public static final LongAdder SNAPSHOT_ZOMBIES_MISSING = new LongAdder();
+
+    // Debug overlay
+    public static final LongAdder DEBUG_SHAPES_DRAWN = new LongAdder();
+    public static final LongAdder DEBUG_SHAPES_SKIPPED = new LongAdder();
+
+    // Per-group state handler tick duration, 50µs .. 250ms
+    public static final TickHistogram PATROL_GROUP_TICK = new TickHistogram(
+            0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25);
+}
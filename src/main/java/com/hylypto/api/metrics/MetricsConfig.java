@@ -0,0 +1,8 @@
+package com.hylypto.api.metrics;
+
+public class MetricsConfig {
+    // Exporter is opt-in — scraped by a local Prometheus agent
+    public boolean enabled = false;
+    public int port = 9464;
+    public String path = "/metrics";
+}
@@ -0,0 +1,228 @@
+package com.hylypto.api.metrics;
+
+import com.hylypto.api.event.HylyptoEventBus;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+import com.hylypto.zombie.state.PatrolState;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToLongFunction;
+
+/**
+ * Serves Hylypto metrics in the Prometheus text exposition format on a loopback port.
+ * Scrapes run on a dedicated daemon thread and only read counters and concurrent
+ * snapshots — nothing here blocks or schedules work on a world thread.
+ */
+public class PrometheusExporter {
+
+    private static final System.Logger LOG = System.getLogger(PrometheusExporter.class.getName());
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsConfig config;
+    private final ZombieShards shards;
+    private final HylyptoEventBus eventBus;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PrometheusExporter(MetricsConfig config, ZombieShards shards, HylyptoEventBus eventBus) {
+        this.config = config;
+        this.shards = shards;
+        this.eventBus = eventBus;
+    }
+
+    public void start() {
+        try {
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), config.port);
+            server = HttpServer.create(address, 0);
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "Hylypto-Metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.createContext(config.path, this::handle);
+            server.start();
+            LOG.log(System.Logger.Level.INFO, "Metrics exporter listening on " + address + config.path);
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.ERROR, "Failed to start metrics exporter on port " + config.port
+                    + ": " + e.getMessage(), e);
+            server = null;
+        }
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    String render() {
+        StringBuilder out = new StringBuilder(4096);
+
+        worldGauge(out, "hylypto_horde_zombies_alive", "Horde zombies currently tracked as alive",
+                shard -> shard.getHordeManager().getAliveZombieCount());
+        worldGauge(out, "hylypto_patrol_zombies", "Zombies belonging to active patrol groups",
+                shard -> shard.getPatrolManager().getTotalPatrolZombies());
+
+        out.append("# HELP hylypto_patrol_groups Active patrol groups by world and state\n");
+        out.append("# TYPE hylypto_patrol_groups gauge\n");
+        for (ZombieShard shard : shards.all()) {
+            int[] byState = shard.getPatrolManager().countGroupsByState();
+            for (PatrolState state : PatrolState.values()) {
+                out.append("hylypto_patrol_groups{world=\"").append(shard.getWorldName())
+                        .append("\",state=\"").append(state.name().toLowerCase()).append("\"} ")
+                        .append(byState[state.ordinal()]).append('\n');
+            }
+        }
+
+        worldGauge(out, "hylypto_block_damage_tracked", "Blocks with accumulated zombie damage",
+                shard -> shard.getPatrolManager().getBlockBreakTracker().getTrackedBlockCount());
+        worldGauge(out, "hylypto_spawn_governor_scale_percent", "Spawn governor workload scale, 100 = unthrottled",
+                shard -> Math.round(shard.getGovernor().scale() * 100));
+        worldGauge(out, "hylypto_world_tick_ewma_micros", "Smoothed world tick time seen by the spawn governor",
+                shard -> shard.getGovernor().getEwmaNanos() / 1000);
+        worldGauge(out, "hylypto_noise_sources_active", "Noise sources currently audible",
+                shard -> shard.getNoise().getActiveSourceCount());
+        worldGauge(out, "hylypto_path_cache_entries", "Walks held in the path cache",
+                shard -> shard.getPaths().getCacheSize());
+        worldGauge(out, "hylypto_terrain_sections_cached", "Chunk sections held as off-thread terrain snapshots",
+                shard -> shard.getTerrain().getCachedCount());
+        worldGauge(out, "hylypto_pool_parked", "Despawned zombies parked for reuse",
+                shard -> shard.getPool().getParkedCount());
+        worldGauge(out, "hylypto_spawn_points_reserved", "Checked spawn points waiting around players",
+                shard -> shard.getSpawnReservoir().getReservedCount());
+        worldGauge(out, "hylypto_nav_graph_nodes", "Nodes in the patrol navigation graph",
+                shard -> shard.getNav().getGraph().nodeCount());
+        gauge(out, "hylypto_event_bus_in_flight", "Events currently being dispatched on the event bus",
+                eventBus.getInFlightCount());
+
+        counter(out, "hylypto_event_bus_published_total", "Events published on the event bus",
+                eventBus.getPublishedCount());
+        counter(out, "hylypto_patrol_zombies_spawned_total", "Patrol zombies spawned",
+                HylyptoMetrics.PATROL_ZOMBIES_SPAWNED.sum());
+        counter(out, "hylypto_patrol_zombies_despawned_total", "Patrol zombies removed by despawn",
+                HylyptoMetrics.PATROL_ZOMBIES_DESPAWNED.sum());
+        counter(out, "hylypto_horde_zombies_spawned_total", "Horde zombies spawned",
+                HylyptoMetrics.HORDE_ZOMBIES_SPAWNED.sum());
+        counter(out, "hylypto_horde_zombies_despawned_total", "Horde zombies removed by despawn",
+                HylyptoMetrics.HORDE_ZOMBIES_DESPAWNED.sum());
+        counter(out, "hylypto_zombies_killed_total", "Tracked zombies that died",
+                HylyptoMetrics.ZOMBIES_KILLED.sum());
+        counter(out, "hylypto_patrol_state_transitions_total", "Patrol state machine transitions",
+                HylyptoMetrics.PATROL_STATE_TRANSITIONS.sum());
+        counter(out, "hylypto_patrol_leader_failovers_total", "Patrol leaders that died and were replaced by a follower",
+                HylyptoMetrics.PATROL_LEADER_FAILOVERS.sum());
+        counter(out, "hylypto_chase_repaths_total", "Chase paths assigned to aggro groups",
+                HylyptoMetrics.CHASE_REPATHS.sum());
+        counter(out, "hylypto_chase_intercepts_total", "Chase and search targets led ahead of a moving player",
+                HylyptoMetrics.CHASE_INTERCEPTS.sum());
+        counter(out, "hylypto_block_hits_total", "Zombie hits registered against blocks",
+                HylyptoMetrics.BLOCK_HITS.sum());
+        counter(out, "hylypto_blocks_broken_total", "Blocks destroyed by zombies",
+                HylyptoMetrics.BLOCKS_BROKEN.sum());
+        counter(out, "hylypto_noise_sources_emitted_total", "Noise sources added to a world's sound grid",
+                HylyptoMetrics.NOISE_SOURCES_EMITTED.sum());
+        counter(out, "hylypto_noise_reactions_total", "Patrol groups and horde zombies sent toward a noise",
+                HylyptoMetrics.NOISE_REACTIONS.sum());
+        counter(out, "hylypto_path_requests_total", "Patrol leg walks requested from the path service",
+                HylyptoMetrics.PATH_REQUESTS.sum());
+        counter(out, "hylypto_path_cache_hits_total", "Path requests answered from the cache",
+                HylyptoMetrics.PATH_CACHE_HITS.sum());
+        counter(out, "hylypto_paths_found_total", "Path searches that found a walk",
+                HylyptoMetrics.PATHS_FOUND.sum());
+        counter(out, "hylypto_paths_failed_total", "Path searches that found no walk within their limits",
+                HylyptoMetrics.PATHS_FAILED.sum());
+        counter(out, "hylypto_terrain_sections_captured_total", "Chunk sections copied into terrain snapshots",
+                HylyptoMetrics.TERRAIN_SECTIONS_CAPTURED.sum());
+        counter(out, "hylypto_terrain_invalidations_total", "Terrain snapshots dropped because a block in them changed",
+                HylyptoMetrics.TERRAIN_INVALIDATIONS.sum());
+        counter(out, "hylypto_nav_tiles_built_total", "Chunks added to the patrol navigation graph",
+                HylyptoMetrics.NAV_TILES_BUILT.sum());
+        counter(out, "hylypto_nav_routes_total", "Patrol routes drawn from the navigation graph",
+                HylyptoMetrics.NAV_ROUTES_FROM_GRAPH.sum());
+        counter(out, "hylypto_nav_routes_fallback_total", "Patrol routes scanned from the world because the graph had no answer",
+                HylyptoMetrics.NAV_ROUTES_FALLBACK.sum());
+        counter(out, "hylypto_pool_hits_total", "Zombie spawns served by reviving a parked entity",
+                HylyptoMetrics.POOL_HITS.sum());
+        counter(out, "hylypto_pool_misses_total", "Zombie spawns that built a new entity because none of the role was parked",
+                HylyptoMetrics.POOL_MISSES.sum());
+        counter(out, "hylypto_pool_parked_total", "Despawned zombies parked for reuse instead of removed",
+                HylyptoMetrics.POOL_PARKED.sum());
+        counter(out, "hylypto_pool_evicted_total", "Parked zombies removed after sitting idle",
+                HylyptoMetrics.POOL_EVICTED.sum());
+        counter(out, "hylypto_spawn_points_checked_total", "Candidate spawn points checked against the terrain",
+                HylyptoMetrics.SPAWN_POINTS_CHECKED.sum());
+        counter(out, "hylypto_spawn_points_taken_total", "Spawns placed at a reserved point instead of scanning",
+                HylyptoMetrics.SPAWN_POINTS_TAKEN.sum());
+        counter(out, "hylypto_spawn_points_stale_total", "Reserved points dropped because the player moved or the terrain changed",
+                HylyptoMetrics.SPAWN_POINTS_STALE.sum());
+        counter(out, "hylypto_spawn_points_missed_total", "Spawns that found no reserved point and scanned",
+                HylyptoMetrics.SPAWN_POINTS_MISSED.sum());
+        counter(out, "hylypto_snapshots_written_total", "Per-world zombie snapshots written to disk",
+                HylyptoMetrics.SNAPSHOTS_WRITTEN.sum());
+        counter(out, "hylypto_snapshot_failures_total", "Zombie snapshots that could not be captured or written",
+                HylyptoMetrics.SNAPSHOT_FAILURES.sum());
+        counter(out, "hylypto_snapshot_zombies_adopted_total", "Restored zombies matched to a surviving entity after a restart",
+                HylyptoMetrics.SNAPSHOT_ZOMBIES_ADOPTED.sum());
+        counter(out, "hylypto_snapshot_zombies_missing_total", "Restored zombies dropped because no entity turned up for them",
+                HylyptoMetrics.SNAPSHOT_ZOMBIES_MISSING.sum());
+        counter(out, "hylypto_debug_shapes_drawn_total", "Debug overlay shapes sent to clients",
+                HylyptoMetrics.DEBUG_SHAPES_DRAWN.sum());
+        counter(out, "hylypto_debug_shapes_skipped_total", "Debug overlay shapes left alone because they were unchanged",
+                HylyptoMetrics.DEBUG_SHAPES_SKIPPED.sum());
+
+        HylyptoMetrics.PATROL_GROUP_TICK.render(out, "hylypto_patrol_group_tick_seconds",
+                "Duration of a single patrol group state handler tick");
+        return out.toString();
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private void worldGauge(StringBuilder out, String name, String help, ToLongFunction<ZombieShard> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        for (ZombieShard shard : shards.all()) {
+            out.append(name).append("{world=\"").append(shard.getWorldName()).append("\"} ")
+                    .append(value.applyAsLong(shard)).append('\n');
+        }
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+}
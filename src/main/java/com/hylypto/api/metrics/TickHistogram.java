@@ -0,0 +1,51 @@
+package com.hylypto.api.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram with lock-free recording.
+ * Buckets are cumulative when rendered, matching the Prometheus histogram layout.
+ */
+public final class TickHistogram {
+
+    private final double[] upperBoundsSeconds;
+    private final long[] upperBoundsNanos;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    public TickHistogram(double... upperBoundsSeconds) {
+        this.upperBoundsSeconds = upperBoundsSeconds.clone();
+        this.upperBoundsNanos = new long[upperBoundsSeconds.length];
+        this.buckets = new LongAdder[upperBoundsSeconds.length];
+        for (int i = 0; i < upperBoundsSeconds.length; i++) {
+            upperBoundsNanos[i] = (long) (upperBoundsSeconds[i] * 1_000_000_000L);
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        for (int i = 0; i < upperBoundsNanos.length; i++) {
+            if (nanos <= upperBoundsNanos[i]) {
+                buckets[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    void render(StringBuilder out, String name, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" histogram\n");
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            out.append(name).append("_bucket{le=\"").append(upperBoundsSeconds[i]).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        out.append(name).append("_bucket{le=\"+Inf\"} ").append(count.sum()).append('\n');
+        out.append(name).append("_sum ").append(sumNanos.sum() / 1_000_000_000.0).append('\n');
+        out.append(name).append("_count ").append(count.sum()).append('\n');
+    }
+}
@@ -1,24 +1,24 @@
 package com.hylypto.survival;
 
-import com.hylypto.zombie.PatrolManager;
+import com.hylypto.zombie.ZombieShards;
 
 /**
  * Manager for the survival pillar.
- * Holds the patrol system and future subsystems (injury, environmental hazards, etc).
+ * Holds the per-world patrol system and future subsystems (injury, environmental hazards, etc).
  */
 public class SurvivalManager {
 
-    private final PatrolManager patrolManager;
+    private final ZombieShards zombieShards;
 
-    public SurvivalManager(PatrolManager patrolManager) {
-        this.patrolManager = patrolManager;
+    public SurvivalManager(ZombieShards zombieShards) {
+        this.zombieShards = zombieShards;
     }
 
-    public PatrolManager getPatrolManager() {
-        return patrolManager;
+    public ZombieShards getZombieShards() {
+        return zombieShards;
     }
 
     public void shutdown() {
-        patrolManager.shutdown();
+        zombieShards.shutdown();
     }
 }
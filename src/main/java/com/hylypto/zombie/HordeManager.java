@@ -1,144 +1,178 @@
 package com.hylypto.zombie;
 
-import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.component.RemoveReason;
-import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.math.vector.Vector3f;
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
-import com.hypixel.hytale.server.core.entity.UUIDComponent;
-import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
-import com.hypixel.hytale.server.core.universe.PlayerRef;
-import com.hypixel.hytale.server.core.universe.Universe;
-import com.hypixel.hytale.server.core.universe.world.World;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.npc.NPCPlugin;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.despawn.DespawnQueue;
+import com.hylypto.zombie.jfr.SpawnBatchEvent;
+import com.hylypto.zombie.governor.SpawnGovernor;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.population.PopulationManager;
+import com.hylypto.zombie.replay.DecisionLog;
+import com.hylypto.zombie.snapshot.ShardSnapshot;
+import com.hylypto.zombie.spatial.SpatialGrid;
+import com.hylypto.zombie.spawn.SpawnReservoir;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+import com.hylypto.api.log.HylyptoLog;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Spawns zombie hordes on demand toward a player's position.
- * Handles lifecycle: spawning, death tracking, and full cleanup
- * on player disconnect or plugin shutdown.
+ * Handles lifecycle: spawning, death tracking, cleanup of a departing
+ * player's zombies, and full cleanup on plugin shutdown.
  */
 public class HordeManager {
 
-    private static final System.Logger LOG = System.getLogger(HordeManager.class.getName());
+    private static final HylyptoLog LOG = HylyptoLog.get(HordeManager.class, "horde");
     private static final double SPAWN_DISTANCE_MIN = 30.0;
     private static final double SPAWN_DISTANCE_MAX = 50.0;
     private static final double SPAWN_SCATTER_RADIUS = 5.0;
     private static final int SURFACE_SCAN_RANGE = 60;
     private static final String ZOMBIE_MODEL = "Zombie";
 
+    private final Supplier<ZombieWorld> worlds;
+    private final PopulationManager population;
+    private final SpawnGovernor governor;
+    private final DespawnQueue despawns;
+    private final SpawnReservoir reservoir;
+    private final DecisionLog decisions;
     private final AtomicInteger aliveZombieCount = new AtomicInteger(0);
-    private final Set<Ref<EntityStore>> hordeEntityRefs = ConcurrentHashMap.newKeySet();
     private final Set<UUID> hordeZombieUUIDs = ConcurrentHashMap.newKeySet();
+    // Member positions by chunk — world thread only, refreshed by the aggro system's checks
+    private final SpatialGrid<UUID> zombieIndex = new SpatialGrid<>(SpatialGrid.CHUNK_SIZE);
+
+    public HordeManager(Supplier<ZombieWorld> worlds, PopulationManager population,
+                        SpawnGovernor governor, DespawnQueue despawns, SpawnReservoir reservoir,
+                        DecisionLog decisions) {
+        this.worlds = worlds;
+        this.population = population;
+        this.governor = governor;
+        this.despawns = despawns;
+        this.reservoir = reservoir;
+        this.decisions = decisions;
+    }
 
     /**
-     * Spawns a horde of zombies around the first player's position.
+     * Spawns a horde around the player with the most spawn room, scaled by the governor
+     * and clamped to the per-player and per-region caps.
      */
     public String spawnHorde(int count) {
-        World world = Universe.get().getDefaultWorld();
+        ZombieWorld world = worlds.get();
         if (world == null) {
-            LOG.log(System.Logger.Level.ERROR, "Cannot spawn — no default world available");
+            LOG.error("Cannot spawn — world not available");
             return "No world available.";
         }
 
         List<Vector3d> spawnedPositions = new ArrayList<>();
 
-        world.execute(() -> {
+        world.execute("HordeManager.spawnHorde", () -> {
+            SpawnBatchEvent spawnEvent = new SpawnBatchEvent();
+            spawnEvent.begin();
             try {
                 // Player position must be read on the world thread
-                Vector3d playerPos = getPlayerPosition(world);
+                PopulationManager.SpawnTarget target = population.pickTarget(world, governor.budget(count), null);
+                if (target == null) {
+                    LOG.info("spawnHorde skipped — every player is at their zombie cap");
+                    return;
+                }
+                int allowed = target.allowed();
+                Vector3d playerPos = target.position();
 
                 // Generate spawn center 30-50 blocks away from player
-                ThreadLocalRandom rng = ThreadLocalRandom.current();
-                double angle = rng.nextDouble() * 2 * Math.PI;
-                double dist = SPAWN_DISTANCE_MIN + rng.nextDouble() * (SPAWN_DISTANCE_MAX - SPAWN_DISTANCE_MIN);
-                double cx = playerPos.x + Math.cos(angle) * dist;
-                double cz = playerPos.z + Math.sin(angle) * dist;
-                double cy = findSurfaceY(world, (int) cx, (int) playerPos.y + 30, (int) cz);
-                Vector3d spawnCenter = new Vector3d(cx, cy, cz);
-
-                LOG.log(System.Logger.Level.INFO,
-                        "Spawning horde of " + count + " zombies at ("
-                        + (int) cx + ", " + (int) cy + ", " + (int) cz
-                        + "), " + (int) dist + " blocks from player");
-
-                Store<EntityStore> store = world.getEntityStore().getStore();
-
-                for (int i = 0; i < count; i++) {
-                    Vector3d pos = spawnSingleZombie(store, spawnCenter, world);
+                SplittableRandom rng = world.random().stream("horde.spawn");
+                Vector3d spawnCenter = decisions.spawnPosition(DecisionLog.HORDE, () -> {
+                    double angle = rng.nextDouble() * 2 * Math.PI;
+                    double dist = SPAWN_DISTANCE_MIN + rng.nextDouble() * (SPAWN_DISTANCE_MAX - SPAWN_DISTANCE_MIN);
+                    // Drawn either way, so a hit doesn't shift the stream for the scatter
+                    Vector3d reserved = reservoir.take(target.playerId(), playerPos, SpawnReservoir.Band.HORDE, Double.NaN, world);
+                    if (reserved != null) return reserved;
+                    double cx = playerPos.x + Math.cos(angle) * dist;
+                    double cz = playerPos.z + Math.sin(angle) * dist;
+                    double cy = world.blocks().findSurfaceY((int) cx, (int) playerPos.y + 30, (int) cz, SURFACE_SCAN_RANGE);
+                    return new Vector3d(cx, cy, cz);
+                });
+
+                LOG.info(() -> "Spawning horde of " + allowed + " zombies at ("
+                        + (int) spawnCenter.x + ", " + (int) spawnCenter.y + ", " + (int) spawnCenter.z
+                        + "), " + (int) spawnCenter.distanceTo(playerPos) + " blocks from player");
+
+                for (int i = 0; i < allowed; i++) {
+                    Vector3d pos = spawnSingleZombie(world, spawnCenter, rng, target.playerId());
                     if (pos != null) {
                         spawnedPositions.add(pos);
                     }
                 }
 
-                logSpawnSummary(spawnedPositions, count);
+                logSpawnSummary(spawnedPositions, allowed);
+
+                spawnEvent.end();
+                if (spawnEvent.shouldCommit()) {
+                    spawnEvent.source = "horde";
+                    spawnEvent.requested = count;
+                    spawnEvent.spawned = spawnedPositions.size();
+                    spawnEvent.commit();
+                }
             } catch (Exception e) {
-                LOG.log(System.Logger.Level.ERROR, "Failed to spawn horde: " + e.getMessage(), e);
+                LOG.error(() -> "Failed to spawn horde: " + e.getMessage(), e);
             }
         });
 
-        aliveZombieCount.addAndGet(count);
-        return "Spawning " + count + " zombies toward your position.";
+        return "Spawning up to " + count + " zombies toward a player.";
     }
 
     /**
-     * Despawns all tracked horde zombies and clears tracking state.
-     * Called on player disconnect and plugin shutdown.
+     * Despawns all tracked horde zombies and clears tracking state — for shutdown and the
+     * despawn command. Runs on the world thread; {@link ZombieShard#despawnAll} marshals calls
+     * from elsewhere.
      */
     public void despawnAll() {
-        World world = Universe.get().getDefaultWorld();
+        ZombieWorld world = worlds.get();
+        List<UUID> toRemove = new ArrayList<>(hordeZombieUUIDs);
+        clearTrackingState();
         if (world == null) {
-            clearTrackingState();
+            zombieIndex.clear();
             return;
         }
+        if (toRemove.isEmpty()) return;
 
-        // Copy refs before clearing — world.execute is async
-        List<Ref<EntityStore>> refsToRemove = new ArrayList<>(hordeEntityRefs);
-        int count = refsToRemove.size();
-
-        clearTrackingState();
-
-        if (refsToRemove.isEmpty()) return;
-
-        world.execute(() -> {
-            Store<EntityStore> store = world.getEntityStore().getStore();
-            int removed = 0;
-            for (Ref<EntityStore> ref : refsToRemove) {
-                try {
-                    if (ref.isValid()) {
-                        store.removeEntity(ref, RemoveReason.REMOVE);
-                        removed++;
-                    }
-                } catch (Exception e) {
-                    // Entity may have already been removed — ignore
-                }
-            }
-            LOG.log(System.Logger.Level.INFO,
-                    "Despawned " + removed + "/" + count + " horde zombies");
+        int count = toRemove.size();
+        for (UUID uuid : toRemove) {
+            population.untrack(uuid);
+            zombieIndex.remove(uuid);
+        }
+        despawns.enqueue("horde-all", null, toRemove, world).thenAccept(result -> {
+            HylyptoMetrics.HORDE_ZOMBIES_DESPAWNED.add(result.removed());
+            LOG.info("Despawned " + result.removed() + "/" + count + " horde zombies over "
+                    + result.ticks() + " ticks");
         });
     }
 
     /**
-     * Prunes refs that have become invalid (entity unloaded from chunk, despawned externally, etc.)
+     * Drops entity handles that have become invalid (entity unloaded from chunk, despawned externally, etc.)
      * and adjusts the alive count accordingly. Called periodically from the aggro system tick.
      */
     public void pruneInvalidRefs() {
-        Iterator<Ref<EntityStore>> it = hordeEntityRefs.iterator();
-        while (it.hasNext()) {
-            Ref<EntityStore> ref = it.next();
-            if (!ref.isValid()) {
-                it.remove();
+        ZombieWorld world = worlds.get();
+        if (world != null) {
+            EntityAccess entities = world.entities();
+            for (UUID uuid : hordeZombieUUIDs) {
+                // Restored from a snapshot — its entity has not loaded yet
+                if (entities.isAwaited(uuid)) continue;
+                if (!entities.isValid(uuid)) {
+                    entities.forget(uuid);
+                    population.untrack(uuid);
+                    zombieIndex.remove(uuid);
+                }
             }
         }
 
@@ -152,54 +186,122 @@ public class HordeManager {
         }
     }
 
+    /**
+     * Queues the horde zombies spawned for {@code playerId} for despawn. Runs on the world
+     * thread — called when the player leaves, so other players' zombies are untouched.
+     *
+     * @return number of zombies queued
+     */
+    public int removeOwnedBy(UUID playerId) {
+        ZombieWorld world = worlds.get();
+        if (world == null) return 0;
+
+        List<UUID> owned = new ArrayList<>();
+        for (UUID uuid : new ArrayList<>(population.ownedBy(playerId))) {
+            if (!hordeZombieUUIDs.remove(uuid)) continue;
+            population.untrack(uuid);
+            zombieIndex.remove(uuid);
+            aliveZombieCount.decrementAndGet();
+            owned.add(uuid);
+        }
+        despawns.enqueue("horde-owner", null, owned, world)
+                .thenAccept(result -> HylyptoMetrics.HORDE_ZOMBIES_DESPAWNED.add(result.removed()));
+        return owned.size();
+    }
+
+    /**
+     * Drops all tracking without touching entities — for a world that is unloading.
+     */
+    public void clear() {
+        clearTrackingState();
+        zombieIndex.clear();
+    }
+
     /**
      * Full shutdown — despawn all and log.
      */
     public void shutdown() {
         despawnAll();
-        LOG.log(System.Logger.Level.INFO, "Horde manager shut down.");
+        LOG.info("Horde manager shut down.");
     }
 
-    // --- Spawning ---
-
-    private Vector3d spawnSingleZombie(Store<EntityStore> store, Vector3d center, World world) {
-        try {
-            double angle = ThreadLocalRandom.current().nextDouble() * 2 * Math.PI;
-            double radius = SPAWN_SCATTER_RADIUS * (0.5 + ThreadLocalRandom.current().nextDouble() * 0.5);
-            double x = center.x + Math.cos(angle) * radius;
-            double z = center.z + Math.sin(angle) * radius;
-
-            double y = findSurfaceY(world, (int) x, (int) center.y + 30, (int) z);
-
-            Vector3d position = new Vector3d(x, y, z);
-            Vector3f rotation = new Vector3f(0, (float) Math.toDegrees(angle), 0);
-
-            var result = NPCPlugin.get().spawnNPC(store, ZOMBIE_MODEL, null, position, rotation);
+    // --- Snapshots (world thread) ---
+
+    /** Appends every tracked horde zombie to {@code out}, at its live position or else its last indexed one. */
+    public void captureZombies(List<ShardSnapshot.Zombie> out) {
+        ZombieWorld world = worlds.get();
+        if (world == null) return;
+        EntityAccess entities = world.entities();
+        for (UUID uuid : hordeZombieUUIDs) {
+            UUID ownerId = population.ownerOf(uuid);
+            if (ownerId == null) continue;
+            Vector3d position = new Vector3d();
+            Vector3d live = entities.getPosition(uuid);
+            if (live != null) {
+                VecMath.set(position, live);
+            } else if (!zombieIndex.positionOf(uuid, position)) {
+                continue;
+            }
+            out.add(new ShardSnapshot.Zombie(uuid, ownerId, position));
+        }
+    }
 
-            if (result != null) {
-                @SuppressWarnings("unchecked")
-                Ref<EntityStore> npcRef = (Ref<EntityStore>) result.first();
-                hordeEntityRefs.add(npcRef);
+    /**
+     * Tracks the horde zombies of a snapshot again, before their entities have turned up.
+     * Each restored UUID is added to {@code expected} with the role it was spawned as.
+     *
+     * @return zombies restored
+     */
+    public int restoreZombies(List<ShardSnapshot.Zombie> zombies, Map<UUID, String> expected) {
+        int restored = 0;
+        for (ShardSnapshot.Zombie zombie : zombies) {
+            if (!hordeZombieUUIDs.add(zombie.uuid())) continue;
+            population.track(zombie.ownerId(), zombie.uuid(), zombie.position());
+            zombieIndex.place(zombie.uuid(), zombie.position());
+            aliveZombieCount.incrementAndGet();
+            expected.put(zombie.uuid(), ZOMBIE_MODEL);
+            restored++;
+        }
+        return restored;
+    }
 
-                UUIDComponent uuidComp = store.getComponent(npcRef, UUIDComponent.getComponentType());
-                if (uuidComp != null) {
-                    hordeZombieUUIDs.add(uuidComp.getUuid());
-                }
+    // --- Spawning ---
 
+    private Vector3d spawnSingleZombie(ZombieWorld world, Vector3d center, SplittableRandom rng, UUID ownerId) {
+        try {
+            Vector3d position = decisions.spawnPosition(DecisionLog.HORDE, () -> {
+                double angle = rng.nextDouble() * 2 * Math.PI;
+                double radius = SPAWN_SCATTER_RADIUS * (0.5 + rng.nextDouble() * 0.5);
+                double x = center.x + Math.cos(angle) * radius;
+                double z = center.z + Math.sin(angle) * radius;
+                double y = world.blocks().findSurfaceY((int) x, (int) center.y + 30, (int) z, SURFACE_SCAN_RANGE);
+                return new Vector3d(x, y, z);
+            });
+            float yaw = (float) Math.toDegrees(Math.atan2(position.z - center.z, position.x - center.x));
+            Vector3f rotation = new Vector3f(0, yaw, 0);
+
+            UUID uuid = world.entities().spawn(ZOMBIE_MODEL, position, rotation);
+
+            if (uuid != null) {
+                hordeZombieUUIDs.add(uuid);
+                population.track(ownerId, uuid, position);
+                zombieIndex.place(uuid, position);
+                aliveZombieCount.incrementAndGet();
+                HylyptoMetrics.HORDE_ZOMBIES_SPAWNED.increment();
                 return position;
             } else {
-                LOG.log(System.Logger.Level.ERROR, "NPCPlugin.spawnNPC returned null for Zombie");
-                aliveZombieCount.decrementAndGet();
+                LOG.error("Spawn returned no entity for Zombie");
                 return null;
             }
         } catch (Exception e) {
-            LOG.log(System.Logger.Level.ERROR, "Failed to spawn zombie: " + e.getMessage(), e);
-            aliveZombieCount.decrementAndGet();
+            LOG.error(() -> "Failed to spawn zombie: " + e.getMessage(), e);
             return null;
         }
     }
 
     private void logSpawnSummary(List<Vector3d> positions, int requested) {
+        if (!LOG.isEnabled(System.Logger.Level.INFO)) return;
+
         int total = positions.size();
         var sb = new StringBuilder();
         sb.append("Spawned ").append(total).append("/").append(requested).append(" zombies — sample positions: ");
@@ -208,15 +310,8 @@ public class HordeManager {
         if (total <= 3) {
             samples = positions;
         } else {
-            samples = new ArrayList<>();
-            var rng = ThreadLocalRandom.current();
-            var indices = new HashSet<Integer>();
-            while (indices.size() < 3) {
-                indices.add(rng.nextInt(total));
-            }
-            for (int idx : indices) {
-                samples.add(positions.get(idx));
-            }
+            // First, middle and last — no randomness, so a replayed run logs the same samples
+            samples = List.of(positions.get(0), positions.get(total / 2), positions.get(total - 1));
         }
 
         for (int i = 0; i < samples.size(); i++) {
@@ -225,44 +320,10 @@ public class HordeManager {
             sb.append("(").append((int) p.x).append(", ").append((int) p.y).append(", ").append((int) p.z).append(")");
         }
 
-        LOG.log(System.Logger.Level.INFO, sb.toString());
-    }
-
-    private double findSurfaceY(World world, int x, int startY, int z) {
-        int minY = startY - SURFACE_SCAN_RANGE;
-        for (int y = startY; y > minY; y--) {
-            BlockType current = world.getBlockType(x, y, z);
-            BlockType below = world.getBlockType(x, y - 1, z);
-            if (current == BlockType.EMPTY && below != BlockType.EMPTY) {
-                return y;
-            }
-        }
-        return startY;
-    }
-
-    private Vector3d getPlayerPosition(World world) {
-        try {
-            var players = Universe.get().getPlayers();
-            if (players != null && !players.isEmpty()) {
-                PlayerRef playerRef = players.iterator().next();
-                var ref = playerRef.getReference();
-                if (ref != null) {
-                    Store<EntityStore> store = world.getEntityStore().getStore();
-                    TransformComponent transform = store.getComponent(
-                            ref, TransformComponent.getComponentType());
-                    if (transform != null) {
-                        return transform.getPosition();
-                    }
-                }
-            }
-        } catch (Exception e) {
-            LOG.log(System.Logger.Level.DEBUG, "Could not get player position, using default");
-        }
-        return new Vector3d(0, 64, 0);
+        LOG.info(sb.toString());
     }
 
     private void clearTrackingState() {
-        hordeEntityRefs.clear();
         hordeZombieUUIDs.clear();
         aliveZombieCount.set(0);
     }
@@ -271,8 +332,11 @@ public class HordeManager {
 
     public void onZombieKilled(UUID uuid) {
         if (hordeZombieUUIDs.remove(uuid)) {
+            forget(uuid);
+            population.untrack(uuid);
+            HylyptoMetrics.ZOMBIES_KILLED.increment();
             int remaining = aliveZombieCount.decrementAndGet();
-            LOG.log(System.Logger.Level.INFO, "Zombie killed. Remaining: " + remaining);
+            LOG.debug(() -> "Zombie killed. Remaining: " + remaining);
         }
     }
 
@@ -281,7 +345,46 @@ public class HordeManager {
     }
 
     public void cleanupZombie(UUID uuid) {
-        hordeZombieUUIDs.remove(uuid);
+        if (hordeZombieUUIDs.remove(uuid)) {
+            forget(uuid);
+            population.untrack(uuid);
+        }
+    }
+
+    /** Re-bins a horde zombie at its current position — called from its periodic check. */
+    public void updatePosition(UUID uuid, Vector3d position) {
+        zombieIndex.place(uuid, position);
+    }
+
+    private void forget(UUID uuid) {
+        zombieIndex.remove(uuid);
+        ZombieWorld world = worlds.get();
+        if (world != null) world.entities().forget(uuid);
+    }
+
+    // --- Spatial queries (world thread) ---
+
+    /**
+     * Adds the horde zombies within {@code radius} blocks of (x, z) to {@code out}. Positions
+     * are as of each zombie's last periodic check.
+     *
+     * @return the number of zombies added
+     */
+    public int zombiesWithin(double x, double z, double radius, List<UUID> out) {
+        return zombieIndex.within(x, z, radius, out);
+    }
+
+    /**
+     * Paths the given horde zombies toward {@code target}, as a reaction to something they heard.
+     *
+     * @return how many were sent
+     */
+    public int sendTo(List<UUID> zombies, Vector3d target) {
+        ZombieWorld world = worlds.get();
+        if (world == null) return 0;
+        int sent = world.entities().setPath(zombies, List.of(VecMath.copy(target)));
+        HylyptoMetrics.NOISE_REACTIONS.add(sent);
+        return sent;
     }
 
     // --- Accessors ---
@@ -11,12 +11,30 @@ public class PatrolConfig {
     public double waypointArrivalRadius = 5.0;
     public int swarmFormationSeconds = 5;
 
+    // Formation — only the leader follows the route, the others hold slots around it.
+    // "wedge", "column", "blob", or "none" for every member walking the route itself
+    public String formation = "wedge";
+    public double formationSpacing = 2.5;
+    // A follower is sent to its slot again once the slot has moved further than this, plus however
+    // far the leader walked since the last tick — a steadily marching group isn't resent every tick
+    public double formationSlotTolerance = 1.5;
+
     // Detection
     public double detectionRange = 25.0;
     public double fovDegrees = 120.0;
     public double proximityAlwaysDetect = 5.0;
     public double aggroRange = 30.0;
     public int aggroTimeoutSeconds = 10;
+
+    // Chasing — members spread onto a ring around the player instead of all walking to its exact
+    // point. 0 sends every member to the player's position
+    public double surroundRadius = 1.5;
+    // Least gap between neighbouring ring slots — the ring widens for bigger groups
+    public double surroundSpacing = 1.2;
+    // Slots are reassigned once the aim point has moved further than this, or than this fraction
+    // of the group's distance to it if that is more — a far group needn't track every step
+    public double chaseRepathDistance = 3.0;
+    public double chaseRepathFraction = 0.2;
     public int searchDurationSeconds = 20;
 
     // Despawning
@@ -27,6 +45,10 @@ public class PatrolConfig {
     public double screamerDetectionRange = 20.0;
     public int screamerHordeSize = 8;
     public double screamerHordeSpawnDistance = 60.0;
+    // Patrol groups (up to this many) and horde zombies within this radius of a scream answer it
+    // before anything new is spawned — only the shortfall arrives as a fresh patrol
+    public double screamerAlertRadius = 48.0;
+    public int screamerAlertGroups = 3;
     public String screamerModel = "Zombie_Aberrant";
 
     // Block breaking
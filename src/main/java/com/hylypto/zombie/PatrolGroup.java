@@ -1,40 +1,76 @@
 package com.hylypto.zombie;
 
-import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hylypto.zombie.math.VecMath;
 import com.hylypto.zombie.state.PatrolState;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class PatrolGroup {
 
     private final UUID groupId;
+    private final UUID ownerId;
     private final List<Vector3d> waypoints;
     private int currentWaypointIndex = 0;
-    private PatrolState currentState = PatrolState.PATROLLING;
+    private volatile PatrolState currentState = PatrolState.PATROLLING;
 
-    private final Set<Ref<EntityStore>> memberRefs = ConcurrentHashMap.newKeySet();
     private final Set<UUID> memberUUIDs = ConcurrentHashMap.newKeySet();
 
+    // Formation — the leader walks the route, followers hold slots in list order. World thread only.
+    private UUID leaderUUID;
+    private final List<UUID> followers = new ArrayList<>();
+    private final Map<UUID, Vector3d> followerSlots = new HashMap<>();
+    private boolean leaderChanged;
+    private double headingX = 1;
+    private double headingZ;
+    private final Vector3d lastLeaderPos = new Vector3d();
+    private boolean leaderSampled;
+
     // Screamer tracking
     private boolean hasScreamer;
     private UUID screamerUUID;
     private boolean hasScreamed = false;
 
     // State metadata
+    private final Vector3d centroid = new Vector3d();
     private Vector3d lastKnownPlayerPosition;
+    private final Vector3d lastKnownPlayerVelocity = new Vector3d();
     private long stateEnteredAtMillis;
     private long lastTickMillis;
+    private boolean despawned;
+
+    // Aggro bookkeeping — per group, not per handler
+    private long lastPlayerSeenMillis;
+    private Vector3d lastChaseTarget;
+    // Each member's ring slot around the chase target. World thread only.
+    private final Map<UUID, Vector3d> chaseSlots = new HashMap<>();
+
+    // Noise — the last source this group went to investigate, so each is followed once,
+    // and whether the last known position is that source rather than a sighted player
+    private long lastHeardNoise;
+    private boolean chasingNoise;
 
-    public PatrolGroup(UUID groupId, List<Vector3d> waypoints, boolean hasScreamer) {
+    // Walk requested from the path service toward the waypoint at pendingWalkIndex
+    private CompletableFuture<List<Vector3d>> pendingWalk;
+    private int pendingWalkIndex = -1;
+
+    /**
+     * @param ownerId the player the patrol was spawned for — it is removed when they leave
+     */
+    public PatrolGroup(UUID groupId, UUID ownerId, List<Vector3d> waypoints, boolean hasScreamer,
+                       long createdAtMillis) {
         this.groupId = groupId;
+        this.ownerId = ownerId;
         this.waypoints = waypoints;
         this.hasScreamer = hasScreamer;
-        this.stateEnteredAtMillis = System.currentTimeMillis();
+        this.stateEnteredAtMillis = createdAtMillis;
         this.lastTickMillis = 0;
     }
 
@@ -50,14 +86,36 @@ public class PatrolGroup {
         return currentWaypointIndex < waypoints.size();
     }
 
-    public void addMember(Ref<EntityStore> ref, UUID uuid) {
-        memberRefs.add(ref);
-        memberUUIDs.add(uuid);
+    /** The first member leads; later ones follow in the order they joined. */
+    public void addMember(UUID uuid) {
+        if (!memberUUIDs.add(uuid)) return;
+        if (leaderUUID == null) {
+            leaderUUID = uuid;
+        } else {
+            followers.add(uuid);
+        }
     }
 
-    public void removeMember(UUID uuid) {
-        memberUUIDs.remove(uuid);
-        memberRefs.removeIf(ref -> !ref.isValid());
+    /**
+     * Removes a member. If it led the group, the first follower takes over and
+     * {@link #takeLeaderChanged} reports it, so the new leader can be given the route.
+     *
+     * @return true if the removed member was the leader and another took over
+     */
+    public boolean removeMember(UUID uuid) {
+        if (!memberUUIDs.remove(uuid)) return false;
+        followerSlots.remove(uuid);
+        chaseSlots.remove(uuid);
+        if (!uuid.equals(leaderUUID)) {
+            followers.remove(uuid);
+            return false;
+        }
+        leaderUUID = followers.isEmpty() ? null : followers.remove(0);
+        if (leaderUUID == null) return false;
+        followerSlots.remove(leaderUUID);
+        leaderChanged = true;
+        leaderSampled = false;
+        return true;
     }
 
     public boolean isEmpty() {
@@ -70,22 +128,29 @@ public class PatrolGroup {
 
     // --- State transitions ---
 
-    public void transitionTo(PatrolState newState) {
+    public void transitionTo(PatrolState newState, long nowMillis) {
         this.currentState = newState;
-        this.stateEnteredAtMillis = System.currentTimeMillis();
+        this.stateEnteredAtMillis = nowMillis;
     }
 
-    public long millisInCurrentState() {
-        return System.currentTimeMillis() - stateEnteredAtMillis;
+    public long millisInCurrentState(long nowMillis) {
+        return nowMillis - stateEnteredAtMillis;
     }
 
+    /**
+     * Marks the group's entities as removed from the world. The member UUIDs are kept
+     * so PatrolManager can drop them from its zombie → group index.
+     */
+    public void markDespawned() { this.despawned = true; }
+    public boolean isDespawned() { return despawned; }
+
     // --- Getters / Setters ---
 
     public UUID getGroupId() { return groupId; }
+    public UUID getOwnerId() { return ownerId; }
     public List<Vector3d> getWaypoints() { return waypoints; }
     public int getCurrentWaypointIndex() { return currentWaypointIndex; }
     public PatrolState getCurrentState() { return currentState; }
-    public Set<Ref<EntityStore>> getMemberRefs() { return memberRefs; }
     public Set<UUID> getMemberUUIDs() { return memberUUIDs; }
 
     public boolean hasScreamer() { return hasScreamer; }
@@ -94,10 +159,111 @@ public class PatrolGroup {
     public boolean hasScreamed() { return hasScreamed; }
     public void setHasScreamed(boolean screamed) { this.hasScreamed = screamed; }
 
+    /** Scratch vector the state handlers write this group's centroid into each tick. */
+    public Vector3d getCentroidScratch() { return centroid; }
+
     public Vector3d getLastKnownPlayerPosition() { return lastKnownPlayerPosition; }
-    public void setLastKnownPlayerPosition(Vector3d pos) { this.lastKnownPlayerPosition = pos; }
+
+    /**
+     * Copies {@code pos} into the group's own last-known vector, so the live player
+     * position can be passed straight in. The vector is reused — copy it before keeping it.
+     * The remembered velocity is reset until {@link #rememberPlayerVelocity} says otherwise.
+     */
+    public void rememberPlayerPosition(Vector3d pos) {
+        if (lastKnownPlayerPosition == null) {
+            lastKnownPlayerPosition = new Vector3d(pos.x, pos.y, pos.z);
+        } else {
+            VecMath.set(lastKnownPlayerPosition, pos);
+        }
+        VecMath.set(lastKnownPlayerVelocity, VecMath.ORIGIN);
+        chasingNoise = false;
+    }
+
+    /** The player's velocity on the XZ plane when last seen, in blocks per second — zero if unknown. */
+    public Vector3d getLastKnownPlayerVelocity() { return lastKnownPlayerVelocity; }
+    public void rememberPlayerVelocity(Vector3d velocity) { VecMath.set(lastKnownPlayerVelocity, velocity); }
+
+    /** As {@link #rememberPlayerPosition}, for a heard source — the group goes there without having seen anyone. */
+    public void rememberNoise(Vector3d origin, long sourceId) {
+        rememberPlayerPosition(origin);
+        lastHeardNoise = sourceId;
+        chasingNoise = true;
+    }
 
     public long getLastTickMillis() { return lastTickMillis; }
     public void setLastTickMillis(long millis) { this.lastTickMillis = millis; }
 
+    public long getLastPlayerSeenMillis() { return lastPlayerSeenMillis; }
+    public void setLastPlayerSeenMillis(long millis) { this.lastPlayerSeenMillis = millis; }
+    public Vector3d getLastChaseTarget() { return lastChaseTarget; }
+    public void setLastChaseTarget(Vector3d target) { this.lastChaseTarget = target; }
+
+    /** The ring slot a member was sent to around the chase target, or null if it has none. */
+    public Vector3d getChaseSlot(UUID uuid) { return chaseSlots.get(uuid); }
+    public void setChaseSlot(UUID uuid, Vector3d slot) { chaseSlots.put(uuid, slot); }
+    public void clearChaseSlots() { chaseSlots.clear(); }
+
+    public long getLastHeardNoise() { return lastHeardNoise; }
+    public void setLastHeardNoise(long sourceId) { this.lastHeardNoise = sourceId; }
+    public boolean isChasingNoise() { return chasingNoise; }
+
+    // --- Formation ---
+
+    public UUID getLeaderUUID() { return leaderUUID; }
+
+    /** Followers in slot order — slot i is {@code getFollowers().get(i)}. */
+    public List<UUID> getFollowers() { return followers; }
+
+    /** The slot a follower was last sent to, or null if it has none. */
+    public Vector3d getFollowerSlot(UUID uuid) { return followerSlots.get(uuid); }
+    public void setFollowerSlot(UUID uuid, Vector3d slot) { followerSlots.put(uuid, slot); }
+
+    /** Forgets every follower's slot — after they were given some other path, so all are resent. */
+    public void clearFollowerSlots() { followerSlots.clear(); }
+
+    /** True once after leadership passed to another member. */
+    public boolean takeLeaderChanged() {
+        boolean changed = leaderChanged;
+        leaderChanged = false;
+        return changed;
+    }
+
+    /** The leader's last known heading on the XZ plane, unit length; +X until it has moved. */
+    public double getHeadingX() { return headingX; }
+    public double getHeadingZ() { return headingZ; }
+
+    public void setHeading(double x, double z) {
+        this.headingX = x;
+        this.headingZ = z;
+    }
+
+    /**
+     * How far the leader moved on the XZ plane since the last call, remembering
+     * {@code leaderPos} for the next — zero on the first call and after leadership changes.
+     */
+    public double sampleLeaderStep(Vector3d leaderPos) {
+        double step = leaderSampled
+                ? Math.sqrt(VecMath.distanceSqXZ(lastLeaderPos.x, lastLeaderPos.z, leaderPos.x, leaderPos.z)) : 0;
+        VecMath.set(lastLeaderPos, leaderPos);
+        leaderSampled = true;
+        return step;
+    }
+
+    public void setPendingWalk(CompletableFuture<List<Vector3d>> walk, int waypointIndex) {
+        this.pendingWalk = walk;
+        this.pendingWalkIndex = waypointIndex;
+    }
+
+    /**
+     * The walk toward the current waypoint once its search has finished, or null while it is
+     * still running, none was requested or the group has since moved on. Each walk is taken once.
+     */
+    public List<Vector3d> takeWalk() {
+        CompletableFuture<List<Vector3d>> walk = pendingWalk;
+        if (walk == null || !walk.isDone()) return null;
+        pendingWalk = null;
+        if (pendingWalkIndex != currentWaypointIndex) return null;
+        return walk.getNow(List.of());
+    }
+
 }
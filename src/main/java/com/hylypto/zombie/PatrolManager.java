@@ -1,21 +1,8 @@
 package com.hylypto.zombie;
 
-import com.hypixel.hytale.builtin.path.path.TransientPath;
-import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.component.RemoveReason;
-import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.math.vector.Vector3f;
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
-import com.hypixel.hytale.server.core.entity.UUIDComponent;
-import com.hypixel.hytale.server.core.modules.debug.DebugUtils;
-import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
-import com.hypixel.hytale.server.core.universe.PlayerRef;
-import com.hypixel.hytale.server.core.universe.Universe;
-import com.hypixel.hytale.server.core.universe.world.World;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.npc.NPCPlugin;
-import com.hypixel.hytale.server.npc.entities.NPCEntity;
+import com.hylypto.api.metrics.HylyptoMetrics;
 import com.hylypto.zombie.state.PatrolState;
 import com.hylypto.zombie.state.PatrolStateHandler;
 import com.hylypto.zombie.state.FormingStateHandler;
@@ -24,215 +11,311 @@ import com.hylypto.zombie.state.AggroStateHandler;
 import com.hylypto.zombie.state.SearchingStateHandler;
 import com.hylypto.zombie.state.DespawningStateHandler;
 import com.hylypto.zombie.blockbreak.BlockBreakTracker;
+import com.hylypto.zombie.despawn.DespawnQueue;
+import com.hylypto.zombie.jfr.PathAssignEvent;
+import com.hylypto.zombie.jfr.PatrolTickEvent;
+import com.hylypto.zombie.jfr.SpawnBatchEvent;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.governor.SpawnGovernor;
+import com.hylypto.zombie.motion.PlayerMotionTracker;
+import com.hylypto.zombie.nav.NavService;
+import com.hylypto.zombie.noise.NoiseGrid;
+import com.hylypto.zombie.path.PathService;
+import com.hylypto.zombie.terrain.TerrainSnapshots;
+import com.hylypto.zombie.population.PopulationManager;
+import com.hylypto.zombie.replay.DecisionLog;
 import com.hylypto.zombie.screamer.ScreamerManager;
+import com.hylypto.zombie.snapshot.ShardSnapshot;
+import com.hylypto.zombie.spatial.SpatialGrid;
+import com.hylypto.zombie.spawn.SpawnReservoir;
+import com.hylypto.zombie.world.BlockAccess;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.WorldRandom;
+import com.hylypto.zombie.world.ZombieWorld;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
+import com.hylypto.api.log.TraceCode;
 
 import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class PatrolManager {
 
-    private static final System.Logger LOG = System.getLogger(PatrolManager.class.getName());
+    private static final HylyptoLog LOG = HylyptoLog.get(PatrolManager.class, "patrol");
+    private static final HylyptoLog SPAWN_LOG = HylyptoLog.get(PatrolManager.class, "patrol.spawn");
+    private static final HylyptoLog TICK_LOG = HylyptoLog.get(PatrolManager.class, "patrol.tick");
+    private static final LogSite TICK_SUMMARY_SITE = LogSite.every(10, TimeUnit.SECONDS);
+    private static final TraceCode SPAWN_TRACE = TraceCode.register("patrol.spawn", "group=%08x x=%d z=%d");
+    private static final TraceCode TRANSITION_TRACE = TraceCode.register("patrol.transition", "group=%08x %d -> %d");
     private static final int SURFACE_SCAN_RANGE = 60;
     private static final String PATROL_ROLE = "Hylypto_Patrol_Zombie";
 
-    private final PatrolConfig config;
+    private final Supplier<PatrolSettings> settings;
+    private final Supplier<ZombieWorld> worlds;
+    private final PopulationManager population;
+    private final SpawnGovernor governor;
+    private final DespawnQueue despawns;
+    private final NavService nav;
+    private final SpawnReservoir reservoir;
+    private final DecisionLog decisions;
     private final ScreamerManager screamerManager;
     private final BlockBreakTracker blockBreakTracker;
     private final Map<UUID, PatrolGroup> activeGroups = new ConcurrentHashMap<>();
     private final Map<UUID, UUID> zombieToGroup = new ConcurrentHashMap<>();
+    // Group centroids by chunk — world thread only, refreshed on every group tick
+    private final SpatialGrid<PatrolGroup> groupIndex = new SpatialGrid<>(SpatialGrid.CHUNK_SIZE);
     private final EnumMap<PatrolState, PatrolStateHandler> stateHandlers = new EnumMap<>(PatrolState.class);
+    // Restored groups that had a member adopted since the last resume — world thread only
+    private final Set<UUID> adoptedGroups = new HashSet<>();
 
-    public PatrolManager(PatrolConfig config) {
-        this.config = config;
-        this.screamerManager = new ScreamerManager(config, this);
-        this.blockBreakTracker = new BlockBreakTracker(config);
+    /**
+     * @param settings the live patrol settings snapshot — read once per group tick, so a
+     *                 reload published between ticks is picked up on the next one
+     * @param worlds supplies the world patrols live in — the shard's world at runtime,
+     *               an in-memory world in the headless harness. May return null when no world is loaded.
+     * @param population picks the player each patrol is for and enforces the density caps
+     * @param governor scales group sizes and the group tick interval to the world's tick time
+     * @param despawns removes despawned members a bounded number per tick
+     * @param noise the world's sound grid — block damage and screams are emitted into it, and
+     *              patrolling or searching groups that hear something go to investigate
+     * @param terrain the world's terrain snapshots — blocks broken by zombies are reported to it
+     * @param nav draws patrol routes and spawn heights from the navigation graph where it covers the area
+     * @param reservoir checked spawn points around each player, taken before scanning for one
+     * @param motion player velocities — chasing and searching groups aim ahead of a moving player
+     * @param paths finds walks around terrain for patrol legs
+     * @param decisions records or replays spawns, routes, transitions and chase targets
+     */
+    public PatrolManager(Supplier<PatrolSettings> settings, Supplier<ZombieWorld> worlds,
+                         PopulationManager population, SpawnGovernor governor, DespawnQueue despawns,
+                         NoiseGrid noise, TerrainSnapshots terrain, NavService nav,
+                         SpawnReservoir reservoir, PlayerMotionTracker motion, PathService paths,
+                         DecisionLog decisions) {
+        this.settings = settings;
+        this.worlds = worlds;
+        this.population = population;
+        this.governor = governor;
+        this.despawns = despawns;
+        this.nav = nav;
+        this.reservoir = reservoir;
+        this.decisions = decisions;
+        this.screamerManager = new ScreamerManager(this, noise);
+        this.blockBreakTracker = new BlockBreakTracker(worlds, noise, terrain);
+
+        stateHandlers.put(PatrolState.FORMING, new FormingStateHandler());
+        stateHandlers.put(PatrolState.PATROLLING, new PatrollingStateHandler(noise, paths));
+        stateHandlers.put(PatrolState.AGGRO, new AggroStateHandler(screamerManager, blockBreakTracker, motion, decisions));
+        stateHandlers.put(PatrolState.SEARCHING, new SearchingStateHandler(noise, motion));
+        stateHandlers.put(PatrolState.DESPAWNING, new DespawningStateHandler(despawns));
+    }
 
-        stateHandlers.put(PatrolState.FORMING, new FormingStateHandler(config));
-        stateHandlers.put(PatrolState.PATROLLING, new PatrollingStateHandler(config));
-        stateHandlers.put(PatrolState.AGGRO, new AggroStateHandler(config, screamerManager, blockBreakTracker));
-        stateHandlers.put(PatrolState.SEARCHING, new SearchingStateHandler(config));
-        stateHandlers.put(PatrolState.DESPAWNING, new DespawningStateHandler(config));
+    public PatrolSettings getSettings() {
+        return settings.get();
     }
 
     /**
-     * Spawns a patrol group near the player position.
+     * Spawns a patrol group near the player with the most spawn room.
      * Generates a route that passes through the player's area.
      * Zombies spawn within loaded chunks and patrol toward waypoints.
      */
     public String spawnPatrol(int groupSize, boolean includeScreamer) {
-        World world = Universe.get().getDefaultWorld();
+        return spawnPatrol(groupSize, includeScreamer, null);
+    }
+
+    /**
+     * As {@link #spawnPatrol(int, boolean)}, aimed at {@code preferredOwner} while they have room.
+     * The group may be smaller than requested if the owner's or region's cap is nearly reached,
+     * or if the governor has scaled spawning down.
+     */
+    public String spawnPatrol(int groupSize, boolean includeScreamer, UUID preferredOwner) {
+        ZombieWorld world = worlds.get();
         if (world == null) {
             return "No world available.";
         }
 
-        UUID groupId = UUID.randomUUID();
-
         // All world access (player position, block queries, spawning) must happen inside world.execute()
-        world.execute(() -> {
+        world.execute("PatrolManager.spawnPatrol", () -> {
+            SpawnBatchEvent spawnEvent = new SpawnBatchEvent();
+            spawnEvent.begin();
             try {
-                Vector3d playerPos = getPlayerPosition(world);
-                LOG.log(System.Logger.Level.INFO,
-                        "spawnPatrol — player at (" + (int) playerPos.x + ", " + (int) playerPos.y
-                        + ", " + (int) playerPos.z + "), groupSize=" + groupSize);
-
-                PatrolRoute patrol = generatePatrolRoute(playerPos, world);
-                List<Vector3d> route = patrol.waypoints();
-                PatrolGroup group = new PatrolGroup(groupId, route, includeScreamer && config.screamerEnabled);
-
-                LOG.log(System.Logger.Level.INFO,
-                        "Spawning patrol " + groupId + " — " + groupSize + " zombies, "
+                int budget = governor.budget(groupSize);
+                PopulationManager.SpawnTarget target = population.pickTarget(world, budget, preferredOwner);
+                if (target == null) {
+                    LOG.info("spawnPatrol skipped — every player is at their zombie cap");
+                    return;
+                }
+                int memberCount = target.allowed();
+
+                PatrolSettings current = settings.get();
+                WorldRandom random = world.random();
+                UUID groupId = decisions.groupId(() -> WorldRandom.nextUUID(random.stream("patrol.id")));
+                Vector3d playerPos = target.position();
+                LOG.info(() -> "spawnPatrol — player " + target.playerId() + " at (" + (int) playerPos.x
+                        + ", " + (int) playerPos.y + ", " + (int) playerPos.z + "), groupSize=" + memberCount);
+
+                // Direction is always drawn so the route stream stays aligned when a recording replays the route
+                BlockAccess blocks = world.blocks();
+                SplittableRandom routeRng = random.stream("patrol.route");
+                double dirAngle = routeRng.nextDouble() * 2 * Math.PI;
+                List<Vector3d> route = decisions.route(groupId,
+                        () -> generatePatrolRoute(playerPos, dirAngle, blocks, routeRng));
+                PatrolGroup group = new PatrolGroup(groupId, target.playerId(), route,
+                        includeScreamer && current.screamerEnabled, world.currentTimeMillis());
+
+                LOG.info(() -> "Spawning patrol " + groupId + " — " + memberCount + " zombies, "
                         + route.size() + " waypoints, screamer=" + group.hasScreamer());
 
                 // Spawn far from player along the patrol direction
-                Vector3d spawnCenter = generateSpawnPosition(playerPos, world, patrol.dirAngle());
-
-                Store<EntityStore> store = world.getEntityStore().getStore();
+                SplittableRandom spawnRng = random.stream("patrol.spawn");
+                Vector3d spawnCenter = decisions.spawnPosition(groupId,
+                        () -> generateSpawnPosition(world, target.playerId(), playerPos, dirAngle, route.get(0), spawnRng));
 
-                for (int i = 0; i < groupSize; i++) {
-                    String model = (i == 0 && group.hasScreamer()) ? config.screamerModel : config.zombieModel;
-                    spawnPatrolMember(store, group, spawnCenter, world, model, i == 0 && group.hasScreamer());
+                for (int i = 0; i < memberCount; i++) {
+                    String model = (i == 0 && group.hasScreamer()) ? current.screamerModel : current.zombieModel;
+                    spawnPatrolMember(world, group, spawnCenter, spawnRng, model, i == 0 && group.hasScreamer());
                 }
+                // Patrol waypoints via TransientPath — engine's BodyMotionPath reads this
+                assignPatrolPath(world.entities(), group);
 
-                LOG.log(System.Logger.Level.INFO,
-                        "Patrol " + groupId + " spawned with " + group.size() + " members at ("
+                LOG.info(() -> "Patrol " + groupId + " spawned with " + group.size() + " members at ("
                         + (int) spawnCenter.x + ", " + (int) spawnCenter.y + ", " + (int) spawnCenter.z + ")");
 
                 activeGroups.put(groupId, group);
+                // Until the first tick computes a real centroid, the group is where it spawned
+                VecMath.set(group.getCentroidScratch(), spawnCenter);
+                groupIndex.place(group, spawnCenter);
+
+                spawnEvent.end();
+                if (spawnEvent.shouldCommit()) {
+                    spawnEvent.source = "patrol";
+                    spawnEvent.groupId = groupId.toString();
+                    spawnEvent.requested = groupSize;
+                    spawnEvent.spawned = group.size();
+                    spawnEvent.commit();
+                }
             } catch (Exception e) {
-                LOG.log(System.Logger.Level.ERROR, "Failed to spawn patrol: " + e.getMessage(), e);
+                LOG.error(() -> "Failed to spawn patrol: " + e.getMessage(), e);
             }
         });
 
-        return "Spawning patrol of " + groupSize + " zombies.";
+        return "Spawning patrol of up to " + groupSize + " zombies.";
     }
 
     /**
      * Generates a spawn position within loaded chunk range of the player,
      * but far enough to be outside direct line of sight.
      */
-    private Vector3d generateSpawnPosition(Vector3d playerPos, World world, double dirAngle) {
+    private Vector3d generateSpawnPosition(ZombieWorld world, UUID playerId, Vector3d playerPos, double dirAngle,
+                                           Vector3d firstWaypoint, SplittableRandom rng) {
         // Spawn 80-120 blocks away along the patrol direction — far from player
-        ThreadLocalRandom rng = ThreadLocalRandom.current();
         double dist = 80.0 + rng.nextDouble() * 40.0;
+        // A checked point out of the player's sight, roughly along the patrol direction
+        Vector3d reserved = reservoir.take(playerId, playerPos, SpawnReservoir.Band.PATROL, dirAngle, world);
+        if (reserved != null) return reserved;
         double x = playerPos.x + Math.cos(dirAngle) * dist;
         double z = playerPos.z + Math.sin(dirAngle) * dist;
-        double y = findSurfaceY(world, (int) x, (int) playerPos.y + 30, (int) z);
+        // On the graph, somewhere the group can walk to its first waypoint from
+        Vector3d onGraph = nav.snap(x, z, firstWaypoint);
+        if (onGraph != null) return onGraph;
+        double y = world.blocks().findSurfaceY((int) x, (int) playerPos.y + 30, (int) z, SURFACE_SCAN_RANGE);
         return new Vector3d(x, y, z);
     }
 
-    private void spawnPatrolMember(Store<EntityStore> store, PatrolGroup group,
-                                    Vector3d center, World world, String model, boolean isScreamer) {
+    private void spawnPatrolMember(ZombieWorld world, PatrolGroup group, Vector3d center,
+                                    SplittableRandom rng, String model, boolean isScreamer) {
         try {
-            double angle = ThreadLocalRandom.current().nextDouble() * 2 * Math.PI;
-            double radius = 4.0 * (0.5 + ThreadLocalRandom.current().nextDouble() * 0.5);
-            double x = center.x + Math.cos(angle) * radius;
-            double z = center.z + Math.sin(angle) * radius;
-            double y = findSurfaceY(world, (int) x, (int) center.y + 30, (int) z);
-
-            Vector3d position = new Vector3d(x, y, z);
-            Vector3f rotation = new Vector3f(0, (float) Math.toDegrees(angle), 0);
-
-            boolean roleExists = NPCPlugin.get().hasRoleName(PATROL_ROLE);
-            LOG.log(System.Logger.Level.INFO,
-                    "[SPAWN] Attempting spawnNPC: model=" + model + " role=" + PATROL_ROLE
-                    + " roleExists=" + roleExists
+            Vector3d position = decisions.spawnPosition(group.getGroupId(), () -> {
+                double angle = rng.nextDouble() * 2 * Math.PI;
+                double radius = 4.0 * (0.5 + rng.nextDouble() * 0.5);
+                double px = center.x + Math.cos(angle) * radius;
+                double pz = center.z + Math.sin(angle) * radius;
+                double py = nav.surfaceY(px, pz);
+                if (Double.isNaN(py)) {
+                    py = world.blocks().findSurfaceY((int) px, (int) center.y + 30, (int) pz, SURFACE_SCAN_RANGE);
+                }
+                return new Vector3d(px, py, pz);
+            });
+            double x = position.x;
+            double y = position.y;
+            double z = position.z;
+            // Face away from the group centre
+            float yaw = (float) Math.toDegrees(Math.atan2(z - center.z, x - center.x));
+            Vector3f rotation = new Vector3f(0, yaw, 0);
+
+            SPAWN_LOG.debug(() -> "[SPAWN] Attempting spawn: model=" + model + " role=" + PATROL_ROLE
                     + " at (" + (int) x + ", " + (int) y + ", " + (int) z + ")");
 
             // Spawn using our custom config — "Appearance" field in the JSON sets the visual model
-            // The 2nd param is the NPC config name (determines both appearance + behavior)
-            var result = NPCPlugin.get().spawnNPC(store, PATROL_ROLE, null, position, rotation);
-
-            if (result != null) {
-                @SuppressWarnings("unchecked")
-                Ref<EntityStore> npcRef = (Ref<EntityStore>) result.first();
-
-                UUIDComponent uuidComp = store.getComponent(npcRef, UUIDComponent.getComponentType());
-                if (uuidComp != null) {
-                    UUID uuid = uuidComp.getUuid();
-                    group.addMember(npcRef, uuid);
-                    zombieToGroup.put(uuid, group.getGroupId());
-
-                    if (isScreamer) {
-                        group.setScreamerUUID(uuid);
-                    }
-
-                    // Log actual role info for debugging
-                    NPCEntity npcEntity = store.getComponent(npcRef, NPCEntity.getComponentType());
-                    if (npcEntity != null) {
-                        LOG.log(System.Logger.Level.INFO, "[SPAWN] NPC role info: roleName="
-                                + npcEntity.getRoleName() + " roleIndex=" + npcEntity.getRoleIndex()
-                                + " hasRole=" + (npcEntity.getRole() != null)
-                                + " isFollowingPath=" + npcEntity.getPathManager().isFollowingPath());
-                    }
-
-                    // Assign patrol waypoints via TransientPath — engine's BodyMotionPath reads this
-                    assignPatrolPath(store, npcRef, group.getWaypoints());
-
-                    // Log path status after assignment
-                    if (npcEntity != null) {
-                        LOG.log(System.Logger.Level.INFO, "[SPAWN] After path assign: isFollowingPath="
-                                + npcEntity.getPathManager().isFollowingPath());
-                    }
-
-                    LOG.log(System.Logger.Level.INFO, "[SPAWN] Patrol member spawned: uuid=" + uuid
-                            + " ref=" + npcRef + " group=" + group.getGroupId()
-                            + " waypoints=" + group.getWaypoints().size());
-                } else {
-                    LOG.log(System.Logger.Level.WARNING, "[SPAWN] spawnNPC result has no UUIDComponent");
-                }
-            } else {
-                LOG.log(System.Logger.Level.ERROR, "[SPAWN] spawnNPC returned null for model=" + model
-                        + " role=" + PATROL_ROLE + " — role may not be loaded. "
-                        + "Check that IncludesAssetPack=true in manifest.json and role JSON is valid.");
+            // The role name determines both appearance + behavior
+            UUID uuid = world.entities().spawn(PATROL_ROLE, position, rotation);
+            if (uuid == null) return;
+
+            group.addMember(uuid);
+            zombieToGroup.put(uuid, group.getGroupId());
+            population.track(group.getOwnerId(), uuid, position);
+            HylyptoMetrics.PATROL_ZOMBIES_SPAWNED.increment();
+            SPAWN_LOG.trace(SPAWN_TRACE, TraceCode.shortId(group.getGroupId()), (long) x, (long) z);
+
+            if (isScreamer) {
+                group.setScreamerUUID(uuid);
             }
+
+            SPAWN_LOG.debug(() -> "[SPAWN] Patrol member spawned: uuid=" + uuid
+                    + " group=" + group.getGroupId()
+                    + " waypoints=" + group.getWaypoints().size());
         } catch (Exception e) {
-            LOG.log(System.Logger.Level.ERROR, "[SPAWN] Failed to spawn patrol member: " + e.getMessage(), e);
+            SPAWN_LOG.error(() -> "[SPAWN] Failed to spawn patrol member: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Assigns a TransientPath with the group's waypoints to the NPC.
+     * Assigns a TransientPath with the group's waypoints to every member just spawned.
      * The engine's BodyMotionPath instruction (from the custom role) reads this path
      * and handles movement natively — no manual bodySteering writes needed.
      */
-    private void assignPatrolPath(Store<EntityStore> store, Ref<EntityStore> ref, List<Vector3d> waypoints) {
+    private void assignPatrolPath(EntityAccess entities, PatrolGroup group) {
+        if (group.isEmpty()) return;
+        List<Vector3d> waypoints = group.getWaypoints();
+        PathAssignEvent pathEvent = new PathAssignEvent();
+        pathEvent.begin();
         try {
-            NPCEntity npc = store.getComponent(ref, NPCEntity.getComponentType());
-            if (npc == null) {
-                LOG.log(System.Logger.Level.WARNING, "[SPAWN] Cannot assign path — NPCEntity is null");
+            int assigned = entities.setPath(group.getMemberUUIDs(), waypoints);
+            if (assigned == 0) {
+                SPAWN_LOG.warn("[SPAWN] Cannot assign path — no NPC in group " + group.getGroupId() + " has a path manager");
                 return;
             }
-
-            TransientPath path = new TransientPath();
-            for (Vector3d wp : waypoints) {
-                path.addWaypoint(wp, new Vector3f(0, 0, 0));
+            SPAWN_LOG.debug(() -> "[SPAWN] Assigned TransientPath with " + waypoints.size()
+                    + " waypoints to " + assigned + " NPCs");
+
+            pathEvent.end();
+            if (pathEvent.shouldCommit()) {
+                pathEvent.source = "spawn";
+                pathEvent.groupId = group.getGroupId().toString();
+                pathEvent.waypoints = waypoints.size();
+                pathEvent.assigned = assigned;
+                pathEvent.commit();
             }
-
-            npc.getPathManager().setTransientPath(path);
-            LOG.log(System.Logger.Level.INFO, "[SPAWN] Assigned TransientPath with " + waypoints.size()
-                    + " waypoints to NPC ref=" + ref);
         } catch (Exception e) {
-            LOG.log(System.Logger.Level.ERROR, "[SPAWN] Failed to assign patrol path: " + e.getMessage(), e);
+            SPAWN_LOG.error(() -> "[SPAWN] Failed to assign patrol path: " + e.getMessage(), e);
         }
     }
 
     /**
      * Generates a patrol route that crosses through the player's area.
      * Route: spawn far away → approach player area → pass through → exit far on opposite side.
-     * Returns both the route and the direction angle (for spawn positioning).
+     * {@code dirAngle} is the direction the patrol comes from (also used for spawn positioning).
      */
-    private record PatrolRoute(List<Vector3d> waypoints, double dirAngle) {}
-
-    private PatrolRoute generatePatrolRoute(Vector3d playerPos, World world) {
+    private List<Vector3d> generatePatrolRoute(Vector3d playerPos, double dirAngle, BlockAccess blocks,
+                                               SplittableRandom rng) {
         List<Vector3d> waypoints = new ArrayList<>();
-        ThreadLocalRandom rng = ThreadLocalRandom.current();
-
-        double dirAngle = rng.nextDouble() * 2 * Math.PI;
         double perpAngle = dirAngle + Math.PI / 2;
 
         // First waypoint: approaching the player area (30-40 blocks out)
@@ -240,45 +323,56 @@ public class PatrolManager {
         double lateralOffset = rng.nextDouble(-10, 10);
         double wx = playerPos.x + Math.cos(dirAngle) * approachDist + Math.cos(perpAngle) * lateralOffset;
         double wz = playerPos.z + Math.sin(dirAngle) * approachDist + Math.sin(perpAngle) * lateralOffset;
-        double wy = findSurfaceY(world, (int) wx, (int) playerPos.y + 30, (int) wz);
-        waypoints.add(new Vector3d(wx, wy, wz));
+        waypoints.add(new Vector3d(wx, playerPos.y, wz));
 
         // Second waypoint: right through the player's position (small offset for variety)
         lateralOffset = rng.nextDouble(-8, 8);
         double throughDist = rng.nextDouble(-5, 5);
         wx = playerPos.x + Math.cos(perpAngle) * lateralOffset + Math.cos(dirAngle) * throughDist;
         wz = playerPos.z + Math.sin(perpAngle) * lateralOffset + Math.sin(dirAngle) * throughDist;
-        wy = findSurfaceY(world, (int) wx, (int) playerPos.y + 30, (int) wz);
-        waypoints.add(new Vector3d(wx, wy, wz));
+        waypoints.add(new Vector3d(wx, playerPos.y, wz));
 
         // Third waypoint: far away on the opposite side (80-120 blocks from player)
         double exitDist = 80.0 + rng.nextDouble() * 40.0;
         wx = playerPos.x - Math.cos(dirAngle) * exitDist;
         wz = playerPos.z - Math.sin(dirAngle) * exitDist;
-        wy = findSurfaceY(world, (int) wx, (int) playerPos.y + 30, (int) wz);
-        waypoints.add(new Vector3d(wx, wy, wz));
+        waypoints.add(new Vector3d(wx, playerPos.y, wz));
 
-        return new PatrolRoute(waypoints, dirAngle);
+        // Known ground with every leg connected if the nav graph covers the area — otherwise scan for the surface
+        List<Vector3d> onGraph = nav.snapRoute(waypoints);
+        if (onGraph != null) return onGraph;
+        for (Vector3d waypoint : waypoints) {
+            waypoint.y = blocks.findSurfaceY((int) waypoint.x, (int) playerPos.y + 30, (int) waypoint.z, SURFACE_SCAN_RANGE);
+        }
+        return waypoints;
     }
 
     // --- State machine dispatch ---
 
     /**
      * Called by PatrolTickSystem for each patrol zombie.
-     * Deduplicates per-group using lastTickMillis.
+     * Deduplicates per-group using lastTickMillis, so each group runs at most once per
+     * configured tick interval however often its members are visited.
      */
-    private int tickGroupCount = 0;
+    private long tickGroupCount = 0;
+
+    public void tickGroup(UUID groupId) {
+        ZombieWorld world = worlds.get();
+        if (world == null) return;
 
-    public void tickGroup(UUID groupId, Store<EntityStore> store) {
         PatrolGroup group = activeGroups.get(groupId);
         if (group == null) {
-            LOG.log(System.Logger.Level.WARNING, "[TICK-GROUP] groupId=" + groupId + " not found in activeGroups");
+            TICK_LOG.warn(() -> "[TICK-GROUP] groupId=" + groupId + " not found in activeGroups");
             return;
         }
 
+        // One snapshot for the whole tick, including enter/exit hooks
+        PatrolSettings current = settings.get();
+
         // Dedup — only tick once per cycle
-        long now = System.currentTimeMillis();
-        if (now - group.getLastTickMillis() < 500) return;
+        long now = world.currentTimeMillis();
+        long interval = (long) (current.tickIntervalMillis * governor.tickStretch());
+        if (now - group.getLastTickMillis() < interval) return;
         group.setLastTickMillis(now);
 
         tickGroupCount++;
@@ -286,56 +380,83 @@ public class PatrolManager {
         PatrolState currentState = group.getCurrentState();
         PatrolStateHandler handler = stateHandlers.get(currentState);
         if (handler == null) {
-            LOG.log(System.Logger.Level.WARNING, "[TICK-GROUP] No handler for state " + currentState);
+            TICK_LOG.warn(() -> "[TICK-GROUP] No handler for state " + currentState);
             return;
         }
 
-        if (tickGroupCount % 5 == 0) {
-            LOG.log(System.Logger.Level.INFO, "[TICK-GROUP] group=" + groupId
-                    + " state=" + currentState + " members=" + group.size()
-                    + " tick#=" + tickGroupCount);
+        TICK_LOG.info(TICK_SUMMARY_SITE, () -> "[TICK-GROUP] group=" + groupId
+                + " state=" + currentState + " members=" + group.size()
+                + " tick#=" + tickGroupCount);
+
+        PatrolTickEvent tickEvent = new PatrolTickEvent();
+        tickEvent.begin();
+        long tickStart = System.nanoTime();
+
+        PatrolState newState = handler.tick(group, world, current);
+        groupIndex.place(group, group.getCentroidScratch());
+
+        HylyptoMetrics.PATROL_GROUP_TICK.record(System.nanoTime() - tickStart);
+        tickEvent.end();
+        if (tickEvent.shouldCommit()) {
+            tickEvent.groupId = groupId.toString();
+            tickEvent.state = currentState.name();
+            tickEvent.nextState = newState.name();
+            tickEvent.memberCount = group.size();
+            tickEvent.commit();
         }
 
-        PatrolState newState = handler.tick(group, store);
-
         if (newState != currentState) {
-            LOG.log(System.Logger.Level.INFO, "[TICK-GROUP] group=" + groupId
+            TICK_LOG.trace(TRANSITION_TRACE, TraceCode.shortId(groupId), currentState.ordinal(), newState.ordinal());
+            TICK_LOG.info(() -> "[TICK-GROUP] group=" + groupId
                     + " STATE TRANSITION: " + currentState + " -> " + newState);
-            handler.onExit(group, store);
-            group.transitionTo(newState);
+            handler.onExit(group, world, current);
+            group.transitionTo(newState, now);
+            decisions.transition(groupId, currentState, newState, now);
+            HylyptoMetrics.PATROL_STATE_TRANSITIONS.increment();
 
             PatrolStateHandler newHandler = stateHandlers.get(newState);
             if (newHandler != null) {
-                newHandler.onEnter(group, store);
-            }
-
-            // If despawning completed (group empty), clean up
-            if (newState == PatrolState.DESPAWNING && group.isEmpty()) {
-                cleanupGroup(groupId);
+                newHandler.onEnter(group, world, current);
             }
         }
 
-        // Also check if despawning state has removed all members
-        if (group.getCurrentState() == PatrolState.DESPAWNING && group.isEmpty()) {
+        // Despawning removed the entities (or none were left) — drop the group
+        if (group.isDespawned() || group.isEmpty()) {
             cleanupGroup(groupId);
         }
     }
 
+    /**
+     * Ticks every active group once. The headless harness drives the state machine
+     * through this; on the server PatrolTickSystem calls {@link #tickGroup} per zombie.
+     */
+    public void tickAll() {
+        for (UUID groupId : activeGroups.keySet()) {
+            tickGroup(groupId);
+        }
+    }
+
     // --- Death / cleanup callbacks ---
 
     public void onZombieDeath(UUID zombieUUID) {
         UUID groupId = zombieToGroup.remove(zombieUUID);
         if (groupId == null) return;
+        population.untrack(zombieUUID);
+
+        ZombieWorld world = worlds.get();
+        if (world != null) world.entities().forget(zombieUUID);
 
         PatrolGroup group = activeGroups.get(groupId);
         if (group == null) return;
 
-        group.removeMember(zombieUUID);
-        LOG.log(System.Logger.Level.DEBUG,
-                "Patrol zombie died — group " + groupId + " has " + group.size() + " remaining");
+        if (group.removeMember(zombieUUID)) {
+            HylyptoMetrics.PATROL_LEADER_FAILOVERS.increment();
+            LOG.debug(() -> "Patrol leader died — " + group.getLeaderUUID() + " now leads group " + groupId);
+        }
+        LOG.debug(() -> "Patrol zombie died — group " + groupId + " has " + group.size() + " remaining");
 
         if (group.isEmpty()) {
-            LOG.log(System.Logger.Level.INFO, "Patrol group " + groupId + " wiped out");
+            LOG.info(() -> "Patrol group " + groupId + " wiped out");
             cleanupGroup(groupId);
         }
     }
@@ -355,52 +476,241 @@ public class PatrolManager {
     private void cleanupGroup(UUID groupId) {
         PatrolGroup group = activeGroups.remove(groupId);
         if (group != null) {
+            groupIndex.remove(group);
+            // A despawned group's members sit in the despawn queue, which still needs their handles
+            ZombieWorld world = group.isDespawned() ? null : worlds.get();
             for (UUID uuid : group.getMemberUUIDs()) {
                 zombieToGroup.remove(uuid);
+                population.untrack(uuid);
+                if (world != null) world.entities().forget(uuid);
             }
-            LOG.log(System.Logger.Level.INFO, "Patrol group " + groupId + " cleaned up");
+            LOG.info(() -> "Patrol group " + groupId + " cleaned up");
         }
     }
 
     /**
-     * Despawns all active patrol groups — called on disconnect / shutdown.
+     * Despawns all active patrol groups — for shutdown and the despawn command. Runs on the
+     * world thread; {@link ZombieShard#despawnAll} marshals calls from elsewhere.
      */
     public void despawnAll() {
-        World world = Universe.get().getDefaultWorld();
-        if (world == null) {
-            activeGroups.clear();
-            zombieToGroup.clear();
-            return;
-        }
-
+        ZombieWorld world = worlds.get();
         List<PatrolGroup> groups = new ArrayList<>(activeGroups.values());
         activeGroups.clear();
         zombieToGroup.clear();
+        groupIndex.clear();
+        if (world == null || groups.isEmpty()) return;
 
-        if (groups.isEmpty()) return;
-
-        world.execute(() -> {
-            Store<EntityStore> store = world.getEntityStore().getStore();
-            int removed = 0;
-            for (PatrolGroup group : groups) {
-                for (Ref<EntityStore> ref : group.getMemberRefs()) {
-                    try {
-                        if (ref.isValid()) {
-                            store.removeEntity(ref, RemoveReason.REMOVE);
-                            removed++;
-                        }
-                    } catch (Exception e) {
-                        // Already removed
-                    }
-                }
+        List<UUID> members = new ArrayList<>();
+        for (PatrolGroup group : groups) {
+            for (UUID uuid : group.getMemberUUIDs()) {
+                population.untrack(uuid);
+                members.add(uuid);
             }
-            LOG.log(System.Logger.Level.INFO, "Despawned " + removed + " patrol zombies across " + groups.size() + " groups");
+        }
+        despawns.enqueue("patrol-all", null, members, world).thenAccept(result -> {
+            HylyptoMetrics.PATROL_ZOMBIES_DESPAWNED.add(result.removed());
+            LOG.info("Despawned " + result.removed() + " patrol zombies across " + groups.size()
+                    + " groups over " + result.ticks() + " ticks");
         });
     }
 
+    /**
+     * Queues every group spawned for {@code playerId} for despawn. Runs on the world thread —
+     * called when the player leaves, so other players' patrols are untouched.
+     *
+     * @return number of zombies queued
+     */
+    public int removeOwnedBy(UUID playerId) {
+        ZombieWorld world = worlds.get();
+        if (world == null) return 0;
+
+        List<UUID> ownedGroups = new ArrayList<>();
+        List<UUID> members = new ArrayList<>();
+        for (PatrolGroup group : activeGroups.values()) {
+            if (playerId.equals(group.getOwnerId())) {
+                ownedGroups.add(group.getGroupId());
+                members.addAll(group.getMemberUUIDs());
+                group.markDespawned();
+            }
+        }
+        for (UUID groupId : ownedGroups) {
+            cleanupGroup(groupId);
+        }
+        despawns.enqueue("patrol-owner", null, members, world)
+                .thenAccept(result -> HylyptoMetrics.PATROL_ZOMBIES_DESPAWNED.add(result.removed()));
+        return members.size();
+    }
+
     public void shutdown() {
         despawnAll();
-        LOG.log(System.Logger.Level.INFO, "PatrolManager shut down.");
+        LOG.info("PatrolManager shut down.");
+    }
+
+    /**
+     * Drops all tracking without touching entities — for a world that is unloading,
+     * whose thread can no longer run despawn work.
+     */
+    public void clear() {
+        activeGroups.clear();
+        zombieToGroup.clear();
+        groupIndex.clear();
+        adoptedGroups.clear();
+        blockBreakTracker.clear();
+    }
+
+    // --- Snapshots (world thread) ---
+
+    /**
+     * Appends every live group to {@code out}. Groups already despawning are left out — their
+     * members are in the despawn queue and go at shutdown either way.
+     */
+    public void captureGroups(long nowMillis, List<ShardSnapshot.Group> out) {
+        ZombieWorld world = worlds.get();
+        if (world == null) return;
+        EntityAccess entities = world.entities();
+        for (PatrolGroup group : activeGroups.values()) {
+            if (group.isDespawned() || group.isEmpty() || group.getCurrentState() == PatrolState.DESPAWNING) continue;
+
+            List<ShardSnapshot.Zombie> members = new ArrayList<>(group.size());
+            captureMember(entities, group, group.getLeaderUUID(), members);
+            for (UUID follower : group.getFollowers()) {
+                captureMember(entities, group, follower, members);
+            }
+            // Copied — the group keeps mutating its own vectors on this thread
+            List<Vector3d> waypoints = new ArrayList<>(group.getWaypoints().size());
+            for (Vector3d wp : group.getWaypoints()) {
+                waypoints.add(VecMath.copy(wp));
+            }
+            Vector3d lastKnown = group.getLastKnownPlayerPosition();
+            out.add(new ShardSnapshot.Group(group.getGroupId(), group.getOwnerId(), group.getCurrentState(),
+                    group.millisInCurrentState(nowMillis), nowMillis - group.getLastPlayerSeenMillis(),
+                    group.getCurrentWaypointIndex(), waypoints, group.hasScreamer(), group.getScreamerUUID(),
+                    group.hasScreamed(), group.isChasingNoise(), lastKnown != null ? VecMath.copy(lastKnown) : null,
+                    members));
+        }
+    }
+
+    private static void captureMember(EntityAccess entities, PatrolGroup group, UUID uuid,
+                                      List<ShardSnapshot.Zombie> out) {
+        if (uuid == null) return;
+        Vector3d live = entities.getPosition(uuid);
+        Vector3d position = VecMath.copy(live != null ? live : group.getCentroidScratch());
+        out.add(new ShardSnapshot.Zombie(uuid, group.getOwnerId(), position));
+    }
+
+    /**
+     * Re-creates the groups of a snapshot, before their entities have turned up: same ids,
+     * routes, progress, state and time in it, with the leader and follower order kept. Each
+     * member's UUID is added to {@code expected} with the patrol role. Members are given
+     * paths again as they are adopted — see {@link #onAdopted}.
+     *
+     * @return groups restored
+     */
+    public int restoreGroups(List<ShardSnapshot.Group> groups, long nowMillis, Map<UUID, String> expected) {
+        int restored = 0;
+        for (ShardSnapshot.Group saved : groups) {
+            if (saved.members().isEmpty() || activeGroups.containsKey(saved.groupId())) continue;
+
+            PatrolGroup group = new PatrolGroup(saved.groupId(), saved.ownerId(),
+                    new ArrayList<>(saved.waypoints()), saved.hasScreamer(), nowMillis);
+            for (int i = 0; i < saved.waypointIndex(); i++) {
+                group.advanceWaypoint();
+            }
+            group.transitionTo(saved.state(), nowMillis - saved.millisInState());
+            if (saved.lastKnownPlayer() != null) {
+                if (saved.chasingNoise()) {
+                    group.rememberNoise(saved.lastKnownPlayer(), 0);
+                } else {
+                    group.rememberPlayerPosition(saved.lastKnownPlayer());
+                }
+            }
+            group.setLastPlayerSeenMillis(nowMillis - saved.millisSincePlayerSeen());
+            group.setScreamerUUID(saved.screamerUUID());
+            group.setHasScreamed(saved.hasScreamed());
+
+            for (ShardSnapshot.Zombie member : saved.members()) {
+                group.addMember(member.uuid());
+                zombieToGroup.put(member.uuid(), group.getGroupId());
+                population.track(group.getOwnerId(), member.uuid(), member.position());
+                expected.put(member.uuid(), PATROL_ROLE);
+            }
+
+            activeGroups.put(group.getGroupId(), group);
+            // Until the first tick computes a real centroid, the group is where its leader was
+            Vector3d at = saved.members().get(0).position();
+            VecMath.set(group.getCentroidScratch(), at);
+            groupIndex.place(group, at);
+            restored++;
+        }
+        return restored;
+    }
+
+    /** A restored patrol zombie's entity turned up — its group is resumed on the next {@link #resumeAdopted}. */
+    public void onAdopted(UUID zombieUUID) {
+        UUID groupId = zombieToGroup.get(zombieUUID);
+        if (groupId != null) adoptedGroups.add(groupId);
+    }
+
+    /**
+     * Re-enters the current state of each group that had members adopted since the last call,
+     * so they are sent on their way again — their paths did not survive the restart.
+     */
+    public void resumeAdopted() {
+        if (adoptedGroups.isEmpty()) return;
+        ZombieWorld world = worlds.get();
+        if (world == null) return;
+        PatrolSettings current = settings.get();
+        for (UUID groupId : adoptedGroups) {
+            PatrolGroup group = activeGroups.get(groupId);
+            PatrolStateHandler handler = group != null ? stateHandlers.get(group.getCurrentState()) : null;
+            if (handler == null) continue;
+            // Entering a state restarts its clocks — the restored ones still hold
+            long seenMillis = group.getLastPlayerSeenMillis();
+            handler.onEnter(group, world, current);
+            group.setLastPlayerSeenMillis(seenMillis);
+        }
+        adoptedGroups.clear();
+    }
+
+    // --- Spatial queries (world thread) ---
+
+    /**
+     * Adds the groups whose centroid is within {@code radius} blocks of (x, z) to {@code out}.
+     * Centroids are as of each group's last tick.
+     *
+     * @return the number of groups added
+     */
+    public int groupsWithin(double x, double z, double radius, List<PatrolGroup> out) {
+        return groupIndex.within(x, z, radius, out);
+    }
+
+    /** Adds up to {@code k} groups nearest to (x, z), within {@code maxRadius}, nearest first. */
+    public int nearestGroups(double x, double z, int k, double maxRadius, List<PatrolGroup> out) {
+        return groupIndex.nearest(x, z, k, maxRadius, out);
+    }
+
+    /**
+     * Sends a patrolling or searching group straight into AGGRO against {@code playerPos}, as
+     * though it had seen the player itself — how a screamer's call is answered. World thread.
+     *
+     * @return true if the group switched to AGGRO
+     */
+    public boolean alert(PatrolGroup group, Vector3d playerPos) {
+        PatrolState currentState = group.getCurrentState();
+        if (currentState != PatrolState.PATROLLING && currentState != PatrolState.SEARCHING) return false;
+        ZombieWorld world = worlds.get();
+        if (world == null) return false;
+
+        PatrolSettings current = settings.get();
+        long now = world.currentTimeMillis();
+        group.rememberPlayerPosition(playerPos);
+        PatrolStateHandler handler = stateHandlers.get(currentState);
+        if (handler != null) handler.onExit(group, world, current);
+        group.transitionTo(PatrolState.AGGRO, now);
+        decisions.transition(group.getGroupId(), currentState, PatrolState.AGGRO, now);
+        HylyptoMetrics.PATROL_STATE_TRANSITIONS.increment();
+        stateHandlers.get(PatrolState.AGGRO).onEnter(group, world, current);
+        return true;
     }
 
     public int getActiveGroupCount() {
@@ -411,6 +721,18 @@ public class PatrolManager {
         return zombieToGroup.size();
     }
 
+    /**
+     * Counts active groups per state, indexed by {@link PatrolState#ordinal()}.
+     * Safe to call from any thread — iterates the concurrent group map without locking.
+     */
+    public int[] countGroupsByState() {
+        int[] counts = new int[PatrolState.values().length];
+        for (PatrolGroup group : activeGroups.values()) {
+            counts[group.getCurrentState().ordinal()]++;
+        }
+        return counts;
+    }
+
     public ScreamerManager getScreamerManager() {
         return screamerManager;
     }
@@ -420,14 +742,15 @@ public class PatrolManager {
     }
 
     /**
-     * Draws debug shapes for all active patrol groups:
+     * Draws debug shapes once for all active patrol groups — players get the culled, live
+     * {@link com.hylypto.zombie.debug.DebugOverlay} instead:
      * - Green spheres at waypoints
      * - Yellow arrows connecting waypoints
      * - Red sphere at each zombie's current position
      * - Blue arrow from each zombie toward current waypoint
      */
     public String debugDrawPaths() {
-        World world = Universe.get().getDefaultWorld();
+        ZombieWorld world = worlds.get();
         if (world == null) return "No world available.";
         if (activeGroups.isEmpty()) return "No active patrol groups.";
 
@@ -439,8 +762,8 @@ public class PatrolManager {
 
         int groupCount = activeGroups.size();
 
-        world.execute(() -> {
-            Store<EntityStore> store = world.getEntityStore().getStore();
+        world.execute("PatrolManager.debugDrawPaths", () -> {
+            EntityAccess entities = world.entities();
 
             for (PatrolGroup group : activeGroups.values()) {
                 List<Vector3d> waypoints = group.getWaypoints();
@@ -451,26 +774,24 @@ public class PatrolManager {
                     Vector3d wp = waypoints.get(i);
                     Vector3f color = (i == wpIdx) ? yellow : green;
                     double radius = (i == wpIdx) ? 1.0 : 0.5;
-                    DebugUtils.addSphere(world, wp, color, radius, duration);
+                    world.drawSphere(wp, color, radius, duration);
                 }
 
                 // Draw arrows between consecutive waypoints
                 for (int i = 0; i < waypoints.size() - 1; i++) {
-                    DebugUtils.addArrow(world, waypoints.get(i), waypoints.get(i + 1), yellow, duration, false);
+                    world.drawArrow(waypoints.get(i), waypoints.get(i + 1), yellow, duration);
                 }
 
                 // Draw each zombie's position and direction to current waypoint
                 Vector3d currentWp = group.getCurrentWaypoint();
-                for (Ref<EntityStore> ref : group.getMemberRefs()) {
-                    if (!ref.isValid()) continue;
-                    TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
-                    if (transform == null) continue;
+                for (UUID uuid : group.getMemberUUIDs()) {
+                    Vector3d pos = entities.getPosition(uuid);
+                    if (pos == null) continue;
 
-                    Vector3d pos = transform.getPosition();
-                    DebugUtils.addSphere(world, pos, red, 0.4, duration);
+                    world.drawSphere(pos, red, 0.4, duration);
 
                     if (currentWp != null) {
-                        DebugUtils.addArrow(world, pos, currentWp, blue, duration, false);
+                        world.drawArrow(pos, currentWp, blue, duration);
                     }
                 }
             }
@@ -478,39 +799,4 @@ public class PatrolManager {
 
         return "Drawing paths for " + groupCount + " patrol group(s) — visible for " + (int) duration + "s.";
     }
-
-    // --- Terrain helpers ---
-
-    private double findSurfaceY(World world, int x, int startY, int z) {
-        int minY = startY - SURFACE_SCAN_RANGE;
-        for (int y = startY; y > minY; y--) {
-            BlockType current = world.getBlockType(x, y, z);
-            BlockType below = world.getBlockType(x, y - 1, z);
-            if (current == BlockType.EMPTY && below != BlockType.EMPTY) {
-                return y;
-            }
-        }
-        return startY;
-    }
-
-    private Vector3d getPlayerPosition(World world) {
-        try {
-            var players = Universe.get().getPlayers();
-            if (players != null && !players.isEmpty()) {
-                PlayerRef playerRef = players.iterator().next();
-                var ref = playerRef.getReference();
-                if (ref != null) {
-                    Store<EntityStore> store = world.getEntityStore().getStore();
-                    TransformComponent transform = store.getComponent(
-                            ref, TransformComponent.getComponentType());
-                    if (transform != null) {
-                        return transform.getPosition();
-                    }
-                }
-            }
-        } catch (Exception e) {
-            LOG.log(System.Logger.Level.DEBUG, "Could not get player position, using default");
-        }
-        return new Vector3d(0, 64, 0);
-    }
 }
@@ -0,0 +1,130 @@
+package com.hylypto.zombie;
+
+import com.hylypto.zombie.state.Formation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable, validated view of {@link PatrolConfig} with derived values precomputed —
+ * squared radii for distance checks, the FOV half-angle cosine for the view cone and
+ * millisecond timeouts. Built once per config change and published by {@link PatrolManager};
+ * state handlers read one snapshot per group tick.
+ */
+public final class PatrolSettings {
+
+    // Group spawning
+    public final int defaultGroupSize;
+    public final String zombieModel;
+
+    // State machine timings
+    public final long tickIntervalMillis;
+    public final double waypointArrivalRadiusSq;
+    public final long swarmFormationMillis;
+
+    // Formation
+    public final Formation formation;
+    public final double formationSpacing;
+    public final double formationSlotTolerance;
+
+    // Detection
+    public final double detectionRangeSq;
+    public final double fovHalfCos;
+    public final double proximityAlwaysDetectSq;
+    public final double aggroRangeSq;
+    public final long aggroTimeoutMillis;
+    public final double surroundRadius;
+    public final double surroundSpacing;
+    public final double chaseRepathDistanceSq;
+    public final double chaseRepathFractionSq;
+    public final long searchDurationMillis;
+
+    // Despawning
+    public final double despawnDistanceSq;
+
+    // Screamer
+    public final boolean screamerEnabled;
+    public final int screamerHordeSize;
+    public final double screamerAlertRadius;
+    public final int screamerAlertGroups;
+    public final String screamerModel;
+
+    // Block breaking
+    public final boolean blockBreakEnabled;
+    public final int hitsToBreakDoor;
+
+    private PatrolSettings(PatrolConfig c) {
+        this.defaultGroupSize = c.defaultGroupSize;
+        this.zombieModel = c.zombieModel;
+        this.tickIntervalMillis = Math.round(c.tickIntervalSeconds * 1000.0);
+        this.waypointArrivalRadiusSq = c.waypointArrivalRadius * c.waypointArrivalRadius;
+        this.swarmFormationMillis = c.swarmFormationSeconds * 1000L;
+        this.formation = Formation.parse(c.formation);
+        this.formationSpacing = c.formationSpacing;
+        this.formationSlotTolerance = c.formationSlotTolerance;
+        this.detectionRangeSq = c.detectionRange * c.detectionRange;
+        this.fovHalfCos = Math.cos(Math.toRadians(c.fovDegrees / 2.0));
+        this.proximityAlwaysDetectSq = c.proximityAlwaysDetect * c.proximityAlwaysDetect;
+        this.aggroRangeSq = c.aggroRange * c.aggroRange;
+        this.aggroTimeoutMillis = c.aggroTimeoutSeconds * 1000L;
+        this.surroundRadius = c.surroundRadius;
+        this.surroundSpacing = c.surroundSpacing;
+        this.chaseRepathDistanceSq = c.chaseRepathDistance * c.chaseRepathDistance;
+        this.chaseRepathFractionSq = c.chaseRepathFraction * c.chaseRepathFraction;
+        this.searchDurationMillis = c.searchDurationSeconds * 1000L;
+        this.despawnDistanceSq = c.despawnDistanceFromPlayer * c.despawnDistanceFromPlayer;
+        this.screamerEnabled = c.screamerEnabled;
+        this.screamerHordeSize = c.screamerHordeSize;
+        this.screamerAlertRadius = c.screamerAlertRadius;
+        this.screamerAlertGroups = c.screamerAlertGroups;
+        this.screamerModel = c.screamerModel;
+        this.blockBreakEnabled = c.blockBreakEnabled;
+        this.hitsToBreakDoor = c.hitsToBreakDoor;
+    }
+
+    /**
+     * Validates and compiles a config.
+     *
+     * @throws IllegalArgumentException listing every invalid field; the config is not applied
+     */
+    public static PatrolSettings compile(PatrolConfig config) {
+        List<String> errors = validate(config);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid patrol config: " + String.join("; ", errors));
+        }
+        return new PatrolSettings(config);
+    }
+
+    public static List<String> validate(PatrolConfig c) {
+        List<String> errors = new ArrayList<>();
+        if (c.defaultGroupSize < 1) errors.add("defaultGroupSize must be >= 1");
+        if (isBlank(c.zombieModel)) errors.add("zombieModel must be set");
+        if (!(c.tickIntervalSeconds > 0)) errors.add("tickIntervalSeconds must be > 0");
+        if (!(c.waypointArrivalRadius > 0)) errors.add("waypointArrivalRadius must be > 0");
+        if (c.swarmFormationSeconds < 0) errors.add("swarmFormationSeconds must be >= 0");
+        if (Formation.parse(c.formation) == null) errors.add("formation must be one of wedge, column, blob, none");
+        if (!(c.formationSpacing > 0)) errors.add("formationSpacing must be > 0");
+        if (!(c.formationSlotTolerance >= 0)) errors.add("formationSlotTolerance must be >= 0");
+        if (!(c.detectionRange > 0)) errors.add("detectionRange must be > 0");
+        if (!(c.fovDegrees > 0 && c.fovDegrees <= 360)) errors.add("fovDegrees must be in (0, 360]");
+        if (!(c.proximityAlwaysDetect >= 0)) errors.add("proximityAlwaysDetect must be >= 0");
+        if (!(c.aggroRange > 0)) errors.add("aggroRange must be > 0");
+        if (c.aggroTimeoutSeconds < 0) errors.add("aggroTimeoutSeconds must be >= 0");
+        if (!(c.surroundRadius >= 0)) errors.add("surroundRadius must be >= 0");
+        if (!(c.surroundSpacing > 0)) errors.add("surroundSpacing must be > 0");
+        if (!(c.chaseRepathDistance >= 0)) errors.add("chaseRepathDistance must be >= 0");
+        if (!(c.chaseRepathFraction >= 0 && c.chaseRepathFraction < 1)) errors.add("chaseRepathFraction must be in [0, 1)");
+        if (c.searchDurationSeconds < 0) errors.add("searchDurationSeconds must be >= 0");
+        if (!(c.despawnDistanceFromPlayer > 0)) errors.add("despawnDistanceFromPlayer must be > 0");
+        if (c.screamerHordeSize < 0) errors.add("screamerHordeSize must be >= 0");
+        if (!(c.screamerAlertRadius >= 0)) errors.add("screamerAlertRadius must be >= 0");
+        if (c.screamerAlertGroups < 0) errors.add("screamerAlertGroups must be >= 0");
+        if (c.screamerEnabled && isBlank(c.screamerModel)) errors.add("screamerModel must be set");
+        if (c.hitsToBreakDoor < 1) errors.add("hitsToBreakDoor must be >= 1");
+        return errors;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
@@ -0,0 +1,403 @@
+package com.hylypto.zombie;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.despawn.DespawnConfig;
+import com.hylypto.zombie.despawn.DespawnQueue;
+import com.hylypto.zombie.governor.GovernorConfig;
+import com.hylypto.zombie.governor.SpawnGovernor;
+import com.hylypto.zombie.noise.NoiseConfig;
+import com.hylypto.zombie.debug.DebugConfig;
+import com.hylypto.zombie.debug.DebugOverlay;
+import com.hylypto.zombie.motion.MotionConfig;
+import com.hylypto.zombie.motion.PlayerMotionTracker;
+import com.hylypto.zombie.nav.NavConfig;
+import com.hylypto.zombie.nav.NavService;
+import com.hylypto.zombie.noise.NoiseGrid;
+import com.hylypto.zombie.path.PathConfig;
+import com.hylypto.zombie.pool.EntityPool;
+import com.hylypto.zombie.pool.PoolConfig;
+import com.hylypto.zombie.path.PathService;
+import com.hylypto.zombie.population.PlayerPresence;
+import com.hylypto.zombie.population.PopulationConfig;
+import com.hylypto.zombie.population.PopulationManager;
+import com.hylypto.zombie.replay.DecisionLog;
+import com.hylypto.zombie.snapshot.ShardSnapshot;
+import com.hylypto.zombie.spawn.SpawnConfig;
+import com.hylypto.zombie.spawn.SpawnReservoir;
+import com.hylypto.zombie.terrain.TerrainConfig;
+import com.hylypto.zombie.terrain.TerrainSnapshots;
+import com.hylypto.zombie.world.HytaleZombieWorld;
+import com.hylypto.zombie.world.ZombieWorld;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * All zombie state for one world — its entity index, population, spawn governor, despawn
+ * queue, sound grid, terrain snapshots, navigation graph, path service, spawn point reservoir,
+ * player motion tracks, horde and patrol managers (and through the patrol manager, block damage), the debug overlay, and through the
+ * world wrapper, the recycled entity pool. After a restart it is also where a world's snapshot is
+ * restored and its surviving entities adopted back.
+ * Ticked only by that world's systems, so nothing here is shared with another world's thread.
+ */
+public final class ZombieShard {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(ZombieShard.class, "shard");
+
+    private final World world;
+    private final String worldName;
+    private final HytaleZombieWorld zombieWorld;
+    private final PlayerPresence presence;
+    private final PopulationManager population;
+    private final SpawnGovernor governor;
+    private final DespawnQueue despawns;
+    private final NoiseGrid noise;
+    private final TerrainSnapshots terrain;
+    private final NavService nav;
+    private final PathService paths;
+    private final SpawnReservoir reservoir;
+    private final PlayerMotionTracker motion;
+    private final HordeManager hordeManager;
+    private final PatrolManager patrolManager;
+    private final DebugOverlay debug;
+    private final long shutdownTimeoutMillis;
+    private long tickNumber;
+    // When restored zombies stop being waited for, or 0 when no restore is being reconciled.
+    // Written on the world thread, read at shutdown
+    private volatile long reconcileDeadline;
+    // Set once the world unloads — a snapshot captured before must not be written after
+    private volatile boolean removed;
+
+    ZombieShard(World world, Supplier<PatrolSettings> patrolSettings, PopulationConfig populationConfig,
+                PlayerPresence presence, GovernorConfig governorConfig, DespawnConfig despawnConfig,
+                NoiseConfig noiseConfig, TerrainConfig terrainConfig, NavConfig navConfig, PathConfig pathConfig,
+                DebugConfig debugConfig, PoolConfig poolConfig, SpawnConfig spawnConfig, MotionConfig motionConfig,
+                Executor workers, DecisionLog decisions) {
+        this.world = world;
+        this.worldName = world.getName();
+        this.zombieWorld = HytaleZombieWorld.wrap(world, poolConfig);
+        this.presence = presence;
+        this.population = new PopulationManager(populationConfig, presence);
+        this.governor = new SpawnGovernor(worldName, governorConfig);
+        this.despawns = new DespawnQueue(despawnConfig);
+        this.shutdownTimeoutMillis = Math.max(0, despawnConfig.shutdownTimeoutMillis);
+        this.noise = new NoiseGrid(noiseConfig);
+        this.terrain = new TerrainSnapshots(terrainConfig);
+        this.nav = new NavService(navConfig, terrain, workers);
+        this.paths = new PathService(pathConfig, terrain, workers);
+        this.reservoir = new SpawnReservoir(spawnConfig, presence);
+        this.motion = new PlayerMotionTracker(motionConfig);
+        Supplier<ZombieWorld> worlds = () -> zombieWorld;
+        this.hordeManager = new HordeManager(worlds, population, governor, despawns, reservoir, decisions);
+        this.patrolManager = new PatrolManager(patrolSettings, worlds, population, governor, despawns, noise,
+                terrain, nav, reservoir, motion, paths, decisions);
+        patrolManager.getScreamerManager().setHordeManager(hordeManager);
+        this.debug = new DebugOverlay(debugConfig);
+    }
+
+    // --- Per-tick hooks (world thread) ---
+
+    /**
+     * The shard's per-tick driver, called once per world tick by {@code WorldTickSampler}: samples
+     * the tick period for the governor, then runs each subsystem's budgeted share of work.
+     */
+    public void onWorldTick(long nowNanos) {
+        tickNumber++;
+        governor.onWorldTick(nowNanos);
+        noise.propagate(zombieWorld.blocks(), zombieWorld.currentTimeMillis());
+        nav.onWorldTick(zombieWorld.players(), zombieWorld.currentTimeMillis());
+        paths.onWorldTick(zombieWorld.blocks());
+        terrain.onWorldTick(zombieWorld.blocks(), governor.scale());
+        reservoir.refill(zombieWorld, governor.scale());
+        motion.sample(presence.online(), zombieWorld.players(), zombieWorld.currentTimeMillis());
+        if (reconcileDeadline != 0) reconcile(zombieWorld.currentTimeMillis());
+        debug.onWorldTick(zombieWorld, patrolManager, zombieWorld.currentTimeMillis());
+    }
+
+    /** True while queued despawns or parked zombies may need the command buffer this tick. */
+    public boolean hasPendingRemovals() {
+        return !despawns.isEmpty() || getPool().getParkedCount() > 0;
+    }
+
+    /**
+     * Applies this tick's share of queued despawns — parking the recyclable ones in the entity
+     * pool where there is room — and evicts idle parked zombies, through the ticking system's command buffer.
+     */
+    public void drainDespawns(CommandBuffer<EntityStore> commandBuffer) {
+        if (!despawns.isEmpty()) {
+            despawns.drain(tickNumber, (uuid, recyclable) -> zombieWorld.removeVia(commandBuffer, uuid, recyclable));
+        }
+        zombieWorld.evictIdle(commandBuffer, tickNumber);
+    }
+
+    /** Adds a sound to this world's grid. Safe from any thread — it is applied on the world thread. */
+    public void emitNoise(double x, double y, double z, double loudness, double decayPerSecond) {
+        zombieWorld.execute("ZombieShard.emitNoise",
+                () -> noise.emit(x, y, z, loudness, decayPerSecond, zombieWorld.currentTimeMillis()));
+    }
+
+    /**
+     * A block in this world was broken or placed — its copied section, the cached walks and nav
+     * tiles over it, and the sound damping sampled at its height are dropped. World thread.
+     */
+    public void onBlockChanged(int x, int y, int z) {
+        noise.invalidate(x, y, z);
+        terrain.invalidate(x, y, z);
+    }
+
+    /** Removes only the zombies spawned for {@code playerId}, on this world's thread. */
+    public void onPlayerLeft(UUID playerId) {
+        debug.unwatch(playerId);
+        zombieWorld.execute("ZombieShard.onPlayerLeft", () -> {
+            int owned = population.ownedCount(playerId);
+            if (owned == 0) return;
+            int horde = hordeManager.removeOwnedBy(playerId);
+            int patrol = patrolManager.removeOwnedBy(playerId);
+            population.forget(playerId);
+            LOG.info(() -> "Player " + playerId + " left " + worldName + " — queued "
+                    + horde + " horde and " + patrol + " patrol zombies for despawn");
+        });
+    }
+
+    /** Queues every zombie of this world for despawn, on the world thread. Safe from any thread. */
+    public void despawnAll() {
+        zombieWorld.execute("ZombieShard.despawnAll", () -> {
+            hordeManager.despawnAll();
+            patrolManager.despawnAll();
+        });
+    }
+
+    /**
+     * Applies the despawn queue in one go and removes parked zombies, on the world thread — before
+     * a final snapshot, so it lists no entities that are about to go anyway.
+     */
+    public void removeDiscarded() {
+        zombieWorld.execute("ZombieShard.removeDiscarded", () -> {
+            despawns.drainAll((uuid, recyclable) -> zombieWorld.remove(uuid));
+            zombieWorld.removeParked();
+        });
+    }
+
+    /**
+     * Applies the despawn queue in one go — no further ticks will drain it — and removes parked
+     * zombies. Everything is despawned first unless {@code keepZombies}: zombies just saved to a
+     * snapshot stay in the world, to be adopted again on the next start.
+     *
+     * Runs on the world thread and waits up to {@code shutdownTimeoutMillis} for it, since the
+     * world may stop taking tasks while the server shuts down; a world that doesn't get to it
+     * is logged.
+     */
+    public void shutdown(boolean keepZombies) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        zombieWorld.execute("ZombieShard.shutdown", () -> {
+            try {
+                if (!keepZombies) {
+                    hordeManager.shutdown();
+                    patrolManager.shutdown();
+                }
+                despawns.drainAll((uuid, recyclable) -> zombieWorld.remove(uuid));
+                zombieWorld.removeParked();
+                done.complete(null);
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        });
+
+        try {
+            done.get(shutdownTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted waiting for " + worldName + " to despawn its zombies at shutdown");
+        } catch (ExecutionException e) {
+            LOG.error("Despawning zombies at shutdown failed in " + worldName, e.getCause());
+        } catch (TimeoutException e) {
+            LOG.warn("World " + worldName + " did not despawn its " + (keepZombies ? "parked and queued " : "")
+                    + "zombies within " + shutdownTimeoutMillis + "ms of shutdown — they may be left in the world untracked");
+        }
+    }
+
+    // --- Snapshots (world thread) ---
+
+    /** This world's patrols and hordes as they stand, or null while a restore is still being reconciled. */
+    public ShardSnapshot captureSnapshot() {
+        if (reconcileDeadline != 0) return null;
+        long now = zombieWorld.currentTimeMillis();
+        List<ShardSnapshot.Group> groups = new ArrayList<>();
+        patrolManager.captureGroups(now, groups);
+        List<ShardSnapshot.Zombie> horde = new ArrayList<>();
+        hordeManager.captureZombies(horde);
+        // Let go of, but still in the world — a crash would leave them behind untracked
+        List<UUID> discarded = new ArrayList<>();
+        zombieWorld.getPool().collectParked(discarded);
+        despawns.collectPending(discarded);
+        zombieWorld.collectDiscarded(discarded);
+        return new ShardSnapshot(worldName, now, groups, horde, discarded);
+    }
+
+    /**
+     * Tracks the groups and hordes of {@code snapshot} again, on the world thread, and waits up
+     * to {@code reconcileMillis} for their entities to turn up — see {@link #adopt}. Those that
+     * don't are no longer tracked, but join the entities listed as discarded: their chunks may
+     * load later, so they stay in every snapshot and are despawned whenever they are found.
+     */
+    public void restore(ShardSnapshot snapshot, long reconcileMillis) {
+        zombieWorld.execute("ZombieShard.restore", () -> {
+            long now = zombieWorld.currentTimeMillis();
+            Map<UUID, String> expected = new HashMap<>();
+            int groups = patrolManager.restoreGroups(snapshot.groups(), now, expected);
+            int horde = hordeManager.restoreZombies(snapshot.hordeZombies(), expected);
+            zombieWorld.expect(expected);
+            zombieWorld.expectDiscarded(snapshot.discarded());
+            reconcileDeadline = now + Math.max(1, reconcileMillis);
+            LOG.info(() -> "Restored " + groups + " patrol groups and " + horde + " horde zombies in " + worldName
+                    + " from a snapshot " + (now - snapshot.capturedAtEpochMillis()) / 1000 + "s old — waiting for "
+                    + expected.size() + " entities and " + snapshot.discarded().size() + " to remove");
+        });
+    }
+
+    /** True while restored zombies are still waited for. */
+    public boolean isReconciling() {
+        return reconcileDeadline != 0;
+    }
+
+    /** True while restored zombies are waited for or discarded entities may still turn up. World thread. */
+    public boolean isAwaitingEntities() {
+        return reconcileDeadline != 0 || zombieWorld.getDiscardedCount() > 0;
+    }
+
+    /**
+     * An entity turned up in the store — taken if it is one of the restored zombies, despawned
+     * if it is a discarded one.
+     */
+    public void adopt(UUID uuid, Ref<EntityStore> ref) {
+        if (zombieWorld.adoptDiscarded(uuid, ref)) {
+            despawns.enqueue("snapshot-discarded", null, List.of(uuid), zombieWorld);
+            return;
+        }
+        if (!zombieWorld.adopt(uuid, ref)) return;
+        HylyptoMetrics.SNAPSHOT_ZOMBIES_ADOPTED.increment();
+        patrolManager.onAdopted(uuid);
+    }
+
+    private void reconcile(long nowMillis) {
+        patrolManager.resumeAdopted();
+        if (zombieWorld.getAwaitedCount() > 0 && nowMillis < reconcileDeadline) return;
+
+        reconcileDeadline = 0;
+        Collection<UUID> missing = zombieWorld.drainAwaited();
+        for (UUID uuid : missing) {
+            if (patrolManager.isPatrolZombie(uuid)) {
+                patrolManager.onZombieDeath(uuid);
+            } else {
+                hordeManager.cleanupZombie(uuid);
+            }
+        }
+        HylyptoMetrics.SNAPSHOT_ZOMBIES_MISSING.add(missing.size());
+        LOG.info(() -> "Snapshot reconciled in " + worldName + " — " + missing.size()
+                + " restored zombies never turned up; they are despawned if their chunks load later");
+    }
+
+    /** The world is unloading — its entities go with it, so only tracking is dropped. */
+    void discard() {
+        removed = true;
+        reconcileDeadline = 0;
+        hordeManager.clear();
+        patrolManager.clear();
+        population.clear();
+        despawns.clear();
+        noise.clear();
+        nav.clear();
+        paths.clear();
+        terrain.clear();
+        reservoir.clear();
+        motion.clear();
+        debug.clear();
+        zombieWorld.clear();
+    }
+
+    // --- Accessors ---
+
+    /** True once the world unloaded and the shard was torn down. */
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public ZombieWorld getZombieWorld() {
+        return zombieWorld;
+    }
+
+    public EntityPool getPool() {
+        return zombieWorld.getPool();
+    }
+
+    public SpawnReservoir getSpawnReservoir() {
+        return reservoir;
+    }
+
+    public PlayerMotionTracker getMotion() {
+        return motion;
+    }
+
+    public PopulationManager getPopulation() {
+        return population;
+    }
+
+    public SpawnGovernor getGovernor() {
+        return governor;
+    }
+
+    public DespawnQueue getDespawnQueue() {
+        return despawns;
+    }
+
+    public NoiseGrid getNoise() {
+        return noise;
+    }
+
+    public TerrainSnapshots getTerrain() {
+        return terrain;
+    }
+
+    public DebugOverlay getDebug() {
+        return debug;
+    }
+
+    public NavService getNav() {
+        return nav;
+    }
+
+    public PathService getPaths() {
+        return paths;
+    }
+
+    public HordeManager getHordeManager() {
+        return hordeManager;
+    }
+
+    public PatrolManager getPatrolManager() {
+        return patrolManager;
+    }
+}
@@ -0,0 +1,257 @@
+package com.hylypto.zombie;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.zombie.despawn.DespawnConfig;
+import com.hylypto.zombie.governor.GovernorConfig;
+import com.hylypto.zombie.debug.DebugConfig;
+import com.hylypto.zombie.motion.MotionConfig;
+import com.hylypto.zombie.nav.NavConfig;
+import com.hylypto.zombie.noise.NoiseConfig;
+import com.hylypto.zombie.path.PathConfig;
+import com.hylypto.zombie.pool.PoolConfig;
+import com.hylypto.zombie.spawn.SpawnConfig;
+import com.hylypto.zombie.path.PathService;
+import com.hylypto.zombie.population.PlayerPresence;
+import com.hylypto.zombie.population.PopulationConfig;
+import com.hylypto.zombie.replay.DecisionLog;
+import com.hylypto.zombie.snapshot.ZombieSnapshots;
+import com.hylypto.zombie.terrain.TerrainConfig;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Registry of per-world {@link ZombieShard}s, keyed by world name.
+ *
+ * Shards are created lazily the first time something spawns into a world and torn
+ * down when the world is removed. ECS systems look up the shard for the store they are
+ * ticking ({@link #find}) and never create one, so worlds without zombies cost nothing —
+ * except to restore a world's snapshot after a restart ({@link #findOrRestore}).
+ * The patrol settings snapshot and the set of online players are shared — one reload
+ * reaches every shard, and each shard resolves which of those players are in its world.
+ * Path searches and navigation graph builds for every world run on one shared worker pool.
+ */
+public final class ZombieShards {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(ZombieShards.class, "shard");
+
+    private final AtomicReference<PatrolSettings> patrolSettings;
+    private final PopulationConfig populationConfig;
+    private final PlayerPresence presence;
+    private final GovernorConfig governorConfig;
+    private final DespawnConfig despawnConfig;
+    private final NoiseConfig noiseConfig;
+    private final TerrainConfig terrainConfig;
+    private final NavConfig navConfig;
+    private final PathConfig pathConfig;
+    private final DebugConfig debugConfig;
+    private final PoolConfig poolConfig;
+    private final SpawnConfig spawnConfig;
+    private final MotionConfig motionConfig;
+    private final ZombieSnapshots snapshots;
+    private final ExecutorService workers;
+    private final DecisionLog decisions;
+    private final Map<String, ZombieShard> shards = new ConcurrentHashMap<>();
+    private final List<Consumer<ZombieShard>> removeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @throws IllegalArgumentException if {@code patrolConfig} fails validation
+     */
+    public ZombieShards(PatrolConfig patrolConfig, PopulationConfig populationConfig,
+                        PlayerPresence presence, GovernorConfig governorConfig, DespawnConfig despawnConfig,
+                        NoiseConfig noiseConfig, TerrainConfig terrainConfig, NavConfig navConfig,
+                        PathConfig pathConfig, DebugConfig debugConfig, PoolConfig poolConfig,
+                        SpawnConfig spawnConfig, MotionConfig motionConfig, ZombieSnapshots snapshots,
+                        DecisionLog decisions) {
+        this.patrolSettings = new AtomicReference<>(PatrolSettings.compile(patrolConfig));
+        this.populationConfig = populationConfig;
+        this.presence = presence;
+        this.governorConfig = governorConfig;
+        this.despawnConfig = despawnConfig;
+        this.noiseConfig = noiseConfig;
+        this.terrainConfig = terrainConfig;
+        this.navConfig = navConfig;
+        this.pathConfig = pathConfig;
+        this.debugConfig = debugConfig;
+        this.poolConfig = poolConfig;
+        this.spawnConfig = spawnConfig;
+        this.motionConfig = motionConfig;
+        this.snapshots = snapshots;
+        this.workers = PathService.newWorkerPool(pathConfig);
+        this.decisions = decisions;
+    }
+
+    // --- Lookup ---
+
+    /** The shard for {@code world}, created on first use — with the world's snapshot restored, if one is waiting. */
+    public ZombieShard forWorld(World world) {
+        return shards.computeIfAbsent(world.getName(), name -> {
+            LOG.info(() -> "Creating zombie shard for world " + name);
+            ZombieShard shard = new ZombieShard(world, patrolSettings::get, populationConfig, presence, governorConfig,
+                    despawnConfig, noiseConfig, terrainConfig, navConfig, pathConfig, debugConfig, poolConfig,
+                    spawnConfig, motionConfig, workers, decisions.forWorld(name));
+            snapshots.restoreInto(shard);
+            return shard;
+        });
+    }
+
+    /** The shard for the universe's default world, or null if there is none. */
+    public ZombieShard forDefaultWorld() {
+        World world = Universe.get().getDefaultWorld();
+        return world != null ? forWorld(world) : null;
+    }
+
+    /** The existing shard for the world owning {@code store}, or null — never creates one. */
+    public ZombieShard find(Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        return world != null ? shards.get(world.getName()) : null;
+    }
+
+    /**
+     * As {@link #find(Store)}, but creates the shard of a world that has a snapshot waiting —
+     * after a restart, the world ticking its surviving zombies is what brings them back.
+     */
+    public ZombieShard findOrRestore(Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        if (world == null) return null;
+        ZombieShard shard = shards.get(world.getName());
+        if (shard == null && snapshots.hasPending(world.getName())) {
+            shard = forWorld(world);
+        }
+        return shard;
+    }
+
+    public ZombieShard find(String worldName) {
+        return shards.get(worldName);
+    }
+
+    public Collection<ZombieShard> all() {
+        return shards.values();
+    }
+
+    // --- Lifecycle ---
+
+    /** Called with each shard after it is torn down, so per-world caches elsewhere can drop it. */
+    public void addRemoveListener(Consumer<ZombieShard> listener) {
+        removeListeners.add(listener);
+    }
+
+    /**
+     * Tears down the shard for an unloading world. Its entities unload with the world and its
+     * snapshot is kept, so they are adopted again when the world next loads — see
+     * {@link ZombieSnapshots#release}.
+     */
+    public void remove(World world) {
+        ZombieShard shard = shards.remove(world.getName());
+        if (shard == null) return;
+        shard.discard();
+        snapshots.release(shard.getWorldName());
+        for (Consumer<ZombieShard> listener : removeListeners) {
+            listener.accept(shard);
+        }
+        LOG.info(() -> "Removed zombie shard for world " + shard.getWorldName());
+    }
+
+    /** A player disconnected — each shard removes whatever it spawned for them. */
+    public void onPlayerLeft(UUID playerId) {
+        for (ZombieShard shard : shards.values()) {
+            shard.onPlayerLeft(playerId);
+        }
+    }
+
+    public PlayerPresence getPresence() {
+        return presence;
+    }
+
+    public void despawnAll() {
+        for (ZombieShard shard : shards.values()) {
+            shard.despawnAll();
+        }
+    }
+
+    /** Starts the periodic snapshots of every shard. */
+    public void start() {
+        snapshots.start(shards::values);
+    }
+
+    /**
+     * Saves each shard one last time and keeps its zombies in the world if that worked — they
+     * are restored on the next start. A shard still reconciling a restore keeps the file it was
+     * restored from, and its zombies with it. Shards that could not be saved despawn everything
+     * as before, waiting a bounded time for each world.
+     */
+    public void shutdown() {
+        snapshots.stop();
+        for (ZombieShard shard : shards.values()) {
+            boolean keep;
+            if (shard.isReconciling()) {
+                // Its restore file still lists every zombie it waits for — nothing newer to save
+                keep = true;
+            } else {
+                // Parked and queued zombies go before the last save, so it doesn't list them
+                shard.removeDiscarded();
+                keep = snapshots.save(shard);
+            }
+            shard.shutdown(keep);
+        }
+        shards.clear();
+        workers.shutdownNow();
+    }
+
+    // --- Patrol settings ---
+
+    /**
+     * Validates and publishes a new patrol config to every shard. Groups pick it up on their
+     * next tick; a tick already in progress finishes on the snapshot it started with.
+     *
+     * @throws IllegalArgumentException if the config fails validation — the current settings stay live
+     */
+    public void applyPatrolConfig(PatrolConfig config) {
+        PatrolSettings compiled = PatrolSettings.compile(config);
+        patrolSettings.set(compiled);
+        LOG.info(() -> "Patrol config applied — tick=" + compiled.tickIntervalMillis + "ms"
+                + " detection=" + config.detectionRange + " aggro=" + config.aggroRange
+                + " fov=" + config.fovDegrees);
+    }
+
+    public PatrolSettings getPatrolSettings() {
+        return patrolSettings.get();
+    }
+
+    // --- Totals across worlds ---
+
+    public int getAliveHordeZombies() {
+        int total = 0;
+        for (ZombieShard shard : shards.values()) {
+            total += shard.getHordeManager().getAliveZombieCount();
+        }
+        return total;
+    }
+
+    public int getActivePatrolGroups() {
+        int total = 0;
+        for (ZombieShard shard : shards.values()) {
+            total += shard.getPatrolManager().getActiveGroupCount();
+        }
+        return total;
+    }
+
+    public int getTotalPatrolZombies() {
+        int total = 0;
+        for (ZombieShard shard : shards.values()) {
+            total += shard.getPatrolManager().getTotalPatrolZombies();
+        }
+        return total;
+    }
+}
@@ -1,37 +1,60 @@
 package com.hylypto.zombie.blockbreak;
 
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
-import com.hypixel.hytale.server.core.universe.Universe;
-import com.hypixel.hytale.server.core.universe.world.World;
-import com.hylypto.zombie.PatrolConfig;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.jfr.ZombieBlockBreakEvent;
+import com.hylypto.zombie.noise.NoiseConfig;
+import com.hylypto.zombie.noise.NoiseGrid;
+import com.hylypto.zombie.terrain.TerrainSnapshots;
+import com.hylypto.zombie.world.BlockAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+import com.hylypto.api.log.HylyptoLog;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class BlockBreakTracker {
 
-    private static final System.Logger LOG = System.getLogger(BlockBreakTracker.class.getName());
+    private static final HylyptoLog LOG = HylyptoLog.get(BlockBreakTracker.class, "blockbreak");
 
-    private final PatrolConfig config;
+    private final Supplier<ZombieWorld> worlds;
+    private final NoiseGrid noise;
+    private final TerrainSnapshots terrain;
     private final Map<Long, Integer> blockDamage = new ConcurrentHashMap<>();
 
-    public BlockBreakTracker(PatrolConfig config) {
-        this.config = config;
+    /**
+     * @param noise hits and breaks are emitted into it — a zombie hammering a door is heard
+     * @param terrain told about each broken block, so snapshots and the walks searched over them are dropped
+     */
+    public BlockBreakTracker(Supplier<ZombieWorld> worlds, NoiseGrid noise, TerrainSnapshots terrain) {
+        this.worlds = worlds;
+        this.noise = noise;
+        this.terrain = terrain;
     }
 
     /**
      * Registers a hit against a block at the given position.
-     * If the block has been hit enough times, it will be destroyed.
+     * If the block has been hit {@code settings.hitsToBreakDoor} times, it will be destroyed.
      *
      * @return true if the block was destroyed
      */
-    public boolean hitBlock(int x, int y, int z) {
-        if (!config.blockBreakEnabled) return false;
+    public boolean hitBlock(int x, int y, int z, PatrolSettings settings) {
+        if (!settings.blockBreakEnabled) return false;
 
+        HylyptoMetrics.BLOCK_HITS.increment();
         long key = packPosition(x, y, z);
         int hits = blockDamage.merge(key, 1, Integer::sum);
 
-        if (hits >= config.hitsToBreakDoor) {
+        // Only a solid block makes a sound — swinging at air stays silent
+        ZombieWorld world = worlds.get();
+        if (world != null && noise.getConfig().enabled && !world.blocks().isEmpty(x, y, z)) {
+            NoiseConfig sounds = noise.getConfig();
+            noise.emit(x + 0.5, y, z + 0.5, sounds.blockHitLoudness, sounds.blockHitDecayPerSecond,
+                    world.currentTimeMillis());
+        }
+
+        if (hits >= settings.hitsToBreakDoor) {
             blockDamage.remove(key);
             destroyBlock(x, y, z);
             return true;
@@ -41,19 +64,36 @@ public class BlockBreakTracker {
     }
 
     private void destroyBlock(int x, int y, int z) {
-        World world = Universe.get().getDefaultWorld();
+        ZombieWorld world = worlds.get();
         if (world == null) return;
 
-        world.execute(() -> {
+        world.execute("BlockBreakTracker.destroyBlock", () -> {
+            ZombieBlockBreakEvent breakEvent = new ZombieBlockBreakEvent();
+            breakEvent.begin();
             try {
-                BlockType current = world.getBlockType(x, y, z);
-                if (current != BlockType.EMPTY) {
-                    world.breakBlock(x, y, z, 0);
-                    LOG.log(System.Logger.Level.INFO,
-                            "Zombies broke block at (" + x + ", " + y + ", " + z + ")");
+                BlockAccess blocks = world.blocks();
+                boolean broken = !blocks.isEmpty(x, y, z);
+                if (broken) {
+                    blocks.breakBlock(x, y, z);
+                    HylyptoMetrics.BLOCKS_BROKEN.increment();
+                    NoiseConfig sounds = noise.getConfig();
+                    noise.invalidate(x, y, z);
+                    terrain.invalidate(x, y, z);
+                    noise.emit(x + 0.5, y, z + 0.5, sounds.blockBreakLoudness, sounds.blockBreakDecayPerSecond,
+                            world.currentTimeMillis());
+                    LOG.info(() -> "Zombies broke block at (" + x + ", " + y + ", " + z + ")");
+                }
+
+                breakEvent.end();
+                if (breakEvent.shouldCommit()) {
+                    breakEvent.x = x;
+                    breakEvent.y = y;
+                    breakEvent.z = z;
+                    breakEvent.broken = broken;
+                    breakEvent.commit();
                 }
             } catch (Exception e) {
-                LOG.log(System.Logger.Level.ERROR, "Failed to break block: " + e.getMessage(), e);
+                LOG.error(() -> "Failed to break block: " + e.getMessage(), e);
             }
         });
     }
@@ -62,6 +102,10 @@ public class BlockBreakTracker {
         blockDamage.clear();
     }
 
+    public int getTrackedBlockCount() {
+        return blockDamage.size();
+    }
+
     private static long packPosition(int x, int y, int z) {
         return ((long) (x & 0x3FFFFFF) << 38) | ((long) (y & 0xFFF) << 26) | (z & 0x3FFFFFF);
     }
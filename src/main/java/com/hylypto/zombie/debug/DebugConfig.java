@@ -0,0 +1,24 @@
+package com.hylypto.zombie.debug;
+
+public class DebugConfig {
+    // Off = /hylypto debug only does one-shot draws
+    public boolean enabled = true;
+
+    // How often the overlay re-examines the groups around each watching player
+    public long refreshIntervalMillis = 1000;
+
+    // Shapes sent to the client per world tick — the rest wait for the next tick
+    public int maxShapesPerTick = 48;
+
+    // Radius around the watching player when the command gives none
+    public int defaultRadius = 128;
+
+    // Waypoints and route legs barely move, so they live long and are rarely resent
+    public float routeShapeSeconds = 10.0f;
+
+    // Member markers move constantly — short-lived, so a moved zombie doesn't leave a trail behind
+    public float memberShapeSeconds = 1.5f;
+
+    // A shape is resent when an end moved further than this, or when it is about to expire
+    public double moveThreshold = 1.0;
+}
@@ -0,0 +1,202 @@
+package com.hylypto.zombie.debug;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.PatrolGroup;
+import com.hylypto.zombie.PatrolManager;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.world.ZombieWorld;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live patrol path overlay for the players who turned it on with {@code /hylypto debug}.
+ *
+ * Every refresh interval the groups within each watcher's radius are turned into shapes —
+ * waypoint spheres, route arrows, member markers and member headings — keyed by what they
+ * show. A shape is queued only if it is new, one of its ends moved by more than the move
+ * threshold, its colour changed, or the copy on screen is about to expire; everything else is
+ * left alone. The queue is drained a bounded number of shapes per tick, so a crowded area
+ * spreads over a few ticks instead of landing in one.
+ *
+ * {@link #watch} and {@link #unwatch} are safe from any thread; {@link #onWorldTick} runs
+ * on the world thread.
+ */
+public final class DebugOverlay {
+
+    private static final Vector3f GREEN = new Vector3f(0f, 1f, 0f);
+    private static final Vector3f YELLOW = new Vector3f(1f, 1f, 0f);
+    private static final Vector3f RED = new Vector3f(1f, 0f, 0f);
+    private static final Vector3f BLUE = new Vector3f(0.2f, 0.5f, 1f);
+
+    private enum Kind { WAYPOINT, LEG, MEMBER, HEADING }
+
+    private record ShapeKey(UUID owner, Kind kind, int index) {}
+
+    // to is null for spheres
+    private record Shape(Vector3d from, Vector3d to, Vector3f color, double radius, float seconds) {}
+
+    private record Sent(Shape shape, long expiresMillis) {}
+
+    private final DebugConfig config;
+    private final Map<UUID, Double> watchers = new ConcurrentHashMap<>();
+    // World thread only
+    private final Map<ShapeKey, Sent> sent = new HashMap<>();
+    private final LinkedHashMap<ShapeKey, Shape> queued = new LinkedHashMap<>();
+    private final Map<ShapeKey, Shape> wanted = new HashMap<>();
+    private final List<PatrolGroup> nearby = new ArrayList<>();
+    private final Set<UUID> seen = new HashSet<>();
+    private long nextRefreshMillis = Long.MIN_VALUE;
+
+    public DebugOverlay(DebugConfig config) {
+        this.config = config;
+    }
+
+    // --- Watchers (any thread) ---
+
+    /** Shows {@code playerId} the patrols within {@code radius} blocks (the configured default if not positive). */
+    public void watch(UUID playerId, double radius) {
+        watchers.put(playerId, radius > 0 ? radius : config.defaultRadius);
+    }
+
+    public void unwatch(UUID playerId) {
+        watchers.remove(playerId);
+    }
+
+    public boolean isWatching(UUID playerId) {
+        return watchers.containsKey(playerId);
+    }
+
+    public boolean isEnabled() {
+        return config.enabled;
+    }
+
+    // --- Drawing (world thread) ---
+
+    /** Works out what changed on each refresh interval, then sends this tick's share of queued shapes. */
+    public void onWorldTick(ZombieWorld world, PatrolManager patrols, long nowMillis) {
+        if (!config.enabled) return;
+        if (watchers.isEmpty()) {
+            // Whatever is on screen expires by itself
+            sent.clear();
+            queued.clear();
+            return;
+        }
+
+        if (nowMillis >= nextRefreshMillis) {
+            nextRefreshMillis = nowMillis + config.refreshIntervalMillis;
+            refresh(world, patrols, nowMillis);
+        }
+
+        int budget = Math.max(1, config.maxShapesPerTick);
+        Iterator<Map.Entry<ShapeKey, Shape>> it = queued.entrySet().iterator();
+        while (budget-- > 0 && it.hasNext()) {
+            Map.Entry<ShapeKey, Shape> entry = it.next();
+            it.remove();
+            Shape shape = entry.getValue();
+            if (shape.to() == null) {
+                world.drawSphere(shape.from(), shape.color(), shape.radius(), shape.seconds());
+            } else {
+                world.drawArrow(shape.from(), shape.to(), shape.color(), shape.seconds());
+            }
+            sent.put(entry.getKey(), new Sent(shape, nowMillis + (long) (shape.seconds() * 1000)));
+            HylyptoMetrics.DEBUG_SHAPES_DRAWN.increment();
+        }
+    }
+
+    private void refresh(ZombieWorld world, PatrolManager patrols, long nowMillis) {
+        wanted.clear();
+        seen.clear();
+        for (Iterator<Map.Entry<UUID, Double>> it = watchers.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<UUID, Double> watcher = it.next();
+            Vector3d center = world.players().positionOf(watcher.getKey());
+            // Left this world
+            if (center == null) {
+                it.remove();
+                continue;
+            }
+            nearby.clear();
+            patrols.groupsWithin(center.x, center.z, watcher.getValue(), nearby);
+            for (PatrolGroup group : nearby) {
+                if (seen.add(group.getGroupId())) addShapes(world, group);
+            }
+        }
+
+        // Resend only what changed or won't outlast the next refresh
+        long renewBefore = nowMillis + config.refreshIntervalMillis;
+        for (Map.Entry<ShapeKey, Shape> entry : wanted.entrySet()) {
+            Sent onScreen = sent.get(entry.getKey());
+            if (onScreen == null || onScreen.expiresMillis() <= renewBefore || changed(onScreen.shape(), entry.getValue())) {
+                queued.put(entry.getKey(), entry.getValue());
+            } else {
+                queued.remove(entry.getKey());
+                HylyptoMetrics.DEBUG_SHAPES_SKIPPED.increment();
+            }
+        }
+        sent.keySet().retainAll(wanted.keySet());
+        queued.keySet().retainAll(wanted.keySet());
+    }
+
+    private void addShapes(ZombieWorld world, PatrolGroup group) {
+        UUID groupId = group.getGroupId();
+        List<Vector3d> waypoints = group.getWaypoints();
+        int wpIdx = group.getCurrentWaypointIndex();
+        float routeSeconds = config.routeShapeSeconds;
+
+        // Waypoints as spheres (green = future, yellow = current), arrows between consecutive ones
+        for (int i = 0; i < waypoints.size(); i++) {
+            boolean current = i == wpIdx;
+            wanted.put(new ShapeKey(groupId, Kind.WAYPOINT, i),
+                    new Shape(VecMath.copy(waypoints.get(i)), null, current ? YELLOW : GREEN, current ? 1.0 : 0.5, routeSeconds));
+        }
+        for (int i = 0; i < waypoints.size() - 1; i++) {
+            wanted.put(new ShapeKey(groupId, Kind.LEG, i),
+                    new Shape(VecMath.copy(waypoints.get(i)), VecMath.copy(waypoints.get(i + 1)), YELLOW, 0, routeSeconds));
+        }
+
+        // Each zombie's position and direction to the current waypoint
+        Vector3d currentWp = group.getCurrentWaypoint();
+        float memberSeconds = config.memberShapeSeconds;
+        for (UUID uuid : group.getMemberUUIDs()) {
+            Vector3d pos = world.entities().getPosition(uuid);
+            if (pos == null) continue;
+            wanted.put(new ShapeKey(uuid, Kind.MEMBER, 0), new Shape(VecMath.copy(pos), null, RED, 0.4, memberSeconds));
+            if (currentWp != null) {
+                wanted.put(new ShapeKey(uuid, Kind.HEADING, 0),
+                        new Shape(VecMath.copy(pos), VecMath.copy(currentWp), BLUE, 0, memberSeconds));
+            }
+        }
+    }
+
+    private boolean changed(Shape before, Shape after) {
+        if (before.color() != after.color() || before.radius() != after.radius()) return true;
+        double thresholdSq = config.moveThreshold * config.moveThreshold;
+        if (VecMath.distanceSq(before.from(), after.from()) > thresholdSq) return true;
+        return before.to() != null && after.to() != null && VecMath.distanceSq(before.to(), after.to()) > thresholdSq;
+    }
+
+    public int getWatcherCount() {
+        return watchers.size();
+    }
+
+    public int getQueuedCount() {
+        return queued.size();
+    }
+
+    public void clear() {
+        sent.clear();
+        queued.clear();
+        wanted.clear();
+        nextRefreshMillis = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,10 @@
+package com.hylypto.zombie.despawn;
+
+public class DespawnConfig {
+    // Most queued zombie removals applied per world tick — mass cleanup spreads over several ticks
+    public int maxRemovalsPerTick = 24;
+
+    // Longest server shutdown waits for a world thread to apply its last removals — a world
+    // that doesn't get to them in time keeps those zombies, and says so in the log
+    public int shutdownTimeoutMillis = 5000;
+}
@@ -0,0 +1,224 @@
+package com.hylypto.zombie.despawn;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
+import com.hylypto.zombie.jfr.DespawnEvent;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queued zombie removals for one world, applied a bounded number per tick.
+ *
+ * Callers hand over whole batches (a despawning group, a departing player's zombies,
+ * everything on shutdown) and get a future that completes once the last entity of the
+ * batch has been removed. Pending removals are ordered farthest-from-any-player first,
+ * measured when the batch is queued, so the zombies a player could still see go last.
+ *
+ * All methods run on the world thread.
+ */
+public final class DespawnQueue {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(DespawnQueue.class, "despawn");
+    private static final LogSite FAILURE_SITE = LogSite.every(10, TimeUnit.SECONDS);
+
+    /** Applies one removal — the ECS command buffer on the server, a direct remove in the harness. */
+    @FunctionalInterface
+    public interface Remover {
+        /** @param recyclable the batch was queued as recyclable — the entity may be kept for reuse instead */
+        boolean remove(UUID uuid, boolean recyclable);
+    }
+
+    /** Outcome of one queued batch. {@code removed} excludes entities that were already gone. */
+    public record DespawnResult(String source, String groupId, int requested, int removed, int ticks) {}
+
+    private final int maxRemovalsPerTick;
+    private final PriorityQueue<Entry> pending = new PriorityQueue<>();
+    private final List<Vector3d> playerScratch = new ArrayList<>();
+    private long sequence;
+    private long drainedTick = -1;
+    private int ticks;
+
+    public DespawnQueue(DespawnConfig config) {
+        this.maxRemovalsPerTick = Math.max(1, config.maxRemovalsPerTick);
+    }
+
+    // --- Queueing ---
+
+    /**
+     * Queues {@code uuids} for removal. The caller has already dropped them from its own
+     * tracking; entity handles must stay valid until the removal is applied.
+     *
+     * @param groupId patrol group the batch came from, or null
+     */
+    public CompletableFuture<DespawnResult> enqueue(String source, String groupId, Collection<UUID> uuids,
+                                                    ZombieWorld world) {
+        return enqueue(source, groupId, uuids, world, false);
+    }
+
+    /**
+     * As {@link #enqueue(String, String, Collection, ZombieWorld)}, optionally letting the
+     * remover keep the entities for reuse — only for zombies no player is near.
+     */
+    public CompletableFuture<DespawnResult> enqueue(String source, String groupId, Collection<UUID> uuids,
+                                                    ZombieWorld world, boolean recyclable) {
+        Batch batch = new Batch(source, groupId, uuids.size(), ticks, recyclable);
+        if (uuids.isEmpty()) {
+            batch.complete(ticks);
+            return batch.future;
+        }
+
+        playerScratch.clear();
+        world.players().collectPositions(playerScratch);
+        EntityAccess entities = world.entities();
+        for (UUID uuid : uuids) {
+            pending.add(new Entry(uuid, farthestFirstKey(entities.getPosition(uuid)), sequence++, batch));
+        }
+        playerScratch.clear();
+        return batch.future;
+    }
+
+    // Distance to the nearest player — unknown positions and empty worlds sort first
+    private double farthestFirstKey(Vector3d pos) {
+        if (pos == null || playerScratch.isEmpty()) return Double.MAX_VALUE;
+        double nearestSq = Double.MAX_VALUE;
+        for (int i = 0; i < playerScratch.size(); i++) {
+            nearestSq = Math.min(nearestSq, VecMath.distanceSq(pos, playerScratch.get(i)));
+        }
+        return nearestSq;
+    }
+
+    // --- Draining ---
+
+    /**
+     * Applies up to the per-tick budget of removals, once per world tick however many
+     * systems call it.
+     *
+     * @return removals attempted this call
+     */
+    public int drain(long tick, Remover remover) {
+        if (tick == drainedTick) return 0;
+        drainedTick = tick;
+        ticks++;
+        return apply(maxRemovalsPerTick, remover);
+    }
+
+    /** Applies every pending removal now — for shutdown, when no further ticks will come. */
+    public int drainAll(Remover remover) {
+        ticks++;
+        return apply(Integer.MAX_VALUE, remover);
+    }
+
+    private int apply(int budget, Remover remover) {
+        int attempted = 0;
+        while (attempted < budget) {
+            Entry entry = pending.poll();
+            if (entry == null) break;
+            attempted++;
+
+            boolean removed;
+            try {
+                removed = remover.remove(entry.uuid, entry.batch.recyclable);
+            } catch (RuntimeException e) {
+                // One bad entity must not stall the queue — count it as not removed and move on
+                LOG.error(FAILURE_SITE, () -> "Despawn of " + entry.uuid + " (" + entry.batch.source + ") failed: "
+                        + e.getMessage(), e);
+                removed = false;
+            }
+            entry.batch.settle(removed, ticks);
+        }
+        return attempted;
+    }
+
+    /** Adds every entity still waiting for removal to {@code out} — for a snapshot. */
+    public void collectPending(Collection<UUID> out) {
+        for (Entry entry : pending) {
+            out.add(entry.uuid);
+        }
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /** Drops pending removals without applying them — the world is unloading with its entities. */
+    public void clear() {
+        while (!pending.isEmpty()) {
+            pending.poll().batch.settle(false, ticks);
+        }
+    }
+
+    // --- Internals ---
+
+    private static final class Entry implements Comparable<Entry> {
+        final UUID uuid;
+        final double nearestPlayerSq;
+        final long seq;
+        final Batch batch;
+
+        Entry(UUID uuid, double nearestPlayerSq, long seq, Batch batch) {
+            this.uuid = uuid;
+            this.nearestPlayerSq = nearestPlayerSq;
+            this.seq = seq;
+            this.batch = batch;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int byDistance = Double.compare(o.nearestPlayerSq, nearestPlayerSq);
+            return byDistance != 0 ? byDistance : Long.compare(seq, o.seq);
+        }
+    }
+
+    private static final class Batch {
+        final String source;
+        final String groupId;
+        final int requested;
+        final int startTick;
+        final boolean recyclable;
+        final DespawnEvent event = new DespawnEvent();
+        final CompletableFuture<DespawnResult> future = new CompletableFuture<>();
+        int outstanding;
+        int removed;
+
+        Batch(String source, String groupId, int requested, int startTick, boolean recyclable) {
+            this.source = source;
+            this.groupId = groupId;
+            this.requested = requested;
+            this.startTick = startTick;
+            this.recyclable = recyclable;
+            this.outstanding = requested;
+            event.begin();
+        }
+
+        void settle(boolean wasRemoved, int tick) {
+            if (wasRemoved) removed++;
+            if (--outstanding == 0) complete(tick);
+        }
+
+        void complete(int tick) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.source = source;
+                event.groupId = groupId;
+                event.requested = requested;
+                event.removed = removed;
+                event.commit();
+            }
+            future.complete(new DespawnResult(source, groupId, requested, removed, tick - startTick));
+        }
+    }
+}
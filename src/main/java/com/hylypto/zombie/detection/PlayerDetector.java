@@ -13,15 +13,15 @@ public final class PlayerDetector {
     public static boolean canDetect(Vector3d zombiePos, double zombieYawDegrees,
                                      Vector3d playerPos, double detectionRange,
                                      double fovDegrees, double proximityRange) {
-        double distance = zombiePos.distanceTo(playerPos);
+        double distanceSq = zombiePos.distanceSquaredTo(playerPos);
 
         // Always detect very close players (hearing/smell)
-        if (distance <= proximityRange) {
+        if (distanceSq <= proximityRange * proximityRange) {
             return true;
         }
 
         // Too far — can't detect
-        if (distance > detectionRange) {
+        if (distanceSq > detectionRange * detectionRange) {
             return false;
         }
 
@@ -38,7 +38,41 @@ public final class PlayerDetector {
         return diff <= fovDegrees / 2.0;
     }
 
+    /**
+     * Same test as {@link #canDetect} with precompiled thresholds — squared ranges and the
+     * cosine of half the FOV — so no square roots or trig on the distance paths.
+     * The facing is a horizontal direction vector (need not be normalised); a zero vector faces +X.
+     */
+    public static boolean canDetectSq(Vector3d zombiePos, double facingX, double facingZ,
+                                      Vector3d playerPos, double detectionRangeSq,
+                                      double fovHalfCos, double proximityRangeSq) {
+        double distSq = zombiePos.distanceSquaredTo(playerPos);
+        if (distSq <= proximityRangeSq) {
+            return true;
+        }
+        if (distSq > detectionRangeSq) {
+            return false;
+        }
+
+        double dx = playerPos.x - zombiePos.x;
+        double dz = playerPos.z - zombiePos.z;
+        double toPlayerSq = dx * dx + dz * dz;
+        if (toPlayerSq == 0) return true;
+
+        double facingSq = facingX * facingX + facingZ * facingZ;
+        if (facingSq == 0) {
+            facingX = 1;
+            facingSq = 1;
+        }
+        double dot = facingX * dx + facingZ * dz;
+        return dot >= fovHalfCos * Math.sqrt(facingSq * toPlayerSq);
+    }
+
     public static boolean isWithinRange(Vector3d a, Vector3d b, double range) {
-        return a.distanceTo(b) <= range;
+        return a.distanceSquaredTo(b) <= range * range;
+    }
+
+    public static boolean isWithinRangeSq(Vector3d a, Vector3d b, double rangeSq) {
+        return a.distanceSquaredTo(b) <= rangeSq;
     }
 }
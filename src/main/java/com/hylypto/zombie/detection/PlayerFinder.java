@@ -5,6 +5,7 @@ import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hylypto.zombie.math.VecMath;
 
 /**
  * Shared utility for finding the nearest player position.
@@ -23,34 +24,59 @@ public final class PlayerFinder {
      * @return nearest player position, or null if no players found
      */
     public static Vector3d findNearest(Store<EntityStore> store, Vector3d referencePos) {
-        final Vector3d[] nearest = {null};
-        final double[] minDist = {Double.MAX_VALUE};
+        return findNearest(store, referencePos.x, referencePos.y, referencePos.z);
+    }
+
+    /**
+     * Primitive form of {@link #findNearest(Store, Vector3d)} — compares squared distances
+     * and reuses a per-thread result holder instead of allocating one per call.
+     */
+    public static Vector3d findNearest(Store<EntityStore> store, double x, double y, double z) {
+        Nearest nearest = NEAREST.get();
+        nearest.reset();
 
         try {
             store.forEachEntityParallel(Player.getComponentType(), (index, chunk, buffer) -> {
                 TransformComponent transform = chunk.getComponent(index, TransformComponent.getComponentType());
                 if (transform != null) {
                     Vector3d pos = transform.getPosition();
-                    double dist = referencePos.distanceTo(pos);
-                    synchronized (nearest) {
-                        if (dist < minDist[0]) {
-                            minDist[0] = dist;
-                            nearest[0] = pos;
-                        }
-                    }
+                    nearest.offer(pos, VecMath.distanceSq(pos, x, y, z));
                 }
             });
         } catch (Exception e) {
             // No players online
         }
 
-        return nearest[0];
+        Vector3d result = nearest.pos;
+        nearest.reset();
+        return result;
     }
 
     /**
      * Finds any player position (when no reference point matters).
      */
     public static Vector3d findAny(Store<EntityStore> store) {
-        return findNearest(store, new Vector3d(0, 0, 0));
+        return findNearest(store, VecMath.ORIGIN);
+    }
+
+    // The store visits players in parallel, so offers are synchronized; the holder itself
+    // belongs to the calling (world) thread and is cleared before returning
+    private static final ThreadLocal<Nearest> NEAREST = ThreadLocal.withInitial(Nearest::new);
+
+    private static final class Nearest {
+        Vector3d pos;
+        double distSq;
+
+        synchronized void offer(Vector3d candidate, double candidateDistSq) {
+            if (candidateDistSq < distSq) {
+                distSq = candidateDistSq;
+                pos = candidate;
+            }
+        }
+
+        void reset() {
+            pos = null;
+            distSq = Double.MAX_VALUE;
+        }
     }
 }
@@ -0,0 +1,37 @@
+package com.hylypto.zombie.governor;
+
+public class GovernorConfig {
+    // Off = spawn sizes and patrol cadence are always used as configured
+    public boolean enabled = true;
+
+    // The world's nominal tick rate. The governor samples the interval between ticks, which
+    // never drops below this period (33.3ms at 30 TPS) however idle the world is
+    public double tickRate = 30.0;
+
+    // Overloaded once the average interval exceeds the nominal period by this ratio (40ms at 30 TPS)
+    public double targetRatio = 1.2;
+
+    // Smoothing for the tick-time average — higher reacts faster, lower ignores single spikes
+    public double ewmaAlpha = 0.1;
+
+    // Tail check over the last windowTicks samples: overloaded if this percentile exceeds
+    // the target times tailToleranceRatio even while the average looks fine
+    public int windowTicks = 300;
+    public double tailPercentile = 0.95;
+    public double tailToleranceRatio = 1.5;
+
+    // Hysteresis — only ramp back up once the average is under the nominal period times this.
+    // Must lie above 1, or a world that keeps up never recovers, and below targetRatio
+    public double recoverBelowRatio = 1.05;
+
+    // Re-evaluate the scale every this many world ticks
+    public int evaluateEveryTicks = 30;
+
+    // Scale steps: cut multiplicatively when overloaded, restore additively when recovered
+    public double scaleDownFactor = 0.75;
+    public double scaleUpStep = 0.05;
+    public double minScale = 0.2;
+
+    // Patrol groups tick up to this many times less often at minScale
+    public double maxTickStretch = 4.0;
+}
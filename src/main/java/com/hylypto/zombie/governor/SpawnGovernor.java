@@ -0,0 +1,145 @@
+package com.hylypto.zombie.governor;
+
+import com.hylypto.api.log.HylyptoLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scales zombie workload for one world to the tick time that world is actually achieving.
+ *
+ * Tick durations feed a {@link TickTimeStats}. Every {@code evaluateEveryTicks} samples the
+ * governor compares the EWMA and the tail percentile against the target: while either is
+ * over, the scale is cut multiplicatively; it only ramps back up, a small step at a time,
+ * once the average is back near the nominal period and the tail within the target. The gap
+ * between the two thresholds keeps the scale from oscillating around the target. Both are
+ * ratios of the nominal period, since the sampled interval never drops below it.
+ *
+ * Managers ask for a {@link #budget} before spawning — horde sizes, patrol group sizes and
+ * screamer reinforcements all shrink with the scale — and patrol groups stretch their tick
+ * interval by {@link #tickStretch()}, ticking less often while the world is behind.
+ *
+ * Samples and evaluation run on the world thread; the scale is readable from anywhere.
+ */
+public final class SpawnGovernor {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(SpawnGovernor.class, "governor");
+
+    private final String worldName;
+    private final GovernorConfig config;
+    private final TickTimeStats stats;
+    private final long periodNanos;
+    private final long targetNanos;
+    private long lastTickNanos;
+    private int sinceEvaluate;
+    private volatile double scale = 1.0;
+    private volatile long ewmaNanos;
+    private volatile long tailNanos;
+
+    public SpawnGovernor(String worldName, GovernorConfig config) {
+        this.worldName = worldName;
+        this.config = config;
+        this.stats = new TickTimeStats(config.ewmaAlpha, config.windowTicks);
+        this.periodNanos = Math.round(1_000_000_000.0 / config.tickRate);
+        this.targetNanos = Math.round(periodNanos * config.targetRatio);
+    }
+
+    /** Problems with {@code c}, empty if it is usable. */
+    public static List<String> validate(GovernorConfig c) {
+        List<String> errors = new ArrayList<>();
+        if (!(c.tickRate > 0)) errors.add("tickRate must be > 0");
+        if (!(c.targetRatio > 1)) errors.add("targetRatio must be > 1");
+        if (!(c.recoverBelowRatio > 1 && c.recoverBelowRatio < c.targetRatio)) {
+            errors.add("recoverBelowRatio must be > 1 and < targetRatio — the tick interval never drops below the nominal period");
+        }
+        if (!(c.ewmaAlpha > 0 && c.ewmaAlpha <= 1)) errors.add("ewmaAlpha must be in (0, 1]");
+        if (c.windowTicks < 1) errors.add("windowTicks must be >= 1");
+        if (!(c.tailPercentile > 0 && c.tailPercentile <= 1)) errors.add("tailPercentile must be in (0, 1]");
+        if (!(c.tailToleranceRatio >= 1)) errors.add("tailToleranceRatio must be >= 1");
+        if (c.evaluateEveryTicks < 1) errors.add("evaluateEveryTicks must be >= 1");
+        if (!(c.scaleDownFactor > 0 && c.scaleDownFactor < 1)) errors.add("scaleDownFactor must be in (0, 1)");
+        if (!(c.scaleUpStep > 0)) errors.add("scaleUpStep must be > 0");
+        if (!(c.minScale > 0 && c.minScale <= 1)) errors.add("minScale must be in (0, 1]");
+        if (!(c.maxTickStretch >= 1)) errors.add("maxTickStretch must be >= 1");
+        return errors;
+    }
+
+    // --- Sampling ---
+
+    /**
+     * Called once per world tick. The interval between consecutive calls is the world's tick
+     * period: the nominal period while the world keeps up, the tick duration once it falls behind.
+     */
+    public void onWorldTick(long nowNanos) {
+        long last = lastTickNanos;
+        lastTickNanos = nowNanos;
+        if (last != 0) {
+            recordTick(nowNanos - last);
+        }
+    }
+
+    /** Records one measured tick duration directly — the headless harness times its own ticks. */
+    public void recordTick(long nanos) {
+        if (!config.enabled) return;
+        stats.record(nanos);
+        if (++sinceEvaluate >= config.evaluateEveryTicks) {
+            sinceEvaluate = 0;
+            evaluate();
+        }
+    }
+
+    private void evaluate() {
+        double ewma = stats.ewmaNanos();
+        long tail = stats.percentileNanos(config.tailPercentile);
+        ewmaNanos = (long) ewma;
+        tailNanos = tail;
+
+        double before = scale;
+        double after = before;
+        if (ewma > targetNanos || tail > targetNanos * config.tailToleranceRatio) {
+            after = Math.max(config.minScale, before * config.scaleDownFactor);
+        } else if (ewma < periodNanos * config.recoverBelowRatio && tail <= targetNanos) {
+            after = Math.min(1.0, before + config.scaleUpStep);
+        }
+        if (after == before) return;
+
+        scale = after;
+        double from = before;
+        double to = after;
+        LOG.info(() -> String.format("World %s tick ewma=%.1fms p%d=%.1fms target=%.1fms — scale %.2f -> %.2f",
+                worldName, ewma / 1e6, Math.round(config.tailPercentile * 100), tail / 1e6,
+                targetNanos / 1e6, from, to));
+    }
+
+    // --- Budgets ---
+
+    /** Current workload scale in [{@code minScale}, 1]. */
+    public double scale() {
+        return scale;
+    }
+
+    /**
+     * How many of {@code requested} zombies to spawn at the current scale. Never rounds a
+     * non-empty request down to nothing, so spawning slows rather than stops.
+     */
+    public int budget(int requested) {
+        if (requested <= 0) return 0;
+        return Math.max(1, (int) Math.round(requested * scale));
+    }
+
+    /** Multiplier for the patrol group tick interval: 1 at full scale, {@code maxTickStretch} at the floor. */
+    public double tickStretch() {
+        double s = scale;
+        if (s >= 1.0) return 1.0;
+        double t = (1.0 - s) / Math.max(1e-9, 1.0 - config.minScale);
+        return 1.0 + t * (config.maxTickStretch - 1.0);
+    }
+
+    public long getEwmaNanos() {
+        return ewmaNanos;
+    }
+
+    public long getTailNanos() {
+        return tailNanos;
+    }
+}
@@ -0,0 +1,57 @@
+package com.hylypto.zombie.governor;
+
+import java.util.Arrays;
+
+/**
+ * Tick duration statistics for one world: an exponentially weighted moving average plus a
+ * ring of recent samples for tail percentiles. Recording is a couple of stores; percentiles
+ * sort a reused scratch copy, so ask for them at evaluation time, not every tick.
+ *
+ * Not thread-safe — owned by the world thread.
+ */
+public final class TickTimeStats {
+
+    private final double alpha;
+    private final long[] window;
+    private final long[] scratch;
+    private int next;
+    private int filled;
+    private double ewmaNanos = Double.NaN;
+
+    public TickTimeStats(double alpha, int windowSize) {
+        this.alpha = alpha;
+        this.window = new long[Math.max(1, windowSize)];
+        this.scratch = new long[window.length];
+    }
+
+    public void record(long nanos) {
+        ewmaNanos = Double.isNaN(ewmaNanos) ? nanos : ewmaNanos + alpha * (nanos - ewmaNanos);
+        window[next] = nanos;
+        next = (next + 1) % window.length;
+        if (filled < window.length) filled++;
+    }
+
+    /** Smoothed tick time, or 0 before the first sample. */
+    public double ewmaNanos() {
+        return Double.isNaN(ewmaNanos) ? 0 : ewmaNanos;
+    }
+
+    /** Nearest-rank percentile over the sample window, or 0 before the first sample. */
+    public long percentileNanos(double p) {
+        if (filled == 0) return 0;
+        System.arraycopy(window, 0, scratch, 0, filled);
+        Arrays.sort(scratch, 0, filled);
+        int idx = (int) Math.ceil(p * filled) - 1;
+        return scratch[Math.max(0, Math.min(filled - 1, idx))];
+    }
+
+    public int sampleCount() {
+        return filled;
+    }
+
+    public void reset() {
+        next = 0;
+        filled = 0;
+        ewmaNanos = Double.NaN;
+    }
+}
@@ -0,0 +1,35 @@
+package com.hylypto.zombie.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event covering a batch of entity removals (group despawn or mass cleanup), from
+ * the moment it is queued until its last removal is applied.
+ */
+@Name("com.hylypto.Despawn")
+@Label("Zombie Despawn")
+@Category({"Hylypto", "Spawning"})
+@Description("Removal of zombie entities from the entity store")
+@Threshold("0 ms")
+@StackTrace(false)
+public class DespawnEvent extends Event {
+
+    @Label("Source")
+    @Description("patrol-group, patrol-all, patrol-owner, horde-all or horde-owner")
+    public String source;
+
+    @Label("Group Id")
+    public String groupId;
+
+    @Label("Requested")
+    public int requested;
+
+    @Label("Removed")
+    public int removed;
+}
@@ -0,0 +1,36 @@
+package com.hylypto.zombie.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event covering one setTransientPath fan-out across the members of a group — one
+ * event per group assignment, with the number of members reached in {@code assigned}.
+ */
+@Name("com.hylypto.PathAssign")
+@Label("Patrol Path Assignment")
+@Category({"Hylypto", "Patrol"})
+@Description("TransientPath assignment to every member of a patrol group")
+@Threshold("1 ms")
+@StackTrace(false)
+public class PathAssignEvent extends Event {
+
+    @Label("Source")
+    @Description("spawn, patrol, walk, aggro or search")
+    public String source;
+
+    @Label("Group Id")
+    public String groupId;
+
+    @Label("Waypoints")
+    public int waypoints;
+
+    @Label("Assigned")
+    @Description("Members given the path")
+    public int assigned;
+}
@@ -0,0 +1,35 @@
+package com.hylypto.zombie.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event covering one A* search on a path worker thread. Snapshot capture happens
+ * earlier on the world thread and is not included.
+ */
+@Name("com.hylypto.PathSearch")
+@Label("Path Search")
+@Category({"Hylypto", "Pathing"})
+@Description("A* search over a terrain snapshot for one patrol leg")
+@Threshold("1 ms")
+@StackTrace(false)
+public class PathSearchEvent extends Event {
+
+    @Label("Columns")
+    @Description("Block columns in the snapshot corridor")
+    public int columns;
+
+    @Label("Expanded")
+    public int expanded;
+
+    @Label("Waypoints")
+    public int waypoints;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,34 @@
+package com.hylypto.zombie.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event covering one patrol group state-machine tick.
+ * Only ticks slower than the threshold are recorded.
+ */
+@Name("com.hylypto.PatrolTick")
+@Label("Patrol Group Tick")
+@Category({"Hylypto", "Patrol"})
+@Description("State handler tick for a single patrol group")
+@Threshold("1 ms")
+@StackTrace(false)
+public class PatrolTickEvent extends Event {
+
+    @Label("Group Id")
+    public String groupId;
+
+    @Label("State")
+    public String state;
+
+    @Label("Next State")
+    public String nextState;
+
+    @Label("Member Count")
+    public int memberCount;
+}
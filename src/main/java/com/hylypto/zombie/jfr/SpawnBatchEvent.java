@@ -0,0 +1,34 @@
+package com.hylypto.zombie.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event covering one spawn batch (a patrol group or a horde) on the world thread.
+ */
+@Name("com.hylypto.SpawnBatch")
+@Label("Zombie Spawn Batch")
+@Category({"Hylypto", "Spawning"})
+@Description("Spawning a patrol group or horde inside a world task")
+@Threshold("0 ms")
+@StackTrace(false)
+public class SpawnBatchEvent extends Event {
+
+    @Label("Source")
+    @Description("patrol or horde")
+    public String source;
+
+    @Label("Group Id")
+    public String groupId;
+
+    @Label("Requested")
+    public int requested;
+
+    @Label("Spawned")
+    public int spawned;
+}
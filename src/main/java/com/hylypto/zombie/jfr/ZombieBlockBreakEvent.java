@@ -0,0 +1,34 @@
+package com.hylypto.zombie.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event covering a zombie-driven block break on the world thread.
+ */
+@Name("com.hylypto.BlockBreak")
+@Label("Zombie Block Break")
+@Category({"Hylypto", "Block Breaking"})
+@Description("Block destroyed after enough zombie hits")
+@Threshold("0 ms")
+@StackTrace(false)
+public class ZombieBlockBreakEvent extends Event {
+
+    @Label("X")
+    public int x;
+
+    @Label("Y")
+    public int y;
+
+    @Label("Z")
+    public int z;
+
+    @Label("Broken")
+    @Description("false if the block was already empty")
+    public boolean broken;
+}
@@ -0,0 +1,93 @@
+package com.hylypto.zombie.math;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hylypto.zombie.world.EntityAccess;
+
+import java.util.UUID;
+
+/**
+ * Allocation-free vector helpers for per-tick zombie code.
+ *
+ * Distances are compared squared against precomputed squared thresholds, results are
+ * written into caller-owned scratch vectors, and the primitive overloads take coordinates
+ * so nothing has to be boxed into a {@link Vector3d} just to be measured. Only
+ * {@link #copy} allocates — use it for vectors that are kept or handed to the engine.
+ */
+public final class VecMath {
+
+    /** Zero rotation for spawns and waypoints that don't care about facing. Shared — never mutate. */
+    public static final Vector3f ZERO_ROTATION = new Vector3f(0, 0, 0);
+
+    /** World origin. Shared — never mutate. */
+    public static final Vector3d ORIGIN = new Vector3d(0, 0, 0);
+
+    private VecMath() {}
+
+    // --- Squared distances ---
+
+    public static double distanceSq(double ax, double ay, double az, double bx, double by, double bz) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        double dz = az - bz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public static double distanceSq(Vector3d a, double bx, double by, double bz) {
+        return distanceSq(a.x, a.y, a.z, bx, by, bz);
+    }
+
+    public static double distanceSq(Vector3d a, Vector3d b) {
+        return distanceSq(a.x, a.y, a.z, b.x, b.y, b.z);
+    }
+
+    /** Horizontal distance squared, ignoring height. */
+    public static double distanceSqXZ(double ax, double az, double bx, double bz) {
+        double dx = ax - bx;
+        double dz = az - bz;
+        return dx * dx + dz * dz;
+    }
+
+    public static boolean within(Vector3d a, Vector3d b, double rangeSq) {
+        return distanceSq(a, b) <= rangeSq;
+    }
+
+    // --- Scratch writes ---
+
+    public static Vector3d set(Vector3d dst, double x, double y, double z) {
+        dst.x = x;
+        dst.y = y;
+        dst.z = z;
+        return dst;
+    }
+
+    public static Vector3d set(Vector3d dst, Vector3d src) {
+        return set(dst, src.x, src.y, src.z);
+    }
+
+    /** A fresh copy — for values that outlive the tick or are handed to the engine. */
+    public static Vector3d copy(Vector3d src) {
+        return new Vector3d(src.x, src.y, src.z);
+    }
+
+    /**
+     * Writes the mean position of the members that still exist into {@code out}.
+     *
+     * @return false (leaving {@code out} untouched) if none of them exist
+     */
+    public static boolean centroid(Iterable<UUID> members, EntityAccess entities, Vector3d out) {
+        double sumX = 0, sumY = 0, sumZ = 0;
+        int count = 0;
+        for (UUID uuid : members) {
+            Vector3d pos = entities.getPosition(uuid);
+            if (pos == null) continue;
+            sumX += pos.x;
+            sumY += pos.y;
+            sumZ += pos.z;
+            count++;
+        }
+        if (count == 0) return false;
+        set(out, sumX / count, sumY / count, sumZ / count);
+        return true;
+    }
+}
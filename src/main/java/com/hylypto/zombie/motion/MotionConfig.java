@@ -0,0 +1,19 @@
+package com.hylypto.zombie.motion;
+
+public class MotionConfig {
+    // Off = chasing groups aim at where the player is, not where they are heading
+    public boolean enabled = true;
+
+    // How often each player's position is sampled, and how many samples the velocity is taken over
+    public int sampleIntervalMillis = 250;
+    public int samples = 8;
+
+    // Running speed assumed for a chasing zombie, in blocks per second
+    public double chaserSpeed = 4.5;
+
+    // Furthest ahead of a player a group aims, in seconds of their current movement
+    public double maxLeadSeconds = 3.0;
+
+    // Slower players are treated as standing still
+    public double minPlayerSpeed = 0.5;
+}
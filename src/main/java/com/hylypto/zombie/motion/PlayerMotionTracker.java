@@ -0,0 +1,174 @@
+package com.hylypto.zombie.motion;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.world.PlayerAccess;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Recent positions of each player in one world, sampled at a fixed interval into a small ring of
+ * primitive arrays, and the velocity they imply. Chasing groups use it to aim where a player will
+ * be when they get there instead of where the player is, so a running player is cut off rather
+ * than trailed — and the aim point holds still while the player keeps their course, so the group
+ * is re-pathed far less often.
+ *
+ * Handlers know a player only by the position {@code findNearest} returned, so lookups match the
+ * track whose latest sample lies closest to it.
+ *
+ * World thread only.
+ */
+public final class PlayerMotionTracker {
+
+    // A position further than this from every track's latest sample belongs to none of them
+    private static final double MATCH_RADIUS_SQ = 4.0 * 4.0;
+
+    /** Fixed-size ring of (x, z, time) samples, newest at {@code head - 1}. */
+    private static final class Track {
+        final double[] x;
+        final double[] z;
+        final long[] time;
+        int head;
+        int count;
+
+        Track(int capacity) {
+            this.x = new double[capacity];
+            this.z = new double[capacity];
+            this.time = new long[capacity];
+        }
+
+        void add(double px, double pz, long millis) {
+            x[head] = px;
+            z[head] = pz;
+            time[head] = millis;
+            head = (head + 1) % x.length;
+            if (count < x.length) count++;
+        }
+
+        int newest() {
+            return Math.floorMod(head - 1, x.length);
+        }
+
+        int oldest() {
+            return Math.floorMod(head - count, x.length);
+        }
+    }
+
+    private final MotionConfig config;
+    private final int capacity;
+    private final Map<UUID, Track> tracks = new HashMap<>();
+    private long nextSampleMillis;
+
+    public PlayerMotionTracker(MotionConfig config) {
+        this.config = config;
+        this.capacity = Math.max(2, config.samples);
+    }
+
+    public boolean isEnabled() {
+        return config.enabled;
+    }
+
+    /**
+     * Records the position of each of {@code players} in this world, once per sample interval,
+     * and drops the tracks of players who are no longer here.
+     */
+    public void sample(Collection<UUID> players, PlayerAccess access, long nowMillis) {
+        if (!config.enabled || nowMillis < nextSampleMillis) return;
+        nextSampleMillis = nowMillis + config.sampleIntervalMillis;
+
+        for (Iterator<Map.Entry<UUID, Track>> it = tracks.entrySet().iterator(); it.hasNext(); ) {
+            if (!players.contains(it.next().getKey())) it.remove();
+        }
+        for (UUID playerId : players) {
+            Vector3d pos = access.positionOf(playerId);
+            if (pos == null) {
+                tracks.remove(playerId);
+                continue;
+            }
+            tracks.computeIfAbsent(playerId, id -> new Track(capacity)).add(pos.x, pos.z, nowMillis);
+        }
+    }
+
+    /**
+     * Writes the velocity, in blocks per second on the XZ plane, of the player at {@code position}
+     * into {@code out}.
+     *
+     * @return false if no track matches the position or it has too few samples; {@code out} is untouched
+     */
+    public boolean velocityNear(Vector3d position, Vector3d out) {
+        if (!config.enabled) return false;
+        Track best = null;
+        double bestDistSq = MATCH_RADIUS_SQ;
+        for (Track track : tracks.values()) {
+            int n = track.newest();
+            double dx = track.x[n] - position.x, dz = track.z[n] - position.z;
+            double distSq = dx * dx + dz * dz;
+            if (distSq <= bestDistSq) {
+                bestDistSq = distSq;
+                best = track;
+            }
+        }
+        if (best == null || best.count < 2) return false;
+
+        int newest = best.newest(), oldest = best.oldest();
+        double seconds = (best.time[newest] - best.time[oldest]) / 1000.0;
+        if (seconds <= 0) return false;
+        VecMath.set(out, (best.x[newest] - best.x[oldest]) / seconds, 0, (best.z[newest] - best.z[oldest]) / seconds);
+        return true;
+    }
+
+    /**
+     * Writes into {@code out} the point where a zombie starting at {@code chaser} and running at
+     * the configured speed meets a target at {@code target} moving at {@code velocity} — at most
+     * the configured lead ahead of it. A target too slow to lead is aimed at directly.
+     *
+     * @return true if the point leads the target
+     */
+    public boolean intercept(Vector3d target, Vector3d velocity, Vector3d chaser, Vector3d out) {
+        double vx = velocity.x, vz = velocity.z;
+        double speedSq = vx * vx + vz * vz;
+        if (!config.enabled || speedSq < config.minPlayerSpeed * config.minPlayerSpeed) {
+            VecMath.set(out, target);
+            return false;
+        }
+
+        // |r + v t| = s t, with r the target relative to the chaser
+        double rx = target.x - chaser.x, rz = target.z - chaser.z;
+        double a = speedSq - config.chaserSpeed * config.chaserSpeed;
+        double b = 2 * (rx * vx + rz * vz);
+        double c = rx * rx + rz * rz;
+        double t = config.maxLeadSeconds;
+        if (Math.abs(a) < 1e-9) {
+            if (b < 0) t = -c / b;
+        } else {
+            double disc = b * b - 4 * a * c;
+            if (disc >= 0) {
+                double sqrt = Math.sqrt(disc);
+                double t1 = (-b - sqrt) / (2 * a), t2 = (-b + sqrt) / (2 * a);
+                double first = Math.min(t1, t2), second = Math.max(t1, t2);
+                if (first > 0) t = first;
+                else if (second > 0) t = second;
+            }
+        }
+        // No meeting point means the player outruns us — head for where they are going anyway
+        t = Math.min(t, config.maxLeadSeconds);
+
+        VecMath.set(out, target.x + vx * t, target.y, target.z + vz * t);
+        HylyptoMetrics.CHASE_INTERCEPTS.increment();
+        return true;
+    }
+
+    public int getTrackedCount() {
+        return tracks.size();
+    }
+
+    public void clear() {
+        tracks.clear();
+        nextSampleMillis = 0;
+    }
+}
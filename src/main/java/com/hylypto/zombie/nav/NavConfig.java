@@ -0,0 +1,28 @@
+package com.hylypto.zombie.nav;
+
+public class NavConfig {
+    // Off = patrol routes are scanned from the live world when the patrol spawns
+    public boolean enabled = true;
+
+    // Blocks between neighbouring graph nodes; a chunk holds (32 / nodeSpacing)² of them
+    public int nodeSpacing = 8;
+
+    // Chunks around each player that are kept in the graph
+    public int tileRadiusChunks = 4;
+
+    // How far above and below the player's height ground is looked for when a chunk is added
+    public int verticalRange = 24;
+
+    // How often the chunks around players are checked and the graph rebuilt if any changed
+    public long refreshIntervalMillis = 500;
+
+    // New chunks started per refresh — each needs its terrain snapshotted first
+    public int maxTileBuildsPerRefresh = 16;
+
+    // Walkable height changes along an edge between neighbouring columns
+    public int maxStepUp = 1;
+    public int maxDrop = 3;
+
+    // How many lattice steps a route point may move to reach a graph node
+    public int snapRadiusNodes = 2;
+}
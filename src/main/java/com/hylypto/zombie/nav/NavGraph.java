@@ -0,0 +1,301 @@
+package com.hylypto.zombie.nav;
+
+import com.hylypto.zombie.terrain.ChunkSnapshot;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable walkability graph over the chunks around players. Nodes are standable surface
+ * points on a lattice {@code spacing} blocks apart; an edge joins lattice neighbours when a
+ * straight walk between them stays on ground within the step limits. Adjacency is stored
+ * in compressed sparse row form — {@code edgeStart[n] .. edgeStart[n + 1]} indexes the
+ * targets of node {@code n} — and every node carries the id of the strongly connected
+ * component it belongs to, so "can a patrol get from here to there and back" is one
+ * comparison. Drops make some edges one-way, which is why plain connectivity isn't enough.
+ *
+ * Built on a worker by {@link #assemble} and published whole; safe to read from any thread.
+ */
+public final class NavGraph {
+
+    private static final int SIZE = ChunkSnapshot.SIZE;
+    // Half the lattice directions — the other half are added as reverse edges
+    private static final int[] DX = {1, 0, 1, 1};
+    private static final int[] DZ = {0, 1, 1, -1};
+
+    private static final int FORWARD = 1;
+    private static final int BACKWARD = 2;
+
+    static final NavGraph EMPTY = assemble(List.of(), new NavConfig());
+
+    private final int spacing;
+    private final Map<Long, NavTile> tiles;
+    private final Map<Long, Integer> nodeByCell;
+    private final int[] nodeX, nodeY, nodeZ;
+    private final int[] component;
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+
+    private NavGraph(int spacing, Map<Long, NavTile> tiles, Map<Long, Integer> nodeByCell,
+                     int[] nodeX, int[] nodeY, int[] nodeZ, int[] component, int[] edgeStart, int[] edgeTarget) {
+        this.spacing = spacing;
+        this.tiles = tiles;
+        this.nodeByCell = nodeByCell;
+        this.nodeX = nodeX;
+        this.nodeY = nodeY;
+        this.nodeZ = nodeZ;
+        this.component = component;
+        this.edgeStart = edgeStart;
+        this.edgeTarget = edgeTarget;
+    }
+
+    // --- Queries ---
+
+    public int nodeCount() {
+        return nodeX.length;
+    }
+
+    public int edgeCount() {
+        return edgeTarget.length;
+    }
+
+    public int tileCount() {
+        return tiles.size();
+    }
+
+    /** Block-centre coordinates of a node. */
+    public double x(int node) { return nodeX[node] + 0.5; }
+    public double y(int node) { return nodeY[node]; }
+    public double z(int node) { return nodeZ[node] + 0.5; }
+
+    /** Nodes with the same component can each reach the other along outgoing edges. */
+    public int component(int node) {
+        return component[node];
+    }
+
+    /** Outgoing edges of {@code node} are {@code edgeTarget(e)} for e in [firstEdge(node), firstEdge(node + 1)). */
+    public int firstEdge(int node) {
+        return edgeStart[node];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTarget[edge];
+    }
+
+    /**
+     * The node nearest (x, z) within {@code radius} lattice steps of its cell, or -1. Looks at
+     * no more than (2 · radius + 1)² cells.
+     */
+    public int nearestNode(double x, double z, int radius) {
+        if (nodeX.length == 0) return -1;
+        int cx = Math.floorDiv((int) Math.floor(x), spacing);
+        int cz = Math.floorDiv((int) Math.floor(z), spacing);
+        int best = -1;
+        double bestDistSq = Double.MAX_VALUE;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                Integer node = nodeByCell.get(cellKey(cx + dx, cz + dz));
+                if (node == null) continue;
+                double ex = x(node) - x;
+                double ez = z(node) - z;
+                double distSq = ex * ex + ez * ez;
+                if (distSq < bestDistSq) {
+                    bestDistSq = distSq;
+                    best = node;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Standing height at column (x, z) from the graph's tiles, or NaN if unknown or not standable. */
+    public double surfaceY(double x, double z) {
+        int bx = (int) Math.floor(x);
+        int bz = (int) Math.floor(z);
+        int y = standAt(tiles, bx, bz);
+        return y == NavTile.NO_GROUND ? Double.NaN : y;
+    }
+
+    // --- Assembly (worker thread) ---
+
+    /** Lays the lattice over {@code tileList} and links walkable neighbours. */
+    static NavGraph assemble(Collection<NavTile> tileList, NavConfig config) {
+        // A power of two no larger than a chunk, so every lattice cell sits inside one tile
+        int spacing = Integer.highestOneBit(Math.max(1, Math.min(SIZE, config.nodeSpacing)));
+        Map<Long, NavTile> tiles = new HashMap<>(tileList.size() * 2);
+        for (NavTile tile : tileList) {
+            tiles.put(NavTile.key(tile.chunkX, tile.chunkZ), tile);
+        }
+        NavTile[] ordered = tileList.toArray(NavTile[]::new);
+        // Tiles arrive in map order; sorting keeps node ids reproducible
+        Arrays.sort(ordered, (a, b) -> a.chunkX != b.chunkX
+                ? Integer.compare(a.chunkX, b.chunkX) : Integer.compare(a.chunkZ, b.chunkZ));
+
+        int perTile = SIZE / spacing;
+        int capacity = ordered.length * perTile * perTile;
+        int[] xs = new int[capacity], ys = new int[capacity], zs = new int[capacity];
+        Map<Long, Integer> nodeByCell = new HashMap<>(capacity * 2);
+        int nodes = 0;
+        for (NavTile tile : ordered) {
+            int baseX = tile.chunkX * SIZE;
+            int baseZ = tile.chunkZ * SIZE;
+            for (int lx = 0; lx < perTile; lx++) {
+                for (int lz = 0; lz < perTile; lz++) {
+                    if (!placeNode(tile, baseX + lx * spacing, baseZ + lz * spacing, spacing, xs, ys, zs, nodes)) {
+                        continue;
+                    }
+                    nodeByCell.put(cellKey(Math.floorDiv(baseX, spacing) + lx, Math.floorDiv(baseZ, spacing) + lz), nodes);
+                    nodes++;
+                }
+            }
+        }
+
+        // Validate the four forward lattice directions per node; each walk check yields both directions
+        int[] from = new int[nodes * 8];
+        int[] to = new int[nodes * 8];
+        int edges = 0;
+        for (int node = 0; node < nodes; node++) {
+            int cx = Math.floorDiv(xs[node], spacing);
+            int cz = Math.floorDiv(zs[node], spacing);
+            for (int dir = 0; dir < DX.length; dir++) {
+                Integer other = nodeByCell.get(cellKey(cx + DX[dir], cz + DZ[dir]));
+                if (other == null) continue;
+                int walk = walk(tiles, xs[node], zs[node], xs[other], zs[other], config);
+                if ((walk & FORWARD) != 0) {
+                    from[edges] = node;
+                    to[edges++] = other;
+                }
+                if ((walk & BACKWARD) != 0) {
+                    from[edges] = other;
+                    to[edges++] = node;
+                }
+            }
+        }
+
+        // Counting sort by source into CSR
+        int[] edgeStart = new int[nodes + 1];
+        for (int e = 0; e < edges; e++) edgeStart[from[e] + 1]++;
+        for (int n = 0; n < nodes; n++) edgeStart[n + 1] += edgeStart[n];
+        int[] fill = Arrays.copyOf(edgeStart, nodes);
+        int[] edgeTarget = new int[edges];
+        for (int e = 0; e < edges; e++) edgeTarget[fill[from[e]]++] = to[e];
+
+        int[] component = stronglyConnected(nodes, edgeStart, edgeTarget);
+
+        return new NavGraph(spacing, Map.copyOf(tiles), Map.copyOf(nodeByCell),
+                Arrays.copyOf(xs, nodes), Arrays.copyOf(ys, nodes), Arrays.copyOf(zs, nodes),
+                component, edgeStart, edgeTarget);
+    }
+
+    /** Puts the node for the lattice cell at (cellX, cellZ) on the standable column nearest its centre. */
+    private static boolean placeNode(NavTile tile, int cellX, int cellZ, int spacing,
+                                     int[] xs, int[] ys, int[] zs, int index) {
+        int half = spacing / 2;
+        int bestDistSq = Integer.MAX_VALUE;
+        for (int dx = 0; dx < spacing; dx++) {
+            for (int dz = 0; dz < spacing; dz++) {
+                int y = tile.standAt(cellX + dx, cellZ + dz);
+                if (y == NavTile.NO_GROUND) continue;
+                int distSq = (dx - half) * (dx - half) + (dz - half) * (dz - half);
+                if (distSq < bestDistSq) {
+                    bestDistSq = distSq;
+                    xs[index] = cellX + dx;
+                    ys[index] = y;
+                    zs[index] = cellZ + dz;
+                }
+            }
+        }
+        return bestDistSq != Integer.MAX_VALUE;
+    }
+
+    /** Samples the straight line between two columns every half block; which directions stay within the step limits. */
+    private static int walk(Map<Long, NavTile> tiles, int ax, int az, int bx, int bz, NavConfig config) {
+        int steps = Math.max(Math.abs(bx - ax), Math.abs(bz - az)) * 2;
+        int prevY = standAt(tiles, ax, az);
+        int result = FORWARD | BACKWARD;
+        for (int i = 1; i <= steps && result != 0; i++) {
+            double t = (double) i / steps;
+            int x = (int) Math.floor(ax + 0.5 + (bx - ax) * t);
+            int z = (int) Math.floor(az + 0.5 + (bz - az) * t);
+            int y = standAt(tiles, x, z);
+            if (y == NavTile.NO_GROUND) return 0;
+            int dy = y - prevY;
+            if (dy > config.maxStepUp || -dy > config.maxDrop) result &= ~FORWARD;
+            if (-dy > config.maxStepUp || dy > config.maxDrop) result &= ~BACKWARD;
+            prevY = y;
+        }
+        return result;
+    }
+
+    private static int standAt(Map<Long, NavTile> tiles, int x, int z) {
+        NavTile tile = tiles.get(NavTile.key(Math.floorDiv(x, SIZE), Math.floorDiv(z, SIZE)));
+        return tile != null ? tile.standAt(x, z) : NavTile.NO_GROUND;
+    }
+
+    /**
+     * Tarjan's strongly connected components over the CSR arrays, with an explicit call
+     * stack so a long chain of nodes can't overflow the worker's. Ids follow node order, so
+     * they are reproducible.
+     */
+    private static int[] stronglyConnected(int nodes, int[] edgeStart, int[] edgeTarget) {
+        int[] component = new int[nodes];
+        int[] index = new int[nodes];
+        int[] low = new int[nodes];
+        int[] nextEdge = new int[nodes];
+        Arrays.fill(component, -1);
+        Arrays.fill(index, -1);
+        // Visited nodes whose component is still open; a node is on it while visited and unassigned
+        int[] open = new int[nodes];
+        int openSize = 0;
+        int[] path = new int[nodes];
+        int depth = 0;
+        int visited = 0;
+        int components = 0;
+
+        for (int root = 0; root < nodes; root++) {
+            if (index[root] >= 0) continue;
+            index[root] = low[root] = visited++;
+            nextEdge[root] = edgeStart[root];
+            open[openSize++] = root;
+            path[depth++] = root;
+
+            while (depth > 0) {
+                int node = path[depth - 1];
+                if (nextEdge[node] < edgeStart[node + 1]) {
+                    int next = edgeTarget[nextEdge[node]++];
+                    if (index[next] < 0) {
+                        index[next] = low[next] = visited++;
+                        nextEdge[next] = edgeStart[next];
+                        open[openSize++] = next;
+                        path[depth++] = next;
+                    } else if (component[next] < 0) {
+                        low[node] = Math.min(low[node], index[next]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (depth > 0) {
+                    int caller = path[depth - 1];
+                    low[caller] = Math.min(low[caller], low[node]);
+                }
+                if (low[node] == index[node]) {
+                    int member;
+                    do {
+                        member = open[--openSize];
+                        component[member] = components;
+                    } while (member != node);
+                    components++;
+                }
+            }
+        }
+        return component;
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,259 @@
+package com.hylypto.zombie.nav;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.terrain.ChunkSnapshot;
+import com.hylypto.zombie.terrain.TerrainSnapshots;
+import com.hylypto.zombie.terrain.TerrainView;
+import com.hylypto.zombie.world.PlayerAccess;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a {@link NavGraph} of the chunks around this world's players and snaps patrol
+ * routes onto it.
+ *
+ * Every refresh the chunks within {@code tileRadiusChunks} of a player that aren't in the
+ * graph yet are looked up in the world's {@link TerrainSnapshots}; those already copied are
+ * turned into tiles on a worker, the rest are queued for copying and picked up on a later
+ * refresh. Chunks no player is near any more are dropped, and a block edit drops its chunk
+ * so it is rebuilt. Whenever tiles changed, the graph is reassembled on a worker and swapped
+ * in whole — route drawing on the world thread only ever reads a finished graph.
+ *
+ * {@link #onWorldTick} and {@link #clear} run on the world thread; the graph reads
+ * ({@link #snapRoute}, {@link #snap}, {@link #surfaceY}) are safe anywhere.
+ */
+public final class NavService {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(NavService.class, "nav");
+    private static final LogSite FAILURE_SITE = LogSite.every(10, TimeUnit.SECONDS);
+
+    // tile is null if the build failed
+    private record Built(long key, int generation, TerrainView view, NavTile tile) {}
+
+    private final NavConfig config;
+    private final TerrainSnapshots terrain;
+    private final Executor workers;
+    // World thread only
+    private final Map<Long, NavTile> tiles = new HashMap<>();
+    private final Map<Long, Integer> building = new HashMap<>();
+    private final Map<Long, Integer> generations = new HashMap<>();
+    private final List<Vector3d> players = new ArrayList<>();
+    private final Set<Long> wanted = new HashSet<>();
+    private long nextRefreshMillis = Long.MIN_VALUE;
+    private boolean tilesChanged;
+    // Handed back from the workers
+    private final ConcurrentLinkedQueue<Built> built = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean assembling = new AtomicBoolean();
+    private volatile NavGraph graph = NavGraph.EMPTY;
+
+    /**
+     * @param terrain copied terrain the tiles are built from; its edits drop the chunks they touch
+     * @param workers builds tiles and assembles the graph — the calling thread in the headless harness
+     */
+    public NavService(NavConfig config, TerrainSnapshots terrain, Executor workers) {
+        this.config = config;
+        this.terrain = terrain;
+        this.workers = workers;
+        terrain.addChangeListener((x, y, z) -> invalidate(x, z));
+    }
+
+    // --- Upkeep (world thread) ---
+
+    /** Collects finished tiles, and on each refresh interval starts new ones and reassembles if anything changed. */
+    public void onWorldTick(PlayerAccess playerAccess, long nowMillis) {
+        if (!config.enabled) return;
+
+        for (Built b; (b = built.poll()) != null; ) {
+            Integer started = building.get(b.key());
+            if (started == null || started != b.generation()) continue;
+            building.remove(b.key());
+            // Edited while it was being built, or built from a copy that was already stale —
+            // dropped, and rebuilt on the next refresh
+            if (b.tile() == null || b.generation() != generations.getOrDefault(b.key(), 0)
+                    || !terrain.isCurrent(b.view())) continue;
+            tiles.put(b.key(), b.tile());
+            tilesChanged = true;
+            HylyptoMetrics.NAV_TILES_BUILT.increment();
+        }
+
+        if (nowMillis >= nextRefreshMillis) {
+            nextRefreshMillis = nowMillis + config.refreshIntervalMillis;
+            players.clear();
+            playerAccess.collectPositions(players);
+            refresh();
+        }
+
+        if (tilesChanged && assembling.compareAndSet(false, true)) {
+            tilesChanged = false;
+            List<NavTile> snapshot = List.copyOf(tiles.values());
+            submit(() -> {
+                try {
+                    graph = NavGraph.assemble(snapshot, config);
+                } finally {
+                    assembling.set(false);
+                }
+            });
+        }
+    }
+
+    private void refresh() {
+        int radius = Math.max(0, config.tileRadiusChunks);
+        wanted.clear();
+        int started = 0;
+        for (Vector3d player : players) {
+            int pcx = ChunkSnapshot.sectionOf((int) Math.floor(player.x));
+            int pcz = ChunkSnapshot.sectionOf((int) Math.floor(player.z));
+            // Ring by ring, so the chunks nearest the player are built first
+            for (int ring = 0; ring <= radius; ring++) {
+                for (int dx = -ring; dx <= ring; dx++) {
+                    int dzStep = Math.abs(dx) == ring ? 1 : 2 * ring;
+                    for (int dz = -ring; dz <= ring; dz += Math.max(1, dzStep)) {
+                        long key = NavTile.key(pcx + dx, pcz + dz);
+                        wanted.add(key);
+                        if (started < config.maxTileBuildsPerRefresh && !tiles.containsKey(key)
+                                && !building.containsKey(key) && startTile(pcx + dx, pcz + dz, (int) player.y)) {
+                            started++;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Every wanted tile reads a column of sections — keep them all, however many players
+        // are far apart, or they'd be evicted before the tiles are built and copied again
+        terrain.reserve(wanted.size() * sectionsPerTile());
+
+        // Nobody is near these any more
+        if (tiles.keySet().removeIf(key -> !wanted.contains(key))) {
+            tilesChanged = true;
+        }
+        generations.keySet().removeIf(key -> !wanted.contains(key) && !building.containsKey(key));
+    }
+
+    /** Sections a tile's view can touch — its vertical window may straddle one more boundary. */
+    private int sectionsPerTile() {
+        int range = Math.max(2, config.verticalRange);
+        return (2 * range + 2) / ChunkSnapshot.SIZE + 2;
+    }
+
+    private boolean startTile(int chunkX, int chunkZ, int refY) {
+        int range = Math.max(2, config.verticalRange);
+        int minX = chunkX * ChunkSnapshot.SIZE;
+        int minZ = chunkZ * ChunkSnapshot.SIZE;
+        TerrainView view = terrain.view(minX, refY - range - 1, minZ,
+                minX + ChunkSnapshot.SIZE - 1, refY + range + 1, minZ + ChunkSnapshot.SIZE - 1);
+        if (view == null) return false;
+
+        long key = NavTile.key(chunkX, chunkZ);
+        int generation = generations.getOrDefault(key, 0);
+        building.put(key, generation);
+        submit(() -> {
+            NavTile tile = null;
+            try {
+                tile = NavTile.build(chunkX, chunkZ, refY, range, view);
+            } finally {
+                built.add(new Built(key, generation, view, tile));
+            }
+        });
+        return true;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            workers.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOG.error(FAILURE_SITE, () -> "Nav graph build failed: " + e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down — routes fall back to surface scans
+            assembling.set(false);
+        }
+    }
+
+    /** A block changed — the chunk holding it is dropped and rebuilt on a later refresh. */
+    private void invalidate(int x, int z) {
+        long key = NavTile.key(ChunkSnapshot.sectionOf(x), ChunkSnapshot.sectionOf(z));
+        generations.merge(key, 1, Integer::sum);
+        if (tiles.remove(key) != null) tilesChanged = true;
+    }
+
+    // --- Routes (any thread) ---
+
+    /**
+     * Moves each of {@code points} onto the nearest graph node, so a patrol route is made of
+     * known ground and every leg can be walked. Only the x and z of the points are used.
+     *
+     * @return the snapped points in order, or null if the graph doesn't cover one of them or
+     *         they aren't all connected — the caller scans the live world instead
+     */
+    public List<Vector3d> snapRoute(List<Vector3d> points) {
+        NavGraph g = graph;
+        if (!config.enabled || g.nodeCount() == 0 || points.isEmpty()) return null;
+
+        List<Vector3d> snapped = new ArrayList<>(points.size());
+        int component = -1;
+        for (Vector3d point : points) {
+            int node = g.nearestNode(point.x, point.z, config.snapRadiusNodes);
+            if (node < 0 || (component >= 0 && g.component(node) != component)) {
+                HylyptoMetrics.NAV_ROUTES_FALLBACK.increment();
+                return null;
+            }
+            component = g.component(node);
+            snapped.add(nodePosition(g, node));
+        }
+        HylyptoMetrics.NAV_ROUTES_FROM_GRAPH.increment();
+        return snapped;
+    }
+
+    /**
+     * The graph node nearest (x, z) that is connected to the node at {@code connectedTo}, or
+     * null — e.g. a spawn point the group can walk from to its first waypoint.
+     */
+    public Vector3d snap(double x, double z, Vector3d connectedTo) {
+        NavGraph g = graph;
+        if (!config.enabled || g.nodeCount() == 0) return null;
+        int node = g.nearestNode(x, z, config.snapRadiusNodes);
+        int anchor = g.nearestNode(connectedTo.x, connectedTo.z, config.snapRadiusNodes);
+        if (node < 0 || anchor < 0 || g.component(node) != g.component(anchor)) return null;
+        return nodePosition(g, node);
+    }
+
+    private static Vector3d nodePosition(NavGraph g, int node) {
+        return new Vector3d(g.x(node), g.y(node), g.z(node));
+    }
+
+    /** Standing height at (x, z) from the graph, or NaN where it has none. */
+    public double surfaceY(double x, double z) {
+        return graph.surfaceY(x, z);
+    }
+
+    public NavGraph getGraph() {
+        return graph;
+    }
+
+    public void clear() {
+        tiles.clear();
+        building.clear();
+        generations.clear();
+        built.clear();
+        tilesChanged = false;
+        nextRefreshMillis = Long.MIN_VALUE;
+        graph = NavGraph.EMPTY;
+    }
+}
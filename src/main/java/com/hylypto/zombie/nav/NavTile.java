@@ -0,0 +1,61 @@
+package com.hylypto.zombie.nav;
+
+import com.hylypto.zombie.terrain.ChunkSnapshot;
+import com.hylypto.zombie.world.BlockReader;
+
+/**
+ * Where a zombie can stand in each column of one chunk, around the height it was built for:
+ * the highest empty block with an empty block above and a solid one below, or
+ * {@link #NO_GROUND}. Immutable once built — built on a worker from a terrain view.
+ */
+final class NavTile {
+
+    static final short NO_GROUND = Short.MIN_VALUE;
+    private static final int SIZE = ChunkSnapshot.SIZE;
+
+    final int chunkX;
+    final int chunkZ;
+    final int refY;
+    private final short[] stand;
+
+    private NavTile(int chunkX, int chunkZ, int refY, short[] stand) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.refY = refY;
+        this.stand = stand;
+    }
+
+    static NavTile build(int chunkX, int chunkZ, int refY, int verticalRange, BlockReader blocks) {
+        short[] stand = new short[SIZE * SIZE];
+        int baseX = chunkX * SIZE;
+        int baseZ = chunkZ * SIZE;
+        for (int lx = 0; lx < SIZE; lx++) {
+            for (int lz = 0; lz < SIZE; lz++) {
+                stand[lx * SIZE + lz] = scanColumn(blocks, baseX + lx, baseZ + lz, refY, verticalRange);
+            }
+        }
+        return new NavTile(chunkX, chunkZ, refY, stand);
+    }
+
+    private static short scanColumn(BlockReader blocks, int x, int z, int refY, int range) {
+        int emptyRun = 0;
+        for (int y = refY + range; y >= refY - range; y--) {
+            if (blocks.isEmpty(x, y, z)) {
+                emptyRun++;
+            } else {
+                if (emptyRun >= 2) return (short) (y + 1);
+                emptyRun = 0;
+            }
+        }
+        return NO_GROUND;
+    }
+
+    /** Standing height at world column (x, z), which must lie in this tile. */
+    int standAt(int x, int z) {
+        return stand[Math.floorMod(x, SIZE) * SIZE + Math.floorMod(z, SIZE)];
+    }
+
+    static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
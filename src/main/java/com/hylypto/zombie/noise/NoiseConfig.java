@@ -0,0 +1,38 @@
+package com.hylypto.zombie.noise;
+
+public class NoiseConfig {
+    // Off = zombies only react to what they see
+    public boolean enabled = true;
+
+    // Sound grid cell edge in blocks — one cell per chunk column
+    public int cellSizeBlocks = 16;
+
+    // Loudness lost per cell of distance, and the furthest any source carries
+    public double attenuationPerCell = 10.0;
+    public int maxRadiusCells = 8;
+
+    // Extra loss through a cell that is entirely solid at ear height; partly solid cells lose a fraction
+    public double wallDampingPerCell = 20.0;
+
+    // Heard level at which a patrol goes to investigate (SEARCHING) or charges the source (AGGRO).
+    // Anything quieter than investigateLevel is dropped from the grid.
+    public double investigateLevel = 25.0;
+    public double aggroLevel = 60.0;
+
+    // Levels are re-propagated at most this often; between runs groups read the last result
+    public long propagateIntervalMillis = 250;
+
+    // Active sources kept per world — the quietest is dropped when a louder one arrives
+    public int maxSources = 64;
+
+    // Cells whose wall damping is cached before the cache is reset
+    public int maxCachedDampingCells = 4096;
+
+    // Built-in sources: starting loudness and loudness lost per second
+    public double blockHitLoudness = 45.0;
+    public double blockHitDecayPerSecond = 30.0;
+    public double blockBreakLoudness = 70.0;
+    public double blockBreakDecayPerSecond = 20.0;
+    public double screamLoudness = 90.0;
+    public double screamDecayPerSecond = 15.0;
+}
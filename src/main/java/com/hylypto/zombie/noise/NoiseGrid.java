@@ -0,0 +1,306 @@
+package com.hylypto.zombie.noise;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.spatial.LongMap;
+import com.hylypto.zombie.world.BlockAccess;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Coarse sound field for one world. Sources (block hits, breaks, screams, gunfire) are
+ * emitted with a loudness that fades over time; {@link #propagate} stamps each live source
+ * into the chunk-sized cells around it, losing {@code attenuationPerCell} per cell of
+ * distance plus wall damping for solid cells on the way. Listeners then read the loudest
+ * source in their cell with one map lookup.
+ *
+ * Work per propagation is proportional to the active sources and their reach — patrols and
+ * hordes never scan for sources, and a quiet world costs one {@code isEmpty()} check.
+ * Wall damping is sampled from a few blocks per cell and cached; breaking a block
+ * invalidates its cell. Both maps are keyed by primitive longs, so neither stamping nor
+ * listening boxes anything.
+ *
+ * Not thread-safe — owned by one world's shard and used on its world thread.
+ */
+public final class NoiseGrid {
+
+    /** The loudest source heard in a cell. Reused across propagations — read it, don't keep it. */
+    public static final class Heard {
+        private double level;
+        private long sourceId;
+        private final Vector3d origin = new Vector3d();
+
+        public double level() { return level; }
+        /** Stable for the source's lifetime — lets a listener react to each source once. */
+        public long sourceId() { return sourceId; }
+        public Vector3d origin() { return origin; }
+    }
+
+    private static final class Source {
+        long id;
+        double x, y, z;
+        double loudness;
+        double decayPerSecond;
+        long emittedAtMillis;
+    }
+
+    private final NoiseConfig config;
+    private final int cellSize;
+    private final List<Source> sources = new ArrayList<>();
+    private final LongMap<Heard> heard = new LongMap<>(256);
+    private final ArrayDeque<Heard> spare = new ArrayDeque<>();
+    // Solid samples out of four per cell and height band — 0..4 boxes to cached Integers
+    private final LongMap<Integer> damping = new LongMap<>(256);
+    private double[] lossScratch = new double[0];
+    private long nextSourceId = 1;
+    private long lastPropagateMillis;
+    private boolean dirty;
+
+    public NoiseGrid(NoiseConfig config) {
+        this.config = config;
+        this.cellSize = Math.max(1, config.cellSizeBlocks);
+    }
+
+    // --- Sources ---
+
+    /**
+     * Adds a sound at (x, y, z). A source already sounding from the same block is refreshed
+     * instead, keeping its id so listeners that reacted to it don't react again.
+     *
+     * @return the source id, or 0 if the sound is too quiet to be heard or was crowded out
+     */
+    public long emit(double x, double y, double z, double loudness, double decayPerSecond, long nowMillis) {
+        if (!config.enabled || loudness < config.investigateLevel) return 0;
+
+        Source source = null;
+        Source quietest = null;
+        double quietestLevel = Double.MAX_VALUE;
+        for (Source s : sources) {
+            if (sameBlock(s, x, y, z)) {
+                source = s;
+                break;
+            }
+            double level = levelOf(s, nowMillis);
+            if (level < quietestLevel) {
+                quietestLevel = level;
+                quietest = s;
+            }
+        }
+
+        if (source != null) {
+            source.loudness = Math.max(loudness, levelOf(source, nowMillis));
+        } else {
+            if (sources.size() < config.maxSources) {
+                source = new Source();
+                sources.add(source);
+            } else if (quietest != null && quietestLevel < loudness) {
+                source = quietest;
+            } else {
+                return 0;
+            }
+            source.id = nextSourceId++;
+            source.x = x;
+            source.y = y;
+            source.z = z;
+            source.loudness = loudness;
+            HylyptoMetrics.NOISE_SOURCES_EMITTED.increment();
+        }
+        source.decayPerSecond = decayPerSecond;
+        source.emittedAtMillis = nowMillis;
+        dirty = true;
+        return source.id;
+    }
+
+    // --- Propagation ---
+
+    /**
+     * Rebuilds the heard levels from the live sources. Runs when a source was added since
+     * the last run or the propagate interval has passed; expired sources are dropped here.
+     */
+    public void propagate(BlockAccess blocks, long nowMillis) {
+        if (sources.isEmpty()) {
+            if (!heard.isEmpty()) recycleHeard();
+            return;
+        }
+        if (!dirty && nowMillis - lastPropagateMillis < config.propagateIntervalMillis) return;
+        dirty = false;
+        lastPropagateMillis = nowMillis;
+
+        recycleHeard();
+        for (Iterator<Source> it = sources.iterator(); it.hasNext(); ) {
+            Source source = it.next();
+            double level = levelOf(source, nowMillis);
+            if (level < config.investigateLevel) {
+                it.remove();
+                continue;
+            }
+            stamp(source, level, blocks);
+        }
+
+        if (damping.size() > config.maxCachedDampingCells) {
+            damping.clear();
+        }
+    }
+
+    /**
+     * Walks the cells around a source ring by ring. Each cell's wall loss is its own damping
+     * plus that of its neighbour one step back toward the source, so a line of walls adds
+     * up without tracing a ray per cell. Cells behind an inaudible cell are skipped unsampled.
+     */
+    private void stamp(Source source, double level, BlockAccess blocks) {
+        double attenuation = Math.max(0.001, config.attenuationPerCell);
+        int radius = Math.min(config.maxRadiusCells, (int) ((level - config.investigateLevel) / attenuation));
+        int width = 2 * radius + 1;
+        if (lossScratch.length < width * width) {
+            lossScratch = new double[width * width];
+        }
+
+        int cx = cell(source.x);
+        int cz = cell(source.z);
+        int earY = (int) Math.floor(source.y) + 1;
+
+        for (int ring = 0; ring <= radius; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                // Full columns on the ring's sides, only the corners' rows in between
+                int dzStep = Math.abs(dx) == ring ? 1 : 2 * ring;
+                for (int dz = -ring; dz <= ring; dz += Math.max(1, dzStep)) {
+                    int index = (dx + radius) * width + (dz + radius);
+                    double distance = Math.sqrt(dx * dx + dz * dz);
+
+                    double loss = 0;
+                    if (ring > 0) {
+                        double parentLoss = lossScratch[parentIndex(dx, dz, radius, width)];
+                        loss = Double.isInfinite(parentLoss)
+                                ? Double.POSITIVE_INFINITY
+                                : parentLoss + dampingOf(cx + dx, earY, cz + dz, blocks);
+                    }
+
+                    double heardLevel = level - distance * attenuation - loss;
+                    if (heardLevel < config.investigateLevel) {
+                        lossScratch[index] = Double.POSITIVE_INFINITY;
+                        continue;
+                    }
+                    lossScratch[index] = loss;
+                    record(cx + dx, cz + dz, heardLevel, source);
+                }
+            }
+        }
+    }
+
+    /** The neighbour one step closer to the source — always on the previous ring. */
+    private static int parentIndex(int dx, int dz, int radius, int width) {
+        int ax = Math.abs(dx);
+        int az = Math.abs(dz);
+        int px = dx - (2 * ax >= az ? Integer.signum(dx) : 0);
+        int pz = dz - (2 * az >= ax ? Integer.signum(dz) : 0);
+        return (px + radius) * width + (pz + radius);
+    }
+
+    private void record(int cx, int cz, double level, Source source) {
+        long key = cellKey(cx, cz);
+        Heard h = heard.get(key);
+        if (h == null) {
+            h = spare.isEmpty() ? new Heard() : spare.pop();
+            h.level = Double.NEGATIVE_INFINITY;
+            heard.put(key, h);
+        }
+        if (level > h.level) {
+            h.level = level;
+            h.sourceId = source.id;
+            VecMath.set(h.origin, source.x, source.y, source.z);
+        }
+    }
+
+    // --- Wall damping ---
+
+    /** Loss through a cell at ear height, from four samples spread over the cell. */
+    private double dampingOf(int cx, int y, int cz, BlockAccess blocks) {
+        long key = dampingKey(cx, y, cz);
+        Integer cached = damping.get(key);
+        if (cached != null) return config.wallDampingPerCell * cached / 4.0;
+
+        int quarter = Math.max(1, cellSize / 4);
+        int baseX = cx * cellSize;
+        int baseZ = cz * cellSize;
+        int solid = 0;
+        if (!blocks.isEmpty(baseX + quarter, y, baseZ + quarter)) solid++;
+        if (!blocks.isEmpty(baseX + 3 * quarter, y, baseZ + quarter)) solid++;
+        if (!blocks.isEmpty(baseX + quarter, y, baseZ + 3 * quarter)) solid++;
+        if (!blocks.isEmpty(baseX + 3 * quarter, y, baseZ + 3 * quarter)) solid++;
+
+        damping.put(key, solid);
+        return config.wallDampingPerCell * solid / 4.0;
+    }
+
+    /**
+     * Drops cached damping for the cell and height band containing a changed block —
+     * the only entry whose samples can include it.
+     */
+    public void invalidate(int x, int y, int z) {
+        if (damping.isEmpty()) return;
+        damping.remove(dampingKey(Math.floorDiv(x, cellSize), y, Math.floorDiv(z, cellSize)));
+    }
+
+    // --- Listening ---
+
+    /** True when nothing is audible anywhere — listeners can skip the lookup entirely. */
+    public boolean isQuiet() {
+        return heard.isEmpty();
+    }
+
+    /** The loudest source audible at (x, z), or null. The result is reused — see {@link Heard}. */
+    public Heard loudestAt(double x, double z) {
+        if (heard.isEmpty()) return null;
+        return heard.get(cellKey(cell(x), cell(z)));
+    }
+
+    public NoiseConfig getConfig() {
+        return config;
+    }
+
+    public int getActiveSourceCount() {
+        return sources.size();
+    }
+
+    public int getAudibleCellCount() {
+        return heard.size();
+    }
+
+    public void clear() {
+        sources.clear();
+        recycleHeard();
+        damping.clear();
+    }
+
+    // --- Helpers ---
+
+    private double levelOf(Source source, long nowMillis) {
+        return source.loudness - source.decayPerSecond * (nowMillis - source.emittedAtMillis) / 1000.0;
+    }
+
+    private void recycleHeard() {
+        heard.forEachValue(spare::add);
+        heard.clear();
+    }
+
+    private static boolean sameBlock(Source s, double x, double y, double z) {
+        return Math.floor(s.x) == Math.floor(x) && Math.floor(s.y) == Math.floor(y) && Math.floor(s.z) == Math.floor(z);
+    }
+
+    private int cell(double coord) {
+        return Math.floorDiv((int) Math.floor(coord), cellSize);
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    // 24 bits of cell X, 16 bits of 4-block height band, 24 bits of cell Z
+    private static long dampingKey(int cx, int y, int cz) {
+        return ((long) (cx & 0xFFFFFF) << 40) | ((long) ((y >> 2) & 0xFFFF) << 24) | (cz & 0xFFFFFFL);
+    }
+}
@@ -0,0 +1,232 @@
+package com.hylypto.zombie.path;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A* over the standable columns of a {@link ColumnSnapshot}. Eight-way moves, no corner
+ * cutting past unwalkable columns, steps limited by {@code maxStepUp}/{@code maxDrop} and a
+ * small surcharge for climbing. The cell path is then string-pulled into waypoints wherever
+ * a straight walk stays on walkable ground. Pure function of its inputs — safe on any thread.
+ */
+final class AStar {
+
+    private static final float DIAGONAL = 1.4142135f;
+    private static final float CLIMB_COST = 0.5f;
+    private static final int SNAP_RADIUS = 2;
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DZ = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    /** Waypoints (start excluded, goal included), or empty if no walk was found. */
+    record Result(List<Vector3d> waypoints, int expanded) {
+        boolean found() {
+            return !waypoints.isEmpty();
+        }
+    }
+
+    private AStar() {}
+
+    static Result search(ColumnSnapshot snap, Vector3d start, Vector3d goal, PathConfig config) {
+        int startCell = snap(snap, (int) Math.floor(start.x), (int) Math.floor(start.z));
+        int goalCell = snap(snap, (int) Math.floor(goal.x), (int) Math.floor(goal.z));
+        if (startCell < 0 || goalCell < 0) return new Result(List.of(), 0);
+
+        int cells = snap.cellCount();
+        float[] g = new float[cells];
+        Arrays.fill(g, Float.POSITIVE_INFINITY);
+        int[] parent = new int[cells];
+        boolean[] closed = new boolean[cells];
+        Heap open = new Heap(256);
+
+        int goalX = snap.xOf(goalCell);
+        int goalZ = snap.zOf(goalCell);
+        g[startCell] = 0;
+        parent[startCell] = -1;
+        open.push(startCell, heuristic(snap.xOf(startCell), snap.zOf(startCell), goalX, goalZ));
+
+        int expanded = 0;
+        int maxExpanded = Math.max(1, config.maxExpandedNodes);
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            if (closed[current]) continue;
+            if (current == goalCell) {
+                return new Result(smooth(snap, trace(parent, goalCell), config), expanded);
+            }
+            closed[current] = true;
+            if (++expanded > maxExpanded) break;
+
+            int cx = snap.xOf(current);
+            int cz = snap.zOf(current);
+            int cy = snap.standAt(current);
+            for (int dir = 0; dir < 8; dir++) {
+                int nx = cx + DX[dir];
+                int nz = cz + DZ[dir];
+                if (!canStep(snap, cy, nx, nz, config)) continue;
+                // Diagonals need both sides clear, or zombies clip the corner
+                if (dir >= 4 && (!canStep(snap, cy, cx + DX[dir], cz, config)
+                        || !canStep(snap, cy, cx, cz + DZ[dir], config))) {
+                    continue;
+                }
+                int next = snap.index(nx, nz);
+                if (closed[next]) continue;
+
+                int climb = snap.standAt(next) - cy;
+                float cost = g[current] + (dir >= 4 ? DIAGONAL : 1f) + (climb > 0 ? climb * CLIMB_COST : 0f);
+                if (cost < g[next]) {
+                    g[next] = cost;
+                    parent[next] = current;
+                    open.push(next, cost + heuristic(nx, nz, goalX, goalZ));
+                }
+            }
+        }
+        return new Result(List.of(), expanded);
+    }
+
+    private static boolean canStep(ColumnSnapshot snap, int fromY, int x, int z, PathConfig config) {
+        if (!snap.contains(x, z)) return false;
+        int y = snap.standAt(snap.index(x, z));
+        if (y == ColumnSnapshot.NO_GROUND) return false;
+        int dy = y - fromY;
+        return dy <= config.maxStepUp && -dy <= config.maxDrop;
+    }
+
+    /** The nearest standable column to (x, z) within a couple of blocks, or -1. */
+    private static int snap(ColumnSnapshot snap, int x, int z) {
+        int best = -1;
+        int bestDist = Integer.MAX_VALUE;
+        for (int dx = -SNAP_RADIUS; dx <= SNAP_RADIUS; dx++) {
+            for (int dz = -SNAP_RADIUS; dz <= SNAP_RADIUS; dz++) {
+                if (!snap.contains(x + dx, z + dz)) continue;
+                int index = snap.index(x + dx, z + dz);
+                int dist = dx * dx + dz * dz;
+                if (snap.standAt(index) != ColumnSnapshot.NO_GROUND && dist < bestDist) {
+                    best = index;
+                    bestDist = dist;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Octile distance — exact on open flat ground, never an overestimate
+    private static float heuristic(int x, int z, int goalX, int goalZ) {
+        int dx = Math.abs(goalX - x);
+        int dz = Math.abs(goalZ - z);
+        return Math.max(dx, dz) + (DIAGONAL - 1f) * Math.min(dx, dz);
+    }
+
+    private static int[] trace(int[] parent, int goalCell) {
+        int length = 0;
+        for (int c = goalCell; c >= 0; c = parent[c]) length++;
+        int[] path = new int[length];
+        for (int c = goalCell, i = length - 1; c >= 0; c = parent[c], i--) path[i] = c;
+        return path;
+    }
+
+    // --- Smoothing ---
+
+    private static List<Vector3d> smooth(ColumnSnapshot snap, int[] path, PathConfig config) {
+        List<Vector3d> waypoints = new ArrayList<>();
+        if (path.length < 2) {
+            waypoints.add(toWaypoint(snap, path[path.length - 1]));
+            return List.copyOf(waypoints);
+        }
+
+        double maxSpacingSq = (double) config.maxWaypointSpacing * config.maxWaypointSpacing;
+        int anchor = 0;
+        while (anchor < path.length - 1) {
+            int reach = anchor + 1;
+            while (reach + 1 < path.length
+                    && distanceSq(snap, path[anchor], path[reach + 1]) <= maxSpacingSq
+                    && walkableLine(snap, path[anchor], path[reach + 1], config)) {
+                reach++;
+            }
+            waypoints.add(toWaypoint(snap, path[reach]));
+            anchor = reach;
+        }
+        return List.copyOf(waypoints);
+    }
+
+    /** Samples the straight line between two columns every half block. */
+    private static boolean walkableLine(ColumnSnapshot snap, int from, int to, PathConfig config) {
+        double x0 = snap.xOf(from) + 0.5, z0 = snap.zOf(from) + 0.5;
+        double x1 = snap.xOf(to) + 0.5, z1 = snap.zOf(to) + 0.5;
+        int steps = (int) Math.ceil(Math.max(Math.abs(x1 - x0), Math.abs(z1 - z0)) * 2);
+        int prevY = snap.standAt(from);
+        for (int i = 1; i <= steps; i++) {
+            double t = (double) i / steps;
+            int x = (int) Math.floor(x0 + (x1 - x0) * t);
+            int z = (int) Math.floor(z0 + (z1 - z0) * t);
+            if (!canStep(snap, prevY, x, z, config)) return false;
+            prevY = snap.standAt(snap.index(x, z));
+        }
+        return true;
+    }
+
+    private static double distanceSq(ColumnSnapshot snap, int a, int b) {
+        double dx = snap.xOf(a) - snap.xOf(b);
+        double dz = snap.zOf(a) - snap.zOf(b);
+        return dx * dx + dz * dz;
+    }
+
+    private static Vector3d toWaypoint(ColumnSnapshot snap, int cell) {
+        return new Vector3d(snap.xOf(cell) + 0.5, snap.standAt(cell), snap.zOf(cell) + 0.5);
+    }
+
+    // --- Open set ---
+
+    /** Binary min-heap of cells keyed by f. Stale entries are skipped by the closed check. */
+    private static final class Heap {
+        private int[] cells;
+        private float[] keys;
+        private int size;
+
+        Heap(int capacity) {
+            cells = new int[capacity];
+            keys = new float[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int cell, float key) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int up = (i - 1) >>> 1;
+                if (keys[up] <= key) break;
+                cells[i] = cells[up];
+                keys[i] = keys[up];
+                i = up;
+            }
+            cells[i] = cell;
+            keys[i] = key;
+        }
+
+        int pop() {
+            int top = cells[0];
+            int lastCell = cells[--size];
+            float lastKey = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (keys[child] >= lastKey) break;
+                cells[i] = cells[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            cells[i] = lastCell;
+            keys[i] = lastKey;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.hylypto.zombie.path;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.zombie.terrain.TerrainSnapshots;
+import com.hylypto.zombie.terrain.TerrainView;
+import com.hylypto.zombie.world.BlockReader;
+
+/**
+ * Immutable copy of where a zombie can stand in each block column of a corridor, taken on
+ * the world thread so a search can read it from any thread. A column holds the Y of the
+ * highest standable block within the scan window — empty with an empty block above it and
+ * a solid block below — or {@link #NO_GROUND} if there is none or it lies outside the corridor.
+ */
+final class ColumnSnapshot {
+
+    static final short NO_GROUND = Short.MIN_VALUE;
+
+    final int minX;
+    final int minZ;
+    final int width;
+    final int depth;
+    private final short[] stand;
+
+    private ColumnSnapshot(int minX, int minZ, int width, int depth, short[] stand) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.width = width;
+        this.depth = depth;
+        this.stand = stand;
+    }
+
+    int index(int x, int z) {
+        return (x - minX) * depth + (z - minZ);
+    }
+
+    boolean contains(int x, int z) {
+        return x >= minX && x < minX + width && z >= minZ && z < minZ + depth;
+    }
+
+    int standAt(int index) {
+        return stand[index];
+    }
+
+    int xOf(int index) {
+        return minX + index / depth;
+    }
+
+    int zOf(int index) {
+        return minZ + index % depth;
+    }
+
+    int cellCount() {
+        return stand.length;
+    }
+
+    /**
+     * Fills a snapshot a bounded number of columns at a time. Columns are scanned around the
+     * height of the straight line from start to goal, so climbing legs still find their ground.
+     */
+    static final class Builder {
+
+        private final int minX, minZ, width, depth;
+        private final short[] stand;
+        private final double startX, startY, startZ;
+        private final double segX, segY, segZ, segLenSq;
+        private final double corridorSq;
+        private final int scanHeight;
+        private final int minScanY, maxScanY;
+        private int next;
+
+        Builder(Vector3d start, Vector3d goal, PathConfig config) {
+            int halfWidth = Math.max(1, config.corridorHalfWidth);
+            this.minX = (int) Math.floor(Math.min(start.x, goal.x)) - halfWidth;
+            this.minZ = (int) Math.floor(Math.min(start.z, goal.z)) - halfWidth;
+            this.width = (int) Math.floor(Math.max(start.x, goal.x)) + halfWidth - minX + 1;
+            this.depth = (int) Math.floor(Math.max(start.z, goal.z)) + halfWidth - minZ + 1;
+            this.stand = new short[width * depth];
+            this.startX = start.x;
+            this.startY = start.y;
+            this.startZ = start.z;
+            this.segX = goal.x - start.x;
+            this.segY = goal.y - start.y;
+            this.segZ = goal.z - start.z;
+            this.segLenSq = segX * segX + segZ * segZ;
+            this.corridorSq = (double) halfWidth * halfWidth;
+            this.scanHeight = Math.max(2, config.scanHeight);
+            this.minScanY = (int) Math.floor(Math.min(start.y, goal.y)) - scanHeight;
+            this.maxScanY = (int) Math.floor(Math.max(start.y, goal.y)) + scanHeight;
+        }
+
+        /** Captures up to {@code budget} columns. Must run on the world thread unless {@code blocks} is a {@link TerrainView}. */
+        int capture(BlockReader blocks, int budget) {
+            int done = 0;
+            while (next < stand.length && done < budget) {
+                int x = minX + next / depth;
+                int z = minZ + next % depth;
+                stand[next] = scanColumn(blocks, x, z);
+                next++;
+                done++;
+            }
+            return done;
+        }
+
+        boolean isComplete() {
+            return next >= stand.length;
+        }
+
+        boolean isStarted() {
+            return next > 0;
+        }
+
+        /**
+         * Snapshots of everything the capture would read — the corridor's bounding box over
+         * the scan window — or null while some are still being copied.
+         */
+        TerrainView view(TerrainSnapshots terrain) {
+            return terrain.view(minX, minScanY, minZ, minX + width - 1, maxScanY, minZ + depth - 1);
+        }
+
+        ColumnSnapshot build() {
+            return new ColumnSnapshot(minX, minZ, width, depth, stand);
+        }
+
+        private short scanColumn(BlockReader blocks, int x, int z) {
+            double cx = x + 0.5 - startX;
+            double cz = z + 0.5 - startZ;
+            double t = segLenSq > 0 ? Math.max(0, Math.min(1, (cx * segX + cz * segZ) / segLenSq)) : 0;
+            double offX = cx - t * segX;
+            double offZ = cz - t * segZ;
+            if (offX * offX + offZ * offZ > corridorSq) return NO_GROUND;
+
+            // Walk down from the top of the window; standing needs two empty blocks over a solid one
+            int refY = (int) Math.floor(startY + t * segY);
+            int emptyRun = 0;
+            for (int y = refY + scanHeight; y >= refY - scanHeight; y--) {
+                if (blocks.isEmpty(x, y, z)) {
+                    emptyRun++;
+                } else {
+                    if (emptyRun >= 2) return (short) (y + 1);
+                    emptyRun = 0;
+                }
+            }
+            return NO_GROUND;
+        }
+    }
+}
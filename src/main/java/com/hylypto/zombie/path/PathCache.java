@@ -0,0 +1,97 @@
+package com.hylypto.zombie.path;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of found walks, keyed by start and goal rounded to a few blocks.
+ * Each entry remembers the corridor it was searched in, so a block edit drops exactly the
+ * walks that could have crossed it. Synchronized — searches finish on worker threads.
+ *
+ * Every edit also bumps an epoch under the same lock. A search records the epoch before it
+ * captures terrain and {@link #put} compares it while holding the lock, so a walk found over
+ * terrain that changed mid-search is never stored, however the edit and the put interleave.
+ */
+final class PathCache {
+
+    record Key(long start, long goal) {}
+
+    private record Entry(List<Vector3d> waypoints, int minX, int minZ, int maxX, int maxZ) {}
+
+    private final int cellBlocks;
+    private final LinkedHashMap<Key, Entry> entries;
+    // Bumped on every edit; guarded by this
+    private int editEpoch;
+
+    PathCache(int capacity, int cellBlocks) {
+        this.cellBlocks = Math.max(1, cellBlocks);
+        int max = Math.max(1, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    Key keyOf(Vector3d start, Vector3d goal) {
+        return new Key(pack(start), pack(goal));
+    }
+
+    synchronized List<Vector3d> get(Key key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.waypoints : null;
+    }
+
+    /** The current edit epoch — read before capturing the terrain a search will run over. */
+    synchronized int epoch() {
+        return editEpoch;
+    }
+
+    /**
+     * Stores a found walk unless a block was edited since {@code epoch} was read.
+     *
+     * @return true if the walk was stored
+     */
+    synchronized boolean put(Key key, List<Vector3d> waypoints, ColumnSnapshot corridor, int epoch) {
+        if (epoch != editEpoch) return false;
+        entries.put(key, new Entry(waypoints, corridor.minX, corridor.minZ,
+                corridor.minX + corridor.width - 1, corridor.minZ + corridor.depth - 1));
+        return true;
+    }
+
+    /** Drops every walk whose corridor contains block column (x, z). */
+    synchronized int invalidate(int x, int z) {
+        editEpoch++;
+        int dropped = 0;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry e = it.next();
+            if (x >= e.minX && x <= e.maxX && z >= e.minZ && z <= e.maxZ) {
+                it.remove();
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void clear() {
+        editEpoch++;
+        entries.clear();
+    }
+
+    // 24 bits of X, 16 of Y, 24 of Z, each in cellBlocks units
+    private long pack(Vector3d pos) {
+        long x = Math.floorDiv((int) Math.floor(pos.x), cellBlocks) & 0xFFFFFFL;
+        long y = Math.floorDiv((int) Math.floor(pos.y), cellBlocks) & 0xFFFFL;
+        long z = Math.floorDiv((int) Math.floor(pos.z), cellBlocks) & 0xFFFFFFL;
+        return (x << 40) | (y << 24) | z;
+    }
+}
@@ -0,0 +1,35 @@
+package com.hylypto.zombie.path;
+
+public class PathConfig {
+    // Off = patrols walk the straight lines between their route waypoints
+    public boolean enabled = true;
+
+    // Searches run on this many background threads, shared by every world
+    public int workerThreads = 2;
+
+    // Legs longer than this (in blocks) are left straight
+    public int maxLegLength = 160;
+
+    // Columns either side of the straight line that the search may use to get around obstacles
+    public int corridorHalfWidth = 12;
+
+    // Terrain is copied on the world thread a bounded number of columns per tick
+    public int maxColumnsPerTick = 2048;
+
+    // How far above and below the leg's height a column is scanned for ground
+    public int scanHeight = 12;
+
+    // Walkable height changes between neighbouring columns
+    public int maxStepUp = 1;
+    public int maxDrop = 3;
+
+    // A search that expands more nodes than this gives up
+    public int maxExpandedNodes = 20000;
+
+    // Found paths kept, keyed by start and goal rounded to cacheCellBlocks
+    public int cacheSize = 512;
+    public int cacheCellBlocks = 4;
+
+    // Longest straight stretch kept when smoothing a path into waypoints
+    public int maxWaypointSpacing = 16;
+}
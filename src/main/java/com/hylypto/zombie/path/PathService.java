@@ -0,0 +1,223 @@
+package com.hylypto.zombie.path;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.jfr.PathSearchEvent;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.terrain.TerrainSnapshots;
+import com.hylypto.zombie.terrain.TerrainView;
+import com.hylypto.zombie.world.BlockReader;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds walkable routes for one world without searching on its tick.
+ *
+ * A request copies the terrain of a corridor around the straight line into a
+ * {@link ColumnSnapshot} and runs {@link AStar} over the copy on a worker. When the world's
+ * {@link TerrainSnapshots} already hold every section the corridor touches, the copy is made
+ * on the worker too; otherwise it is made on the world thread, a bounded number of columns
+ * per tick, and the missing sections are queued for later searches. Callers get a future and
+ * apply its waypoints from a later tick; nothing blocks. Found walks go into an LRU cache
+ * keyed by start and goal cell, and a block edit drops the cached walks whose corridor
+ * contains it.
+ *
+ * {@link #find}, {@link #onWorldTick} and {@link #clear} run on the world thread;
+ * {@link #invalidate} may be called from anywhere.
+ */
+public final class PathService {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(PathService.class, "path");
+    private static final LogSite FAILURE_SITE = LogSite.every(10, TimeUnit.SECONDS);
+
+    private static final class Job {
+        final PathCache.Key key;
+        final Vector3d start;
+        final Vector3d goal;
+        final ColumnSnapshot.Builder builder;
+        final int epoch;
+        final CompletableFuture<List<Vector3d>> future = new CompletableFuture<>();
+
+        Job(PathCache.Key key, Vector3d start, Vector3d goal, ColumnSnapshot.Builder builder, int epoch) {
+            this.key = key;
+            this.start = start;
+            this.goal = goal;
+            this.builder = builder;
+            this.epoch = epoch;
+        }
+    }
+
+    private final PathConfig config;
+    private final TerrainSnapshots terrain;
+    private final Executor workers;
+    private final PathCache cache;
+    private final ArrayDeque<Job> capturing = new ArrayDeque<>();
+    private final Map<PathCache.Key, CompletableFuture<List<Vector3d>>> inFlight = new HashMap<>();
+
+    /**
+     * @param terrain the world's section snapshots — searches over copied terrain skip the
+     *                world-thread capture, and every block edit it reports drops cached walks
+     * @param workers runs the searches — {@link #newWorkerPool} on the server, the calling
+     *                thread in the headless harness so runs stay reproducible
+     */
+    public PathService(PathConfig config, TerrainSnapshots terrain, Executor workers) {
+        this.config = config;
+        this.terrain = terrain;
+        this.workers = workers;
+        this.cache = new PathCache(config.cacheSize, config.cacheCellBlocks);
+        terrain.addChangeListener(this::invalidate);
+    }
+
+    /** Daemon pool shared by every world's path service. */
+    public static ExecutorService newWorkerPool(PathConfig config) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, config.workerThreads), r -> {
+            Thread thread = new Thread(r, "Hylypto-Path-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // --- Requests (world thread) ---
+
+    /**
+     * Requests a walk from {@code start} to {@code goal}. The future completes with the
+     * waypoints after the start, goal included — or an empty list when the service is off,
+     * the leg is too long or no walk exists within the corridor. It may complete on a worker
+     * thread, so apply the result from a later world tick rather than in a callback.
+     */
+    public CompletableFuture<List<Vector3d>> find(Vector3d start, Vector3d goal) {
+        if (!config.enabled) return CompletableFuture.completedFuture(List.of());
+        double maxLeg = config.maxLegLength;
+        if (VecMath.distanceSqXZ(start.x, start.z, goal.x, goal.z) > maxLeg * maxLeg) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        HylyptoMetrics.PATH_REQUESTS.increment();
+        PathCache.Key key = cache.keyOf(start, goal);
+        List<Vector3d> cached = cache.get(key);
+        if (cached != null) {
+            HylyptoMetrics.PATH_CACHE_HITS.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // Groups converging on the same waypoint share one search
+        CompletableFuture<List<Vector3d>> pending = inFlight.get(key);
+        if (pending != null && !pending.isDone()) return pending;
+
+        Job job = new Job(key, VecMath.copy(start), VecMath.copy(goal),
+                new ColumnSnapshot.Builder(start, goal, config), cache.epoch());
+        capturing.add(job);
+        inFlight.put(key, job.future);
+        return job.future;
+    }
+
+    /** Spends this tick's column budget on pending captures and hands finished ones to the workers. */
+    public void onWorldTick(BlockReader blocks) {
+        if (capturing.isEmpty()) {
+            if (!inFlight.isEmpty()) inFlight.values().removeIf(CompletableFuture::isDone);
+            return;
+        }
+
+        int budget = Math.max(1, config.maxColumnsPerTick);
+        while (budget > 0 && !capturing.isEmpty()) {
+            Job job = capturing.peek();
+            if (!job.builder.isStarted()) {
+                TerrainView view = job.builder.view(terrain);
+                if (view != null) {
+                    capturing.poll();
+                    submit(job, () -> {
+                        job.builder.capture(view, Integer.MAX_VALUE);
+                        search(job, job.builder.build(), view);
+                    });
+                    continue;
+                }
+            }
+            budget -= job.builder.capture(blocks, budget);
+            if (!job.builder.isComplete()) break;
+            capturing.poll();
+            ColumnSnapshot snapshot = job.builder.build();
+            submit(job, () -> search(job, snapshot, null));
+        }
+    }
+
+    private void submit(Job job, Runnable task) {
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down — callers keep their straight-line route
+            job.future.complete(List.of());
+        }
+    }
+
+    // --- Search (worker thread) ---
+
+    /** @param view the copied terrain the columns were read from, or null if read from the live world */
+    private void search(Job job, ColumnSnapshot snapshot, TerrainView view) {
+        PathSearchEvent event = new PathSearchEvent();
+        event.begin();
+        try {
+            AStar.Result result = AStar.search(snapshot, job.start, job.goal, config);
+            if (result.found()) {
+                HylyptoMetrics.PATHS_FOUND.increment();
+                // A search over terrain that has since changed, or over a copy that already
+                // was stale, isn't cached
+                if (view == null || terrain.isCurrent(view)) {
+                    cache.put(job.key, result.waypoints(), snapshot, job.epoch);
+                }
+            } else {
+                HylyptoMetrics.PATHS_FAILED.increment();
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.columns = snapshot.cellCount();
+                event.expanded = result.expanded();
+                event.waypoints = result.waypoints().size();
+                event.found = result.found();
+                event.commit();
+            }
+            job.future.complete(result.waypoints());
+        } catch (RuntimeException e) {
+            LOG.error(FAILURE_SITE, () -> "Path search failed: " + e.getMessage(), e);
+            job.future.complete(List.of());
+        }
+    }
+
+    // --- Invalidation ---
+
+    /** A block changed — cached walks through its column are dropped. Safe from any thread. */
+    public void invalidate(int x, int y, int z) {
+        cache.invalidate(x, z);
+    }
+
+    /** Drops the cache and completes every pending request empty. */
+    public void clear() {
+        for (Job job : capturing) {
+            job.future.complete(List.of());
+        }
+        capturing.clear();
+        inFlight.clear();
+        cache.clear();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    public int getPendingCount() {
+        return capturing.size();
+    }
+}
@@ -0,0 +1,154 @@
+package com.hylypto.zombie.pool;
+
+import com.hylypto.api.metrics.HylyptoMetrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Bookkeeping for one world's recycled zombies, by role. Despawned zombies are parked here
+ * instead of removed — the world stops them where they stand — and the next spawn of the
+ * same role takes the most recently parked one back rather than building a new entity.
+ * Roles are never swapped: a parked entity only comes back as what it was spawned as.
+ *
+ * Parking stops at the per-role and total caps; beyond them, despawns remove as before.
+ * Zombies parked for longer than the idle timeout are evicted a few per tick, oldest first.
+ * This class only tracks UUIDs — moving, reviving and removing the entities is the world's job.
+ *
+ * World thread only.
+ */
+public final class EntityPool {
+
+    private record Parked(UUID uuid, long parkedAtMillis) {}
+
+    private final PoolConfig config;
+    // Role of every entity spawned through the pool, live or parked
+    private final Map<UUID, String> roles = new HashMap<>();
+    // Oldest parked at the head, newest at the tail
+    private final Map<String, ArrayDeque<Parked>> parked = new HashMap<>();
+    private int parkedCount;
+    private long evictedTick = -1;
+
+    public EntityPool(PoolConfig config) {
+        this.config = config;
+    }
+
+    public boolean isEnabled() {
+        return config.enabled;
+    }
+
+    /** Records a freshly spawned entity's role, so it can be parked when it despawns. */
+    public void track(UUID uuid, String role) {
+        if (config.enabled) roles.put(uuid, role);
+    }
+
+    /** The entity died or was removed for good — forgets it, parked or not. */
+    public void untrack(UUID uuid) {
+        String role = roles.remove(uuid);
+        if (role == null) return;
+        ArrayDeque<Parked> queue = parked.get(role);
+        if (queue != null && queue.removeIf(p -> p.uuid().equals(uuid))) parkedCount--;
+    }
+
+    /**
+     * The most recently parked entity of {@code role}, removed from the pool, or null on a
+     * miss. The caller revives it, or {@link #untrack}s it if it turns out to be gone.
+     */
+    public UUID take(String role) {
+        if (!config.enabled) return null;
+        ArrayDeque<Parked> queue = parked.get(role);
+        Parked hit = queue != null ? queue.pollLast() : null;
+        if (hit == null) {
+            HylyptoMetrics.POOL_MISSES.increment();
+            return null;
+        }
+        parkedCount--;
+        HylyptoMetrics.POOL_HITS.increment();
+        return hit.uuid();
+    }
+
+    /**
+     * Parks {@code uuid} if its role is known and the caps allow.
+     *
+     * @return true if the caller should park the entity rather than remove it
+     */
+    public boolean offer(UUID uuid, long nowMillis) {
+        if (!config.enabled || parkedCount >= config.maxParked) return false;
+        String role = roles.get(uuid);
+        if (role == null) return false;
+        ArrayDeque<Parked> queue = parked.computeIfAbsent(role, r -> new ArrayDeque<>());
+        if (queue.size() >= config.maxParkedPerRole) return false;
+        queue.addLast(new Parked(uuid, nowMillis));
+        parkedCount++;
+        HylyptoMetrics.POOL_PARKED.increment();
+        return true;
+    }
+
+    /**
+     * Hands up to the per-tick budget of entities parked past the idle timeout to
+     * {@code remover} and forgets them, once per world tick however many systems call it.
+     *
+     * @return entities evicted this call
+     */
+    public int evictIdle(long tick, long nowMillis, Consumer<UUID> remover) {
+        if (tick == evictedTick || parkedCount == 0) return 0;
+        evictedTick = tick;
+        long cutoff = nowMillis - config.idleEvictSeconds * 1000L;
+        int budget = Math.max(1, config.maxEvictionsPerTick);
+        int evicted = 0;
+        for (Iterator<ArrayDeque<Parked>> it = parked.values().iterator(); it.hasNext() && evicted < budget; ) {
+            ArrayDeque<Parked> queue = it.next();
+            while (evicted < budget && !queue.isEmpty() && queue.peekFirst().parkedAtMillis() <= cutoff) {
+                UUID uuid = queue.pollFirst().uuid();
+                parkedCount--;
+                roles.remove(uuid);
+                remover.accept(uuid);
+                evicted++;
+            }
+        }
+        HylyptoMetrics.POOL_EVICTED.add(evicted);
+        return evicted;
+    }
+
+    /** Every parked entity, removed from the pool — for shutdown, which removes them from the world. */
+    public List<UUID> drainParked() {
+        List<UUID> drained = new ArrayList<>(parkedCount);
+        for (ArrayDeque<Parked> queue : parked.values()) {
+            for (Parked p : queue) {
+                drained.add(p.uuid());
+                roles.remove(p.uuid());
+            }
+            queue.clear();
+        }
+        parkedCount = 0;
+        return drained;
+    }
+
+    /** Adds every parked entity to {@code out}, leaving them parked — for a snapshot. */
+    public void collectParked(Collection<UUID> out) {
+        for (ArrayDeque<Parked> queue : parked.values()) {
+            for (Parked p : queue) {
+                out.add(p.uuid());
+            }
+        }
+    }
+
+    public int getParkedCount() {
+        return parkedCount;
+    }
+
+    /** Drops all bookkeeping — the world is unloading with its entities. */
+    public void clear() {
+        roles.clear();
+        parked.clear();
+        parkedCount = 0;
+        evictedTick = -1;
+    }
+}
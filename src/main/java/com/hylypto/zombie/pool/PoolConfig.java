@@ -0,0 +1,19 @@
+package com.hylypto.zombie.pool;
+
+public class PoolConfig {
+    // Off = despawned zombies are always removed and every spawn builds a new entity. Only
+    // patrols despawned beyond every player's despawn distance are parked, but they stay
+    // visible where they stood, so this is opt-in
+    public boolean enabled = false;
+
+    // Parked zombies kept per role, and across all roles, per world — the rest are removed
+    public int maxParkedPerRole = 64;
+    public int maxParked = 192;
+
+    // A zombie parked this long without being reused is removed — keep it short enough that
+    // nobody wanders back to where it stands and its chunk is still loaded
+    public int idleEvictSeconds = 60;
+
+    // Idle zombies removed per world tick
+    public int maxEvictionsPerTick = 4;
+}
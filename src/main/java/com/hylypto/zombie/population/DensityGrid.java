@@ -0,0 +1,78 @@
+package com.hylypto.zombie.population;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Zombie counts per square cell on the XZ plane. Each zombie is binned by the cell it
+ * was last placed in, so moving one only touches two counters. Not thread-safe —
+ * owned by one world's {@link PopulationManager}.
+ */
+public final class DensityGrid {
+
+    private final int cellSize;
+    private final Map<Long, Integer> counts = new HashMap<>();
+    private final Map<UUID, Long> cellOf = new HashMap<>();
+
+    public DensityGrid(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /** Bins {@code id} at (x, z), moving it out of its previous cell if it had one. */
+    public void place(UUID id, double x, double z) {
+        long key = cellKey(cell(x), cell(z));
+        Long previous = cellOf.put(id, key);
+        if (previous != null) {
+            if (previous == key) return;
+            decrement(previous);
+        }
+        counts.merge(key, 1, Integer::sum);
+    }
+
+    public void remove(UUID id) {
+        Long previous = cellOf.remove(id);
+        if (previous != null) {
+            decrement(previous);
+        }
+    }
+
+    /** Zombies in the cell containing (x, z) and the {@code radiusCells} rings around it. */
+    public int countAround(double x, double z, int radiusCells) {
+        int cx = cell(x);
+        int cz = cell(z);
+        int total = 0;
+        for (int dx = -radiusCells; dx <= radiusCells; dx++) {
+            for (int dz = -radiusCells; dz <= radiusCells; dz++) {
+                Integer n = counts.get(cellKey(cx + dx, cz + dz));
+                if (n != null) total += n;
+            }
+        }
+        return total;
+    }
+
+    public int size() {
+        return cellOf.size();
+    }
+
+    public int occupiedCells() {
+        return counts.size();
+    }
+
+    public void clear() {
+        counts.clear();
+        cellOf.clear();
+    }
+
+    private void decrement(long key) {
+        counts.computeIfPresent(key, (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    private int cell(double coord) {
+        return Math.floorDiv((int) Math.floor(coord), cellSize);
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
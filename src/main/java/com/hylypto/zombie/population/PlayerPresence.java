@@ -0,0 +1,34 @@
+package com.hylypto.zombie.population;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Players currently online, maintained incrementally from connect/disconnect events
+ * rather than by scanning the universe on every spawn. Shared by every world shard —
+ * each shard filters it down to the players actually in its world.
+ */
+public final class PlayerPresence {
+
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+
+    public void join(UUID playerId) {
+        online.add(playerId);
+    }
+
+    /** @return true if the player was tracked */
+    public boolean leave(UUID playerId) {
+        return online.remove(playerId);
+    }
+
+    public Collection<UUID> online() {
+        return Collections.unmodifiableSet(online);
+    }
+
+    public int size() {
+        return online.size();
+    }
+}
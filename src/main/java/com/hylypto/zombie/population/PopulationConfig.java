@@ -0,0 +1,16 @@
+package com.hylypto.zombie.population;
+
+public class PopulationConfig {
+    // Most zombies (horde + patrol) a single player can own at once
+    public int maxZombiesPerPlayer = 40;
+
+    // Density grid — square cells of this many blocks
+    public int regionSizeBlocks = 64;
+
+    // Most zombies counted in the cells around a spawn target (radius in cells, 1 = 3x3)
+    public int maxZombiesPerRegion = 60;
+    public int regionRadiusCells = 1;
+
+    // Zombies move — their grid cells are re-binned this often
+    public float refreshIntervalSeconds = 2.0f;
+}
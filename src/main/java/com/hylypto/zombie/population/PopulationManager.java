@@ -0,0 +1,165 @@
+package com.hylypto.zombie.population;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.PlayerAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which player a spawn goes to and how many zombies it may add, for one world.
+ *
+ * Every spawned zombie is owned by the player it was spawned for. A spawn goes to the
+ * online player in this world with the most headroom — the fewest owned zombies, within
+ * both the per-player cap and the per-region cap counted on a {@link DensityGrid} — so
+ * load spreads evenly instead of piling onto whichever player is listed first. When a
+ * player leaves, only the zombies they own are cleaned up.
+ *
+ * All methods run on the world thread.
+ */
+public final class PopulationManager {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(PopulationManager.class, "population");
+    private static final LogSite FULL_SITE = LogSite.every(30, TimeUnit.SECONDS);
+
+    /** Where to spawn and how many zombies fit. {@code position} is a copy. */
+    public record SpawnTarget(UUID playerId, Vector3d position, int allowed) {}
+
+    private final PopulationConfig config;
+    private final PlayerPresence presence;
+    private final DensityGrid grid;
+    private final long refreshIntervalMillis;
+    private final Map<UUID, UUID> ownerOf = new HashMap<>();
+    private final Map<UUID, Set<UUID>> owned = new HashMap<>();
+    private long lastRefreshMillis;
+
+    public PopulationManager(PopulationConfig config, PlayerPresence presence) {
+        this.config = config;
+        this.presence = presence;
+        this.grid = new DensityGrid(Math.max(1, config.regionSizeBlocks));
+        this.refreshIntervalMillis = Math.round(config.refreshIntervalSeconds * 1000.0);
+    }
+
+    // --- Target selection ---
+
+    /**
+     * Picks the player to spawn around. {@code preferred} (may be null) wins if it still has
+     * room — reinforcements follow the player that triggered them.
+     *
+     * @return the target, or null if no player in this world has room for even one zombie
+     */
+    public SpawnTarget pickTarget(ZombieWorld world, int requested, UUID preferred) {
+        PlayerAccess players = world.players();
+
+        if (preferred != null) {
+            SpawnTarget target = evaluate(players, preferred, requested);
+            if (target != null) return target;
+        }
+
+        SpawnTarget best = null;
+        for (UUID playerId : presence.online()) {
+            SpawnTarget candidate = evaluate(players, playerId, requested);
+            if (candidate == null) continue;
+            if (best == null || ownedCount(candidate.playerId()) < ownedCount(best.playerId())) {
+                best = candidate;
+            }
+        }
+
+        if (best == null) {
+            LOG.info(FULL_SITE, () -> "No player with spawn room — " + ownerOf.size() + " zombies owned by "
+                    + owned.size() + " players, " + presence.size() + " online");
+        }
+        return best;
+    }
+
+    private SpawnTarget evaluate(PlayerAccess players, UUID playerId, int requested) {
+        Vector3d pos = players.positionOf(playerId);
+        if (pos == null) return null; // offline or in another world
+
+        int playerRoom = config.maxZombiesPerPlayer - ownedCount(playerId);
+        int regionRoom = config.maxZombiesPerRegion - grid.countAround(pos.x, pos.z, config.regionRadiusCells);
+        int allowed = Math.min(requested, Math.min(playerRoom, regionRoom));
+        if (allowed <= 0) return null;
+        return new SpawnTarget(playerId, new Vector3d(pos.x, pos.y, pos.z), allowed);
+    }
+
+    // --- Ownership ---
+
+    public void track(UUID ownerId, UUID zombie, Vector3d position) {
+        ownerOf.put(zombie, ownerId);
+        owned.computeIfAbsent(ownerId, k -> new HashSet<>()).add(zombie);
+        grid.place(zombie, position.x, position.z);
+    }
+
+    public void untrack(UUID zombie) {
+        UUID ownerId = ownerOf.remove(zombie);
+        if (ownerId == null) return;
+        Set<UUID> zombies = owned.get(ownerId);
+        if (zombies != null) {
+            zombies.remove(zombie);
+            if (zombies.isEmpty()) owned.remove(ownerId);
+        }
+        grid.remove(zombie);
+    }
+
+    public UUID ownerOf(UUID zombie) {
+        return ownerOf.get(zombie);
+    }
+
+    /** Zombies owned by {@code playerId} — a live view, copy before removing from it. */
+    public Set<UUID> ownedBy(UUID playerId) {
+        Set<UUID> zombies = owned.get(playerId);
+        return zombies != null ? Collections.unmodifiableSet(zombies) : Set.of();
+    }
+
+    public int ownedCount(UUID playerId) {
+        Set<UUID> zombies = owned.get(playerId);
+        return zombies != null ? zombies.size() : 0;
+    }
+
+    /** Drops any ownership left for a departed player after their zombies were removed. */
+    public void forget(UUID playerId) {
+        Set<UUID> zombies = owned.remove(playerId);
+        if (zombies == null) return;
+        for (UUID zombie : zombies) {
+            ownerOf.remove(zombie);
+            grid.remove(zombie);
+        }
+    }
+
+    public int getTrackedCount() {
+        return ownerOf.size();
+    }
+
+    // --- Upkeep ---
+
+    /** Re-bins tracked zombies at their current positions once the refresh interval has passed. */
+    public void refreshIfDue(ZombieWorld world) {
+        long now = world.currentTimeMillis();
+        if (now - lastRefreshMillis < refreshIntervalMillis) return;
+        lastRefreshMillis = now;
+
+        EntityAccess entities = world.entities();
+        for (UUID zombie : ownerOf.keySet()) {
+            Vector3d pos = entities.getPosition(zombie);
+            if (pos != null) {
+                grid.place(zombie, pos.x, pos.z);
+            }
+        }
+    }
+
+    public void clear() {
+        ownerOf.clear();
+        owned.clear();
+        grid.clear();
+    }
+}
@@ -0,0 +1,36 @@
+package com.hylypto.zombie.replay;
+
+/**
+ * Binary layout of a decision recording. Big-endian throughout.
+ *
+ * <pre>
+ * header:  int magic, short version, long seed, long recordedAtEpochMillis
+ * record:  byte type, long groupMsb, long groupLsb, payload
+ *   GROUP_ID     —
+ *   ROUTE        short count, count × (double x, double y, double z)
+ *   SPAWN        double x, double y, double z
+ *   TRANSITION   long worldMillis, byte fromOrdinal, byte toOrdinal
+ *   CHASE        long worldMillis, double x, double y, double z
+ *   WORLD        short length, length × byte (UTF-8 world name) — group is zero
+ * </pre>
+ *
+ * A WORLD record opens that world's section: every record after it, up to the next
+ * WORLD record, belongs to the named world. Records before the first one belong to the
+ * unnamed section.
+ */
+final class DecisionFormat {
+
+    static final int MAGIC = 0x4859444C; // "HYDL"
+    static final short VERSION = 2;
+    static final int HEADER_BYTES = 4 + 2 + 8 + 8;
+    static final int RECORD_HEADER_BYTES = 1 + 8 + 8;
+
+    static final byte GROUP_ID = 1;
+    static final byte ROUTE = 2;
+    static final byte SPAWN = 3;
+    static final byte TRANSITION = 4;
+    static final byte CHASE = 5;
+    static final byte WORLD = 6;
+
+    private DecisionFormat() {}
+}
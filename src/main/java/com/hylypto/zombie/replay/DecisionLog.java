@@ -0,0 +1,87 @@
+package com.hylypto.zombie.replay;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.zombie.state.PatrolState;
+import com.hylypto.zombie.world.WorldRandom;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Where patrol decisions come from and go to.
+ *
+ * Input decisions (group ids, routes, spawn positions) are produced by the supplied
+ * generator, or read back from a recording in replay mode. Outcomes (state transitions,
+ * chase targets) are appended when recording and checked against the recording when
+ * replaying.
+ *
+ * Each shard works through its own {@link #forWorld(String) world section}, so worlds
+ * record and replay independently of each other and of the order they tick in. Calls on
+ * a world's section happen on that world's thread.
+ */
+public interface DecisionLog {
+
+    /** Group key for horde spawns, which have no patrol group. */
+    UUID HORDE = new UUID(0L, 0L);
+
+    /** Generates everything live and records nothing. */
+    DecisionLog OFF = new LiveDecisionLog(0);
+
+    UUID groupId(Supplier<UUID> generate);
+
+    List<Vector3d> route(UUID groupId, Supplier<List<Vector3d>> generate);
+
+    Vector3d spawnPosition(UUID groupId, Supplier<Vector3d> generate);
+
+    void transition(UUID groupId, PatrolState from, PatrolState to, long worldMillis);
+
+    void chaseTarget(UUID groupId, Vector3d target, long worldMillis);
+
+    /**
+     * The section of this log holding {@code worldName}'s decisions. Logs that record
+     * nothing return themselves.
+     */
+    default DecisionLog forWorld(String worldName) { return this; }
+
+    /** Seed the world RNG should use for this run. */
+    default long getSeed() { return 0; }
+
+    default void close() {}
+
+    /**
+     * Opens the log described by {@code config}. Falls back to {@link #OFF} semantics,
+     * with a logged error, if the file cannot be opened.
+     */
+    static DecisionLog open(ReplayConfig config, Path dataDirectory) {
+        HylyptoLog log = HylyptoLog.get(DecisionLog.class, "patrol");
+        long seed = config.seed != 0 ? config.seed : WorldRandom.freshSeed();
+        Path file = dataDirectory.resolve(config.file);
+
+        try {
+            switch (config.mode.toUpperCase()) {
+                case "RECORD" -> {
+                    Files.createDirectories(dataDirectory);
+                    log.info("Recording patrol decisions to " + file + " (seed=" + seed + ")");
+                    return new DecisionRecorder(file, seed, config.bufferBytes);
+                }
+                case "REPLAY" -> {
+                    DecisionReplayer replayer = DecisionReplayer.load(file);
+                    log.info("Replaying patrol decisions from " + file + " (seed=" + replayer.getSeed() + ")");
+                    return replayer;
+                }
+                case "OFF" -> {}
+                default -> log.warn("Unknown replay mode '" + config.mode + "' — decisions are not recorded");
+            }
+        } catch (IOException e) {
+            log.error("Could not open decision file " + file + " — decisions are not recorded", e);
+        }
+
+        log.info("Patrol RNG seed=" + seed + " (set seed in replay-config.json to repeat this run)");
+        return new LiveDecisionLog(seed);
+    }
+}
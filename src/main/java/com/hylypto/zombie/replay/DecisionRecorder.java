@@ -0,0 +1,244 @@
+package com.hylypto.zombie.replay;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.zombie.state.PatrolState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Generates decisions live and appends each one to a {@link DecisionFormat} file.
+ *
+ * Each world records through its own {@link #forWorld(String) section}; records from
+ * different worlds interleave in the file, separated by WORLD records. Records go into a
+ * direct buffer that is written out when full and on {@link #close()}.
+ * An I/O failure stops recording for the rest of the run — gameplay is never interrupted.
+ */
+public final class DecisionRecorder implements DecisionLog {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(DecisionRecorder.class, "patrol");
+
+    private final Path file;
+    private final long seed;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final Map<String, WorldSection> sections = new ConcurrentHashMap<>();
+    private final WorldSection unnamed = new WorldSection("");
+    private boolean failed;
+    private long recordCount;
+    // World whose section the last record was written into
+    private String currentWorld = "";
+
+    public DecisionRecorder(Path file, long seed, int bufferBytes) throws IOException {
+        this.file = file;
+        this.seed = seed;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(4096, bufferBytes));
+
+        buffer.putInt(DecisionFormat.MAGIC);
+        buffer.putShort(DecisionFormat.VERSION);
+        buffer.putLong(seed);
+        buffer.putLong(System.currentTimeMillis());
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public DecisionLog forWorld(String worldName) {
+        return sections.computeIfAbsent(worldName, WorldSection::new);
+    }
+
+    // --- Inputs and outcomes on the log itself go to the unnamed section ---
+
+    @Override
+    public UUID groupId(Supplier<UUID> generate) {
+        return unnamed.groupId(generate);
+    }
+
+    @Override
+    public List<Vector3d> route(UUID groupId, Supplier<List<Vector3d>> generate) {
+        return unnamed.route(groupId, generate);
+    }
+
+    @Override
+    public Vector3d spawnPosition(UUID groupId, Supplier<Vector3d> generate) {
+        return unnamed.spawnPosition(groupId, generate);
+    }
+
+    @Override
+    public void transition(UUID groupId, PatrolState from, PatrolState to, long worldMillis) {
+        unnamed.transition(groupId, from, to, worldMillis);
+    }
+
+    @Override
+    public void chaseTarget(UUID groupId, Vector3d target, long worldMillis) {
+        unnamed.chaseTarget(groupId, target, worldMillis);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!failed) {
+            drain();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.error("Failed to close decision file " + file, e);
+        }
+        LOG.info("Recorded " + recordCount + " patrol decisions to " + file);
+    }
+
+    // --- Buffer management ---
+
+    /**
+     * Makes room for a record of {@code world} and writes its header, opening the world's
+     * section first if the previous record belonged to another. Returns false once
+     * recording has failed. Caller holds the lock.
+     */
+    private boolean begin(String world, byte type, UUID groupId, int payloadBytes) {
+        if (failed) return false;
+        byte[] name = world.equals(currentWorld) ? null : world.getBytes(StandardCharsets.UTF_8);
+        int marker = name != null ? DecisionFormat.RECORD_HEADER_BYTES + 2 + name.length : 0;
+        int needed = marker + DecisionFormat.RECORD_HEADER_BYTES + payloadBytes;
+        if (needed > buffer.capacity()) {
+            LOG.warn("Decision record of " + needed + " bytes exceeds the " + buffer.capacity()
+                    + "-byte buffer — skipped");
+            return false;
+        }
+        if (buffer.remaining() < needed && !drain()) {
+            return false;
+        }
+        if (name != null) {
+            putHeader(DecisionFormat.WORLD, DecisionLog.HORDE);
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+            currentWorld = world;
+        }
+        putHeader(type, groupId);
+        return true;
+    }
+
+    private void putHeader(byte type, UUID groupId) {
+        buffer.put(type);
+        buffer.putLong(groupId.getMostSignificantBits());
+        buffer.putLong(groupId.getLeastSignificantBits());
+    }
+
+    private boolean drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            return true;
+        } catch (IOException e) {
+            failed = true;
+            LOG.error("Failed to write decision file " + file + " — recording stopped", e);
+            return false;
+        }
+    }
+
+    private void putVector(Vector3d v) {
+        buffer.putDouble(v.x);
+        buffer.putDouble(v.y);
+        buffer.putDouble(v.z);
+    }
+
+    /**
+     * One world's view of the recording. Decisions are generated on the world's thread;
+     * only the append into the shared buffer takes the recorder's lock.
+     */
+    private final class WorldSection implements DecisionLog {
+
+        private final String world;
+
+        WorldSection(String world) {
+            this.world = world;
+        }
+
+        @Override
+        public long getSeed() {
+            return seed;
+        }
+
+        @Override
+        public UUID groupId(Supplier<UUID> generate) {
+            UUID groupId = generate.get();
+            synchronized (DecisionRecorder.this) {
+                if (begin(world, DecisionFormat.GROUP_ID, groupId, 0)) {
+                    recordCount++;
+                }
+            }
+            return groupId;
+        }
+
+        @Override
+        public List<Vector3d> route(UUID groupId, Supplier<List<Vector3d>> generate) {
+            List<Vector3d> route = generate.get();
+            synchronized (DecisionRecorder.this) {
+                if (begin(world, DecisionFormat.ROUTE, groupId, 2 + route.size() * 24)) {
+                    buffer.putShort((short) route.size());
+                    for (Vector3d wp : route) {
+                        putVector(wp);
+                    }
+                    recordCount++;
+                }
+            }
+            return route;
+        }
+
+        @Override
+        public Vector3d spawnPosition(UUID groupId, Supplier<Vector3d> generate) {
+            Vector3d pos = generate.get();
+            synchronized (DecisionRecorder.this) {
+                if (begin(world, DecisionFormat.SPAWN, groupId, 24)) {
+                    putVector(pos);
+                    recordCount++;
+                }
+            }
+            return pos;
+        }
+
+        @Override
+        public void transition(UUID groupId, PatrolState from, PatrolState to, long worldMillis) {
+            synchronized (DecisionRecorder.this) {
+                if (begin(world, DecisionFormat.TRANSITION, groupId, 8 + 2)) {
+                    buffer.putLong(worldMillis);
+                    buffer.put((byte) from.ordinal());
+                    buffer.put((byte) to.ordinal());
+                    recordCount++;
+                }
+            }
+        }
+
+        @Override
+        public void chaseTarget(UUID groupId, Vector3d target, long worldMillis) {
+            synchronized (DecisionRecorder.this) {
+                if (begin(world, DecisionFormat.CHASE, groupId, 8 + 24)) {
+                    buffer.putLong(worldMillis);
+                    putVector(target);
+                    recordCount++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.hylypto.zombie.replay;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
+import com.hylypto.zombie.state.PatrolState;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Feeds a {@link DecisionFormat} recording back into the patrol code.
+ *
+ * The recording is split into one section per world, and each shard replays its own
+ * through {@link #forWorld(String)}, so worlds never take each other's decisions
+ * whatever order they tick in. Within a section, inputs are replayed per group in
+ * recorded order, so group ids, routes and spawn positions come out exactly as they did
+ * in the recorded run. Once a queue runs dry the generator is used instead. Transitions
+ * and chase targets are compared with the recording, and every mismatch is counted as a
+ * divergence.
+ *
+ * A section is only touched by its world's thread; the counters are summed across
+ * sections when read.
+ */
+public final class DecisionReplayer implements DecisionLog {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(DecisionReplayer.class, "patrol");
+    private static final LogSite DIVERGENCE_SITE = LogSite.every(5, TimeUnit.SECONDS);
+    private static final double CHASE_TOLERANCE = 1e-6;
+
+    private final long seed;
+    private final Map<String, WorldReplay> worlds = new ConcurrentHashMap<>();
+    private final WorldReplay unnamed;
+
+    private DecisionReplayer(long seed) {
+        this.seed = seed;
+        this.unnamed = section("");
+    }
+
+    /** Reads and indexes the whole recording. */
+    public static DecisionReplayer load(Path file) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Decision file too large: " + size + " bytes");
+            }
+            buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                // keep reading
+            }
+            buf.flip();
+        }
+
+        if (buf.remaining() < DecisionFormat.HEADER_BYTES || buf.getInt() != DecisionFormat.MAGIC) {
+            throw new IOException("Not a decision recording: " + file);
+        }
+        short version = buf.getShort();
+        if (version != DecisionFormat.VERSION) {
+            throw new IOException("Unsupported decision recording version " + version + ": " + file);
+        }
+        DecisionReplayer replayer = new DecisionReplayer(buf.getLong());
+        buf.getLong(); // recordedAtEpochMillis
+
+        int records = 0;
+        WorldReplay section = replayer.unnamed;
+        while (buf.remaining() >= DecisionFormat.RECORD_HEADER_BYTES) {
+            byte type = buf.get();
+            UUID groupId = new UUID(buf.getLong(), buf.getLong());
+            try {
+                switch (type) {
+                    case DecisionFormat.GROUP_ID -> section.groupIds.add(groupId);
+                    case DecisionFormat.ROUTE -> {
+                        int count = buf.getShort();
+                        List<Vector3d> route = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) {
+                            route.add(getVector(buf));
+                        }
+                        queue(section.routes, groupId).add(route);
+                    }
+                    case DecisionFormat.SPAWN -> queue(section.spawns, groupId).add(getVector(buf));
+                    case DecisionFormat.TRANSITION -> {
+                        buf.getLong(); // worldMillis — informational, wall timing differs between runs
+                        int from = buf.get();
+                        int to = buf.get();
+                        queue(section.transitions, groupId).add((from << 8) | to);
+                    }
+                    case DecisionFormat.CHASE -> {
+                        buf.getLong();
+                        queue(section.chases, groupId).add(getVector(buf));
+                    }
+                    case DecisionFormat.WORLD -> {
+                        byte[] name = new byte[buf.getShort()];
+                        buf.get(name);
+                        section = replayer.section(new String(name, StandardCharsets.UTF_8));
+                    }
+                    default -> throw new IOException("Unknown record type " + type + " after "
+                            + records + " records: " + file);
+                }
+            } catch (BufferUnderflowException e) {
+                // Truncated tail — the recording run was killed mid-write
+                LOG.warn("Decision recording truncated after " + records + " records: " + file);
+                break;
+            }
+            records++;
+        }
+
+        int total = records;
+        LOG.info(() -> "Loaded " + total + " patrol decisions from " + file);
+        return replayer;
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getDivergenceCount() {
+        long total = 0;
+        for (WorldReplay section : worlds.values()) {
+            total += section.divergences;
+        }
+        return total;
+    }
+
+    @Override
+    public DecisionLog forWorld(String worldName) {
+        return section(worldName);
+    }
+
+    // --- Inputs and outcomes on the log itself go to the unnamed section ---
+
+    @Override
+    public UUID groupId(Supplier<UUID> generate) {
+        return unnamed.groupId(generate);
+    }
+
+    @Override
+    public List<Vector3d> route(UUID groupId, Supplier<List<Vector3d>> generate) {
+        return unnamed.route(groupId, generate);
+    }
+
+    @Override
+    public Vector3d spawnPosition(UUID groupId, Supplier<Vector3d> generate) {
+        return unnamed.spawnPosition(groupId, generate);
+    }
+
+    @Override
+    public void transition(UUID groupId, PatrolState from, PatrolState to, long worldMillis) {
+        unnamed.transition(groupId, from, to, worldMillis);
+    }
+
+    @Override
+    public void chaseTarget(UUID groupId, Vector3d target, long worldMillis) {
+        unnamed.chaseTarget(groupId, target, worldMillis);
+    }
+
+    @Override
+    public void close() {
+        long replayed = 0;
+        long generated = 0;
+        for (WorldReplay section : worlds.values()) {
+            replayed += section.replayed;
+            generated += section.generated;
+        }
+        LOG.info("Replay finished — " + replayed + " decisions replayed, " + generated
+                + " generated live, " + getDivergenceCount() + " divergences");
+    }
+
+    // --- Helpers ---
+
+    private WorldReplay section(String world) {
+        return worlds.computeIfAbsent(world, WorldReplay::new);
+    }
+
+    private static <T> ArrayDeque<T> queue(Map<UUID, ArrayDeque<T>> map, UUID groupId) {
+        return map.computeIfAbsent(groupId, k -> new ArrayDeque<>());
+    }
+
+    private static Vector3d getVector(ByteBuffer buf) {
+        return new Vector3d(buf.getDouble(), buf.getDouble(), buf.getDouble());
+    }
+
+    /** One world's recorded decisions, and how replaying them has gone. */
+    private final class WorldReplay implements DecisionLog {
+
+        private final String world;
+        private final ArrayDeque<UUID> groupIds = new ArrayDeque<>();
+        private final Map<UUID, ArrayDeque<List<Vector3d>>> routes = new HashMap<>();
+        private final Map<UUID, ArrayDeque<Vector3d>> spawns = new HashMap<>();
+        private final Map<UUID, ArrayDeque<Integer>> transitions = new HashMap<>();
+        private final Map<UUID, ArrayDeque<Vector3d>> chases = new HashMap<>();
+
+        private volatile long replayed;
+        private volatile long generated;
+        private volatile long divergences;
+        private boolean exhaustedLogged;
+
+        WorldReplay(String world) {
+            this.world = world;
+        }
+
+        @Override
+        public long getSeed() {
+            return seed;
+        }
+
+        // --- Inputs: replay, or generate once the recording runs out ---
+
+        @Override
+        public UUID groupId(Supplier<UUID> generate) {
+            return next(groupIds, generate);
+        }
+
+        @Override
+        public List<Vector3d> route(UUID groupId, Supplier<List<Vector3d>> generate) {
+            return next(routes.get(groupId), generate);
+        }
+
+        @Override
+        public Vector3d spawnPosition(UUID groupId, Supplier<Vector3d> generate) {
+            return next(spawns.get(groupId), generate);
+        }
+
+        // --- Outcomes: compare with the recording ---
+
+        @Override
+        public void transition(UUID groupId, PatrolState from, PatrolState to, long worldMillis) {
+            ArrayDeque<Integer> expected = transitions.get(groupId);
+            Integer next = expected != null ? expected.poll() : null;
+            int actual = (from.ordinal() << 8) | to.ordinal();
+            if (next == null || next != actual) {
+                PatrolState[] states = PatrolState.values();
+                String wanted = next == null ? "none"
+                        : states[next >> 8] + " -> " + states[next & 0xFF];
+                diverged(() -> "group=" + groupId + " transition " + from + " -> " + to
+                        + ", recording has " + wanted);
+            }
+        }
+
+        @Override
+        public void chaseTarget(UUID groupId, Vector3d target, long worldMillis) {
+            ArrayDeque<Vector3d> expected = chases.get(groupId);
+            Vector3d next = expected != null ? expected.poll() : null;
+            if (next == null || next.distanceTo(target) > CHASE_TOLERANCE) {
+                diverged(() -> "group=" + groupId + " chase target (" + (int) target.x + "," + (int) target.y
+                        + "," + (int) target.z + "), recording has "
+                        + (next == null ? "none" : "(" + (int) next.x + "," + (int) next.y + "," + (int) next.z + ")"));
+            }
+        }
+
+        private <T> T next(ArrayDeque<T> queue, Supplier<T> generate) {
+            T value = queue != null ? queue.poll() : null;
+            if (value != null) {
+                replayed++;
+                return value;
+            }
+            generated++;
+            if (!exhaustedLogged) {
+                exhaustedLogged = true;
+                LOG.warn("Recording has no more decisions of this kind for world '" + world
+                        + "' — generating live from here on");
+            }
+            return generate.get();
+        }
+
+        private void diverged(Supplier<String> detail) {
+            long total = ++divergences;
+            LOG.warn(DIVERGENCE_SITE, () -> "[REPLAY] Divergence #" + total + " in world '" + world
+                    + "': " + detail.get());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.hylypto.zombie.replay;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.zombie.state.PatrolState;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Generates every decision live and records nothing.
+ */
+final class LiveDecisionLog implements DecisionLog {
+
+    private final long seed;
+
+    LiveDecisionLog(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public UUID groupId(Supplier<UUID> generate) {
+        return generate.get();
+    }
+
+    @Override
+    public List<Vector3d> route(UUID groupId, Supplier<List<Vector3d>> generate) {
+        return generate.get();
+    }
+
+    @Override
+    public Vector3d spawnPosition(UUID groupId, Supplier<Vector3d> generate) {
+        return generate.get();
+    }
+
+    @Override
+    public void transition(UUID groupId, PatrolState from, PatrolState to, long worldMillis) {}
+
+    @Override
+    public void chaseTarget(UUID groupId, Vector3d target, long worldMillis) {}
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+}
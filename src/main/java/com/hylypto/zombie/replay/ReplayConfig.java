@@ -0,0 +1,15 @@
+package com.hylypto.zombie.replay;
+
+public class ReplayConfig {
+    // World RNG seed — 0 picks a fresh seed at startup (logged, so a run can be repeated)
+    public long seed = 0;
+
+    // OFF, RECORD (append decisions to the file) or REPLAY (feed them back from the file)
+    public String mode = "OFF";
+
+    // Relative to the plugin data directory
+    public String file = "patrol-decisions.bin";
+
+    // Recorder write buffer — flushed to the file when full and on shutdown
+    public int bufferBytes = 64 * 1024;
+}
@@ -1,42 +1,99 @@
 package com.hylypto.zombie.screamer;
 
 import com.hypixel.hytale.math.vector.Vector3d;
-import com.hylypto.zombie.PatrolConfig;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.HordeManager;
 import com.hylypto.zombie.PatrolGroup;
 import com.hylypto.zombie.PatrolManager;
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.noise.NoiseConfig;
+import com.hylypto.zombie.noise.NoiseGrid;
+import com.hylypto.api.log.HylyptoLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 public class ScreamerManager {
 
-    private static final System.Logger LOG = System.getLogger(ScreamerManager.class.getName());
+    private static final HylyptoLog LOG = HylyptoLog.get(ScreamerManager.class, "screamer");
 
-    private final PatrolConfig config;
     private final PatrolManager patrolManager;
+    private final NoiseGrid noise;
+    private HordeManager hordeManager;
 
-    public ScreamerManager(PatrolConfig config, PatrolManager patrolManager) {
-        this.config = config;
+    public ScreamerManager(PatrolManager patrolManager, NoiseGrid noise) {
         this.patrolManager = patrolManager;
+        this.noise = noise;
+    }
+
+    public void setHordeManager(HordeManager hordeManager) {
+        this.hordeManager = hordeManager;
     }
 
     /**
      * Called when a patrol group with a screamer enters AGGRO for the first time.
-     * Spawns a reinforcement horde heading directly toward the player.
+     * The nearest patrol groups and the horde zombies within earshot are sent at the player
+     * first; only the shortfall against the reinforcement size is spawned as a new patrol.
+     * The scream itself also carries through the sound grid from the group's centroid.
      */
-    public void onScream(PatrolGroup group) {
-        if (!config.screamerEnabled) return;
+    public void onScream(PatrolGroup group, PatrolSettings settings, long nowMillis) {
+        if (!settings.screamerEnabled) return;
         if (group.hasScreamed()) return;
 
         Vector3d playerPos = group.getLastKnownPlayerPosition();
         if (playerPos == null) {
-            LOG.log(System.Logger.Level.WARNING,
-                    "Screamer triggered but no player position known for group " + group.getGroupId());
+            LOG.warn(() -> "Screamer triggered but no player position known for group " + group.getGroupId());
             return;
         }
 
-        LOG.log(System.Logger.Level.INFO,
-                "SCREAMER! Patrol " + group.getGroupId() + " — summoning reinforcements ("
-                + config.screamerHordeSize + " zombies)");
+        Vector3d centroid = group.getCentroidScratch();
+        NoiseConfig sounds = noise.getConfig();
+        // The screaming group already knows where it is — only others react
+        group.setLastHeardNoise(noise.emit(centroid.x, centroid.y, centroid.z,
+                sounds.screamLoudness, sounds.screamDecayPerSecond, nowMillis));
+
+        int answered = alertNearby(group, centroid, playerPos, settings);
+        int reinforcements = settings.screamerHordeSize - answered;
+        LOG.info(() -> "SCREAMER! Patrol " + group.getGroupId() + " — " + answered
+                + " zombies nearby answered, summoning " + Math.max(0, reinforcements) + " more");
+
+        // Spawn a reinforcement patrol for the same player — no screamer in the reinforcement group
+        if (reinforcements > 0) {
+            patrolManager.spawnPatrol(reinforcements, false, group.getOwnerId());
+        }
+    }
 
-        // Spawn a reinforcement patrol — no screamer in the reinforcement group
-        patrolManager.spawnPatrol(config.screamerHordeSize, false);
+    /**
+     * Sends the patrol groups and horde zombies around the scream at the player.
+     *
+     * @return how many zombies answered
+     */
+    private int alertNearby(PatrolGroup screamer, Vector3d centroid, Vector3d playerPos, PatrolSettings settings) {
+        if (settings.screamerAlertRadius <= 0) return 0;
+        int answered = 0;
+
+        // Local lists — a recruited group with its own screamer screams in turn, re-entering here
+        List<PatrolGroup> groups = new ArrayList<>(settings.screamerAlertGroups + 1);
+        // One extra, since the screaming group is usually its own nearest
+        patrolManager.nearestGroups(centroid.x, centroid.z, settings.screamerAlertGroups + 1,
+                settings.screamerAlertRadius, groups);
+        int recruited = 0;
+        for (PatrolGroup nearby : groups) {
+            if (nearby == screamer || recruited == settings.screamerAlertGroups) continue;
+            if (patrolManager.alert(nearby, playerPos)) {
+                recruited++;
+                answered += nearby.size();
+                HylyptoMetrics.NOISE_REACTIONS.increment();
+            }
+        }
+
+        if (hordeManager != null) {
+            List<UUID> zombies = new ArrayList<>();
+            if (hordeManager.zombiesWithin(centroid.x, centroid.z, settings.screamerAlertRadius, zombies) > 0) {
+                answered += hordeManager.sendTo(zombies, playerPos);
+            }
+        }
+        return answered;
     }
 }
@@ -0,0 +1,40 @@
+package com.hylypto.zombie.snapshot;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.zombie.state.PatrolState;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The patrols and hordes of one world at one moment — everything needed to pick them up again
+ * after a restart, minus the entities themselves, which the world saves with its chunks.
+ * Times are stored as durations rather than instants, so they carry across the downtime.
+ * Entities the shard had already let go of — parked in the pool or queued for despawn — are
+ * listed too, since the world saves them as well; they are removed when they turn up again.
+ * Captured on the world thread; immutable once built, so it is written from any thread.
+ */
+public record ShardSnapshot(String worldName, long capturedAtEpochMillis, List<Group> groups,
+                            List<Zombie> hordeZombies, List<UUID> discarded) {
+
+    /** One tracked entity: who it was spawned for and where it last was. */
+    public record Zombie(UUID uuid, UUID ownerId, Vector3d position) {}
+
+    /**
+     * One patrol group.
+     *
+     * @param members leader first, then followers in slot order
+     * @param screamerUUID null if the screamer is gone or was never spawned
+     * @param lastKnownPlayer null if the group has never seen or heard anyone
+     */
+    public record Group(UUID groupId, UUID ownerId, PatrolState state, long millisInState,
+                        long millisSincePlayerSeen, int waypointIndex, List<Vector3d> waypoints,
+                        boolean hasScreamer, UUID screamerUUID, boolean hasScreamed, boolean chasingNoise,
+                        Vector3d lastKnownPlayer, List<Zombie> members) {}
+
+    public int zombieCount() {
+        int total = hordeZombies.size();
+        for (Group group : groups) total += group.members().size();
+        return total;
+    }
+}
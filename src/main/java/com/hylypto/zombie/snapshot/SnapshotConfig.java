@@ -0,0 +1,18 @@
+package com.hylypto.zombie.snapshot;
+
+public class SnapshotConfig {
+    // Off = zombies are despawned at shutdown and nothing is restored, as before
+    public boolean enabled = true;
+
+    // One file per world, relative to the plugin data directory
+    public String directory = "snapshots";
+
+    // How often every world's patrols and hordes are written out — a crash loses at most this much
+    public int intervalSeconds = 30;
+
+    // After a restore, how long surviving entities have to turn up before their zombies are dropped
+    public int reconcileSeconds = 90;
+
+    // Longest a save waits for the world thread to capture its state
+    public int captureTimeoutMillis = 5000;
+}
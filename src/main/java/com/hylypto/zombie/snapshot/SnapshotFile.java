@@ -0,0 +1,246 @@
+package com.hylypto.zombie.snapshot;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.zombie.state.PatrolState;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes {@link SnapshotFormat} files.
+ *
+ * A snapshot is written whole to a temporary file next to the target, forced to disk, then
+ * moved over the target in one step, so a crash mid-write leaves the previous snapshot in
+ * place instead of half of a new one. The trailing checksum catches anything that still
+ * slipped through — a torn file is rejected rather than restored from.
+ */
+final class SnapshotFile {
+
+    private static final PatrolState[] STATES = PatrolState.values();
+
+    private SnapshotFile() {}
+
+    // --- Writing ---
+
+    static void write(Path file, ShardSnapshot snapshot) throws IOException {
+        ByteBuffer buf = encode(snapshot);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static ByteBuffer encode(ShardSnapshot snapshot) throws IOException {
+        byte[] name = snapshot.worldName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE) {
+            throw new IOException("World name too long for a snapshot: " + snapshot.worldName());
+        }
+        ByteBuffer buf = ByteBuffer.allocate(sizeOf(snapshot, name.length));
+
+        buf.putInt(SnapshotFormat.MAGIC);
+        buf.putShort(SnapshotFormat.VERSION);
+        buf.putLong(snapshot.capturedAtEpochMillis());
+        buf.putShort((short) name.length);
+        buf.put(name);
+        buf.putInt(snapshot.groups().size());
+        buf.putInt(snapshot.hordeZombies().size());
+        buf.putInt(snapshot.discarded().size());
+
+        for (ShardSnapshot.Group group : snapshot.groups()) {
+            if (group.waypoints().size() > Short.MAX_VALUE || group.members().size() > Short.MAX_VALUE) {
+                throw new IOException("Patrol group " + group.groupId() + " too large for a snapshot");
+            }
+            byte flags = 0;
+            if (group.hasScreamer()) flags |= SnapshotFormat.HAS_SCREAMER;
+            if (group.hasScreamed()) flags |= SnapshotFormat.SCREAMED;
+            if (group.screamerUUID() != null) flags |= SnapshotFormat.SCREAMER_UUID;
+            if (group.lastKnownPlayer() != null) flags |= SnapshotFormat.LAST_KNOWN;
+            if (group.chasingNoise()) flags |= SnapshotFormat.CHASING_NOISE;
+
+            putUUID(buf, group.groupId());
+            putUUID(buf, group.ownerId());
+            buf.put((byte) group.state().ordinal());
+            buf.put(flags);
+            buf.putShort((short) Math.min(group.waypointIndex(), Short.MAX_VALUE));
+            buf.putLong(group.millisInState());
+            buf.putLong(group.millisSincePlayerSeen());
+            if (group.screamerUUID() != null) putUUID(buf, group.screamerUUID());
+            if (group.lastKnownPlayer() != null) putVector(buf, group.lastKnownPlayer());
+            buf.putShort((short) group.waypoints().size());
+            for (Vector3d wp : group.waypoints()) {
+                putVector(buf, wp);
+            }
+            buf.putShort((short) group.members().size());
+            for (ShardSnapshot.Zombie member : group.members()) {
+                putUUID(buf, member.uuid());
+                putVector(buf, member.position());
+            }
+        }
+        for (ShardSnapshot.Zombie zombie : snapshot.hordeZombies()) {
+            putUUID(buf, zombie.uuid());
+            putUUID(buf, zombie.ownerId());
+            putVector(buf, zombie.position());
+        }
+        for (UUID uuid : snapshot.discarded()) {
+            putUUID(buf, uuid);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+        return buf;
+    }
+
+    private static int sizeOf(ShardSnapshot snapshot, int nameBytes) {
+        int size = SnapshotFormat.HEADER_BYTES + nameBytes + SnapshotFormat.TRAILER_BYTES;
+        for (ShardSnapshot.Group group : snapshot.groups()) {
+            size += SnapshotFormat.GROUP_FIXED_BYTES;
+            if (group.screamerUUID() != null) size += SnapshotFormat.UUID_BYTES;
+            if (group.lastKnownPlayer() != null) size += SnapshotFormat.VECTOR_BYTES;
+            size += group.waypoints().size() * SnapshotFormat.VECTOR_BYTES;
+            size += group.members().size() * SnapshotFormat.MEMBER_BYTES;
+        }
+        return size + snapshot.hordeZombies().size() * SnapshotFormat.HORDE_BYTES
+                + snapshot.discarded().size() * SnapshotFormat.UUID_BYTES;
+    }
+
+    // --- Reading ---
+
+    /**
+     * Reads a whole snapshot.
+     *
+     * @throws IOException if the file is not a snapshot, is of another version, or fails its checksum
+     */
+    static ShardSnapshot read(Path file) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large: " + size + " bytes");
+            }
+            buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                // keep reading
+            }
+            buf.flip();
+        }
+        return decode(buf, file);
+    }
+
+    static ShardSnapshot decode(ByteBuffer buf, Object source) throws IOException {
+        if (buf.remaining() < SnapshotFormat.HEADER_BYTES + SnapshotFormat.TRAILER_BYTES
+                || buf.getInt(0) != SnapshotFormat.MAGIC) {
+            throw new IOException("Not a zombie snapshot: " + source);
+        }
+        short version = buf.getShort(4);
+        if (version != SnapshotFormat.VERSION) {
+            throw new IOException("Unsupported zombie snapshot version " + version + ": " + source);
+        }
+        int bodyEnd = buf.limit() - SnapshotFormat.TRAILER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, bodyEnd);
+        if ((int) crc.getValue() != buf.getInt(bodyEnd)) {
+            throw new IOException("Zombie snapshot failed its checksum: " + source);
+        }
+
+        buf.position(6).limit(bodyEnd);
+        try {
+            long capturedAt = buf.getLong();
+            byte[] name = new byte[buf.getShort()];
+            buf.get(name);
+            int groupCount = buf.getInt();
+            int hordeCount = buf.getInt();
+            int discardedCount = buf.getInt();
+
+            List<ShardSnapshot.Group> groups = new ArrayList<>(Math.min(groupCount, 1024));
+            for (int i = 0; i < groupCount; i++) {
+                UUID groupId = getUUID(buf);
+                UUID ownerId = getUUID(buf);
+                int state = buf.get();
+                if (state < 0 || state >= STATES.length) {
+                    throw new IOException("Unknown patrol state " + state + " in group " + groupId + ": " + source);
+                }
+                byte flags = buf.get();
+                int waypointIndex = buf.getShort();
+                long millisInState = buf.getLong();
+                long millisSinceSeen = buf.getLong();
+                UUID screamer = (flags & SnapshotFormat.SCREAMER_UUID) != 0 ? getUUID(buf) : null;
+                Vector3d lastKnown = (flags & SnapshotFormat.LAST_KNOWN) != 0 ? getVector(buf) : null;
+
+                int waypointCount = buf.getShort();
+                List<Vector3d> waypoints = new ArrayList<>(waypointCount);
+                for (int w = 0; w < waypointCount; w++) {
+                    waypoints.add(getVector(buf));
+                }
+                int memberCount = buf.getShort();
+                List<ShardSnapshot.Zombie> members = new ArrayList<>(memberCount);
+                for (int m = 0; m < memberCount; m++) {
+                    members.add(new ShardSnapshot.Zombie(getUUID(buf), ownerId, getVector(buf)));
+                }
+
+                groups.add(new ShardSnapshot.Group(groupId, ownerId, STATES[state], millisInState, millisSinceSeen,
+                        waypointIndex, waypoints, (flags & SnapshotFormat.HAS_SCREAMER) != 0, screamer,
+                        (flags & SnapshotFormat.SCREAMED) != 0, (flags & SnapshotFormat.CHASING_NOISE) != 0,
+                        lastKnown, members));
+            }
+
+            List<ShardSnapshot.Zombie> horde = new ArrayList<>(Math.min(hordeCount, 4096));
+            for (int i = 0; i < hordeCount; i++) {
+                horde.add(new ShardSnapshot.Zombie(getUUID(buf), getUUID(buf), getVector(buf)));
+            }
+            List<UUID> discarded = new ArrayList<>(Math.min(discardedCount, 4096));
+            for (int i = 0; i < discardedCount; i++) {
+                discarded.add(getUUID(buf));
+            }
+            if (buf.hasRemaining()) {
+                throw new IOException(buf.remaining() + " unread bytes at the end of zombie snapshot: " + source);
+            }
+            return new ShardSnapshot(new String(name, StandardCharsets.UTF_8), capturedAt, groups, horde, discarded);
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Zombie snapshot shorter than its counts say: " + source, e);
+        }
+    }
+
+    // --- Helpers ---
+
+    private static void putUUID(ByteBuffer buf, UUID uuid) {
+        buf.putLong(uuid.getMostSignificantBits());
+        buf.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUUID(ByteBuffer buf) {
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+
+    private static void putVector(ByteBuffer buf, Vector3d v) {
+        buf.putDouble(v.x);
+        buf.putDouble(v.y);
+        buf.putDouble(v.z);
+    }
+
+    private static Vector3d getVector(ByteBuffer buf) {
+        return new Vector3d(buf.getDouble(), buf.getDouble(), buf.getDouble());
+    }
+}
@@ -0,0 +1,40 @@
+package com.hylypto.zombie.snapshot;
+
+/**
+ * Binary layout of a world snapshot. Big-endian throughout; uuid = long msb, long lsb;
+ * vec = double x, double y, double z.
+ *
+ * <pre>
+ * header:   int magic, short version, long capturedAtEpochMillis, short nameLength, UTF-8 worldName,
+ *           int groupCount, int hordeCount, int discardedCount
+ * group:    uuid groupId, uuid owner, byte stateOrdinal, byte flags, short waypointIndex,
+ *           long millisInState, long millisSincePlayerSeen,
+ *           [uuid screamer]        if SCREAMER_UUID
+ *           [vec lastKnownPlayer]  if LAST_KNOWN
+ *           short waypointCount, waypointCount × vec,
+ *           short memberCount, memberCount × (uuid, vec) — leader first
+ * horde:    uuid zombie, uuid owner, vec
+ * discarded: uuid — parked or queued for despawn
+ * trailer:  int crc32 of every byte before it
+ * </pre>
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x4859534E; // "HYSN"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 4 + 2 + 8 + 2 + 4 + 4 + 4;
+    static final int TRAILER_BYTES = 4;
+    static final int UUID_BYTES = 16;
+    static final int VECTOR_BYTES = 24;
+    static final int GROUP_FIXED_BYTES = 2 * UUID_BYTES + 1 + 1 + 2 + 8 + 8 + 2 + 2;
+    static final int HORDE_BYTES = 2 * UUID_BYTES + VECTOR_BYTES;
+    static final int MEMBER_BYTES = UUID_BYTES + VECTOR_BYTES;
+
+    static final byte HAS_SCREAMER = 1;
+    static final byte SCREAMED = 1 << 1;
+    static final byte SCREAMER_UUID = 1 << 2;
+    static final byte LAST_KNOWN = 1 << 3;
+    static final byte CHASING_NOISE = 1 << 4;
+
+    private SnapshotFormat() {}
+}
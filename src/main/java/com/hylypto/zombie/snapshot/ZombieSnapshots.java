@@ -0,0 +1,194 @@
+package com.hylypto.zombie.snapshot;
+
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.ZombieShard;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Keeps every world's patrols and hordes on disk, so a restart — or a crash — picks them up
+ * where they were instead of despawning them and leaving their entities behind untracked.
+ *
+ * A virtual thread saves each shard every few seconds: the state is captured on the world
+ * thread, then encoded and written out on the saver, so the world only pays for the copy.
+ * Shutdown saves once more and keeps the zombies in the world. On the next start the files
+ * are read before any shard exists; a world's snapshot is restored into its shard when the
+ * shard is created, and the shard then adopts the surviving entities by UUID as they tick.
+ */
+public final class ZombieSnapshots {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(ZombieSnapshots.class, "snapshot");
+    private static final String SUFFIX = ".bin";
+
+    private final SnapshotConfig config;
+    private final Path directory;
+    // Read at startup or when a world unloads, taken by the world's next shard when it is created
+    private final Map<String, ShardSnapshot> pending = new ConcurrentHashMap<>();
+    // The saver and the shutdown save never write the same file at once
+    private final Object writeLock = new Object();
+    private volatile Thread saver;
+
+    public ZombieSnapshots(SnapshotConfig config, Path dataDirectory) {
+        this.config = config;
+        this.directory = dataDirectory.resolve(config.directory);
+    }
+
+    public boolean isEnabled() {
+        return config.enabled;
+    }
+
+    // --- Restore ---
+
+    /** Reads the snapshots the last run left behind. An unreadable file is logged and skipped. */
+    public void loadAll() {
+        if (!config.enabled || !Files.isDirectory(directory)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    ShardSnapshot snapshot = SnapshotFile.read(file);
+                    pending.put(snapshot.worldName(), snapshot);
+                    LOG.info(() -> "Loaded zombie snapshot for world " + snapshot.worldName() + " — "
+                            + snapshot.groups().size() + " patrol groups, " + snapshot.zombieCount() + " zombies");
+                } catch (IOException e) {
+                    LOG.error("Ignoring unreadable zombie snapshot " + file, e);
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Could not list zombie snapshots in " + directory, e);
+        }
+    }
+
+    public boolean hasPending(String worldName) {
+        return pending.containsKey(worldName);
+    }
+
+    /** Hands a newly created shard the snapshot of its world, if one is waiting. Each is restored once. */
+    public void restoreInto(ZombieShard shard) {
+        ShardSnapshot snapshot = pending.remove(shard.getWorldName());
+        if (snapshot != null) {
+            shard.restore(snapshot, config.reconcileSeconds * 1000L);
+        }
+    }
+
+    // --- Saving ---
+
+    /** Starts saving every shard {@code shards} supplies, once per interval. */
+    public void start(Supplier<Collection<ZombieShard>> shards) {
+        if (!config.enabled || saver != null) return;
+        saver = Thread.ofVirtual().name("Hylypto-Snapshots").start(() -> saveLoop(shards));
+        LOG.info(() -> "Zombie snapshots every " + config.intervalSeconds + "s to " + directory);
+    }
+
+    /** Stops the periodic saves, waiting for one in progress to finish. */
+    public void stop() {
+        Thread thread = saver;
+        if (thread == null) return;
+        saver = null;
+        thread.interrupt();
+        try {
+            thread.join(config.captureTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void saveLoop(Supplier<Collection<ZombieShard>> shards) {
+        long intervalMillis = Math.max(1, config.intervalSeconds) * 1000L;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(intervalMillis);
+                for (ZombieShard shard : shards.get()) {
+                    save(shard);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Captures {@code shard} on its world thread and writes it to its world's file from the
+     * calling thread. A shard still reconciling a restore is skipped — the file it was
+     * restored from stays, so a crash before the entities turn up loses nothing.
+     *
+     * @return true if the world's file now holds its current state
+     */
+    public boolean save(ZombieShard shard) {
+        if (!config.enabled) return false;
+        CompletableFuture<ShardSnapshot> captured = new CompletableFuture<>();
+        shard.getZombieWorld().execute("ZombieSnapshots.capture", () -> {
+            try {
+                captured.complete(shard.captureSnapshot());
+            } catch (RuntimeException e) {
+                captured.completeExceptionally(e);
+            }
+        });
+
+        ShardSnapshot snapshot;
+        try {
+            snapshot = captured.get(config.captureTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            HylyptoMetrics.SNAPSHOT_FAILURES.increment();
+            LOG.warn("Could not capture zombie snapshot for world " + shard.getWorldName() + ": " + e);
+            return false;
+        }
+        if (snapshot == null) return false;
+
+        Path file = fileFor(snapshot.worldName());
+        synchronized (writeLock) {
+            // The world unloaded while this was captured — its file keeps the state it unloaded with
+            if (shard.isRemoved()) return false;
+            try {
+                Files.createDirectories(directory);
+                SnapshotFile.write(file, snapshot);
+            } catch (IOException e) {
+                HylyptoMetrics.SNAPSHOT_FAILURES.increment();
+                LOG.error("Failed to write zombie snapshot " + file, e);
+                return false;
+            }
+        }
+        HylyptoMetrics.SNAPSHOTS_WRITTEN.increment();
+        LOG.debug(() -> "Saved zombie snapshot for world " + snapshot.worldName() + " — "
+                + snapshot.groups().size() + " patrol groups, " + snapshot.zombieCount() + " zombies");
+        return true;
+    }
+
+    /**
+     * A world's shard was torn down while its entities unloaded with the world — still listed
+     * in the world's last saved file, which is kept. The file is read back as the world's
+     * pending snapshot, so a shard created when the world loads again in this run adopts them;
+     * otherwise the next start does. Call after the shard is marked removed, so a save in
+     * progress cannot overwrite the file with the emptied shard.
+     */
+    public void release(String worldName) {
+        if (!config.enabled) return;
+        Path file = fileFor(worldName);
+        synchronized (writeLock) {
+            if (!Files.exists(file)) return;
+            try {
+                pending.put(worldName, SnapshotFile.read(file));
+            } catch (IOException e) {
+                LOG.error("Could not re-read zombie snapshot " + file + " — it is restored on the next start", e);
+            }
+        }
+    }
+
+    private Path fileFor(String worldName) {
+        return directory.resolve(worldName.replaceAll("[^A-Za-z0-9._-]", "_") + SUFFIX);
+    }
+}
@@ -0,0 +1,237 @@
+package com.hylypto.zombie.spatial;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid of keyed points on the XZ plane, one cell per chunk by default. Moving a key
+ * within its cell only rewrites its coordinates; crossing a cell boundary is a swap-remove
+ * from one bucket and an append to another. Radius queries visit only the cells overlapping
+ * the circle, and k-nearest walks rings outward and stops as soon as no unvisited cell can
+ * hold anything closer — so both cost roughly the size of what they return.
+ *
+ * Keys are compared with {@code equals}. Not thread-safe — owned by one world's managers and
+ * used on its world thread.
+ */
+public final class SpatialGrid<K> {
+
+    /** Width of a Hytale chunk column in blocks. */
+    public static final int CHUNK_SIZE = 32;
+
+    private static final class Entry<K> {
+        final K key;
+        double x, y, z;
+        long cell;
+        int slot;
+
+        Entry(K key) {
+            this.key = key;
+        }
+    }
+
+    private final int cellSize;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    // Keyed by packed cell coordinates without boxing — queries look up a cell per visited square
+    private final LongMap<List<Entry<K>>> cells = new LongMap<>(64);
+
+    // k-nearest scratch, sorted nearest-first
+    private double[] bestDistSq = new double[0];
+    private Object[] bestKeys = new Object[0];
+
+    public SpatialGrid(int cellSize) {
+        this.cellSize = Math.max(1, cellSize);
+    }
+
+    // --- Updates ---
+
+    /** Inserts {@code key} at (x, y, z), or moves it there. */
+    public void place(K key, double x, double y, double z) {
+        long cell = cellKey(cell(x), cell(z));
+        Entry<K> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(key);
+            entries.put(key, entry);
+            add(entry, cell);
+        } else if (entry.cell != cell) {
+            unlink(entry);
+            add(entry, cell);
+        }
+        entry.x = x;
+        entry.y = y;
+        entry.z = z;
+    }
+
+    public void place(K key, Vector3d position) {
+        place(key, position.x, position.y, position.z);
+    }
+
+    public boolean remove(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) return false;
+        unlink(entry);
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int occupiedCells() {
+        return cells.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        cells.clear();
+    }
+
+    // --- Queries ---
+
+    /**
+     * Adds every key within {@code radius} of (x, z) on the XZ plane to {@code out}, in no
+     * particular order.
+     *
+     * @return the number of keys added
+     */
+    public int within(double x, double z, double radius, Collection<? super K> out) {
+        if (entries.isEmpty()) return 0;
+        double radiusSq = radius * radius;
+        int minX = cell(x - radius), maxX = cell(x + radius);
+        int minZ = cell(z - radius), maxZ = cell(z + radius);
+
+        int added = 0;
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                List<Entry<K>> bucket = cells.get(cellKey(cx, cz));
+                if (bucket == null) continue;
+                for (int i = 0, n = bucket.size(); i < n; i++) {
+                    Entry<K> e = bucket.get(i);
+                    double dx = e.x - x;
+                    double dz = e.z - z;
+                    if (dx * dx + dz * dz <= radiusSq) {
+                        out.add(e.key);
+                        added++;
+                    }
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Adds up to {@code k} keys nearest to (x, z) and no further than {@code maxRadius} to
+     * {@code out}, nearest first.
+     *
+     * @return the number of keys added
+     */
+    @SuppressWarnings("unchecked")
+    public int nearest(double x, double z, int k, double maxRadius, List<? super K> out) {
+        if (k <= 0 || entries.isEmpty()) return 0;
+        if (bestDistSq.length < k) {
+            bestDistSq = new double[k];
+            bestKeys = new Object[k];
+        }
+
+        double maxRadiusSq = maxRadius * maxRadius;
+        int cx = cell(x);
+        int cz = cell(z);
+        int maxRing = (int) Math.min(Integer.MAX_VALUE / 2, (long) Math.ceil(maxRadius / cellSize) + 1);
+        int found = 0;
+        int seen = 0;
+
+        for (int ring = 0; ring <= maxRing && seen < entries.size(); ring++) {
+            // Every cell on this ring is at least (ring - 1) cells away from the query point
+            if (found == k && ring > 1) {
+                double gap = (double) (ring - 1) * cellSize;
+                if (gap * gap > bestDistSq[k - 1]) break;
+            }
+
+            for (int dx = -ring; dx <= ring; dx++) {
+                int dzStep = Math.abs(dx) == ring ? 1 : 2 * ring;
+                for (int dz = -ring; dz <= ring; dz += Math.max(1, dzStep)) {
+                    List<Entry<K>> bucket = cells.get(cellKey(cx + dx, cz + dz));
+                    if (bucket == null) continue;
+                    seen += bucket.size();
+                    for (int i = 0, n = bucket.size(); i < n; i++) {
+                        Entry<K> e = bucket.get(i);
+                        double ex = e.x - x;
+                        double ez = e.z - z;
+                        double distSq = ex * ex + ez * ez;
+                        if (distSq > maxRadiusSq) continue;
+                        if (found == k && distSq >= bestDistSq[k - 1]) continue;
+                        found = insertBest(e.key, distSq, found, k);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < found; i++) {
+            out.add((K) bestKeys[i]);
+            bestKeys[i] = null;
+        }
+        return found;
+    }
+
+    /** The last position placed for {@code key} written into {@code out}, or false if absent. */
+    public boolean positionOf(K key, Vector3d out) {
+        Entry<K> entry = entries.get(key);
+        if (entry == null) return false;
+        out.x = entry.x;
+        out.y = entry.y;
+        out.z = entry.z;
+        return true;
+    }
+
+    // --- Internals ---
+
+    private int insertBest(Object key, double distSq, int found, int k) {
+        int i = Math.min(found, k - 1);
+        while (i > 0 && bestDistSq[i - 1] > distSq) {
+            bestDistSq[i] = bestDistSq[i - 1];
+            bestKeys[i] = bestKeys[i - 1];
+            i--;
+        }
+        bestDistSq[i] = distSq;
+        bestKeys[i] = key;
+        return Math.min(found + 1, k);
+    }
+
+    private void add(Entry<K> entry, long cell) {
+        List<Entry<K>> bucket = cells.get(cell);
+        if (bucket == null) {
+            bucket = new ArrayList<>(4);
+            cells.put(cell, bucket);
+        }
+        entry.cell = cell;
+        entry.slot = bucket.size();
+        bucket.add(entry);
+    }
+
+    private void unlink(Entry<K> entry) {
+        List<Entry<K>> bucket = cells.get(entry.cell);
+        if (bucket == null) return;
+        int last = bucket.size() - 1;
+        Entry<K> moved = bucket.get(last);
+        bucket.set(entry.slot, moved);
+        moved.slot = entry.slot;
+        bucket.remove(last);
+        if (bucket.isEmpty()) cells.remove(entry.cell);
+    }
+
+    private int cell(double coord) {
+        return Math.floorDiv((int) Math.floor(coord), cellSize);
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
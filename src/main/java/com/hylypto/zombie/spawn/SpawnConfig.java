@@ -0,0 +1,21 @@
+package com.hylypto.zombie.spawn;
+
+public class SpawnConfig {
+    // Off = spawn points are scanned for at spawn time
+    public boolean enabled = true;
+
+    // Directions each player's reservoir is split into — a patrol takes from the one it comes from
+    public int sectors = 8;
+
+    // Checked spawn points kept per player, sector and distance band
+    public int pointsPerSector = 2;
+
+    // Candidate checks per world tick across all players, scaled down by the spawn governor when ticks run long
+    public int maxChecksPerTick = 8;
+
+    // Open air a point needs above its headroom — rules out caves, overhangs and roofed builds
+    public int skyClearance = 12;
+
+    // Sectors a player is facing within this cone are passed over at spawn time
+    public double viewConeDegrees = 120.0;
+}
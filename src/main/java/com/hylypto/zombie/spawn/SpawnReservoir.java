@@ -0,0 +1,234 @@
+package com.hylypto.zombie.spawn;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.population.PlayerPresence;
+import com.hylypto.zombie.world.BlockAccess;
+import com.hylypto.zombie.world.PlayerAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Checked spawn points around each player in one world, so a spawn takes a point instead of
+ * scanning the terrain for one.
+ *
+ * Each player's ring is split into {@code sectors} directions and the two distance bands the
+ * managers spawn at. A few candidates are checked every tick — fewer when the spawn governor
+ * is scaling work down — and the emptiest slot is topped up first. A candidate is kept if it
+ * is a surface with headroom and open sky above, which rules out cave ceilings, roofs and
+ * the inside of builds. At spawn time a point is taken from a sector the player isn't facing,
+ * after rechecking that it is still in its band and still standable — three block reads.
+ *
+ * All methods run on the world thread.
+ */
+public final class SpawnReservoir {
+
+    /** The rings the horde and patrol managers spawn on, in blocks from the player. */
+    public enum Band {
+        HORDE(30.0, 50.0),
+        PATROL(80.0, 120.0);
+
+        final double minDistance;
+        final double maxDistance;
+
+        Band(double minDistance, double maxDistance) {
+            this.minDistance = minDistance;
+            this.maxDistance = maxDistance;
+        }
+    }
+
+    private static final Band[] BANDS = Band.values();
+    // Height above the player a candidate's surface scan starts, and how far down it looks
+    private static final int SCAN_ABOVE = 30;
+    private static final int SCAN_RANGE = 60;
+
+    private final SpawnConfig config;
+    private final PlayerPresence presence;
+    private final int sectors;
+    private final double sectorWidth;
+    private final double halfCone;
+    private final Map<UUID, ArrayDeque<Vector3d>[]> reservoirs = new HashMap<>();
+    private final List<UUID> playerScratch = new ArrayList<>();
+    private int playerCursor;
+    private int anySectorCursor;
+    private int reservedCount;
+
+    public SpawnReservoir(SpawnConfig config, PlayerPresence presence) {
+        this.config = config;
+        this.presence = presence;
+        this.sectors = Math.max(1, config.sectors);
+        this.sectorWidth = 2 * Math.PI / sectors;
+        this.halfCone = Math.toRadians(config.viewConeDegrees) / 2;
+    }
+
+    // --- Refill ---
+
+    /**
+     * Checks up to this tick's share of candidates, round-robin over the players in this world,
+     * and forgets players who have left it.
+     *
+     * @param scale the spawn governor's current scale — the check budget shrinks with it
+     */
+    public void refill(ZombieWorld world, double scale) {
+        if (!config.enabled) return;
+        PlayerAccess players = world.players();
+        playerScratch.clear();
+        playerScratch.addAll(presence.online());
+        if (playerScratch.isEmpty()) {
+            clear();
+            return;
+        }
+
+        SplittableRandom rng = world.random().stream("spawn.reservoir");
+        BlockAccess blocks = world.blocks();
+        int checks = Math.max(1, (int) Math.round(config.maxChecksPerTick * scale));
+        for (int visited = 0; checks > 0 && visited < playerScratch.size(); visited++) {
+            UUID playerId = playerScratch.get(Math.floorMod(playerCursor++, playerScratch.size()));
+            Vector3d playerPos = players.positionOf(playerId);
+            if (playerPos == null) {
+                drop(playerId);
+                continue;
+            }
+            ArrayDeque<Vector3d>[] slots = reservoirs.computeIfAbsent(playerId, id -> newSlots());
+            int slot = emptiestSlot(slots);
+            if (slot < 0) continue;
+            checks--;
+            Vector3d point = check(blocks, playerPos, BANDS[slot / sectors], slot % sectors, rng);
+            if (point != null) {
+                slots[slot].addLast(point);
+                reservedCount++;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArrayDeque<Vector3d>[] newSlots() {
+        ArrayDeque<Vector3d>[] slots = new ArrayDeque[BANDS.length * sectors];
+        for (int i = 0; i < slots.length; i++) slots[i] = new ArrayDeque<>();
+        return slots;
+    }
+
+    private int emptiestSlot(ArrayDeque<Vector3d>[] slots) {
+        int best = -1;
+        int bestSize = config.pointsPerSector;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i].size() < bestSize) {
+                best = i;
+                bestSize = slots[i].size();
+            }
+        }
+        return best;
+    }
+
+    /** A random point in the sector and band, if it passes the terrain checks. */
+    private Vector3d check(BlockAccess blocks, Vector3d playerPos, Band band, int sector, SplittableRandom rng) {
+        HylyptoMetrics.SPAWN_POINTS_CHECKED.increment();
+        double angle = (sector + rng.nextDouble()) * sectorWidth;
+        double dist = band.minDistance + rng.nextDouble() * (band.maxDistance - band.minDistance);
+        double x = playerPos.x + Math.cos(angle) * dist;
+        double z = playerPos.z + Math.sin(angle) * dist;
+        int bx = (int) Math.floor(x), bz = (int) Math.floor(z);
+
+        int startY = (int) playerPos.y + SCAN_ABOVE;
+        int y = (int) blocks.findSurfaceY(bx, startY, bz, SCAN_RANGE);
+        // Nothing found — the scan falls back to where it started
+        if (y == startY || !isStandable(blocks, bx, y, bz)) return null;
+        for (int dy = 2; dy < 2 + config.skyClearance; dy++) {
+            if (!blocks.isEmpty(bx, y + dy, bz)) return null;
+        }
+        return new Vector3d(bx + 0.5, y, bz + 0.5);
+    }
+
+    private static boolean isStandable(BlockAccess blocks, int x, int y, int z) {
+        return blocks.isEmpty(x, y, z) && blocks.isEmpty(x, y + 1, z) && !blocks.isEmpty(x, y - 1, z);
+    }
+
+    // --- Taking points ---
+
+    /**
+     * A checked spawn point for {@code playerId} in {@code band}, or null if there is none
+     * ready — the caller scans for one as before.
+     *
+     * @param angle direction from the player the point should lie in, within a sector either
+     *              side; NaN for any direction the player isn't facing
+     */
+    public Vector3d take(UUID playerId, Vector3d playerPos, Band band, double angle, ZombieWorld world) {
+        if (!config.enabled) return null;
+        ArrayDeque<Vector3d>[] slots = reservoirs.get(playerId);
+        if (slots == null) {
+            HylyptoMetrics.SPAWN_POINTS_MISSED.increment();
+            return null;
+        }
+
+        double yaw = Math.toRadians(world.players().yawOf(playerId));
+        BlockAccess blocks = world.blocks();
+        int base = band.ordinal() * sectors;
+        if (Double.isNaN(angle)) {
+            // Rotate through the sectors so successive spawns spread around the player
+            int start = anySectorCursor++;
+            for (int i = 0; i < sectors; i++) {
+                Vector3d point = takeFrom(slots, base, Math.floorMod(start + i, sectors), playerPos, band, yaw, blocks);
+                if (point != null) return point;
+            }
+        } else {
+            int wanted = Math.floorMod((int) Math.floor(angle / sectorWidth), sectors);
+            for (int offset : new int[] {0, 1, -1}) {
+                Vector3d point = takeFrom(slots, base, Math.floorMod(wanted + offset, sectors), playerPos, band, yaw, blocks);
+                if (point != null) return point;
+            }
+        }
+        HylyptoMetrics.SPAWN_POINTS_MISSED.increment();
+        return null;
+    }
+
+    private Vector3d takeFrom(ArrayDeque<Vector3d>[] slots, int base, int sector, Vector3d playerPos, Band band,
+                              double yaw, BlockAccess blocks) {
+        if (isFacing(sector, yaw)) return null;
+        ArrayDeque<Vector3d> slot = slots[base + sector];
+        for (Vector3d point; (point = slot.pollLast()) != null; ) {
+            reservedCount--;
+            // The player moved or the terrain changed since the point was checked
+            double dx = point.x - playerPos.x, dz = point.z - playerPos.z;
+            double distSq = dx * dx + dz * dz;
+            if (distSq < band.minDistance * band.minDistance || distSq > band.maxDistance * band.maxDistance
+                    || !isStandable(blocks, (int) Math.floor(point.x), (int) point.y, (int) Math.floor(point.z))) {
+                HylyptoMetrics.SPAWN_POINTS_STALE.increment();
+                continue;
+            }
+            HylyptoMetrics.SPAWN_POINTS_TAKEN.increment();
+            return point;
+        }
+        return null;
+    }
+
+    /** True if the centre of {@code sector} is inside the view cone around {@code yaw}. */
+    private boolean isFacing(int sector, double yaw) {
+        if (Double.isNaN(yaw)) return false;
+        double diff = Math.abs(Math.IEEEremainder((sector + 0.5) * sectorWidth - yaw, 2 * Math.PI));
+        return diff < halfCone;
+    }
+
+    // --- Upkeep ---
+
+    private void drop(UUID playerId) {
+        ArrayDeque<Vector3d>[] slots = reservoirs.remove(playerId);
+        if (slots == null) return;
+        for (ArrayDeque<Vector3d> slot : slots) reservedCount -= slot.size();
+    }
+
+    public int getReservedCount() {
+        return reservedCount;
+    }
+
+    public void clear() {
+        reservoirs.clear();
+        reservedCount = 0;
+    }
+}
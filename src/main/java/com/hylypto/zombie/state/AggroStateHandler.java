@@ -1,73 +1,100 @@
 package com.hylypto.zombie.state;
 
-import com.hypixel.hytale.builtin.path.path.TransientPath;
-import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.math.vector.Vector3f;
-import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.npc.entities.NPCEntity;
-import com.hylypto.zombie.PatrolConfig;
+import com.hylypto.api.metrics.HylyptoMetrics;
 import com.hylypto.zombie.PatrolGroup;
+import com.hylypto.zombie.PatrolSettings;
 import com.hylypto.zombie.blockbreak.BlockBreakTracker;
-import com.hylypto.zombie.detection.PlayerFinder;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.motion.PlayerMotionTracker;
+import com.hylypto.zombie.jfr.PathAssignEvent;
+import com.hylypto.zombie.replay.DecisionLog;
 import com.hylypto.zombie.screamer.ScreamerManager;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+import com.hylypto.api.log.HylyptoLog;
+
+import java.util.UUID;
 
 /**
  * Aggro state — updates TransientPath to point at the player so the engine's
  * Path BodyMotion walks the zombies toward them. The Attack action on the
  * instruction handles melee combat when within AttackDistance.
+ * Last-seen time and chase target live on the group, so one handler serves every group.
  */
 public class AggroStateHandler implements PatrolStateHandler {
 
-    private static final System.Logger LOG = System.getLogger(AggroStateHandler.class.getName());
+    private static final HylyptoLog LOG = HylyptoLog.get(AggroStateHandler.class, "patrol.state");
+    private static final HylyptoLog PATH_LOG = HylyptoLog.get(AggroStateHandler.class, "patrol.path");
+    // A member this close to its ring slot has arrived — it isn't stuck, so it doesn't swing
+    private static final double SLOT_REACHED_SQ = 1.5 * 1.5;
 
-    private final PatrolConfig config;
     private final ScreamerManager screamerManager;
     private final BlockBreakTracker blockBreakTracker;
+    private final PlayerMotionTracker motion;
+    private final DecisionLog decisions;
+    // Scratch — one handler per world, ticked on its thread
+    private final Vector3d velocity = new Vector3d();
+    private final Vector3d aim = new Vector3d();
 
-    private long lastPlayerSeenMillis = 0;
-    private Vector3d lastAssignedTarget = null;
-
-    public AggroStateHandler(PatrolConfig config, ScreamerManager screamerManager,
-                              BlockBreakTracker blockBreakTracker) {
-        this.config = config;
+    /**
+     * @param motion player velocities — groups aim at where a moving player will be when they meet
+     */
+    public AggroStateHandler(ScreamerManager screamerManager, BlockBreakTracker blockBreakTracker,
+                              PlayerMotionTracker motion, DecisionLog decisions) {
         this.screamerManager = screamerManager;
         this.blockBreakTracker = blockBreakTracker;
+        this.motion = motion;
+        this.decisions = decisions;
     }
 
     @Override
-    public PatrolState tick(PatrolGroup group, Store<EntityStore> store) {
-        Vector3d centroid = calculateCentroid(group, store);
-        if (centroid == null) return PatrolState.AGGRO;
+    public PatrolState tick(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        EntityAccess entities = world.entities();
+        Vector3d centroid = group.getCentroidScratch();
+        if (!VecMath.centroid(group.getMemberUUIDs(), entities, centroid)) return PatrolState.AGGRO;
 
-        Vector3d nearestPlayer = PlayerFinder.findNearest(store, centroid);
+        Vector3d nearestPlayer = world.players().findNearest(centroid);
+        long now = world.currentTimeMillis();
 
         if (nearestPlayer != null) {
             boolean playerInRange = false;
-            for (Ref<EntityStore> ref : group.getMemberRefs()) {
-                if (!ref.isValid()) continue;
-                TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
-                if (transform == null) continue;
-                if (transform.getPosition().distanceTo(nearestPlayer) <= config.aggroRange) {
+            for (UUID uuid : group.getMemberUUIDs()) {
+                Vector3d pos = entities.getPosition(uuid);
+                if (pos == null) continue;
+                if (pos.distanceSquaredTo(nearestPlayer) <= settings.aggroRangeSq) {
                     playerInRange = true;
                     break;
                 }
             }
 
             if (playerInRange) {
-                lastPlayerSeenMillis = System.currentTimeMillis();
-                group.setLastKnownPlayerPosition(nearestPlayer);
+                group.setLastPlayerSeenMillis(now);
+                group.rememberPlayerPosition(nearestPlayer);
+                if (motion.velocityNear(nearestPlayer, velocity)) group.rememberPlayerVelocity(velocity);
+
+                // Aim ahead of a moving player. Against a steady runner the intercept point barely
+                // moves, so the group is re-pathed far less often than when it trailed the player
+                motion.intercept(nearestPlayer, group.getLastKnownPlayerVelocity(), centroid, aim);
+
+                // Re-assign slots only once the aim point has moved past the threshold, which grows
+                // with the group's distance from it — only then allocate a target
+                Vector3d lastTarget = group.getLastChaseTarget();
+                if (lastTarget == null || VecMath.distanceSq(aim, lastTarget) > Math.max(settings.chaseRepathDistanceSq,
+                        settings.chaseRepathFractionSq * VecMath.distanceSq(centroid, lastTarget))) {
+                    Vector3d target = VecMath.copy(aim);
+                    assignChasePath(group, world, target, settings);
+                    group.setLastChaseTarget(target);
+                }
 
-                // Re-assign chase path if player moved significantly (>3 blocks)
-                if (lastAssignedTarget == null || nearestPlayer.distanceTo(lastAssignedTarget) > 3.0) {
-                    assignChasePath(group, store, nearestPlayer);
-                    lastAssignedTarget = nearestPlayer;
+                // A group that charged a noise screams once it actually finds someone
+                if (group.hasScreamer() && !group.hasScreamed()) {
+                    screamerManager.onScream(group, settings, now);
+                    group.setHasScreamed(true);
                 }
 
-                if (config.blockBreakEnabled) {
-                    checkStuckZombiesForBlockBreak(group, store);
+                if (settings.blockBreakEnabled) {
+                    checkStuckZombiesForBlockBreak(group, entities, settings);
                 }
 
                 return PatrolState.AGGRO;
@@ -75,10 +102,9 @@ public class AggroStateHandler implements PatrolStateHandler {
         }
 
         // Player not in range — check timeout
-        long timeSinceLastSeen = System.currentTimeMillis() - lastPlayerSeenMillis;
-        if (timeSinceLastSeen >= config.aggroTimeoutSeconds * 1000L) {
-            LOG.log(System.Logger.Level.INFO,
-                    "Patrol " + group.getGroupId() + " — lost player for " + config.aggroTimeoutSeconds + "s, switching to SEARCHING");
+        long timeSinceLastSeen = now - group.getLastPlayerSeenMillis();
+        if (timeSinceLastSeen >= settings.aggroTimeoutMillis) {
+            LOG.info(() -> "Patrol " + group.getGroupId() + " — lost player for " + timeSinceLastSeen + "ms, switching to SEARCHING");
             return PatrolState.SEARCHING;
         }
 
@@ -86,93 +112,82 @@ public class AggroStateHandler implements PatrolStateHandler {
     }
 
     @Override
-    public void onEnter(PatrolGroup group, Store<EntityStore> store) {
-        LOG.log(System.Logger.Level.INFO, "[AGGRO-ENTER] group=" + group.getGroupId()
+    public void onEnter(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        LOG.info(() -> "[AGGRO-ENTER] group=" + group.getGroupId()
                 + " — AGGRO! members=" + group.size());
-        lastPlayerSeenMillis = System.currentTimeMillis();
-        lastAssignedTarget = null;
-
-        // Assign a TransientPath toward the player — Path BodyMotion walks them there
-        Vector3d playerPos = group.getLastKnownPlayerPosition();
-        if (playerPos != null) {
-            assignChasePath(group, store, playerPos);
-            lastAssignedTarget = playerPos;
+        group.setLastPlayerSeenMillis(world.currentTimeMillis());
+        group.setLastChaseTarget(null);
+
+        // Assign a TransientPath toward the player, ahead of them if they were seen moving —
+        // Path BodyMotion walks them there
+        Vector3d lastKnown = group.getLastKnownPlayerPosition();
+        Vector3d playerPos = null;
+        if (lastKnown != null) {
+            motion.intercept(lastKnown, group.getLastKnownPlayerVelocity(), group.getCentroidScratch(), aim);
+            playerPos = VecMath.copy(aim);
+            assignChasePath(group, world, playerPos, settings);
+            group.setLastChaseTarget(playerPos);
         }
 
-        // Trigger screamer on first aggro
-        if (group.hasScreamer() && !group.hasScreamed() && playerPos != null) {
-            screamerManager.onScream(group);
+        // Trigger screamer on first aggro — not when only a noise was heard
+        if (group.hasScreamer() && !group.hasScreamed() && playerPos != null && !group.isChasingNoise()) {
+            screamerManager.onScream(group, settings, world.currentTimeMillis());
             group.setHasScreamed(true);
         }
     }
 
     @Override
-    public void onExit(PatrolGroup group, Store<EntityStore> store) {
-        lastAssignedTarget = null;
+    public void onExit(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        group.setLastChaseTarget(null);
+        group.clearChaseSlots();
     }
 
     /**
-     * Sets a TransientPath with a single waypoint at the player's position.
-     * The engine's Path BodyMotion follows it, and Attack action fires when close.
+     * Sets each member a TransientPath with a single waypoint at its slot on a ring around the
+     * player. The engine's Path BodyMotion follows it, and Attack action fires when close.
      */
-    private void assignChasePath(PatrolGroup group, Store<EntityStore> store, Vector3d target) {
-        TransientPath path = new TransientPath();
-        path.addWaypoint(target, new Vector3f(0, 0, 0));
-
-        int assigned = 0;
-        for (Ref<EntityStore> ref : group.getMemberRefs()) {
-            if (!ref.isValid()) continue;
-            try {
-                NPCEntity npc = store.getComponent(ref, NPCEntity.getComponentType());
-                if (npc != null) {
-                    npc.getPathManager().setTransientPath(path);
-                    assigned++;
-                }
-            } catch (Exception e) {
-                LOG.log(System.Logger.Level.ERROR, "[AGGRO-PATH] Failed to assign chase path: " + e.getMessage());
-            }
-        }
-        LOG.log(System.Logger.Level.DEBUG, "[AGGRO-PATH] Assigned chase path to " + assigned
+    private void assignChasePath(PatrolGroup group, ZombieWorld world, Vector3d target, PatrolSettings settings) {
+        PathAssignEvent pathEvent = new PathAssignEvent();
+        pathEvent.begin();
+
+        decisions.chaseTarget(group.getGroupId(), target, world.currentTimeMillis());
+        int assigned = SurroundSlots.assign(group, world, target, settings);
+        HylyptoMetrics.CHASE_REPATHS.increment();
+        PATH_LOG.debug(() -> "[AGGRO-PATH] Assigned chase path to " + assigned
                 + " NPCs toward (" + (int) target.x + "," + (int) target.y + "," + (int) target.z + ")");
+
+        pathEvent.end();
+        if (pathEvent.shouldCommit()) {
+            pathEvent.source = "aggro";
+            pathEvent.groupId = group.getGroupId().toString();
+            pathEvent.waypoints = 1;
+            pathEvent.assigned = assigned;
+            pathEvent.commit();
+        }
     }
 
-    private void checkStuckZombiesForBlockBreak(PatrolGroup group, Store<EntityStore> store) {
+    private void checkStuckZombiesForBlockBreak(PatrolGroup group, EntityAccess entities, PatrolSettings settings) {
         Vector3d target = group.getLastKnownPlayerPosition();
         if (target == null) return;
 
-        for (Ref<EntityStore> ref : group.getMemberRefs()) {
-            if (!ref.isValid()) continue;
-            TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
-            if (transform == null) continue;
+        for (UUID uuid : group.getMemberUUIDs()) {
+            Vector3d pos = entities.getPosition(uuid);
+            if (pos == null) continue;
 
-            Vector3d pos = transform.getPosition();
-            double dx = target.x - pos.x;
-            double dz = target.z - pos.z;
-            double len = Math.sqrt(dx * dx + dz * dz);
-            if (len < 0.1) continue;
+            // Swing toward the member's own slot, not through the allies between it and the player
+            Vector3d slot = group.getChaseSlot(uuid);
+            Vector3d stuckTarget = slot != null ? slot : target;
+            double dx = stuckTarget.x - pos.x;
+            double dz = stuckTarget.z - pos.z;
+            double lenSq = dx * dx + dz * dz;
+            if (lenSq < (slot != null ? SLOT_REACHED_SQ : 0.01)) continue;
+            double len = Math.sqrt(lenSq);
 
             int blockX = (int) Math.floor(pos.x + (dx / len));
             int blockY = (int) Math.floor(pos.y + 0.5);
             int blockZ = (int) Math.floor(pos.z + (dz / len));
 
-            blockBreakTracker.hitBlock(blockX, blockY, blockZ);
-        }
-    }
-
-    private Vector3d calculateCentroid(PatrolGroup group, Store<EntityStore> store) {
-        double sumX = 0, sumY = 0, sumZ = 0;
-        int count = 0;
-        for (Ref<EntityStore> ref : group.getMemberRefs()) {
-            if (!ref.isValid()) continue;
-            TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
-            if (transform == null) continue;
-            Vector3d pos = transform.getPosition();
-            sumX += pos.x;
-            sumY += pos.y;
-            sumZ += pos.z;
-            count++;
+            blockBreakTracker.hitBlock(blockX, blockY, blockZ, settings);
         }
-        if (count == 0) return null;
-        return new Vector3d(sumX / count, sumY / count, sumZ / count);
     }
 }
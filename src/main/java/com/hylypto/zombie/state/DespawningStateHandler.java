@@ -1,104 +1,83 @@
 package com.hylypto.zombie.state;
 
-import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.component.RemoveReason;
-import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hylypto.zombie.PatrolConfig;
+import com.hylypto.api.metrics.HylyptoMetrics;
 import com.hylypto.zombie.PatrolGroup;
-import com.hylypto.zombie.detection.PlayerFinder;
-
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.despawn.DespawnQueue;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.world.ZombieWorld;
+import com.hylypto.api.log.HylyptoLog;
+
+import java.util.ArrayList;
+
+/**
+ * Despawning state — waits until the group is out of every player's sight, then hands its
+ * members to the world's {@link DespawnQueue} and marks the group despawned so PatrolManager
+ * drops it. The queue applies the removals over the following ticks. Only a group that left
+ * every player's despawn distance is queued as recyclable; the fallbacks remove outright.
+ */
 public class DespawningStateHandler implements PatrolStateHandler {
 
-    private static final System.Logger LOG = System.getLogger(DespawningStateHandler.class.getName());
+    private static final HylyptoLog LOG = HylyptoLog.get(DespawningStateHandler.class, "patrol.state");
     private static final long DESPAWN_TIMEOUT_MS = 15_000;
 
-    private final PatrolConfig config;
+    private final DespawnQueue despawns;
 
-    public DespawningStateHandler(PatrolConfig config) {
-        this.config = config;
+    public DespawningStateHandler(DespawnQueue despawns) {
+        this.despawns = despawns;
     }
 
     @Override
-    public PatrolState tick(PatrolGroup group, Store<EntityStore> store) {
+    public PatrolState tick(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
         // Timeout fallback — if we've been in DESPAWNING for too long, force remove
-        if (group.millisInCurrentState() >= DESPAWN_TIMEOUT_MS) {
-            LOG.log(System.Logger.Level.INFO,
-                    "Patrol " + group.getGroupId() + " — despawn timeout, force removing");
-            removeAllMembers(group, store);
+        if (group.millisInCurrentState(world.currentTimeMillis()) >= DESPAWN_TIMEOUT_MS) {
+            LOG.info(() -> "Patrol " + group.getGroupId() + " — despawn timeout, force removing");
+            queueAllMembers(group, world, false);
             return PatrolState.DESPAWNING;
         }
 
-        Vector3d centroid = calculateCentroid(group, store);
-        if (centroid == null) {
-            // No valid members left — already cleaned up
+        Vector3d centroid = group.getCentroidScratch();
+        if (!VecMath.centroid(group.getMemberUUIDs(), world.entities(), centroid)) {
+            // No valid members left — the queue just drops their stale handles
+            queueAllMembers(group, world, false);
             return PatrolState.DESPAWNING;
         }
 
-        Vector3d nearestPlayer = PlayerFinder.findNearest(store, centroid);
+        Vector3d nearestPlayer = world.players().findNearest(centroid);
 
         // If no players online, remove immediately
         if (nearestPlayer == null) {
-            removeAllMembers(group, store);
+            queueAllMembers(group, world, false);
             return PatrolState.DESPAWNING;
         }
 
         // Check if group centroid is far enough from player to despawn
-        if (centroid.distanceTo(nearestPlayer) >= config.despawnDistanceFromPlayer) {
-            LOG.log(System.Logger.Level.INFO,
-                    "Patrol " + group.getGroupId() + " — far enough from players, removing entities");
-            removeAllMembers(group, store);
+        if (centroid.distanceSquaredTo(nearestPlayer) >= settings.despawnDistanceSq) {
+            LOG.info(() -> "Patrol " + group.getGroupId() + " — far enough from players, removing entities");
+            queueAllMembers(group, world, true);
         }
 
         return PatrolState.DESPAWNING;
     }
 
     @Override
-    public void onEnter(PatrolGroup group, Store<EntityStore> store) {
-        LOG.log(System.Logger.Level.INFO,
-                "Patrol " + group.getGroupId() + " — entering DESPAWNING state (" + group.size() + " members)");
+    public void onEnter(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        LOG.info(() -> "Patrol " + group.getGroupId() + " — entering DESPAWNING state (" + group.size() + " members)");
     }
 
     @Override
-    public void onExit(PatrolGroup group, Store<EntityStore> store) {}
+    public void onExit(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {}
 
-    private void removeAllMembers(PatrolGroup group, Store<EntityStore> store) {
-        int removed = 0;
-        for (Ref<EntityStore> ref : group.getMemberRefs()) {
-            try {
-                if (ref.isValid()) {
-                    store.removeEntity(ref, RemoveReason.REMOVE);
-                    removed++;
-                }
-            } catch (Exception e) {
-                // Entity may have already been removed
-            }
-        }
-        group.getMemberRefs().clear();
+    private void queueAllMembers(PatrolGroup group, ZombieWorld world, boolean recyclable) {
         // DON'T clear memberUUIDs here — PatrolManager.cleanupGroup() needs them
         // to remove entries from the zombieToGroup map
-        LOG.log(System.Logger.Level.INFO,
-                "Patrol " + group.getGroupId() + " — removed " + removed + " entities");
-    }
-
-    private Vector3d calculateCentroid(PatrolGroup group, Store<EntityStore> store) {
-        double sumX = 0, sumY = 0, sumZ = 0;
-        int count = 0;
-
-        for (Ref<EntityStore> ref : group.getMemberRefs()) {
-            if (!ref.isValid()) continue;
-            TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
-            if (transform == null) continue;
-            Vector3d pos = transform.getPosition();
-            sumX += pos.x;
-            sumY += pos.y;
-            sumZ += pos.z;
-            count++;
-        }
-
-        if (count == 0) return null;
-        return new Vector3d(sumX / count, sumY / count, sumZ / count);
+        String groupId = group.getGroupId().toString();
+        despawns.enqueue("patrol-group", groupId, new ArrayList<>(group.getMemberUUIDs()), world, recyclable)
+                .thenAccept(result -> {
+                    HylyptoMetrics.PATROL_ZOMBIES_DESPAWNED.add(result.removed());
+                    LOG.info("Patrol " + groupId + " — removed " + result.removed() + " entities");
+                });
+        group.markDespawned();
     }
 }
@@ -0,0 +1,51 @@
+package com.hylypto.zombie.state;
+
+import java.util.Locale;
+
+/**
+ * Where followers stand relative to their group's leader. Slots are offsets in the leader's
+ * frame — {@code lateral} to its side, {@code back} behind it along its heading — so the
+ * formation turns with the leader.
+ */
+public enum Formation {
+    /** Every member walks the route itself. */
+    NONE,
+    /** Two diverging lines behind the leader. */
+    WEDGE,
+    /** Single file. */
+    COLUMN,
+    /** A loose disc around the leader, filled from the inside out. */
+    BLOB;
+
+    // Golden angle — consecutive blob slots never line up
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+
+    /** Lateral offset of follower {@code slot} (0-based), in blocks. */
+    double lateral(int slot, double spacing) {
+        return switch (this) {
+            case NONE, COLUMN -> 0;
+            case WEDGE -> (slot % 2 == 0 ? -1 : 1) * (slot / 2 + 1) * spacing;
+            case BLOB -> spacing * Math.sqrt(slot + 1) * Math.sin(slot * GOLDEN_ANGLE);
+        };
+    }
+
+    /** Distance of follower {@code slot} behind the leader, in blocks — negative is ahead. */
+    double back(int slot, double spacing) {
+        return switch (this) {
+            case NONE -> 0;
+            case WEDGE -> (slot / 2 + 1) * spacing;
+            case COLUMN -> (slot + 1) * spacing;
+            case BLOB -> spacing * Math.sqrt(slot + 1) * Math.cos(slot * GOLDEN_ANGLE);
+        };
+    }
+
+    /** The formation named by a config value, case-insensitively, or null if there is none. */
+    public static Formation parse(String name) {
+        if (name == null) return null;
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hylypto.zombie.state;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.zombie.PatrolGroup;
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Leader-follower movement for patrol groups — shared by the forming and patrolling handlers.
+ * Only the leader is given the route; each follower is sent to its formation slot behind the
+ * leader, and sent again only once the slot has moved further than the configured tolerance,
+ * so the engine follows one route per group instead of one per member.
+ *
+ * The leader keeps walking while followers head for their slots, so slots are placed where it
+ * will be by the next group tick — ahead by the distance it covered since the last one — and
+ * the tolerance grows by that same distance.
+ */
+final class FormationKeeper {
+
+    private FormationKeeper() {}
+
+    /** The members that should be given the group's route — the leader alone while in formation. */
+    static Iterable<UUID> routeWalkers(PatrolGroup group, PatrolSettings settings) {
+        UUID leader = group.getLeaderUUID();
+        if (settings.formation == Formation.NONE || leader == null) return group.getMemberUUIDs();
+        return List.of(leader);
+    }
+
+    /**
+     * Sends followers whose slot has moved to their new slot. The leader faces its current
+     * waypoint, or keeps its last heading once the route is used up. Called once per group tick.
+     *
+     * @return how many followers were sent somewhere
+     */
+    static int hold(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        Formation formation = settings.formation;
+        UUID leader = group.getLeaderUUID();
+        if (formation == Formation.NONE || leader == null || group.getFollowers().isEmpty()) return 0;
+
+        EntityAccess entities = world.entities();
+        Vector3d leaderPos = entities.getPosition(leader);
+        if (leaderPos == null) return 0;
+
+        // Distance the leader covers per group tick — its speed times the tick interval
+        double step = group.sampleLeaderStep(leaderPos);
+        // A leader out of waypoints stops; otherwise it gets no further than its waypoint
+        double lead = 0;
+        Vector3d waypoint = group.getCurrentWaypoint();
+        if (waypoint != null) {
+            double dx = waypoint.x - leaderPos.x;
+            double dz = waypoint.z - leaderPos.z;
+            double len = Math.sqrt(dx * dx + dz * dz);
+            if (len > 1e-3) group.setHeading(dx / len, dz / len);
+            lead = Math.min(step, len);
+        }
+        double forwardX = group.getHeadingX(), forwardZ = group.getHeadingZ();
+        double rightX = -forwardZ, rightZ = forwardX;
+        double aheadX = leaderPos.x + forwardX * lead;
+        double aheadZ = leaderPos.z + forwardZ * lead;
+        double tolerance = settings.formationSlotTolerance + step;
+        double toleranceSq = tolerance * tolerance;
+
+        double spacing = settings.formationSpacing;
+        List<UUID> followers = group.getFollowers();
+        int sent = 0;
+        for (int i = 0; i < followers.size(); i++) {
+            UUID follower = followers.get(i);
+            double lateral = formation.lateral(i, spacing);
+            double back = formation.back(i, spacing);
+            double slotX = aheadX + rightX * lateral - forwardX * back;
+            double slotZ = aheadZ + rightZ * lateral - forwardZ * back;
+
+            Vector3d last = group.getFollowerSlot(follower);
+            if (last != null && VecMath.distanceSqXZ(last.x, last.z, slotX, slotZ) <= toleranceSq) {
+                continue;
+            }
+            Vector3d slot = new Vector3d(slotX, leaderPos.y, slotZ);
+            if (entities.setPath(List.of(follower), List.of(slot)) > 0) {
+                group.setFollowerSlot(follower, slot);
+                sent++;
+            }
+        }
+        return sent;
+    }
+}
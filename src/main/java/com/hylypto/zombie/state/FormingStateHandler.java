@@ -1,33 +1,31 @@
 package com.hylypto.zombie.state;
 
-import com.hypixel.hytale.component.Store;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hylypto.zombie.PatrolConfig;
 import com.hylypto.zombie.PatrolGroup;
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.world.ZombieWorld;
+import com.hylypto.api.log.HylyptoLog;
 
 public class FormingStateHandler implements PatrolStateHandler {
 
-    private static final System.Logger LOG = System.getLogger(FormingStateHandler.class.getName());
-    private final PatrolConfig config;
-
-    public FormingStateHandler(PatrolConfig config) {
-        this.config = config;
-    }
+    private static final HylyptoLog LOG = HylyptoLog.get(FormingStateHandler.class, "patrol.state");
 
     @Override
-    public PatrolState tick(PatrolGroup group, Store<EntityStore> store) {
-        long elapsed = group.millisInCurrentState();
-        if (elapsed >= config.swarmFormationSeconds * 1000L) {
-            LOG.log(System.Logger.Level.INFO,
-                    "Patrol " + group.getGroupId() + " formed (" + group.size() + " members) — starting patrol");
+    public PatrolState tick(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        long elapsed = group.millisInCurrentState(world.currentTimeMillis());
+        if (elapsed >= settings.swarmFormationMillis) {
+            LOG.info(() -> "Patrol " + group.getGroupId() + " formed (" + group.size() + " members) — starting patrol");
             return PatrolState.PATROLLING;
         }
+        // Followers gather into their slots around the leader while the group waits
+        FormationKeeper.hold(group, world, settings);
         return PatrolState.FORMING;
     }
 
     @Override
-    public void onEnter(PatrolGroup group, Store<EntityStore> store) {}
+    public void onEnter(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        group.clearFollowerSlots();
+    }
 
     @Override
-    public void onExit(PatrolGroup group, Store<EntityStore> store) {}
+    public void onExit(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {}
 }
@@ -0,0 +1,35 @@
+package com.hylypto.zombie.state;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.PatrolGroup;
+import com.hylypto.zombie.noise.NoiseGrid;
+
+/**
+ * How a patrol group hears — shared by the patrolling and searching handlers.
+ */
+final class NoiseHearing {
+
+    private NoiseHearing() {}
+
+    /**
+     * The loudest source audible at the group's centroid that the group hasn't already
+     * followed, or null. A heard source becomes the group's investigate target: its origin
+     * is stored as the last known position, which SEARCHING and AGGRO path toward.
+     */
+    static NoiseGrid.Heard listen(NoiseGrid noise, PatrolGroup group, Vector3d centroid) {
+        if (noise.isQuiet()) return null;
+
+        NoiseGrid.Heard heard = noise.loudestAt(centroid.x, centroid.z);
+        if (heard == null || heard.sourceId() == group.getLastHeardNoise()) return null;
+        if (heard.level() < noise.getConfig().investigateLevel) return null;
+
+        group.rememberNoise(heard.origin(), heard.sourceId());
+        HylyptoMetrics.NOISE_REACTIONS.increment();
+        return heard;
+    }
+
+    static boolean isAlarming(NoiseGrid noise, NoiseGrid.Heard heard) {
+        return heard.level() >= noise.getConfig().aggroLevel;
+    }
+}
@@ -1,14 +1,18 @@
 package com.hylypto.zombie.state;
 
-import com.hypixel.hytale.component.Store;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hylypto.zombie.PatrolGroup;
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.world.ZombieWorld;
 
+/**
+ * One state of the patrol machine. {@code settings} is the snapshot current when the group
+ * tick began — handlers use it for the whole tick rather than re-reading the live config.
+ */
 public interface PatrolStateHandler {
 
-    PatrolState tick(PatrolGroup group, Store<EntityStore> store);
+    PatrolState tick(PatrolGroup group, ZombieWorld world, PatrolSettings settings);
 
-    void onEnter(PatrolGroup group, Store<EntityStore> store);
+    void onEnter(PatrolGroup group, ZombieWorld world, PatrolSettings settings);
 
-    void onExit(PatrolGroup group, Store<EntityStore> store);
+    void onExit(PatrolGroup group, ZombieWorld world, PatrolSettings settings);
 }
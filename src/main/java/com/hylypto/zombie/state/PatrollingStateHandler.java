@@ -1,162 +1,204 @@
 package com.hylypto.zombie.state;
 
-import com.hypixel.hytale.builtin.path.path.TransientPath;
-import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.math.vector.Vector3f;
-import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.npc.entities.NPCEntity;
-import com.hylypto.zombie.PatrolConfig;
 import com.hylypto.zombie.PatrolGroup;
+import com.hylypto.zombie.PatrolSettings;
 import com.hylypto.zombie.detection.PlayerDetector;
-import com.hylypto.zombie.detection.PlayerFinder;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.noise.NoiseGrid;
+import com.hylypto.zombie.path.PathService;
+import com.hylypto.zombie.jfr.PathAssignEvent;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
+import com.hylypto.api.log.TraceCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 public class PatrollingStateHandler implements PatrolStateHandler {
 
-    private static final System.Logger LOG = System.getLogger(PatrollingStateHandler.class.getName());
-
-    private final PatrolConfig config;
-    private int tickCount = 0;
-
-    public PatrollingStateHandler(PatrolConfig config) {
-        this.config = config;
+    private static final HylyptoLog LOG = HylyptoLog.get(PatrollingStateHandler.class, "patrol.state");
+    private static final HylyptoLog TICK_LOG = HylyptoLog.get(PatrollingStateHandler.class, "patrol.tick");
+    private static final HylyptoLog PATH_LOG = HylyptoLog.get(PatrollingStateHandler.class, "patrol.path");
+    private static final LogSite TICK_SITE = LogSite.every(10, TimeUnit.SECONDS);
+    private static final LogSite NO_CENTROID_SITE = LogSite.every(30, TimeUnit.SECONDS);
+    private static final TraceCode WAYPOINT_TRACE = TraceCode.register("patrol.waypoint", "group=%08x wp=%d dist=%d");
+    private static final TraceCode DETECT_TRACE = TraceCode.register("patrol.detect", "group=%08x player=(%d,%d)");
+    private static final TraceCode HEAR_TRACE = TraceCode.register("patrol.hear", "group=%08x level=%d source=%d");
+
+    private final NoiseGrid noise;
+    private final PathService paths;
+
+    public PatrollingStateHandler(NoiseGrid noise, PathService paths) {
+        this.noise = noise;
+        this.paths = paths;
     }
 
     @Override
-    public PatrolState tick(PatrolGroup group, Store<EntityStore> store) {
-        tickCount++;
-
-        Vector3d centroid = calculateCentroid(group, store);
-        if (centroid == null) {
-            LOG.log(System.Logger.Level.WARNING, "[PATROL-TICK] group=" + group.getGroupId()
+    public PatrolState tick(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        Vector3d centroid = group.getCentroidScratch();
+        if (!VecMath.centroid(group.getMemberUUIDs(), world.entities(), centroid)) {
+            TICK_LOG.warn(NO_CENTROID_SITE, () -> "[PATROL-TICK] group=" + group.getGroupId()
                     + " — centroid is null (no valid refs?), members=" + group.size());
             return PatrolState.PATROLLING;
         }
 
+        // The leader died — its successor takes over the route
+        if (group.takeLeaderChanged()) {
+            reassignPatrolPath(group, world, settings);
+        }
+
+        // A walk found since the last tick replaces the straight leg to the current waypoint
+        List<Vector3d> walk = group.takeWalk();
+        if (walk != null && !walk.isEmpty()) {
+            applyWalk(group, world, settings, walk);
+        }
+
         // Advance waypoints for our tracking (doesn't affect the engine's BodyMotionPath)
         Vector3d waypoint = group.getCurrentWaypoint();
         if (waypoint != null) {
-            double distToWp = centroid.distanceTo(waypoint);
-
-            if (tickCount % 5 == 0) {
-                LOG.log(System.Logger.Level.INFO, "[PATROL-TICK] group=" + group.getGroupId()
-                        + " state=PATROLLING tick=" + tickCount
-                        + " members=" + group.size()
-                        + " wpIdx=" + group.getCurrentWaypointIndex()
-                        + " centroid=(" + (int) centroid.x + "," + (int) centroid.y + "," + (int) centroid.z + ")"
-                        + " waypoint=(" + (int) waypoint.x + "," + (int) waypoint.y + "," + (int) waypoint.z + ")"
-                        + " dist=" + String.format("%.1f", distToWp));
-            }
+            double distToWpSq = centroid.distanceSquaredTo(waypoint);
+
+            Vector3d currentWp = waypoint;
+            TICK_LOG.debug(TICK_SITE, () -> "[PATROL-TICK] group=" + group.getGroupId()
+                    + " state=PATROLLING members=" + group.size()
+                    + " wpIdx=" + group.getCurrentWaypointIndex()
+                    + " centroid=(" + (int) centroid.x + "," + (int) centroid.y + "," + (int) centroid.z + ")"
+                    + " waypoint=(" + (int) currentWp.x + "," + (int) currentWp.y + "," + (int) currentWp.z + ")"
+                    + " dist=" + String.format("%.1f", Math.sqrt(distToWpSq)));
 
-            if (distToWp <= config.waypointArrivalRadius) {
+            if (distToWpSq <= settings.waypointArrivalRadiusSq) {
                 if (group.advanceWaypoint()) {
                     waypoint = group.getCurrentWaypoint();
-                    LOG.log(System.Logger.Level.INFO, "[PATROL-TICK] group=" + group.getGroupId()
+                    TICK_LOG.trace(WAYPOINT_TRACE, TraceCode.shortId(group.getGroupId()),
+                            group.getCurrentWaypointIndex(), (long) Math.sqrt(distToWpSq));
+                    Vector3d nextWp = waypoint;
+                    TICK_LOG.debug(() -> "[PATROL-TICK] group=" + group.getGroupId()
                             + " — advancing to waypoint " + group.getCurrentWaypointIndex()
-                            + " at (" + (int) waypoint.x + "," + (int) waypoint.y + "," + (int) waypoint.z + ")");
-                    reassignPatrolPath(group, store);
+                            + " at (" + (int) nextWp.x + "," + (int) nextWp.y + "," + (int) nextWp.z + ")");
+                    reassignPatrolPath(group, world, settings);
                 }
                 // If no more waypoints, just keep walking — engine Wander fallback takes over
             }
         }
 
+        FormationKeeper.hold(group, world, settings);
+
         // Despawn when far enough from all players (patrol has passed through)
-        Vector3d nearestPlayer = PlayerFinder.findNearest(store, centroid);
+        Vector3d nearestPlayer = world.players().findNearest(centroid);
         if (nearestPlayer != null) {
-            double distToPlayer = centroid.distanceTo(nearestPlayer);
+            double distToPlayerSq = centroid.distanceSquaredTo(nearestPlayer);
 
-            if (distToPlayer >= config.despawnDistanceFromPlayer) {
+            if (distToPlayerSq >= settings.despawnDistanceSq) {
                 // Only despawn if we've been patrolling for a while (past the player area)
                 if (group.getCurrentWaypointIndex() >= 1) {
-                    LOG.log(System.Logger.Level.INFO, "[PATROL-TICK] group=" + group.getGroupId()
-                            + " — " + String.format("%.0f", distToPlayer) + " blocks from player, DESPAWNING");
+                    TICK_LOG.info(() -> "[PATROL-TICK] group=" + group.getGroupId()
+                            + " — " + String.format("%.0f", Math.sqrt(distToPlayerSq)) + " blocks from player, DESPAWNING");
                     return PatrolState.DESPAWNING;
                 }
             }
 
             // Check for player detection → AGGRO
-            for (Ref<EntityStore> ref : group.getMemberRefs()) {
-                if (!ref.isValid()) continue;
-                TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
-                if (transform == null) continue;
-
-                Vector3d zombiePos = transform.getPosition();
-                double yaw = waypoint != null
-                        ? Math.toDegrees(Math.atan2(waypoint.z - zombiePos.z, waypoint.x - zombiePos.x))
-                        : 0;
-
-                if (PlayerDetector.canDetect(zombiePos, yaw, nearestPlayer,
-                        config.detectionRange, config.fovDegrees, config.proximityAlwaysDetect)) {
-                    LOG.log(System.Logger.Level.INFO, "[PATROL-TICK] group=" + group.getGroupId()
+            EntityAccess entities = world.entities();
+            for (UUID uuid : group.getMemberUUIDs()) {
+                Vector3d zombiePos = entities.getPosition(uuid);
+                if (zombiePos == null) continue;
+
+                // Facing is the heading toward the current waypoint; +X when the route is exhausted
+                double facingX = waypoint != null ? waypoint.x - zombiePos.x : 1;
+                double facingZ = waypoint != null ? waypoint.z - zombiePos.z : 0;
+
+                if (PlayerDetector.canDetectSq(zombiePos, facingX, facingZ, nearestPlayer,
+                        settings.detectionRangeSq, settings.fovHalfCos, settings.proximityAlwaysDetectSq)) {
+                    TICK_LOG.trace(DETECT_TRACE, TraceCode.shortId(group.getGroupId()),
+                            (long) nearestPlayer.x, (long) nearestPlayer.z);
+                    TICK_LOG.info(() -> "[PATROL-TICK] group=" + group.getGroupId()
                             + " — player detected at ("
                             + (int) nearestPlayer.x + "," + (int) nearestPlayer.y + "," + (int) nearestPlayer.z
                             + "), AGGRO!");
-                    group.setLastKnownPlayerPosition(nearestPlayer);
+                    group.rememberPlayerPosition(nearestPlayer);
                     return PatrolState.AGGRO;
                 }
             }
         }
 
+        // Nothing seen — a loud enough noise draws the group off its route
+        NoiseGrid.Heard heard = NoiseHearing.listen(noise, group, centroid);
+        if (heard != null) {
+            TICK_LOG.trace(HEAR_TRACE, TraceCode.shortId(group.getGroupId()), (long) heard.level(), heard.sourceId());
+            return NoiseHearing.isAlarming(noise, heard) ? PatrolState.AGGRO : PatrolState.SEARCHING;
+        }
+
         return PatrolState.PATROLLING;
     }
 
     @Override
-    public void onEnter(PatrolGroup group, Store<EntityStore> store) {
-        LOG.log(System.Logger.Level.INFO, "[PATROL-ENTER] group=" + group.getGroupId()
+    public void onEnter(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        LOG.info(() -> "[PATROL-ENTER] group=" + group.getGroupId()
                 + " — entering PATROLLING state, members=" + group.size()
                 + " wpIdx=" + group.getCurrentWaypointIndex());
-        tickCount = 0;
-        reassignPatrolPath(group, store);
+        // Followers were chasing or searching on their own — all of them go back to a slot
+        group.takeLeaderChanged();
+        group.clearFollowerSlots();
+        reassignPatrolPath(group, world, settings);
     }
 
     @Override
-    public void onExit(PatrolGroup group, Store<EntityStore> store) {}
+    public void onExit(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {}
 
-    private void reassignPatrolPath(PatrolGroup group, Store<EntityStore> store) {
-        var waypoints = group.getWaypoints();
+    private void reassignPatrolPath(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        List<Vector3d> waypoints = group.getWaypoints();
         int startIdx = group.getCurrentWaypointIndex();
         if (startIdx >= waypoints.size()) return;
 
-        TransientPath path = new TransientPath();
-        for (int i = startIdx; i < waypoints.size(); i++) {
-            path.addWaypoint(waypoints.get(i), new Vector3f(0, 0, 0));
-        }
+        PathAssignEvent pathEvent = new PathAssignEvent();
+        pathEvent.begin();
 
-        int assigned = 0;
-        for (Ref<EntityStore> ref : group.getMemberRefs()) {
-            if (!ref.isValid()) continue;
-            try {
-                NPCEntity npc = store.getComponent(ref, NPCEntity.getComponentType());
-                if (npc != null) {
-                    npc.getPathManager().setTransientPath(path);
-                    assigned++;
-                }
-            } catch (Exception e) {
-                LOG.log(System.Logger.Level.ERROR, "[PATROL-PATH] Failed to reassign path: " + e.getMessage());
-            }
-        }
-        LOG.log(System.Logger.Level.INFO, "[PATROL-PATH] Reassigned TransientPath to " + assigned
+        int assigned = world.entities().setPath(FormationKeeper.routeWalkers(group, settings),
+                waypoints.subList(startIdx, waypoints.size()));
+        PATH_LOG.debug(() -> "[PATROL-PATH] Reassigned TransientPath to " + assigned
                 + " NPCs, waypoints=" + (waypoints.size() - startIdx));
+
+        pathEvent.end();
+        if (pathEvent.shouldCommit()) {
+            pathEvent.source = "patrol";
+            pathEvent.groupId = group.getGroupId().toString();
+            pathEvent.waypoints = waypoints.size() - startIdx;
+            pathEvent.assigned = assigned;
+            pathEvent.commit();
+        }
+
+        // Members walk the straight line until the search comes back
+        group.setPendingWalk(paths.find(group.getCentroidScratch(), waypoints.get(startIdx)), startIdx);
     }
 
-    private Vector3d calculateCentroid(PatrolGroup group, Store<EntityStore> store) {
-        double sumX = 0, sumY = 0, sumZ = 0;
-        int count = 0;
-
-        for (Ref<EntityStore> ref : group.getMemberRefs()) {
-            if (!ref.isValid()) continue;
-            TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
-            if (transform == null) continue;
-            Vector3d pos = transform.getPosition();
-            sumX += pos.x;
-            sumY += pos.y;
-            sumZ += pos.z;
-            count++;
+    private void applyWalk(PatrolGroup group, ZombieWorld world, PatrolSettings settings, List<Vector3d> walk) {
+        List<Vector3d> waypoints = group.getWaypoints();
+        int nextIdx = group.getCurrentWaypointIndex() + 1;
+        List<Vector3d> route = new ArrayList<>(walk.size() + Math.max(0, waypoints.size() - nextIdx));
+        route.addAll(walk);
+        if (nextIdx < waypoints.size()) {
+            route.addAll(waypoints.subList(nextIdx, waypoints.size()));
         }
 
-        if (count == 0) return null;
-        return new Vector3d(sumX / count, sumY / count, sumZ / count);
+        PathAssignEvent pathEvent = new PathAssignEvent();
+        pathEvent.begin();
+
+        int assigned = world.entities().setPath(FormationKeeper.routeWalkers(group, settings), route);
+        PATH_LOG.debug(() -> "[PATROL-PATH] Walk of " + walk.size() + " waypoints assigned to "
+                + assigned + " NPCs, route=" + route.size());
+
+        pathEvent.end();
+        if (pathEvent.shouldCommit()) {
+            pathEvent.source = "walk";
+            pathEvent.groupId = group.getGroupId().toString();
+            pathEvent.waypoints = route.size();
+            pathEvent.assigned = assigned;
+            pathEvent.commit();
+        }
     }
 }
@@ -1,66 +1,87 @@
 package com.hylypto.zombie.state;
 
-import com.hypixel.hytale.builtin.path.path.TransientPath;
-import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.math.vector.Vector3f;
-import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.npc.entities.NPCEntity;
-import com.hylypto.zombie.PatrolConfig;
 import com.hylypto.zombie.PatrolGroup;
+import com.hylypto.zombie.PatrolSettings;
 import com.hylypto.zombie.detection.PlayerDetector;
-import com.hylypto.zombie.detection.PlayerFinder;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.motion.PlayerMotionTracker;
+import com.hylypto.zombie.noise.NoiseGrid;
+import com.hylypto.zombie.jfr.PathAssignEvent;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 public class SearchingStateHandler implements PatrolStateHandler {
 
-    private static final System.Logger LOG = System.getLogger(SearchingStateHandler.class.getName());
+    private static final HylyptoLog LOG = HylyptoLog.get(SearchingStateHandler.class, "patrol.state");
+    private static final HylyptoLog TICK_LOG = HylyptoLog.get(SearchingStateHandler.class, "patrol.tick");
+    private static final HylyptoLog PATH_LOG = HylyptoLog.get(SearchingStateHandler.class, "patrol.path");
+    private static final LogSite TICK_SITE = LogSite.every(10, TimeUnit.SECONDS);
+    private static final LogSite NO_CENTROID_SITE = LogSite.every(30, TimeUnit.SECONDS);
 
-    private final PatrolConfig config;
-    private int tickCount = 0;
+    private final NoiseGrid noise;
+    private final PlayerMotionTracker motion;
+    // Scratch — one handler per world, ticked on its thread
+    private final Vector3d aim = new Vector3d();
 
-    public SearchingStateHandler(PatrolConfig config) {
-        this.config = config;
+    /**
+     * @param motion leads the search ahead of a player who was running when they were lost
+     */
+    public SearchingStateHandler(NoiseGrid noise, PlayerMotionTracker motion) {
+        this.noise = noise;
+        this.motion = motion;
     }
 
     @Override
-    public PatrolState tick(PatrolGroup group, Store<EntityStore> store) {
-        tickCount++;
-        Vector3d centroid = calculateCentroid(group, store);
-        if (centroid == null) {
-            LOG.log(System.Logger.Level.WARNING, "[SEARCH-TICK] group=" + group.getGroupId()
+    public PatrolState tick(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        EntityAccess entities = world.entities();
+        Vector3d centroid = group.getCentroidScratch();
+        if (!VecMath.centroid(group.getMemberUUIDs(), entities, centroid)) {
+            TICK_LOG.warn(NO_CENTROID_SITE, () -> "[SEARCH-TICK] group=" + group.getGroupId()
                     + " — centroid null, members=" + group.size());
             return PatrolState.SEARCHING;
         }
 
         // Check if any zombie re-detects a player
-        Vector3d nearestPlayer = PlayerFinder.findNearest(store, centroid);
+        Vector3d nearestPlayer = world.players().findNearest(centroid);
         if (nearestPlayer != null) {
-            for (Ref<EntityStore> ref : group.getMemberRefs()) {
-                if (!ref.isValid()) continue;
-                TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
-                if (transform == null) continue;
+            for (UUID uuid : group.getMemberUUIDs()) {
+                Vector3d pos = entities.getPosition(uuid);
+                if (pos == null) continue;
 
-                if (PlayerDetector.isWithinRange(transform.getPosition(), nearestPlayer, config.aggroRange)) {
-                    LOG.log(System.Logger.Level.INFO, "[SEARCH-TICK] group=" + group.getGroupId()
+                if (PlayerDetector.isWithinRangeSq(pos, nearestPlayer, settings.aggroRangeSq)) {
+                    TICK_LOG.info(() -> "[SEARCH-TICK] group=" + group.getGroupId()
                             + " — re-detected player during search, AGGRO!");
-                    group.setLastKnownPlayerPosition(nearestPlayer);
+                    group.rememberPlayerPosition(nearestPlayer);
                     return PatrolState.AGGRO;
                 }
             }
         }
 
-        long elapsed = group.millisInCurrentState();
-        if (tickCount % 5 == 0) {
-            LOG.log(System.Logger.Level.INFO, "[SEARCH-TICK] group=" + group.getGroupId()
-                    + " tick=" + tickCount + " elapsed=" + elapsed + "ms"
-                    + " timeout=" + (config.searchDurationSeconds * 1000L) + "ms");
+        // A new noise while searching — charge it if it is loud, otherwise search there instead
+        NoiseGrid.Heard heard = NoiseHearing.listen(noise, group, centroid);
+        if (heard != null) {
+            if (NoiseHearing.isAlarming(noise, heard)) {
+                TICK_LOG.info(() -> "[SEARCH-TICK] group=" + group.getGroupId() + " — heard a loud noise, AGGRO!");
+                return PatrolState.AGGRO;
+            }
+            assignSearchPath(group, world, VecMath.copy(heard.origin()));
         }
 
+        long elapsed = group.millisInCurrentState(world.currentTimeMillis());
+        TICK_LOG.debug(TICK_SITE, () -> "[SEARCH-TICK] group=" + group.getGroupId()
+                + " elapsed=" + elapsed + "ms"
+                + " timeout=" + settings.searchDurationMillis + "ms");
+
         // Search timeout — resume patrol
-        if (elapsed >= config.searchDurationSeconds * 1000L) {
-            LOG.log(System.Logger.Level.INFO, "[SEARCH-TICK] group=" + group.getGroupId()
+        if (elapsed >= settings.searchDurationMillis) {
+            TICK_LOG.info(() -> "[SEARCH-TICK] group=" + group.getGroupId()
                     + " — search timeout, resuming PATROLLING");
             return PatrolState.PATROLLING;
         }
@@ -69,61 +90,42 @@ public class SearchingStateHandler implements PatrolStateHandler {
     }
 
     @Override
-    public void onEnter(PatrolGroup group, Store<EntityStore> store) {
-        LOG.log(System.Logger.Level.INFO, "[SEARCH-ENTER] group=" + group.getGroupId()
-                + " — searching around last known player position, members=" + group.size());
-        tickCount = 0;
+    public void onEnter(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {
+        LOG.info(() -> "[SEARCH-ENTER] group=" + group.getGroupId()
+                + " — searching around last known player position or noise, members=" + group.size());
 
-        // Assign a TransientPath toward last known player position
-        // The engine's BodyMotionPath instruction handles movement natively
+        // Assign a TransientPath toward last known player position, carried on along the way
+        // they were running. The engine's BodyMotionPath instruction handles movement natively
         Vector3d lastKnown = group.getLastKnownPlayerPosition();
         if (lastKnown != null) {
-            assignSearchPath(group, store, lastKnown);
+            motion.intercept(lastKnown, group.getLastKnownPlayerVelocity(), group.getCentroidScratch(), aim);
+            // Copy — the path keeps its waypoint and the scratch vector is reused
+            assignSearchPath(group, world, VecMath.copy(aim));
         }
     }
 
     @Override
-    public void onExit(PatrolGroup group, Store<EntityStore> store) {}
+    public void onExit(PatrolGroup group, ZombieWorld world, PatrolSettings settings) {}
 
     /**
      * Assigns a TransientPath to last known player position for all group members.
      * The engine's BodyMotionPath handles the actual movement.
      */
-    private void assignSearchPath(PatrolGroup group, Store<EntityStore> store, Vector3d target) {
-        TransientPath path = new TransientPath();
-        path.addWaypoint(target, new Vector3f(0, 0, 0));
-
-        int assigned = 0;
-        for (Ref<EntityStore> ref : group.getMemberRefs()) {
-            if (!ref.isValid()) continue;
-            try {
-                NPCEntity npc = store.getComponent(ref, NPCEntity.getComponentType());
-                if (npc != null) {
-                    npc.getPathManager().setTransientPath(path);
-                    assigned++;
-                }
-            } catch (Exception e) {
-                LOG.log(System.Logger.Level.ERROR, "[SEARCH-PATH] Failed to assign search path: " + e.getMessage());
-            }
-        }
-        LOG.log(System.Logger.Level.INFO, "[SEARCH-PATH] Assigned search path to " + assigned
+    private void assignSearchPath(PatrolGroup group, ZombieWorld world, Vector3d target) {
+        PathAssignEvent pathEvent = new PathAssignEvent();
+        pathEvent.begin();
+
+        int assigned = world.entities().setPath(group.getMemberUUIDs(), List.of(target));
+        PATH_LOG.debug(() -> "[SEARCH-PATH] Assigned search path to " + assigned
                 + " NPCs toward (" + (int) target.x + "," + (int) target.y + "," + (int) target.z + ")");
-    }
 
-    private Vector3d calculateCentroid(PatrolGroup group, Store<EntityStore> store) {
-        double sumX = 0, sumY = 0, sumZ = 0;
-        int count = 0;
-        for (Ref<EntityStore> ref : group.getMemberRefs()) {
-            if (!ref.isValid()) continue;
-            TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
-            if (transform == null) continue;
-            Vector3d pos = transform.getPosition();
-            sumX += pos.x;
-            sumY += pos.y;
-            sumZ += pos.z;
-            count++;
+        pathEvent.end();
+        if (pathEvent.shouldCommit()) {
+            pathEvent.source = "search";
+            pathEvent.groupId = group.getGroupId().toString();
+            pathEvent.waypoints = 1;
+            pathEvent.assigned = assigned;
+            pathEvent.commit();
         }
-        if (count == 0) return null;
-        return new Vector3d(sumX / count, sumY / count, sumZ / count);
     }
 }
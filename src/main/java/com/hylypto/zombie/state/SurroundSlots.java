@@ -0,0 +1,93 @@
+package com.hylypto.zombie.state;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.zombie.PatrolGroup;
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.ZombieWorld;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spreads a chasing group onto a ring around its target instead of sending every member to the
+ * same point, where they would stack up, shove each other and look stuck to the block breaker.
+ * Slots are evenly spaced, with the first facing the side the group comes from, and handed out
+ * greedily — the closest free member-slot pair first — so members rarely cross the ring.
+ */
+final class SurroundSlots {
+
+    private SurroundSlots() {}
+
+    /**
+     * Sends each member to its slot around {@code target} and records the slots on the group.
+     * Members without a position keep no slot; with a zero ring radius everyone goes to the target.
+     *
+     * @return how many members were given a path
+     */
+    static int assign(PatrolGroup group, ZombieWorld world, Vector3d target, PatrolSettings settings) {
+        EntityAccess entities = world.entities();
+        group.clearChaseSlots();
+        if (settings.surroundRadius <= 0) {
+            return entities.setPath(group.getMemberUUIDs(), List.of(target));
+        }
+
+        List<UUID> members = new ArrayList<>();
+        List<Vector3d> positions = new ArrayList<>();
+        double sumX = 0, sumZ = 0;
+        for (UUID uuid : group.getMemberUUIDs()) {
+            Vector3d pos = entities.getPosition(uuid);
+            if (pos == null) continue;
+            members.add(uuid);
+            positions.add(pos);
+            sumX += pos.x;
+            sumZ += pos.z;
+        }
+        int n = members.size();
+        if (n == 0) return 0;
+
+        double radius = Math.max(settings.surroundRadius, n * settings.surroundSpacing / (2 * Math.PI));
+        double base = Math.atan2(sumZ / n - target.z, sumX / n - target.x);
+        double[] slotX = new double[n];
+        double[] slotZ = new double[n];
+        for (int i = 0; i < n; i++) {
+            double angle = base + i * 2 * Math.PI / n;
+            slotX[i] = target.x + Math.cos(angle) * radius;
+            slotZ[i] = target.z + Math.sin(angle) * radius;
+        }
+
+        // n is one group's size, so rescanning every pair per pick is cheaper than sorting them
+        boolean[] memberTaken = new boolean[n];
+        boolean[] slotTaken = new boolean[n];
+        int assigned = 0;
+        for (int pick = 0; pick < n; pick++) {
+            int bestMember = -1, bestSlot = -1;
+            double bestDistSq = Double.MAX_VALUE;
+            for (int m = 0; m < n; m++) {
+                if (memberTaken[m]) continue;
+                Vector3d pos = positions.get(m);
+                for (int s = 0; s < n; s++) {
+                    if (slotTaken[s]) continue;
+                    double dx = slotX[s] - pos.x, dz = slotZ[s] - pos.z;
+                    double distSq = dx * dx + dz * dz;
+                    if (distSq < bestDistSq) {
+                        bestDistSq = distSq;
+                        bestMember = m;
+                        bestSlot = s;
+                    }
+                }
+            }
+            memberTaken[bestMember] = true;
+            slotTaken[bestSlot] = true;
+
+            UUID member = members.get(bestMember);
+            Vector3d slot = new Vector3d(slotX[bestSlot], target.y, slotZ[bestSlot]);
+            if (entities.setPath(List.of(member), List.of(slot)) > 0) {
+                group.setChaseSlot(member, slot);
+                assigned++;
+            }
+        }
+        return assigned;
+    }
+}
@@ -0,0 +1,79 @@
+package com.hylypto.zombie.system;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+
+import javax.annotation.Nonnull;
+
+/**
+ * ECS systems that tell a world's shard about blocks players break or place, so its copied
+ * terrain, cached walks and sound damping stop describing blocks that are gone. Zombie block
+ * breaking reports its own edits. Events are handled on the world thread; worlds without a
+ * shard are skipped.
+ */
+public final class BlockEditSystems {
+
+    private BlockEditSystems() {}
+
+    public static class Break extends EntityEventSystem<EntityStore, BreakBlockEvent> {
+
+        private final ZombieShards shards;
+
+        public Break(ZombieShards shards) {
+            super(BreakBlockEvent.class);
+            this.shards = shards;
+        }
+
+        @Nonnull
+        @Override
+        public Query<EntityStore> getQuery() {
+            return Query.and(Player.getComponentType());
+        }
+
+        @Override
+        public void handle(int index, @Nonnull ArchetypeChunk<EntityStore> chunk, @Nonnull Store<EntityStore> store,
+                           @Nonnull CommandBuffer<EntityStore> commandBuffer, @Nonnull BreakBlockEvent event) {
+            if (!event.isCancelled()) changed(shards, store, event.getTargetBlock());
+        }
+    }
+
+    public static class Place extends EntityEventSystem<EntityStore, PlaceBlockEvent> {
+
+        private final ZombieShards shards;
+
+        public Place(ZombieShards shards) {
+            super(PlaceBlockEvent.class);
+            this.shards = shards;
+        }
+
+        @Nonnull
+        @Override
+        public Query<EntityStore> getQuery() {
+            return Query.and(Player.getComponentType());
+        }
+
+        @Override
+        public void handle(int index, @Nonnull ArchetypeChunk<EntityStore> chunk, @Nonnull Store<EntityStore> store,
+                           @Nonnull CommandBuffer<EntityStore> commandBuffer, @Nonnull PlaceBlockEvent event) {
+            if (!event.isCancelled()) changed(shards, store, event.getTargetBlock());
+        }
+    }
+
+    private static void changed(ZombieShards shards, Store<EntityStore> store, Vector3i block) {
+        if (block == null) return;
+        ZombieShard shard = shards.find(store);
+        if (shard != null) {
+            shard.onBlockChanged(block.getX(), block.getY(), block.getZ());
+        }
+    }
+}
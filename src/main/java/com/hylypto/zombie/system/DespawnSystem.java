@@ -0,0 +1,50 @@
+package com.hylypto.zombie.system;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.tick.EntityTickingSystem;
+import com.hypixel.hytale.server.core.entity.UUIDComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hypixel.hytale.server.npc.entities.NPCEntity;
+import com.hylypto.api.diagnostics.TickWatchdog;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+
+import javax.annotation.Nonnull;
+
+/**
+ * ECS system that applies queued zombie despawns — and evicts idle pooled zombies — through
+ * the tick's {@link CommandBuffer}. The first NPC visited in a tick drains that world's
+ * per-tick budget; every later visit in the same tick returns immediately, so the cost with
+ * an empty queue and pool is one shard lookup.
+ */
+public class DespawnSystem extends EntityTickingSystem<EntityStore> {
+
+    private final ZombieShards shards;
+
+    public DespawnSystem(ZombieShards shards) {
+        this.shards = shards;
+    }
+
+    @Nonnull
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.and(NPCEntity.getComponentType(), UUIDComponent.getComponentType());
+    }
+
+    @Override
+    public void tick(float deltaTime, int entityIndex, @Nonnull ArchetypeChunk<EntityStore> chunk,
+                     @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        ZombieShard shard = shards.find(store);
+        if (shard == null || !shard.hasPendingRemovals()) return;
+
+        TickWatchdog.enter("DespawnSystem");
+        try {
+            shard.drainDespawns(commandBuffer);
+        } finally {
+            TickWatchdog.exit();
+        }
+    }
+}
@@ -9,22 +9,26 @@ import com.hypixel.hytale.server.core.modules.entity.damage.DeathComponent;
 import com.hypixel.hytale.server.core.modules.entity.damage.DeathSystems;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.npc.entities.NPCEntity;
+import com.hylypto.api.metrics.HylyptoMetrics;
 import com.hylypto.zombie.PatrolManager;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+import com.hylypto.api.log.HylyptoLog;
 
 import javax.annotation.Nonnull;
 import java.util.UUID;
 
 /**
- * ECS system that detects patrol zombie deaths and notifies PatrolManager.
+ * ECS system that detects patrol zombie deaths and notifies the PatrolManager of the world they died in.
  */
 public class PatrolDeathSystem extends DeathSystems.OnDeathSystem {
 
-    private static final System.Logger LOG = System.getLogger(PatrolDeathSystem.class.getName());
+    private static final HylyptoLog LOG = HylyptoLog.get(PatrolDeathSystem.class, "patrol");
 
-    private final PatrolManager patrolManager;
+    private final ZombieShards shards;
 
-    public PatrolDeathSystem(PatrolManager patrolManager) {
-        this.patrolManager = patrolManager;
+    public PatrolDeathSystem(ZombieShards shards) {
+        this.shards = shards;
     }
 
     @Nonnull
@@ -40,13 +44,18 @@ public class PatrolDeathSystem extends DeathSystems.OnDeathSystem {
             @Nonnull Store<EntityStore> store,
             @Nonnull CommandBuffer<EntityStore> commandBuffer) {
 
+        ZombieShard shard = shards.find(store);
+        if (shard == null) return;
+
         UUIDComponent uuidComp = store.getComponent(ref, UUIDComponent.getComponentType());
         if (uuidComp == null) return;
 
         UUID uuid = uuidComp.getUuid();
+        PatrolManager patrolManager = shard.getPatrolManager();
         if (!patrolManager.isPatrolZombie(uuid)) return;
 
-        LOG.log(System.Logger.Level.DEBUG, "Patrol zombie died: " + uuid);
+        LOG.debug(() -> "Patrol zombie died: " + uuid);
+        HylyptoMetrics.ZOMBIES_KILLED.increment();
         patrolManager.onZombieDeath(uuid);
     }
 }
@@ -8,25 +8,36 @@ import com.hypixel.hytale.component.system.tick.DelayedEntitySystem;
 import com.hypixel.hytale.server.core.entity.UUIDComponent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.npc.entities.NPCEntity;
-import com.hylypto.zombie.PatrolConfig;
+import com.hylypto.api.diagnostics.TickWatchdog;
 import com.hylypto.zombie.PatrolManager;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
 
 import javax.annotation.Nonnull;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ECS system that drives the patrol state machine.
- * Ticks each patrol zombie, deduplicates per-group via PatrolManager.
+ * Ticks each patrol zombie, deduplicates per-group via the PatrolManager of the
+ * world being ticked — each world's groups only ever run on that world's thread.
+ * Runs on a short fixed interval; the group cadence comes from the live
+ * {@code tickIntervalSeconds} setting, so it can change without re-registering the system.
  */
 public class PatrolTickSystem extends DelayedEntitySystem<EntityStore> {
 
-    private static final System.Logger LOG = System.getLogger(PatrolTickSystem.class.getName());
+    private static final HylyptoLog TICK_LOG = HylyptoLog.get(PatrolTickSystem.class, "patrol.tick");
+    private static final LogSite HEARTBEAT_SITE = LogSite.every(30, TimeUnit.SECONDS);
+    private static final LogSite ERROR_SITE = LogSite.every(5, TimeUnit.SECONDS);
+    private static final float BASE_INTERVAL_SECONDS = 0.25f;
 
-    private final PatrolManager patrolManager;
+    private final ZombieShards shards;
 
-    public PatrolTickSystem(PatrolManager patrolManager, PatrolConfig config) {
-        super(config.tickIntervalSeconds);
-        this.patrolManager = patrolManager;
+    public PatrolTickSystem(ZombieShards shards) {
+        super(BASE_INTERVAL_SECONDS);
+        this.shards = shards;
     }
 
     @Nonnull
@@ -40,29 +51,36 @@ public class PatrolTickSystem extends DelayedEntitySystem<EntityStore> {
     @Override
     public void tick(float deltaTime, int entityIndex, @Nonnull ArchetypeChunk<EntityStore> chunk,
                      @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        TickWatchdog.enter("PatrolTickSystem");
         try {
             systemTickCount++;
+            ZombieShard shard = shards.find(store);
+            if (shard == null) return;
+            // Time-gated — re-bins the density grid at most once per refresh interval
+            shard.getPopulation().refreshIfDue(shard.getZombieWorld());
+            PatrolManager patrolManager = shard.getPatrolManager();
+
             UUIDComponent uuidComp = chunk.getComponent(entityIndex, UUIDComponent.getComponentType());
             if (uuidComp == null) return;
 
             UUID uuid = uuidComp.getUuid();
             boolean isPatrol = patrolManager.isPatrolZombie(uuid);
 
-            // Log every 20th tick to confirm system is running
-            if (systemTickCount % 20 == 0) {
-                LOG.log(System.Logger.Level.INFO, "[PATROL-SYS] tick #" + systemTickCount
-                        + " entityIdx=" + entityIndex + " uuid=" + uuid
-                        + " isPatrol=" + isPatrol);
-            }
+            // Periodic heartbeat to confirm the system is running
+            TICK_LOG.debug(HEARTBEAT_SITE, () -> "[PATROL-SYS] tick #" + systemTickCount
+                    + " entityIdx=" + entityIndex + " uuid=" + uuid
+                    + " isPatrol=" + isPatrol);
 
             if (!isPatrol) return;
 
             UUID groupId = patrolManager.getGroupIdForZombie(uuid);
             if (groupId == null) return;
 
-            patrolManager.tickGroup(groupId, store);
+            patrolManager.tickGroup(groupId);
         } catch (Exception e) {
-            LOG.log(System.Logger.Level.ERROR, "[PATROL-SYS] Error in patrol tick: " + e.getMessage(), e);
+            TICK_LOG.error(ERROR_SITE, () -> "[PATROL-SYS] Error in patrol tick: " + e.getMessage(), e);
+        } finally {
+            TickWatchdog.exit();
         }
     }
 }
@@ -0,0 +1,49 @@
+package com.hylypto.zombie.system;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.tick.EntityTickingSystem;
+import com.hypixel.hytale.server.core.entity.UUIDComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hypixel.hytale.server.npc.entities.NPCEntity;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+
+import javax.annotation.Nonnull;
+
+/**
+ * ECS system that hands zombies restored from a snapshot their entities back. After a restart
+ * the world loads the NPCs with their chunks, but nothing holds a handle to them; while a shard
+ * is reconciling, every NPC visited is offered to it by UUID and the awaited ones are adopted.
+ * Entities the shard let go of, or gave up waiting for, may load with a chunk much later, so
+ * NPCs keep being offered while any are outstanding, and those are despawned. The first NPC
+ * of a world with a snapshot waiting creates its shard. Otherwise the cost is one shard
+ * lookup per NPC.
+ */
+public class SnapshotReconcileSystem extends EntityTickingSystem<EntityStore> {
+
+    private final ZombieShards shards;
+
+    public SnapshotReconcileSystem(ZombieShards shards) {
+        this.shards = shards;
+    }
+
+    @Nonnull
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.and(NPCEntity.getComponentType(), UUIDComponent.getComponentType());
+    }
+
+    @Override
+    public void tick(float deltaTime, int entityIndex, @Nonnull ArchetypeChunk<EntityStore> chunk,
+                     @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        ZombieShard shard = shards.findOrRestore(store);
+        if (shard == null || !shard.isAwaitingEntities()) return;
+
+        UUIDComponent uuidComp = chunk.getComponent(entityIndex, UUIDComponent.getComponentType());
+        if (uuidComp == null) return;
+        shard.adopt(uuidComp.getUuid(), chunk.getReferenceTo(entityIndex));
+    }
+}
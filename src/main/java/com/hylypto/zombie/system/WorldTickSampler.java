@@ -0,0 +1,31 @@
+package com.hylypto.zombie.system;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Once-per-tick system that drives each shard's per-tick work through
+ * {@link ZombieShard#onWorldTick}: the tick counter, the spawn governor's tick period sample,
+ * and the budgeted upkeep of sound, navigation, paths, terrain, spawn points, player motion,
+ * snapshot reconciliation and the debug overlay. Worlds without a shard cost one lookup.
+ */
+public class WorldTickSampler extends TickingSystem<EntityStore> {
+
+    private final ZombieShards shards;
+
+    public WorldTickSampler(ZombieShards shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public void tick(float deltaTime, int systemIndex, @Nonnull Store<EntityStore> store) {
+        ZombieShard shard = shards.find(store);
+        if (shard == null) return;
+        shard.onWorldTick(System.nanoTime());
+    }
+}
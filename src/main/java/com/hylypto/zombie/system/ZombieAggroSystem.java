@@ -10,39 +10,59 @@ import com.hypixel.hytale.server.core.entity.UUIDComponent;
 import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.npc.entities.NPCEntity;
+import com.hylypto.api.diagnostics.TickWatchdog;
+import com.hylypto.api.metrics.HylyptoMetrics;
 import com.hylypto.zombie.detection.PlayerFinder;
 import com.hylypto.zombie.HordeManager;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.noise.NoiseGrid;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogSite;
+import com.hylypto.api.log.TraceCode;
 
 import javax.annotation.Nonnull;
-import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ECS system that monitors horde zombies for stuck detection.
  * The built-in Zombie AI (BodyMotionFind) handles pathfinding and
  * movement toward players automatically — we do NOT override it.
- * This system only detects stuck zombies and logs aggro range info.
+ * This system only detects stuck zombies, logs aggro range info and sends
+ * zombies with no player in reach toward new noises on the shard's sound grid.
+ * Position histories are kept per world shard and dropped with it.
  */
 public class ZombieAggroSystem extends DelayedEntitySystem<EntityStore> {
 
-    private static final System.Logger LOG = System.getLogger(ZombieAggroSystem.class.getName());
+    private static final HylyptoLog LOG = HylyptoLog.get(ZombieAggroSystem.class, "horde");
+
+    private static final LogSite STUCK_SITE = LogSite.every(10, TimeUnit.SECONDS);
+    private static final LogSite ERROR_SITE = LogSite.every(5, TimeUnit.SECONDS);
+    private static final TraceCode STUCK_TRACE = TraceCode.register("horde.stuck", "zombie=%08x dist=%d far=%d");
+    private static final TraceCode HEAR_TRACE = TraceCode.register("horde.hear", "zombie=%08x level=%d source=%d");
 
     private static final float CHECK_INTERVAL = 1.0f;
     private static final double MOVEMENT_THRESHOLD = 2.5;
+    private static final double MOVEMENT_THRESHOLD_SQ = MOVEMENT_THRESHOLD * MOVEMENT_THRESHOLD;
     private static final double MAX_AGGRO_DISTANCE = 40.0;
+    private static final double MAX_AGGRO_DISTANCE_SQ = MAX_AGGRO_DISTANCE * MAX_AGGRO_DISTANCE;
     private static final int STUCK_CHECK_COUNT = 5;
     private static final int MAX_HISTORY = 10;
     private static final int PRUNE_INTERVAL_TICKS = 10;
 
-    private final HordeManager hordeManager;
-    private final Map<UUID, PositionHistory> positionHistories = new ConcurrentHashMap<>();
-    private int tickCounter = 0;
+    private final ZombieShards shards;
+    private final Map<ZombieShard, ShardHistories> histories = new ConcurrentHashMap<>();
 
-    public ZombieAggroSystem(HordeManager hordeManager) {
+    public ZombieAggroSystem(ZombieShards shards) {
         super(CHECK_INTERVAL);
-        this.hordeManager = hordeManager;
+        this.shards = shards;
+        shards.addRemoveListener(histories::remove);
     }
 
     @Nonnull
@@ -54,10 +74,17 @@ public class ZombieAggroSystem extends DelayedEntitySystem<EntityStore> {
     @Override
     public void tick(float deltaTime, int entityIndex, @Nonnull ArchetypeChunk<EntityStore> chunk,
                      @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        TickWatchdog.enter("ZombieAggroSystem");
         try {
+            ZombieShard shard = shards.find(store);
+            if (shard == null) return;
+            HordeManager hordeManager = shard.getHordeManager();
+            ShardHistories shardHistories = histories.computeIfAbsent(shard, s -> new ShardHistories());
+            Map<UUID, PositionHistory> positionHistories = shardHistories.positions;
+
             // Periodic cleanup
-            if (++tickCounter >= PRUNE_INTERVAL_TICKS) {
-                tickCounter = 0;
+            if (++shardHistories.tickCounter >= PRUNE_INTERVAL_TICKS) {
+                shardHistories.tickCounter = 0;
                 hordeManager.pruneInvalidRefs();
                 positionHistories.keySet().removeIf(uuid -> !hordeManager.isHordeZombie(uuid));
             }
@@ -72,57 +99,103 @@ public class ZombieAggroSystem extends DelayedEntitySystem<EntityStore> {
             if (transform == null) return;
 
             Vector3d currentPos = transform.getPosition();
+            hordeManager.updatePosition(uuid, currentPos);
 
             // Track position history for stuck detection
             PositionHistory history = positionHistories.computeIfAbsent(uuid, k -> new PositionHistory());
             history.addPosition(currentPos);
 
+            // One map lookup when something is audible, nothing at all in a quiet world
+            NoiseGrid noise = shard.getNoise();
+            if (!noise.isQuiet()) {
+                hearNoise(shard, store, uuid, currentPos, history, noise);
+            }
+
             if (history.isStuck()) {
                 // Log stuck zombie — the engine AI should handle re-aggro naturally
                 Vector3d playerPos = PlayerFinder.findNearest(store, currentPos);
                 if (playerPos != null) {
                     double dist = currentPos.distanceTo(playerPos);
-                    LOG.log(System.Logger.Level.INFO,
-                            "Zombie " + uuid + " stuck, " + (int) dist + " blocks from player");
-                    if (dist > MAX_AGGRO_DISTANCE) {
-                        LOG.log(System.Logger.Level.WARNING,
-                                "Zombie " + uuid + " outside aggro range (" + (int) dist + " > " + (int) MAX_AGGRO_DISTANCE + ")");
-                    }
+                    boolean outOfRange = dist > MAX_AGGRO_DISTANCE;
+                    LOG.trace(STUCK_TRACE, TraceCode.shortId(uuid), (long) dist, outOfRange ? 1 : 0);
+                    LOG.info(STUCK_SITE, () -> "Zombie " + uuid + " stuck, " + (int) dist + " blocks from player"
+                            + (outOfRange ? " — outside aggro range (" + (int) MAX_AGGRO_DISTANCE + ")" : ""));
                 }
                 history.reset();
             }
         } catch (Exception e) {
-            LOG.log(System.Logger.Level.ERROR, "Error in aggro tick: " + e.getMessage(), e);
+            LOG.error(ERROR_SITE, () -> "Error in aggro tick: " + e.getMessage(), e);
+        } finally {
+            TickWatchdog.exit();
         }
     }
 
-    public void cleanupZombie(UUID uuid) {
-        positionHistories.remove(uuid);
-        hordeManager.cleanupZombie(uuid);
+    /**
+     * Paths the zombie to a newly heard source — but only when no player is within aggro
+     * distance, so the engine's own chase is never interrupted. Each source is followed once.
+     */
+    private void hearNoise(ZombieShard shard, Store<EntityStore> store, UUID uuid, Vector3d pos,
+                           PositionHistory history, NoiseGrid noise) {
+        NoiseGrid.Heard heard = noise.loudestAt(pos.x, pos.z);
+        if (heard == null || heard.sourceId() == history.lastHeardNoise) return;
+        if (heard.level() < noise.getConfig().investigateLevel) return;
+        history.lastHeardNoise = heard.sourceId();
+
+        Vector3d playerPos = PlayerFinder.findNearest(store, pos.x, pos.y, pos.z);
+        if (playerPos != null && VecMath.within(pos, playerPos, MAX_AGGRO_DISTANCE_SQ)) return;
+
+        shard.getZombieWorld().entities().setPath(List.of(uuid), List.of(VecMath.copy(heard.origin())));
+        HylyptoMetrics.NOISE_REACTIONS.increment();
+        LOG.trace(HEAR_TRACE, TraceCode.shortId(uuid), (long) heard.level(), heard.sourceId());
+    }
+
+    public void cleanupZombie(ZombieShard shard, UUID uuid) {
+        ShardHistories shardHistories = histories.get(shard);
+        if (shardHistories != null) {
+            shardHistories.positions.remove(uuid);
+        }
+        shard.getHordeManager().cleanupZombie(uuid);
     }
 
     public void clearAll() {
-        positionHistories.clear();
+        histories.clear();
     }
 
-    // --- Inner class for movement tracking ---
+    // --- Inner classes for movement tracking ---
 
-    private static class PositionHistory {
-        private final LinkedList<Vector3d> positions = new LinkedList<>();
+    // Touched only from the shard's world thread, apart from clearAll() dropping the whole entry
+    private static final class ShardHistories {
+        final Map<UUID, PositionHistory> positions = new HashMap<>();
+        int tickCounter;
+    }
+
+    // Package-private for the JMH benchmark.
+    // Ring of copied coordinates — the transform position is a live vector, so keeping
+    // references would compare a zombie against itself; primitives also mean no per-tick garbage.
+    static final class PositionHistory {
+        private final double[] xs = new double[MAX_HISTORY];
+        private final double[] ys = new double[MAX_HISTORY];
+        private final double[] zs = new double[MAX_HISTORY];
+        private int next;
+        private int size;
+        // Last noise source this zombie was sent toward
+        long lastHeardNoise;
 
         void addPosition(Vector3d pos) {
-            positions.addLast(pos);
-            if (positions.size() > MAX_HISTORY) {
-                positions.removeFirst();
-            }
+            xs[next] = pos.x;
+            ys[next] = pos.y;
+            zs[next] = pos.z;
+            next = (next + 1) % MAX_HISTORY;
+            if (size < MAX_HISTORY) size++;
         }
 
         boolean isStuck() {
-            if (positions.size() < STUCK_CHECK_COUNT) return false;
+            if (size < STUCK_CHECK_COUNT) return false;
 
-            Vector3d oldest = positions.get(positions.size() - STUCK_CHECK_COUNT);
-            for (int i = positions.size() - STUCK_CHECK_COUNT + 1; i < positions.size(); i++) {
-                if (oldest.distanceTo(positions.get(i)) > MOVEMENT_THRESHOLD) {
+            int oldest = Math.floorMod(next - STUCK_CHECK_COUNT, MAX_HISTORY);
+            for (int k = 1; k < STUCK_CHECK_COUNT; k++) {
+                int i = (oldest + k) % MAX_HISTORY;
+                if (VecMath.distanceSq(xs[oldest], ys[oldest], zs[oldest], xs[i], ys[i], zs[i]) > MOVEMENT_THRESHOLD_SQ) {
                     return false;
                 }
             }
@@ -130,7 +203,8 @@ public class ZombieAggroSystem extends DelayedEntitySystem<EntityStore> {
         }
 
         void reset() {
-            positions.clear();
+            next = 0;
+            size = 0;
         }
     }
 }
@@ -10,21 +10,23 @@ import com.hypixel.hytale.server.core.modules.entity.damage.DeathSystems;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.npc.entities.NPCEntity;
 import com.hylypto.zombie.HordeManager;
+import com.hylypto.zombie.ZombieShard;
+import com.hylypto.zombie.ZombieShards;
 
 import javax.annotation.Nonnull;
 import java.util.UUID;
 
 /**
- * ECS system that detects NPC deaths and notifies the HordeManager.
+ * ECS system that detects NPC deaths and notifies the HordeManager of the world they died in.
  * Only counts deaths of entities tracked as horde zombies (by UUID).
  */
 public class ZombieDeathSystem extends DeathSystems.OnDeathSystem {
 
-    private final HordeManager hordeManager;
+    private final ZombieShards shards;
     private ZombieAggroSystem aggroSystem;
 
-    public ZombieDeathSystem(HordeManager hordeManager) {
-        this.hordeManager = hordeManager;
+    public ZombieDeathSystem(ZombieShards shards) {
+        this.shards = shards;
     }
 
     public void setAggroSystem(ZombieAggroSystem aggroSystem) {
@@ -44,16 +46,20 @@ public class ZombieDeathSystem extends DeathSystems.OnDeathSystem {
             @Nonnull Store<EntityStore> store,
             @Nonnull CommandBuffer<EntityStore> commandBuffer) {
 
+        ZombieShard shard = shards.find(store);
+        if (shard == null) return;
+
         UUIDComponent uuidComp = store.getComponent(ref, UUIDComponent.getComponentType());
         if (uuidComp == null) return;
 
         UUID uuid = uuidComp.getUuid();
+        HordeManager hordeManager = shard.getHordeManager();
         if (!hordeManager.isHordeZombie(uuid)) return;
 
         hordeManager.onZombieKilled(uuid);
 
         if (aggroSystem != null) {
-            aggroSystem.cleanupZombie(uuid);
+            aggroSystem.cleanupZombie(shard, uuid);
         }
     }
 }
@@ -0,0 +1,107 @@
+package com.hylypto.zombie.terrain;
+
+import com.hylypto.zombie.world.BlockReader;
+
+/**
+ * Immutable copy of one 32×32×32 section of a chunk — one solid/empty bit per block —
+ * stamped with the world's terrain clock when the copy was started. Captured on the world
+ * thread by {@link TerrainSnapshots}; read from any thread.
+ */
+public final class ChunkSnapshot {
+
+    /** Edge length of a section in blocks; a chunk column is {@link #SIZE} wide as well. */
+    public static final int SIZE = 32;
+    private static final int SHIFT = 5;
+    private static final int MASK = SIZE - 1;
+    private static final int VOLUME = SIZE * SIZE * SIZE;
+
+    private final int chunkX;
+    private final int sectionY;
+    private final int chunkZ;
+    private final long version;
+    private final long[] solid;
+
+    private ChunkSnapshot(int chunkX, int sectionY, int chunkZ, long version, long[] solid) {
+        this.chunkX = chunkX;
+        this.sectionY = sectionY;
+        this.chunkZ = chunkZ;
+        this.version = version;
+        this.solid = solid;
+    }
+
+    /** True if the block at world (x, y, z) — which must lie in this section — was solid. */
+    public boolean isSolid(int x, int y, int z) {
+        int bit = index(x & MASK, y & MASK, z & MASK);
+        return (solid[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return (x >> SHIFT) == chunkX && (y >> SHIFT) == sectionY && (z >> SHIFT) == chunkZ;
+    }
+
+    public int getChunkX() { return chunkX; }
+    public int getSectionY() { return sectionY; }
+    public int getChunkZ() { return chunkZ; }
+
+    /** The terrain clock when this copy was started — see {@link TerrainSnapshots#isCurrent}. */
+    public long getVersion() { return version; }
+
+    // --- Coordinates ---
+
+    /** The section coordinate holding block coordinate {@code block}, on any axis. */
+    public static int sectionOf(int block) {
+        return block >> SHIFT;
+    }
+
+    // 26 bits of chunk X, 12 bits of section Y, 26 bits of chunk Z
+    static long key(int chunkX, int sectionY, int chunkZ) {
+        return ((long) (chunkX & 0x3FFFFFF) << 38) | ((long) (sectionY & 0xFFF) << 26) | (chunkZ & 0x3FFFFFF);
+    }
+
+    private static int index(int lx, int ly, int lz) {
+        return (lx << (2 * SHIFT)) | (lz << SHIFT) | ly;
+    }
+
+    /** Copies a section a bounded number of blocks at a time. Must run on the world thread. */
+    static final class Builder {
+
+        final long key;
+        final int chunkX, sectionY, chunkZ;
+        final long version;
+        private final long[] solid = new long[VOLUME / 64];
+        private int next;
+
+        Builder(int chunkX, int sectionY, int chunkZ, long version) {
+            this.key = key(chunkX, sectionY, chunkZ);
+            this.chunkX = chunkX;
+            this.sectionY = sectionY;
+            this.chunkZ = chunkZ;
+            this.version = version;
+        }
+
+        /** Reads up to {@code budget} blocks and returns how many were read. */
+        int capture(BlockReader blocks, int budget) {
+            int baseX = chunkX << SHIFT;
+            int baseY = sectionY << SHIFT;
+            int baseZ = chunkZ << SHIFT;
+            int end = Math.min(VOLUME, next + budget);
+            int start = next;
+            for (int i = start; i < end; i++) {
+                // index() order: x, then z, then y innermost — one column per 32 reads
+                if (!blocks.isEmpty(baseX + (i >>> (2 * SHIFT)), baseY + (i & MASK), baseZ + ((i >>> SHIFT) & MASK))) {
+                    solid[i >>> 6] |= 1L << i;
+                }
+            }
+            next = end;
+            return end - start;
+        }
+
+        boolean isComplete() {
+            return next >= VOLUME;
+        }
+
+        ChunkSnapshot build() {
+            return new ChunkSnapshot(chunkX, sectionY, chunkZ, version, solid);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.hylypto.zombie.terrain;
+
+public class TerrainConfig {
+    // Off = nothing is snapshotted and every terrain query stays on the world thread
+    public boolean enabled = true;
+
+    // Block reads spent copying chunk sections per world tick — a 32³ section is 32768 reads.
+    // Shrinks with the spawn governor's scale while the world is behind
+    public int maxBlocksPerTick = 16384;
+
+    // Sections kept per world, oldest capture dropped first — about 4 KB each. Grows to hold
+    // what the nav graph needs around every player, up to maxReservedSections
+    public int maxCachedSections = 1024;
+    public int maxReservedSections = 8192;
+
+    // Requests beyond this many queued sections are dropped until the queue drains
+    public int maxPendingSections = 64;
+}
@@ -0,0 +1,222 @@
+package com.hylypto.zombie.terrain;
+
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.world.BlockReader;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable copies of chunk sections for one world, so terrain analysis can leave the world
+ * thread. Sections are requested on the world thread and copied there a bounded number of
+ * blocks per tick; once published, a {@link ChunkSnapshot} — or a {@link TerrainView} over
+ * several — can be read from any thread.
+ *
+ * A per-world clock ticks on every capture start and every edit. Each copy is stamped with
+ * the tick its capture started at, and {@link #invalidate} records the tick of the last edit
+ * to each section — kept after the copy is evicted — and drops the copy, so a stale section
+ * is never handed out again, a copy in progress is restarted, and holders of an older copy
+ * can check it with {@link #isCurrent}. Stamps never repeat, so a copy taken before an
+ * evict, edit and recapture cycle still reads as stale. Change listeners hear about every
+ * edit, including ones in sections nobody has copied.
+ *
+ * {@link #request}, {@link #view}, {@link #onWorldTick}, {@link #invalidate} and
+ * {@link #clear} run on the world thread; {@link #get} and {@link #isCurrent} are safe anywhere.
+ */
+public final class TerrainSnapshots {
+
+    /** Told about each block edit on the world thread — e.g. to drop results computed from the old terrain. */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void onBlockChanged(int x, int y, int z);
+    }
+
+    private final TerrainConfig config;
+    private final Map<Long, ChunkSnapshot> sections = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    // Tick of the last edit per section; copies started at or before editFloor are all stale
+    private final Map<Long, Long> lastEdits = new ConcurrentHashMap<>();
+    private volatile long editFloor;
+    // World thread only — capture order for eviction, and the copy queue
+    private final LinkedHashSet<Long> captureOrder = new LinkedHashSet<>();
+    private final ArrayDeque<ChunkSnapshot.Builder> pending = new ArrayDeque<>();
+    private final Map<Long, ChunkSnapshot.Builder> pendingByKey = new HashMap<>();
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // World thread only — sections a consumer needs kept at once, see reserve()
+    private int reserved;
+
+    public TerrainSnapshots(TerrainConfig config) {
+        this.config = config;
+    }
+
+    // --- Reads (any thread) ---
+
+    /** The current copy of a section, or null if it hasn't been copied or was edited since. */
+    public ChunkSnapshot get(int chunkX, int sectionY, int chunkZ) {
+        return sections.get(ChunkSnapshot.key(chunkX, sectionY, chunkZ));
+    }
+
+    /** True while no block of {@code snapshot}'s section has been edited since it was copied — evicted or not. */
+    public boolean isCurrent(ChunkSnapshot snapshot) {
+        if (snapshot.getVersion() <= editFloor) return false;
+        Long edited = lastEdits.get(ChunkSnapshot.key(snapshot.getChunkX(), snapshot.getSectionY(), snapshot.getChunkZ()));
+        return edited == null || edited < snapshot.getVersion();
+    }
+
+    /** True while every section under {@code view} is {@link #isCurrent(ChunkSnapshot) current}. */
+    public boolean isCurrent(TerrainView view) {
+        for (ChunkSnapshot snapshot : view.sections) {
+            if (!isCurrent(snapshot)) return false;
+        }
+        return true;
+    }
+
+    // --- Requests (world thread) ---
+
+    /** As {@link #get}, queueing a copy when there is none. */
+    public ChunkSnapshot request(int chunkX, int sectionY, int chunkZ) {
+        long key = ChunkSnapshot.key(chunkX, sectionY, chunkZ);
+        ChunkSnapshot snapshot = sections.get(key);
+        if (snapshot != null || !config.enabled) return snapshot;
+        if (!pendingByKey.containsKey(key) && pending.size() < config.maxPendingSections) {
+            ChunkSnapshot.Builder builder = new ChunkSnapshot.Builder(chunkX, sectionY, chunkZ,
+                    clock.incrementAndGet());
+            pending.add(builder);
+            pendingByKey.put(key, builder);
+        }
+        return null;
+    }
+
+    /**
+     * A view over every section touching the block box (inclusive), or null if any of them
+     * has no current copy yet — those are queued, so asking again a few ticks later succeeds.
+     */
+    public TerrainView view(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (!config.enabled) return null;
+        int minCX = ChunkSnapshot.sectionOf(minX), maxCX = ChunkSnapshot.sectionOf(maxX);
+        int minSY = ChunkSnapshot.sectionOf(minY), maxSY = ChunkSnapshot.sectionOf(maxY);
+        int minCZ = ChunkSnapshot.sectionOf(minZ), maxCZ = ChunkSnapshot.sectionOf(maxZ);
+        int sizeX = maxCX - minCX + 1, sizeY = maxSY - minSY + 1, sizeZ = maxCZ - minCZ + 1;
+
+        ChunkSnapshot[] covered = new ChunkSnapshot[sizeX * sizeY * sizeZ];
+        boolean complete = true;
+        for (int dx = 0; dx < sizeX; dx++) {
+            for (int dy = 0; dy < sizeY; dy++) {
+                for (int dz = 0; dz < sizeZ; dz++) {
+                    ChunkSnapshot snapshot = request(minCX + dx, minSY + dy, minCZ + dz);
+                    if (snapshot == null) {
+                        complete = false;
+                    } else {
+                        covered[TerrainView.index(dx, dy, dz, sizeY, sizeZ)] = snapshot;
+                    }
+                }
+            }
+        }
+        return complete ? new TerrainView(minCX, minSY, minCZ, sizeX, sizeY, sizeZ, covered) : null;
+    }
+
+    /**
+     * Keeps at least {@code sections} copies cached, up to {@code maxReservedSections} — for a
+     * consumer that needs that many at once, so they aren't evicted before it reads them.
+     * Each call replaces the last reservation. World thread.
+     */
+    public void reserve(int sections) {
+        reserved = Math.max(0, sections);
+    }
+
+    /** How many copies are kept before the oldest is dropped. */
+    public int capacity() {
+        return Math.max(config.maxCachedSections, Math.min(reserved, config.maxReservedSections));
+    }
+
+    /**
+     * Spends this tick's block budget, scaled by {@code scale}, copying queued sections and
+     * publishes the finished ones.
+     */
+    public void onWorldTick(BlockReader blocks, double scale) {
+        int budget = Math.max(1, (int) Math.round(config.maxBlocksPerTick * scale));
+        while (budget > 0 && !pending.isEmpty()) {
+            ChunkSnapshot.Builder builder = pending.peek();
+            budget -= builder.capture(blocks, budget);
+            if (!builder.isComplete()) break;
+            pending.poll();
+            pendingByKey.remove(builder.key);
+            publish(builder.build());
+        }
+    }
+
+    private void publish(ChunkSnapshot snapshot) {
+        long key = ChunkSnapshot.key(snapshot.getChunkX(), snapshot.getSectionY(), snapshot.getChunkZ());
+        sections.put(key, snapshot);
+        captureOrder.add(key);
+        HylyptoMetrics.TERRAIN_SECTIONS_CAPTURED.increment();
+
+        Iterator<Long> oldest = captureOrder.iterator();
+        int capacity = capacity();
+        while (sections.size() > capacity && oldest.hasNext()) {
+            Long evicted = oldest.next();
+            oldest.remove();
+            sections.remove(evicted);
+        }
+    }
+
+    // --- Edits (world thread) ---
+
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /** A block changed — its section's copy is dropped, a copy in progress restarts, and listeners are told. */
+    public void invalidate(int x, int y, int z) {
+        long key = ChunkSnapshot.key(ChunkSnapshot.sectionOf(x), ChunkSnapshot.sectionOf(y), ChunkSnapshot.sectionOf(z));
+        if (lastEdits.size() >= Math.max(config.maxReservedSections, capacity())) {
+            // Too many edited sections to track one by one — every copy so far counts as stale
+            clear();
+        }
+        // Recorded before the copy goes, so a reader that misses the copy sees the edit
+        lastEdits.put(key, clock.incrementAndGet());
+
+        boolean cached = sections.remove(key) != null;
+        ChunkSnapshot.Builder copying = pendingByKey.remove(key);
+        if (cached || copying != null) {
+            captureOrder.remove(key);
+            if (copying != null) {
+                pending.remove(copying);
+                ChunkSnapshot.Builder restarted = new ChunkSnapshot.Builder(copying.chunkX, copying.sectionY,
+                        copying.chunkZ, clock.incrementAndGet());
+                pending.add(restarted);
+                pendingByKey.put(key, restarted);
+            }
+            HylyptoMetrics.TERRAIN_INVALIDATIONS.increment();
+        }
+
+        for (ChangeListener listener : listeners) {
+            listener.onBlockChanged(x, y, z);
+        }
+    }
+
+    public void clear() {
+        // Copies handed out before the clear can't be vouched for — floor first, for readers
+        editFloor = clock.get();
+        lastEdits.clear();
+        sections.clear();
+        captureOrder.clear();
+        pending.clear();
+        pendingByKey.clear();
+    }
+
+    public int getCachedCount() {
+        return sections.size();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
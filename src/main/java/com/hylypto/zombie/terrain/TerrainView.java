@@ -0,0 +1,48 @@
+package com.hylypto.zombie.terrain;
+
+import com.hylypto.zombie.world.BlockReader;
+
+/**
+ * {@link BlockReader} over a box of {@link ChunkSnapshot}s, so terrain code written
+ * against the live world — surface scans, path corridor capture — can run on any thread.
+ * Below the box reads as solid and above it as empty; outside it horizontally reads as empty,
+ * which leaves nothing to stand on there. The view never changes — a block edited after the
+ * snapshots were taken is not seen; {@link TerrainSnapshots#isCurrent(TerrainView)} tells.
+ */
+public final class TerrainView implements BlockReader {
+
+    private final int minCX, minSY, minCZ;
+    private final int sizeX, sizeY, sizeZ;
+    // Read by TerrainSnapshots.isCurrent(TerrainView)
+    final ChunkSnapshot[] sections;
+
+    TerrainView(int minCX, int minSY, int minCZ, int sizeX, int sizeY, int sizeZ, ChunkSnapshot[] sections) {
+        this.minCX = minCX;
+        this.minSY = minSY;
+        this.minCZ = minCZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.sections = sections;
+    }
+
+    static int index(int dx, int dy, int dz, int sizeY, int sizeZ) {
+        return (dx * sizeY + dy) * sizeZ + dz;
+    }
+
+    @Override
+    public boolean isEmpty(int x, int y, int z) {
+        int dx = ChunkSnapshot.sectionOf(x) - minCX;
+        int dz = ChunkSnapshot.sectionOf(z) - minCZ;
+        if (dx < 0 || dx >= sizeX || dz < 0 || dz >= sizeZ) return true;
+        int dy = ChunkSnapshot.sectionOf(y) - minSY;
+        if (dy < 0) return false;
+        if (dy >= sizeY) return true;
+        return !sections[index(dx, dy, dz, sizeY, sizeZ)].isSolid(x, y, z);
+    }
+
+    /** Number of sections the view covers. */
+    public int sectionCount() {
+        return sections.length;
+    }
+}
@@ -0,0 +1,9 @@
+package com.hylypto.zombie.world;
+
+/**
+ * Block queries and edits. Must be called on the world thread.
+ */
+public interface BlockAccess extends BlockReader {
+
+    void breakBlock(int x, int y, int z);
+}
@@ -0,0 +1,24 @@
+package com.hylypto.zombie.world;
+
+/**
+ * Read-only block queries — all that terrain analysis needs, so it runs equally over the live
+ * world ({@link BlockAccess}, world thread) and over copied terrain on any thread.
+ */
+public interface BlockReader {
+
+    boolean isEmpty(int x, int y, int z);
+
+    /**
+     * Scans down from {@code startY} for the first empty block with a solid block below it.
+     * Returns {@code startY} if nothing is found within {@code scanRange} blocks.
+     */
+    default double findSurfaceY(int x, int startY, int z, int scanRange) {
+        int minY = startY - scanRange;
+        for (int y = startY; y > minY; y--) {
+            if (isEmpty(x, y, z) && !isEmpty(x, y - 1, z)) {
+                return y;
+            }
+        }
+        return startY;
+    }
+}
@@ -0,0 +1,54 @@
+package com.hylypto.zombie.world;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * NPC access keyed by entity UUID. Must be called on the world thread.
+ */
+public interface EntityAccess {
+
+    /**
+     * Spawns an NPC with the given role.
+     *
+     * @return the new entity's UUID, or null if the spawn failed
+     */
+    UUID spawn(String role, Vector3d position, Vector3f rotation);
+
+    boolean isValid(UUID uuid);
+
+    /**
+     * True while the entity was restored from a snapshot and has not turned up in the world
+     * yet — it has no handle, but is not gone either.
+     */
+    default boolean isAwaited(UUID uuid) {
+        return false;
+    }
+
+    /**
+     * Current position of the entity, or null if it no longer exists.
+     * The returned vector may be the live component value — copy it before keeping it.
+     */
+    Vector3d getPosition(UUID uuid);
+
+    /**
+     * Gives every listed entity the same path through {@code waypoints}.
+     *
+     * @return how many entities received the path
+     */
+    int setPath(Iterable<UUID> uuids, List<Vector3d> waypoints);
+
+    /**
+     * Removes the entity from the world immediately. Zombie code goes through
+     * {@code DespawnQueue} rather than calling this directly.
+     *
+     * @return true if an entity was removed
+     */
+    boolean remove(UUID uuid);
+
+    /** Drops any cached handle for an entity that died or was removed elsewhere. */
+    void forget(UUID uuid);
+}
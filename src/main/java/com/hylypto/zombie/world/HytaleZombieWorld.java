@@ -0,0 +1,439 @@
+package com.hylypto.zombie.world;
+
+import com.hypixel.hytale.builtin.path.path.TransientPath;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.RemoveReason;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.entity.UUIDComponent;
+import com.hypixel.hytale.server.core.modules.debug.DebugUtils;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.modules.entity.teleport.Teleport;
+import com.hypixel.hytale.server.core.modules.entitystats.EntityStatMap;
+import com.hypixel.hytale.server.core.modules.entitystats.asset.DefaultEntityStatTypes;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hypixel.hytale.server.npc.NPCPlugin;
+import com.hypixel.hytale.server.npc.entities.NPCEntity;
+import com.hylypto.api.diagnostics.WorldTasks;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.zombie.despawn.DespawnQueue;
+import com.hylypto.zombie.detection.PlayerFinder;
+import com.hylypto.zombie.math.VecMath;
+import com.hylypto.zombie.pool.EntityPool;
+import com.hylypto.zombie.pool.PoolConfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ZombieWorld} backed by a live Hytale {@link World}.
+ * Keeps the UUID → Ref index for every NPC spawned through it, and recycles despawned NPCs
+ * through an {@link EntityPool} — patrols that despawned out of every player's range are
+ * parked where they stood with nothing to follow, and teleported back into play, healed, by
+ * the next spawn of their role. Kills, departures and every other removal are never pooled.
+ * A parked zombie that dies or unloads is dropped from the pool when it is next taken.
+ * One instance per world, owned by that world's {@link com.hylypto.zombie.ZombieShard}.
+ */
+public final class HytaleZombieWorld implements ZombieWorld, EntityAccess, BlockAccess, PlayerAccess {
+
+    private static final HylyptoLog LOG = HylyptoLog.get(HytaleZombieWorld.class, "patrol.spawn");
+
+    // Discarded entities remembered per world — past this the oldest are given up on
+    private static final int MAX_DISCARDED = 4096;
+
+    private static volatile long seed = WorldRandom.freshSeed();
+
+    private final World world;
+    private final WorldRandom random;
+    private final Map<UUID, Ref<EntityStore>> refs = new ConcurrentHashMap<>();
+    // Restored from a snapshot, by role, until their entities turn up in the store. World thread only.
+    private final Map<UUID, String> awaited = new HashMap<>();
+    // Let go of but maybe still saved in an unloaded chunk — parked or queued for despawn when the
+    // snapshot was taken, or restored and never found. Despawned once found, listed in every
+    // snapshot until then, oldest first. World thread only.
+    private final Set<UUID> discarded = new LinkedHashSet<>();
+    private final EntityPool pool;
+
+    private HytaleZombieWorld(World world, PoolConfig poolConfig) {
+        this.world = world;
+        this.random = WorldRandom.forWorld(seed, world.getName());
+        this.pool = new EntityPool(poolConfig);
+    }
+
+    /** Seed for worlds wrapped after this call. Set once during plugin setup. */
+    public static void setSeed(long newSeed) {
+        seed = newSeed;
+    }
+
+    /** A fresh wrapper for {@code world} with an empty entity index and pool. */
+    public static HytaleZombieWorld wrap(World world, PoolConfig poolConfig) {
+        return new HytaleZombieWorld(world, poolConfig);
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    private Store<EntityStore> store() {
+        return world.getEntityStore().getStore();
+    }
+
+    // --- ZombieWorld ---
+
+    @Override
+    public EntityAccess entities() { return this; }
+
+    @Override
+    public BlockAccess blocks() { return this; }
+
+    @Override
+    public PlayerAccess players() { return this; }
+
+    @Override
+    public WorldRandom random() {
+        return random;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void execute(String label, Runnable task) {
+        WorldTasks.execute(world, label, task);
+    }
+
+    @Override
+    public void drawSphere(Vector3d center, Vector3f color, double radius, float durationSeconds) {
+        DebugUtils.addSphere(world, center, color, radius, durationSeconds);
+    }
+
+    @Override
+    public void drawArrow(Vector3d from, Vector3d to, Vector3f color, float durationSeconds) {
+        DebugUtils.addArrow(world, from, to, color, durationSeconds, false);
+    }
+
+    // --- EntityAccess ---
+
+    @Override
+    public UUID spawn(String role, Vector3d position, Vector3f rotation) {
+        Store<EntityStore> store = store();
+        for (UUID parked; (parked = pool.take(role)) != null; ) {
+            if (revive(store, parked, position, rotation)) return parked;
+            // Died or unloaded while parked
+            refs.remove(parked);
+            pool.untrack(parked);
+        }
+
+        var result = NPCPlugin.get().spawnNPC(store, role, null, position, rotation);
+        if (result == null) {
+            LOG.error(() -> "[SPAWN] spawnNPC returned null for role=" + role
+                    + " roleExists=" + NPCPlugin.get().hasRoleName(role)
+                    + " — role may not be loaded. "
+                    + "Check that IncludesAssetPack=true in manifest.json and role JSON is valid.");
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        Ref<EntityStore> ref = (Ref<EntityStore>) result.first();
+        UUIDComponent uuidComp = store.getComponent(ref, UUIDComponent.getComponentType());
+        if (uuidComp == null) {
+            LOG.warn("[SPAWN] spawnNPC result has no UUIDComponent");
+            return null;
+        }
+
+        UUID uuid = uuidComp.getUuid();
+        refs.put(uuid, ref);
+        pool.track(uuid, role);
+        return uuid;
+    }
+
+    /**
+     * Teleports a parked entity to {@code position} at full health — it may have been hit while
+     * it stood parked, or despawned wounded. The engine's teleport moves it between chunks and
+     * tells clients, which writing the transform would not. Its next path is assigned by the
+     * caller as usual.
+     */
+    private boolean revive(Store<EntityStore> store, UUID uuid, Vector3d position, Vector3f rotation) {
+        Ref<EntityStore> ref = refs.get(uuid);
+        if (ref == null || !ref.isValid()) return false;
+        store.putComponent(ref, Teleport.getComponentType(), new Teleport(position, rotation));
+        EntityStatMap stats = store.getComponent(ref, EntityStatMap.getComponentType());
+        if (stats != null) stats.maximizeStatValue(DefaultEntityStatTypes.getHealth());
+        return true;
+    }
+
+    /**
+     * Gives an entity an empty path so it stands idle where it despawned. It isn't moved: its
+     * chunk is loaded now, whereas a fixed holding spot may be unloaded and would take the
+     * entity with it.
+     */
+    private boolean park(Store<EntityStore> store, Ref<EntityStore> ref) {
+        NPCEntity npc = store.getComponent(ref, NPCEntity.getComponentType());
+        if (npc == null) return false;
+        npc.getPathManager().setTransientPath(new TransientPath());
+        return true;
+    }
+
+    @Override
+    public boolean isAwaited(UUID uuid) {
+        return awaited.containsKey(uuid);
+    }
+
+    @Override
+    public boolean isValid(UUID uuid) {
+        Ref<EntityStore> ref = refs.get(uuid);
+        return ref != null && ref.isValid();
+    }
+
+    @Override
+    public Vector3d getPosition(UUID uuid) {
+        Ref<EntityStore> ref = refs.get(uuid);
+        if (ref == null || !ref.isValid()) return null;
+        TransformComponent transform = store().getComponent(ref, TransformComponent.getComponentType());
+        return transform != null ? transform.getPosition() : null;
+    }
+
+    @Override
+    public int setPath(Iterable<UUID> uuids, List<Vector3d> waypoints) {
+        // One path instance is shared by every member — the engine only reads it
+        TransientPath path = new TransientPath();
+        for (Vector3d wp : waypoints) {
+            path.addWaypoint(wp, VecMath.ZERO_ROTATION);
+        }
+
+        Store<EntityStore> store = store();
+        int assigned = 0;
+        for (UUID uuid : uuids) {
+            Ref<EntityStore> ref = refs.get(uuid);
+            if (ref == null || !ref.isValid()) continue;
+            try {
+                NPCEntity npc = store.getComponent(ref, NPCEntity.getComponentType());
+                if (npc != null) {
+                    npc.getPathManager().setTransientPath(path);
+                    assigned++;
+                }
+            } catch (Exception e) {
+                LOG.error(() -> "[PATH] Failed to assign path to " + uuid + ": " + e.getMessage());
+            }
+        }
+        return assigned;
+    }
+
+    @Override
+    public boolean remove(UUID uuid) {
+        awaited.remove(uuid);
+        discarded.remove(uuid);
+        pool.untrack(uuid);
+        Ref<EntityStore> ref = refs.remove(uuid);
+        if (ref == null || !ref.isValid()) return false;
+        // Failures propagate — the despawn queue logs them and moves on
+        store().removeEntity(ref, RemoveReason.REMOVE);
+        return true;
+    }
+
+    /**
+     * Takes the entity out of play: parks it in the pool when it is {@code recyclable} and
+     * there is room, otherwise removes it through the tick's command buffer, so the removal is
+     * applied with the rest of the system's structural changes instead of mid-iteration.
+     *
+     * @param recyclable the entity despawned out of every player's range — see {@link DespawnQueue}
+     * @return true if a live entity was parked or queued for removal
+     */
+    public boolean removeVia(CommandBuffer<EntityStore> commandBuffer, UUID uuid, boolean recyclable) {
+        Ref<EntityStore> ref = refs.get(uuid);
+        if (ref == null || !ref.isValid()) {
+            forget(uuid);
+            return false;
+        }
+        if (recyclable && pool.offer(uuid, currentTimeMillis())) {
+            if (park(store(), ref)) return true;
+            pool.untrack(uuid);
+        }
+        forget(uuid);
+        commandBuffer.removeEntity(ref, RemoveReason.REMOVE);
+        return true;
+    }
+
+    /** Removes entities parked past the idle timeout through the command buffer, a few per tick. */
+    public int evictIdle(CommandBuffer<EntityStore> commandBuffer, long tick) {
+        return pool.evictIdle(tick, currentTimeMillis(), uuid -> {
+            Ref<EntityStore> ref = refs.remove(uuid);
+            if (ref != null && ref.isValid()) commandBuffer.removeEntity(ref, RemoveReason.REMOVE);
+        });
+    }
+
+    /** Removes every parked entity now — for shutdown, after the despawn queue is drained. */
+    public int removeParked() {
+        int removed = 0;
+        for (UUID uuid : pool.drainParked()) {
+            if (remove(uuid)) removed++;
+        }
+        return removed;
+    }
+
+    /** Drops the index and pool without touching entities — the world is unloading with them. */
+    public void clear() {
+        refs.clear();
+        awaited.clear();
+        discarded.clear();
+        pool.clear();
+    }
+
+    // --- Snapshot reconciliation (world thread) ---
+
+    /** Waits for the entities of zombies restored from a snapshot, by UUID, with the role each was spawned as. */
+    public void expect(Map<UUID, String> roles) {
+        awaited.putAll(roles);
+    }
+
+    /**
+     * Takes a handle to an entity found in the store. Only awaited entities are taken; they
+     * are indexed and pooled as if they had just been spawned here.
+     *
+     * @return true if the entity was awaited
+     */
+    public boolean adopt(UUID uuid, Ref<EntityStore> ref) {
+        String role = awaited.remove(uuid);
+        if (role == null) return false;
+        refs.put(uuid, ref);
+        pool.track(uuid, role);
+        return true;
+    }
+
+    /**
+     * Waits for entities the snapshot listed as let go of — parked or queued for despawn. They
+     * are not tracked again, only found so they can be removed.
+     */
+    public void expectDiscarded(Collection<UUID> uuids) {
+        discarded.addAll(uuids);
+        trimDiscarded();
+    }
+
+    /**
+     * As {@link #adopt}, for an entity awaited through {@link #expectDiscarded}: it is indexed,
+     * but not pooled, so the caller can despawn it.
+     *
+     * @return true if the entity was awaited as discarded
+     */
+    public boolean adoptDiscarded(UUID uuid, Ref<EntityStore> ref) {
+        if (!discarded.remove(uuid)) return false;
+        refs.put(uuid, ref);
+        return true;
+    }
+
+    public int getAwaitedCount() {
+        return awaited.size();
+    }
+
+    public int getDiscardedCount() {
+        return discarded.size();
+    }
+
+    /** Adds every discarded entity not found yet to {@code out} — for a snapshot. */
+    public void collectDiscarded(Collection<UUID> out) {
+        out.addAll(discarded);
+    }
+
+    /**
+     * Every tracked entity still awaited, no longer waited for as a zombie to resume. Its chunk
+     * may just not have loaded yet, so each one is kept as discarded — despawned if it turns up.
+     */
+    public Collection<UUID> drainAwaited() {
+        Collection<UUID> missing = new ArrayList<>(awaited.keySet());
+        awaited.clear();
+        discarded.addAll(missing);
+        trimDiscarded();
+        return missing;
+    }
+
+    private void trimDiscarded() {
+        Iterator<UUID> oldest = discarded.iterator();
+        while (discarded.size() > MAX_DISCARDED && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    public EntityPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void forget(UUID uuid) {
+        awaited.remove(uuid);
+        discarded.remove(uuid);
+        refs.remove(uuid);
+        pool.untrack(uuid);
+    }
+
+    // --- BlockAccess ---
+
+    @Override
+    public boolean isEmpty(int x, int y, int z) {
+        return world.getBlockType(x, y, z) == BlockType.EMPTY;
+    }
+
+    @Override
+    public void breakBlock(int x, int y, int z) {
+        world.breakBlock(x, y, z, 0);
+    }
+
+    // --- PlayerAccess ---
+
+    @Override
+    public Vector3d findNearest(Vector3d reference) {
+        return PlayerFinder.findNearest(store(), reference);
+    }
+
+    @Override
+    public void collectPositions(List<Vector3d> out) {
+        Store<EntityStore> store = store();
+        for (PlayerRef playerRef : world.getPlayerRefs()) {
+            var ref = playerRef.getReference();
+            if (ref == null || !ref.isValid() || ref.getStore() != store) continue;
+            TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
+            if (transform != null) out.add(transform.getPosition());
+        }
+    }
+
+    @Override
+    public Vector3d positionOf(UUID playerId) {
+        TransformComponent transform = playerTransform(playerId);
+        return transform != null ? transform.getPosition() : null;
+    }
+
+    @Override
+    public double yawOf(UUID playerId) {
+        TransformComponent transform = playerTransform(playerId);
+        return transform != null ? transform.getRotation().y : Double.NaN;
+    }
+
+    private TransformComponent playerTransform(UUID playerId) {
+        PlayerRef playerRef = Universe.get().getPlayer(playerId);
+        if (playerRef == null) return null;
+        var ref = playerRef.getReference();
+        if (ref == null || !ref.isValid()) return null;
+
+        // Only this world's players — a ref from another world is meaningless in this store
+        Store<EntityStore> store = store();
+        if (ref.getStore() != store) return null;
+
+        return store.getComponent(ref, TransformComponent.getComponentType());
+    }
+}
@@ -0,0 +1,38 @@
+package com.hylypto.zombie.world;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Player position queries. Must be called on the world thread.
+ */
+public interface PlayerAccess {
+
+    /**
+     * Position of the player nearest to {@code reference}, or null if no players are online.
+     * The returned vector may be the live component value — copy it before keeping it.
+     */
+    Vector3d findNearest(Vector3d reference);
+
+    /**
+     * Position of the given player, or null if they are offline or in another world.
+     * May be the live component value, like {@link #findNearest}.
+     */
+    Vector3d positionOf(UUID playerId);
+
+    /**
+     * Body yaw of the given player in degrees, in the same convention zombies are turned
+     * with, or NaN if they are offline, in another world, or the backend doesn't know.
+     */
+    default double yawOf(UUID playerId) {
+        return Double.NaN;
+    }
+
+    /**
+     * Appends the position of every player in this world to {@code out}.
+     * The vectors may be live component values — use them before the tick ends.
+     */
+    void collectPositions(List<Vector3d> out);
+}
@@ -0,0 +1,59 @@
+package com.hylypto.zombie.world;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seeded randomness for one world, split into named streams.
+ *
+ * Each stream is derived from the world seed and its name alone, so drawing more
+ * numbers from "patrol.route" never shifts what "horde.spawn" produces. Streams are
+ * not thread-safe — use them from the world thread.
+ */
+public final class WorldRandom {
+
+    private final long seed;
+    private final Map<String, SplittableRandom> streams = new ConcurrentHashMap<>();
+
+    public WorldRandom(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Randomness for one named world under a shared server seed, so worlds don't replay
+     * each other's streams while a single recorded seed still reproduces all of them.
+     */
+    public static WorldRandom forWorld(long seed, String worldName) {
+        return new WorldRandom(worldName == null ? seed : mix64(seed ^ mix64(worldName.hashCode())));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /** The named stream, created on first use. */
+    public SplittableRandom stream(String name) {
+        return streams.computeIfAbsent(name, n -> new SplittableRandom(mix64(seed ^ mix64(n.hashCode()))));
+    }
+
+    /** A version-4 style UUID drawn from the given stream. */
+    public static UUID nextUUID(SplittableRandom rng) {
+        long msb = (rng.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (rng.nextLong() & ~0xC000000000000000L) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /** A seed for when none is configured — logged by the caller so the run can be reproduced. */
+    public static long freshSeed() {
+        return mix64(System.nanoTime() ^ System.currentTimeMillis());
+    }
+
+    // Stafford variant 13 finalizer — same mix SplittableRandom uses internally
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
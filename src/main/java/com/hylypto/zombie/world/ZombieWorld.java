@@ -0,0 +1,36 @@
+package com.hylypto.zombie.world;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+
+/**
+ * Everything the zombie package needs from a world: entities, blocks, players,
+ * a clock and a way to run work on the world thread.
+ *
+ * The server implementation is {@link HytaleZombieWorld}. The headless harness in
+ * the {@code sim} source set provides an in-memory one so the patrol state machine
+ * can be driven without a server.
+ */
+public interface ZombieWorld {
+
+    EntityAccess entities();
+
+    BlockAccess blocks();
+
+    PlayerAccess players();
+
+    /** Seeded per-world randomness — see {@link WorldRandom}. */
+    WorldRandom random();
+
+    /** World clock used for state timeouts and tick deduplication. */
+    long currentTimeMillis();
+
+    /** Runs the task on the world thread. {@code label} names it in watchdog reports. */
+    void execute(String label, Runnable task);
+
+    // --- Debug drawing (no-op where there is nothing to draw on) ---
+
+    default void drawSphere(Vector3d center, Vector3f color, double radius, float durationSeconds) {}
+
+    default void drawArrow(Vector3d from, Vector3d to, Vector3f color, float durationSeconds) {}
+}
@@ -0,0 +1,345 @@
+package com.hylypto.sim;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hylypto.api.log.HylyptoLog;
+import com.hylypto.api.log.LogConfig;
+import com.hylypto.api.metrics.HylyptoMetrics;
+import com.hylypto.zombie.PatrolConfig;
+import com.hylypto.zombie.PatrolManager;
+import com.hylypto.zombie.PatrolSettings;
+import com.hylypto.zombie.despawn.DespawnConfig;
+import com.hylypto.zombie.despawn.DespawnQueue;
+import com.hylypto.zombie.governor.GovernorConfig;
+import com.hylypto.zombie.governor.SpawnGovernor;
+import com.hylypto.zombie.noise.NoiseConfig;
+import com.hylypto.zombie.noise.NoiseGrid;
+import com.hylypto.zombie.debug.DebugConfig;
+import com.hylypto.zombie.debug.DebugOverlay;
+import com.hylypto.zombie.motion.MotionConfig;
+import com.hylypto.zombie.motion.PlayerMotionTracker;
+import com.hylypto.zombie.nav.NavConfig;
+import com.hylypto.zombie.nav.NavService;
+import com.hylypto.zombie.spawn.SpawnConfig;
+import com.hylypto.zombie.spawn.SpawnReservoir;
+import com.hylypto.zombie.path.PathConfig;
+import com.hylypto.zombie.path.PathService;
+import com.hylypto.zombie.population.PlayerPresence;
+import com.hylypto.zombie.population.PopulationConfig;
+import com.hylypto.zombie.population.PopulationManager;
+import com.hylypto.zombie.replay.DecisionLog;
+import com.hylypto.zombie.replay.DecisionRecorder;
+import com.hylypto.zombie.replay.DecisionReplayer;
+import com.hylypto.zombie.state.PatrolState;
+import com.hylypto.zombie.terrain.TerrainConfig;
+import com.hylypto.zombie.terrain.TerrainSnapshots;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Headless stress run of the patrol state machine.
+ *
+ * Keeps {@code --groups} patrols alive around {@code --players} simulated players and
+ * advances a {@link SimWorld} in fixed steps. Only PatrolManager work (group ticks and the
+ * world tasks they queue) is measured; moving the simulated entities is not.
+ *
+ * <pre>
+ * ./gradlew runSim --args="--groups=2000 --players=100 --seconds=120"
+ * </pre>
+ *
+ * Options: {@code --groups --players --group-size --seconds --tick-ms --seed
+ * --kill-rate} (deaths per zombie per second) {@code --report-every} (simulated seconds per row)
+ * {@code --player-cap --region-cap} (population caps; high by default so they don't throttle the run)
+ * {@code --target-tick-ms} (enables the spawn governor, fed with the measured PatrolManager time per tick)
+ * {@code --despawn-budget} (queued removals applied per tick)
+ * {@code --noise-rate} (gunshots per player per minute, emitted into the sound grid; off by default)
+ * {@code --paths} ({@code false} skips path searches; they run inline on the tick thread so they count toward tick time)
+ * {@code --nav} ({@code false} skips the navigation graph, so routes come from surface scans; also built inline)
+ * {@code --spawn-points} ({@code false} scans for every spawn point instead of keeping a reservoir per player)
+ * {@code --formation} (wedge, column, blob, or none for every member walking the route)
+ * {@code --zombie-speed} (blocks per second; players walk at 4.3 and sprint at 9)
+ * {@code --motion} ({@code false} aims chasing groups at players rather than ahead of them)
+ * {@code --surround-radius} (ring chasing members spread onto around the player; 0 sends them all to its point)
+ * {@code --overlay} ({@code true} has every player watch the debug overlay; shapes are counted, not drawn)
+ * {@code --record=<file>} / {@code --replay=<file>} (decision recording; replay takes the seed from the file).
+ * Runs with the same seed and options are identical.
+ */
+public final class PatrolStressScenario {
+
+    private static final double PLAYER_SPACING = 400.0;
+    private static final double PLAYER_ROAM_RADIUS = 60.0;
+    private static final double DEFAULT_ZOMBIE_SPEED = 3.5;
+    private static final double GUNSHOT_LOUDNESS = 80.0;
+    private static final double GUNSHOT_DECAY_PER_SECOND = 20.0;
+
+    private PatrolStressScenario() {}
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = parseArgs(args);
+        int targetGroups = intOpt(opts, "groups", 2000);
+        int playerCount = intOpt(opts, "players", 100);
+        int groupSize = intOpt(opts, "group-size", 5);
+        int seconds = intOpt(opts, "seconds", 120);
+        int tickMillis = intOpt(opts, "tick-ms", 100);
+        long seed = Long.parseLong(opts.getOrDefault("seed", "1"));
+        double zombieSpeed = Double.parseDouble(opts.getOrDefault("zombie-speed", String.valueOf(DEFAULT_ZOMBIE_SPEED)));
+        double killRate = Double.parseDouble(opts.getOrDefault("kill-rate", "0.002"));
+        int reportEvery = intOpt(opts, "report-every", 1);
+        int playerCap = intOpt(opts, "player-cap", 1000);
+        int regionCap = intOpt(opts, "region-cap", 1000);
+        String targetTick = opts.get("target-tick-ms");
+        double noiseRate = Double.parseDouble(opts.getOrDefault("noise-rate", "0"));
+        PathConfig pathConfig = new PathConfig();
+        pathConfig.enabled = Boolean.parseBoolean(opts.getOrDefault("paths", "true"));
+        NavConfig navConfig = new NavConfig();
+        navConfig.enabled = Boolean.parseBoolean(opts.getOrDefault("nav", "true"));
+        MotionConfig motionConfig = new MotionConfig();
+        motionConfig.enabled = Boolean.parseBoolean(opts.getOrDefault("motion", "true"));
+        motionConfig.chaserSpeed = zombieSpeed;
+        SpawnConfig spawnConfig = new SpawnConfig();
+        spawnConfig.enabled = Boolean.parseBoolean(opts.getOrDefault("spawn-points", "true"));
+        boolean overlayOn = Boolean.parseBoolean(opts.getOrDefault("overlay", "false"));
+        DespawnConfig despawnConfig = new DespawnConfig();
+        despawnConfig.maxRemovalsPerTick = intOpt(opts, "despawn-budget", despawnConfig.maxRemovalsPerTick);
+
+        // Per-group INFO logging would dominate the measurement
+        LogConfig logConfig = new LogConfig();
+        logConfig.defaultLevel = "WARNING";
+        logConfig.flightBufferEnabled = false;
+        HylyptoLog.configure(logConfig);
+
+        DecisionLog decisions = DecisionLog.OFF;
+        if (opts.containsKey("replay")) {
+            decisions = DecisionReplayer.load(Path.of(opts.get("replay")));
+            seed = decisions.getSeed();
+        } else if (opts.containsKey("record")) {
+            decisions = new DecisionRecorder(Path.of(opts.get("record")), seed, 64 * 1024);
+        }
+
+        SimWorld world = new SimWorld(seed, zombieSpeed);
+        PlayerPresence presence = new PlayerPresence();
+        int side = (int) Math.ceil(Math.sqrt(playerCount));
+        for (int i = 0; i < playerCount; i++) {
+            double x = (i % side) * PLAYER_SPACING;
+            double z = (i / side) * PLAYER_SPACING;
+            SimPlayer player = new SimPlayer(x, z, PLAYER_ROAM_RADIUS, world.simRandom());
+            world.addPlayer(player);
+            presence.join(player.id);
+        }
+
+        PopulationConfig populationConfig = new PopulationConfig();
+        populationConfig.maxZombiesPerPlayer = playerCap;
+        populationConfig.maxZombiesPerRegion = regionCap;
+        PopulationManager population = new PopulationManager(populationConfig, presence);
+
+        GovernorConfig governorConfig = new GovernorConfig();
+        governorConfig.enabled = targetTick != null;
+        // Work time per tick is fed here, not the interval — pick the period that puts the target at the option
+        if (targetTick != null) governorConfig.tickRate = governorConfig.targetRatio * 1000.0 / Double.parseDouble(targetTick);
+        SpawnGovernor governor = new SpawnGovernor("sim", governorConfig);
+
+        PatrolConfig patrolConfig = new PatrolConfig();
+        patrolConfig.formation = opts.getOrDefault("formation", patrolConfig.formation);
+        patrolConfig.surroundRadius = Double.parseDouble(
+                opts.getOrDefault("surround-radius", String.valueOf(patrolConfig.surroundRadius)));
+        PatrolSettings settings = PatrolSettings.compile(patrolConfig);
+        DespawnQueue despawns = new DespawnQueue(despawnConfig);
+        NoiseGrid noise = new NoiseGrid(new NoiseConfig());
+        // Searches complete on the calling thread so runs stay reproducible
+        TerrainSnapshots terrain = new TerrainSnapshots(new TerrainConfig());
+        NavService nav = new NavService(navConfig, terrain, Runnable::run);
+        PathService paths = new PathService(pathConfig, terrain, Runnable::run);
+        SpawnReservoir reservoir = new SpawnReservoir(spawnConfig, presence);
+        PlayerMotionTracker motion = new PlayerMotionTracker(motionConfig);
+        PatrolManager manager = new PatrolManager(() -> settings, () -> world, population, governor,
+                despawns, noise, terrain, nav, reservoir, motion, paths, decisions.forWorld("sim"));
+        DebugOverlay overlay = new DebugOverlay(new DebugConfig());
+        if (overlayOn) {
+            for (SimPlayer player : world.getPlayers()) {
+                overlay.watch(player.id, 0);
+            }
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        boolean allocSupported = threads.isThreadAllocatedMemorySupported();
+        if (allocSupported) threads.setThreadAllocatedMemoryEnabled(true);
+
+        int ticksPerSecond = Math.max(1, 1000 / tickMillis);
+        int spawnPerSecond = Math.max(1, targetGroups / 10);
+        double killChance = killRate * tickMillis / 1000.0;
+        double gunshotChance = noiseRate / 60.0 * tickMillis / 1000.0;
+        int stateCount = PatrolState.values().length;
+        int[] peakByState = new int[stateCount];
+        long[] secondNanos = new long[seconds];
+        long[] secondBytes = new long[seconds];
+        List<UUID> killed = new ArrayList<>();
+        long transitionsAtStart = HylyptoMetrics.PATROL_STATE_TRANSITIONS.sum();
+
+        System.out.printf("Patrol stress: groups=%d players=%d groupSize=%d seconds=%d tick=%dms seed=%d%n",
+                targetGroups, playerCount, groupSize, seconds, tickMillis, seed);
+        System.out.printf("%6s %8s %9s %9s %12s %6s %6s  %s%n",
+                "sec", "groups", "zombies", "tick-ms", "alloc-KB/s", "trans", "scale",
+                Arrays.toString(PatrolState.values()));
+
+        long wallStart = System.nanoTime();
+        long tickNumber = 0;
+        long windowNanos = 0, windowBytes = 0, lastTransitions = transitionsAtStart;
+
+        for (int sec = 0; sec < seconds; sec++) {
+            long nanos = 0;
+            long bytes = 0;
+
+            for (int t = 0; t < ticksPerSecond; t++) {
+                world.advance(tickMillis);
+
+                // Deaths reach PatrolManager the way PatrolDeathSystem reports them
+                killed.clear();
+                world.killRandom(killChance, killed);
+
+                // Gunfire arrives the way a NoiseEvent would — on the world thread, before the tick
+                if (gunshotChance > 0) {
+                    for (SimPlayer player : world.getPlayers()) {
+                        if (world.simRandom().nextDouble() < gunshotChance) {
+                            Vector3d p = player.position;
+                            noise.emit(p.x, p.y, p.z, GUNSHOT_LOUDNESS, GUNSHOT_DECAY_PER_SECOND,
+                                    world.currentTimeMillis());
+                        }
+                    }
+                }
+
+                // Top up the population, staggered so spawns don't all land on one tick
+                int missing = targetGroups - manager.getActiveGroupCount();
+                int toSpawn = t == 0 ? Math.min(missing, spawnPerSecond) : 0;
+
+                long allocBefore = allocSupported ? threads.getCurrentThreadAllocatedBytes() : 0;
+                long start = System.nanoTime();
+
+                for (UUID uuid : killed) {
+                    manager.onZombieDeath(uuid);
+                }
+                for (int i = 0; i < toSpawn; i++) {
+                    manager.spawnPatrol(groupSize, true);
+                }
+                population.refreshIfDue(world);
+                manager.tickAll();
+                world.drainTasks();
+                noise.propagate(world.blocks(), world.currentTimeMillis());
+                nav.onWorldTick(world.players(), world.currentTimeMillis());
+                paths.onWorldTick(world.blocks());
+                terrain.onWorldTick(world.blocks(), governor.scale());
+                reservoir.refill(world, governor.scale());
+                motion.sample(presence.online(), world.players(), world.currentTimeMillis());
+                overlay.onWorldTick(world, manager, world.currentTimeMillis());
+                despawns.drain(tickNumber++, (uuid, recyclable) -> world.entities().remove(uuid));
+
+                long tickNanos = System.nanoTime() - start;
+                governor.recordTick(tickNanos);
+                nanos += tickNanos;
+                if (allocSupported) bytes += threads.getCurrentThreadAllocatedBytes() - allocBefore;
+            }
+
+            secondNanos[sec] = nanos;
+            secondBytes[sec] = bytes;
+            windowNanos += nanos;
+            windowBytes += bytes;
+
+            int[] byState = manager.countGroupsByState();
+            for (int s = 0; s < stateCount; s++) {
+                peakByState[s] = Math.max(peakByState[s], byState[s]);
+            }
+
+            if ((sec + 1) % reportEvery == 0) {
+                long transitions = HylyptoMetrics.PATROL_STATE_TRANSITIONS.sum();
+                System.out.printf("%6d %8d %9d %9.2f %12d %6d %6.2f  %s%n",
+                        sec + 1, manager.getActiveGroupCount(), manager.getTotalPatrolZombies(),
+                        windowNanos / 1e6 / reportEvery, windowBytes / 1024 / reportEvery,
+                        transitions - lastTransitions, governor.scale(), Arrays.toString(byState));
+                windowNanos = 0;
+                windowBytes = 0;
+                lastTransitions = transitions;
+            }
+        }
+
+        long wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
+        long[] sortedNanos = secondNanos.clone();
+        Arrays.sort(sortedNanos);
+        long totalBytes = Arrays.stream(secondBytes).sum();
+
+        System.out.println();
+        System.out.printf("Simulated %ds in %dms wall%n", seconds, wallMillis);
+        System.out.printf("Tick time per simulated second: mean=%.2fms p50=%.2fms p99=%.2fms max=%.2fms%n",
+                Arrays.stream(secondNanos).average().orElse(0) / 1e6,
+                percentile(sortedNanos, 0.50) / 1e6,
+                percentile(sortedNanos, 0.99) / 1e6,
+                sortedNanos.length > 0 ? sortedNanos[sortedNanos.length - 1] / 1e6 : 0);
+        if (allocSupported) {
+            System.out.printf("Allocation per simulated second: mean=%dKB total=%dMB%n",
+                    totalBytes / Math.max(1, seconds) / 1024, totalBytes / (1024 * 1024));
+        } else {
+            System.out.println("Allocation: per-thread allocation counters not supported by this JVM");
+        }
+        System.out.printf("State transitions: %d  block hits: %d  blocks broken: %d  noise sources: %d  noise reactions: %d%n",
+                HylyptoMetrics.PATROL_STATE_TRANSITIONS.sum() - transitionsAtStart, HylyptoMetrics.BLOCK_HITS.sum(),
+                world.getBlocksBroken(),
+                HylyptoMetrics.NOISE_SOURCES_EMITTED.sum(), HylyptoMetrics.NOISE_REACTIONS.sum());
+        System.out.printf("Path requests: %d  cache hits: %d  found: %d  failed: %d  terrain sections: %d%n",
+                HylyptoMetrics.PATH_REQUESTS.sum(), HylyptoMetrics.PATH_CACHE_HITS.sum(),
+                HylyptoMetrics.PATHS_FOUND.sum(), HylyptoMetrics.PATHS_FAILED.sum(),
+                HylyptoMetrics.TERRAIN_SECTIONS_CAPTURED.sum());
+        System.out.printf("Nav graph: %d nodes %d edges  tiles built: %d  routes from graph: %d  scanned: %d%n",
+                nav.getGraph().nodeCount(), nav.getGraph().edgeCount(), HylyptoMetrics.NAV_TILES_BUILT.sum(),
+                HylyptoMetrics.NAV_ROUTES_FROM_GRAPH.sum(), HylyptoMetrics.NAV_ROUTES_FALLBACK.sum());
+        System.out.printf("Chase repaths: %d  led ahead of a moving player: %d%n",
+                HylyptoMetrics.CHASE_REPATHS.sum(), HylyptoMetrics.CHASE_INTERCEPTS.sum());
+        System.out.printf("Spawn points: checked %d  taken %d  stale %d  missed %d  reserved %d%n",
+                HylyptoMetrics.SPAWN_POINTS_CHECKED.sum(), HylyptoMetrics.SPAWN_POINTS_TAKEN.sum(),
+                HylyptoMetrics.SPAWN_POINTS_STALE.sum(), HylyptoMetrics.SPAWN_POINTS_MISSED.sum(),
+                reservoir.getReservedCount());
+        if (overlayOn) {
+            System.out.printf("Debug overlay shapes drawn: %d  left unchanged: %d%n",
+                    HylyptoMetrics.DEBUG_SHAPES_DRAWN.sum(), HylyptoMetrics.DEBUG_SHAPES_SKIPPED.sum());
+        }
+        System.out.println("Peak groups per state:");
+        for (PatrolState state : PatrolState.values()) {
+            System.out.printf("  %-11s %d%n", state, peakByState[state.ordinal()]);
+        }
+        if (decisions instanceof DecisionReplayer replayer) {
+            System.out.printf("Replay divergences: %d%n", replayer.getDivergenceCount());
+        }
+        decisions.close();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return opts;
+    }
+
+    private static int intOpt(Map<String, String> opts, String name, int def) {
+        String value = opts.get(name);
+        return value != null ? Integer.parseInt(value) : def;
+    }
+}
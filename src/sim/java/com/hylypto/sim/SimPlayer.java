@@ -0,0 +1,63 @@
+package com.hylypto.sim;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * A simulated player: walks in a random direction, turning now and then, and
+ * occasionally sprints off so chasing patrols lose track and fall back to SEARCHING.
+ */
+final class SimPlayer {
+
+    private static final double WALK_SPEED = 4.3;
+    private static final double SPRINT_SPEED = 9.0;
+    private static final double TURN_CHANCE_PER_SECOND = 0.2;
+    private static final double SPRINT_CHANCE_PER_SECOND = 0.02;
+    private static final double SPRINT_SECONDS = 8.0;
+
+    final UUID id;
+    final Vector3d position;
+    private final double homeX;
+    private final double homeZ;
+    private final double roamRadius;
+    private double heading;
+    private double sprintLeft;
+
+    SimPlayer(double x, double z, double roamRadius, SplittableRandom rng) {
+        this.id = new UUID(rng.nextLong(), rng.nextLong());
+        this.position = new Vector3d(x, SimWorld.GROUND_Y + 1, z);
+        this.homeX = x;
+        this.homeZ = z;
+        this.roamRadius = roamRadius;
+        this.heading = rng.nextDouble() * 2 * Math.PI;
+    }
+
+    void step(double dt, SplittableRandom rng) {
+        if (sprintLeft > 0) {
+            sprintLeft -= dt;
+        } else if (rng.nextDouble() < SPRINT_CHANCE_PER_SECOND * dt) {
+            sprintLeft = SPRINT_SECONDS;
+        }
+        if (rng.nextDouble() < TURN_CHANCE_PER_SECOND * dt) {
+            heading = rng.nextDouble() * 2 * Math.PI;
+        }
+
+        // Steer back toward home once outside the roam radius
+        double fromHomeX = position.x - homeX;
+        double fromHomeZ = position.z - homeZ;
+        if (fromHomeX * fromHomeX + fromHomeZ * fromHomeZ > roamRadius * roamRadius) {
+            heading = Math.atan2(-fromHomeZ, -fromHomeX);
+        }
+
+        double speed = sprintLeft > 0 ? SPRINT_SPEED : WALK_SPEED;
+        position.x += Math.cos(heading) * speed * dt;
+        position.z += Math.sin(heading) * speed * dt;
+    }
+
+    /** Facing in degrees, in the yaw convention zombies are turned with. */
+    double yawDegrees() {
+        return Math.toDegrees(heading);
+    }
+}
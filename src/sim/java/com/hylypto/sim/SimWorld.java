@@ -0,0 +1,256 @@
+package com.hylypto.sim;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hylypto.zombie.world.BlockAccess;
+import com.hylypto.zombie.world.EntityAccess;
+import com.hylypto.zombie.world.PlayerAccess;
+import com.hylypto.zombie.world.WorldRandom;
+import com.hylypto.zombie.world.ZombieWorld;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * In-memory {@link ZombieWorld}: flat terrain, NPCs that walk their assigned path in
+ * straight lines, random-walking players and a manual clock. Single-threaded —
+ * {@link #execute} queues work until the runner calls {@link #drainTasks()}.
+ */
+public final class SimWorld implements ZombieWorld, EntityAccess, BlockAccess, PlayerAccess {
+
+    /** Top solid block of the flat terrain. */
+    static final int GROUND_Y = 64;
+
+    private static final double ARRIVAL_RADIUS = 0.5;
+
+    private final WorldRandom random;
+    private final SplittableRandom rng;
+    private final double zombieSpeed;
+    private final Map<UUID, SimEntity> entities = new LinkedHashMap<>();
+    private final List<SimPlayer> players = new ArrayList<>();
+    private final Map<UUID, SimPlayer> playersById = new HashMap<>();
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private long nowMillis;
+    private long blocksBroken;
+
+    SimWorld(long seed, double zombieSpeed) {
+        this.random = new WorldRandom(seed);
+        // Player movement, deaths and entity ids draw from their own stream, apart from patrol decisions
+        this.rng = random.stream("sim");
+        this.zombieSpeed = zombieSpeed;
+        this.nowMillis = 1_000_000L;
+    }
+
+    private static final class SimEntity {
+        final Vector3d position;
+        List<Vector3d> path = List.of();
+        int pathIndex;
+
+        SimEntity(Vector3d position) {
+            this.position = position;
+        }
+    }
+
+    // --- Runner hooks ---
+
+    void addPlayer(SimPlayer player) {
+        players.add(player);
+        playersById.put(player.id, player);
+    }
+
+    List<SimPlayer> getPlayers() {
+        return players;
+    }
+
+    SplittableRandom simRandom() {
+        return rng;
+    }
+
+    /** Advances the clock and moves every NPC and player by {@code dtMillis}. */
+    void advance(long dtMillis) {
+        nowMillis += dtMillis;
+        double dt = dtMillis / 1000.0;
+        for (SimPlayer player : players) {
+            player.step(dt, rng);
+        }
+        double stepDist = zombieSpeed * dt;
+        for (SimEntity entity : entities.values()) {
+            moveAlongPath(entity, stepDist);
+        }
+    }
+
+    /** Runs queued world tasks, including ones queued while draining. */
+    int drainTasks() {
+        int ran = 0;
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Kills each NPC with probability {@code chance}. Killed UUIDs are appended to {@code out}
+     * so the runner can report them the way the death systems do.
+     */
+    void killRandom(double chance, List<UUID> out) {
+        if (chance <= 0) return;
+        Iterator<Map.Entry<UUID, SimEntity>> it = entities.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, SimEntity> entry = it.next();
+            if (rng.nextDouble() < chance) {
+                it.remove();
+                out.add(entry.getKey());
+            }
+        }
+    }
+
+    int getEntityCount() {
+        return entities.size();
+    }
+
+    long getBlocksBroken() {
+        return blocksBroken;
+    }
+
+    private static void moveAlongPath(SimEntity entity, double stepDist) {
+        if (entity.pathIndex >= entity.path.size()) return;
+
+        Vector3d pos = entity.position;
+        Vector3d target = entity.path.get(entity.pathIndex);
+        double dx = target.x - pos.x;
+        double dz = target.z - pos.z;
+        double dist = Math.sqrt(dx * dx + dz * dz);
+        if (dist <= ARRIVAL_RADIUS) {
+            entity.pathIndex++;
+            return;
+        }
+        double t = Math.min(1.0, stepDist / dist);
+        pos.x += dx * t;
+        pos.z += dz * t;
+    }
+
+    // --- ZombieWorld ---
+
+    @Override
+    public EntityAccess entities() { return this; }
+
+    @Override
+    public BlockAccess blocks() { return this; }
+
+    @Override
+    public PlayerAccess players() { return this; }
+
+    @Override
+    public WorldRandom random() {
+        return random;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return nowMillis;
+    }
+
+    @Override
+    public void execute(String label, Runnable task) {
+        tasks.add(task);
+    }
+
+    // --- EntityAccess ---
+
+    @Override
+    public UUID spawn(String role, Vector3d position, Vector3f rotation) {
+        UUID uuid = new UUID(rng.nextLong(), rng.nextLong());
+        entities.put(uuid, new SimEntity(new Vector3d(position.x, position.y, position.z)));
+        return uuid;
+    }
+
+    @Override
+    public boolean isValid(UUID uuid) {
+        return entities.containsKey(uuid);
+    }
+
+    @Override
+    public Vector3d getPosition(UUID uuid) {
+        SimEntity entity = entities.get(uuid);
+        return entity != null ? entity.position : null;
+    }
+
+    @Override
+    public int setPath(Iterable<UUID> uuids, List<Vector3d> waypoints) {
+        int assigned = 0;
+        for (UUID uuid : uuids) {
+            SimEntity entity = entities.get(uuid);
+            if (entity == null) continue;
+            entity.path = waypoints;
+            entity.pathIndex = 0;
+            assigned++;
+        }
+        return assigned;
+    }
+
+    @Override
+    public boolean remove(UUID uuid) {
+        return entities.remove(uuid) != null;
+    }
+
+    @Override
+    public void forget(UUID uuid) {
+        // No handles to drop — entities are keyed by UUID already
+    }
+
+    // --- BlockAccess ---
+
+    @Override
+    public boolean isEmpty(int x, int y, int z) {
+        return y > GROUND_Y;
+    }
+
+    @Override
+    public void breakBlock(int x, int y, int z) {
+        blocksBroken++;
+    }
+
+    // --- PlayerAccess ---
+
+    @Override
+    public Vector3d findNearest(Vector3d reference) {
+        Vector3d nearest = null;
+        double best = Double.MAX_VALUE;
+        for (SimPlayer player : players) {
+            double d = reference.distanceTo(player.position);
+            if (d < best) {
+                best = d;
+                nearest = player.position;
+            }
+        }
+        return nearest;
+    }
+
+    @Override
+    public void collectPositions(List<Vector3d> out) {
+        for (SimPlayer player : players) {
+            out.add(player.position);
+        }
+    }
+
+    @Override
+    public Vector3d positionOf(UUID playerId) {
+        SimPlayer player = playersById.get(playerId);
+        return player != null ? player.position : null;
+    }
+
+    @Override
+    public double yawOf(UUID playerId) {
+        SimPlayer player = playersById.get(playerId);
+        return player != null ? player.yawDegrees() : Double.NaN;
+    }
+}